@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn;
+
+import edu.snu.dolphin.bsp.examples.ml.parameters.MaxIterations;
+import edu.snu.dolphin.dnn.allreduce.RingParameters.RingRank;
+import edu.snu.dolphin.dnn.data.BatchPrefetcher;
+import edu.snu.dolphin.dnn.layerparam.provider.AllReduceParameterProvider;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.dnn.util.NeuralNetworkProfiler;
+import edu.snu.dolphin.dnn.util.ValidationStats;
+import edu.snu.dolphin.dnn.util.Validator;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.task.Task;
+
+import javax.inject.Inject;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static edu.snu.dolphin.dnn.NeuralNetworkTask.*;
+
+/**
+ * Task for training a neural network when parameter gradients are all-reduced among Tasks.
+ * As in {@link GroupCommNeuralNetworkTask}, this Task keeps pushing empty batches if it finishes its iteration early,
+ * until all Tasks participating have finished the current iteration.
+ * The first Task in the ring logs the validation results of all Tasks.
+ */
+@TaskSide
+final class AllReduceNeuralNetworkTask implements Task {
+  private static final Logger LOG = Logger.getLogger(AllReduceNeuralNetworkTask.class.getName());
+
+  private final Validator crossValidator;
+  private final Validator trainingValidator;
+  private final BatchPrefetcher batchPrefetcher;
+  private final DataParallelTrainer trainer;
+  private final int maxIterations;
+  private final ModelWriter modelWriter;
+  private final NeuralNetworkProfiler profiler;
+  private final int rank;
+  private final AllReduceParameterProvider parameterProvider;
+
+  @Inject
+  AllReduceNeuralNetworkTask(final BatchPrefetcher batchPrefetcher,
+                             final NeuralNetwork neuralNetwork,
+                             final DataParallelTrainer trainer,
+                             @Parameter(MaxIterations.class) final int maxIterations,
+                             @Parameter(RingRank.class) final int rank,
+                             final AllReduceParameterProvider parameterProvider,
+                             final ModelWriter modelWriter,
+                             final NeuralNetworkProfiler profiler) {
+    this.batchPrefetcher = batchPrefetcher;
+    this.trainer = trainer;
+    this.maxIterations = maxIterations;
+    this.modelWriter = modelWriter;
+    this.profiler = profiler;
+    this.rank = rank;
+    this.trainingValidator = new Validator(neuralNetwork);
+    this.crossValidator = new Validator(neuralNetwork);
+    this.parameterProvider = parameterProvider;
+  }
+
+  @Override
+  public byte[] call(final byte[] bytes) throws Exception {
+    LOG.log(Level.INFO, "AllReduceNeuralNetworkTask.call() commencing....");
+
+    for (int i = 0; i < maxIterations; ++i) {
+      trainer.runIteration(batchPrefetcher.nextIteration(), trainingValidator, crossValidator);
+
+      // Push empty batches until all Tasks push empty batches,
+      // which means all Tasks have finished their iterations.
+      while (true) {
+        parameterProvider.push(0, null);
+
+        final LayerParameter[] layerParameters = parameterProvider.pull();
+        if (layerParameters.length == 0) {
+          break;
+        }
+      }
+
+      final Pair<ValidationStats, ValidationStats> validationStatsPair = parameterProvider.allReduceValidationStats(
+          trainingValidator.getValidationStats(), crossValidator.getValidationStats());
+      if (rank == 0) {
+        LOG.log(Level.INFO, generateIterationLog(validationStatsPair.getFirst(), validationStatsPair.getSecond(), i));
+      }
+      crossValidator.getValidationStats().reset();
+      trainingValidator.getValidationStats().reset();
+      profiler.report(i);
+    }
+
+    modelWriter.write();
+
+    LOG.log(Level.INFO, "AllReduceNeuralNetworkTask.call() terminating....");
+    return null;
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn;
+
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.NumTrainerThreads;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.layerparam.provider.ParameterProvider;
+import edu.snu.dolphin.dnn.layerparam.provider.PeriodicSyncParameterProvider;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.dnn.util.NeuralNetworkProfiler;
+import edu.snu.dolphin.dnn.util.Validator;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Trains a neural network with multiple threads in a single evaluator.
+ *
+ * Each thread holds a replica of the neural network, which shares the parameters of the others.
+ * Threads compute parameter gradients for disjoint batches concurrently, and the gradients are summed up
+ * by a tree reduction before they are pushed to the {@link ParameterProvider} once for all the batches.
+ * With a single thread, this is equivalent to {@link NeuralNetworkTask#runIteration}.
+ *
+ * If the parameter provider is a {@link PeriodicSyncParameterProvider}, it is synchronized at the end of
+ * every iteration, so that iterations end with synchronized parameters.
+ */
+@TaskSide
+public final class DataParallelTrainer {
+
+  private final NeuralNetwork neuralNetwork;
+  private final ParameterProvider parameterProvider;
+  private final int numThreads;
+
+  /**
+   * Replicas of the neural network, whose first element is the neural network itself.
+   */
+  private final NeuralNetwork[] replicas;
+
+  /**
+   * Threads that train the replicas, or {@code null} if a single thread is used.
+   */
+  private final ExecutorService threadPool;
+
+  private final NeuralNetworkProfiler profiler;
+  private final NeuralNetworkProfiler.Stat pushStat;
+  private final NeuralNetworkProfiler.Stat pullStat;
+  private final NeuralNetworkProfiler.Stat reduceStat;
+
+  @Inject
+  private DataParallelTrainer(final NeuralNetwork neuralNetwork,
+                              final ParameterProvider parameterProvider,
+                              @Parameter(NumTrainerThreads.class) final int numThreads,
+                              final NeuralNetworkProfiler profiler) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("The number of trainer threads must be positive: " + numThreads);
+    }
+    this.neuralNetwork = neuralNetwork;
+    this.parameterProvider = parameterProvider;
+    this.numThreads = numThreads;
+    this.profiler = profiler;
+    this.pushStat = profiler.getStat(NeuralNetwork.PUSH_STAT);
+    this.pullStat = profiler.getStat(NeuralNetwork.PULL_STAT);
+    this.reduceStat = profiler.getStat("gradient reduction");
+    this.replicas = new NeuralNetwork[numThreads];
+    this.replicas[0] = neuralNetwork;
+    for (int i = 1; i < numThreads; ++i) {
+      this.replicas[i] = neuralNetwork.newReplica();
+    }
+    this.threadPool = numThreads == 1 ? null : Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "nn-trainer");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Trains the neural network with the whole data set once.
+   * Training batches are processed in groups of as many batches as threads, and each group updates parameters once.
+   * With multiple threads, validation batches are validated after all training batches of the iteration.
+   * If the parameter provider synchronizes periodically, it is synchronized at the end of the iteration.
+   * @param dataSet the data set of pairs of an input and labels, flagged whether it is for validation or not.
+   * @param trainingValidator the validator for training batches.
+   * @param crossValidator the validator for validation batches.
+   */
+  public void runIteration(final Iterable<Pair<Pair<Matrix, int[]>, Boolean>> dataSet,
+                           final Validator trainingValidator,
+                           final Validator crossValidator) {
+    if (numThreads == 1) {
+      NeuralNetworkTask.runIteration(dataSet, neuralNetwork, trainingValidator, crossValidator);
+      synchronize();
+      return;
+    }
+
+    final List<Pair<Matrix, int[]>> trainingBatches = new ArrayList<>(numThreads);
+    final List<Pair<Matrix, int[]>> validationBatches = new ArrayList<>();
+    for (final Pair<Pair<Matrix, int[]>, Boolean> data : dataSet) {
+      final Matrix input = data.getFirst().getFirst();
+      final int[] labels = data.getFirst().getSecond();
+      final boolean isValidation = data.getSecond();
+
+      if (input.getColumns() != labels.length) {
+        throw new RuntimeException("The number of inputs is not equal to the number of labels");
+      }
+
+      if (isValidation) {
+        validationBatches.add(data.getFirst());
+      } else {
+        trainingBatches.add(data.getFirst());
+        if (trainingBatches.size() == numThreads) {
+          train(trainingBatches, trainingValidator);
+          trainingBatches.clear();
+        }
+      }
+    }
+    if (!trainingBatches.isEmpty()) {
+      train(trainingBatches, trainingValidator);
+    }
+
+    synchronize();
+
+    for (int i = 0; i < validationBatches.size(); i += numThreads) {
+      validate(validationBatches.subList(i, Math.min(i + numThreads, validationBatches.size())), crossValidator);
+    }
+  }
+
+  /**
+   * Sends the gradients or local updates held back by a periodically synchronizing parameter provider,
+   * and replaces the parameters of the replicas with the synchronized ones.
+   */
+  private void synchronize() {
+    if (!(parameterProvider instanceof PeriodicSyncParameterProvider)) {
+      return;
+    }
+    ((PeriodicSyncParameterProvider) parameterProvider).synchronize();
+    final LayerParameter[] parameters = parameterProvider.pull();
+    for (final NeuralNetwork replica : replicas) {
+      replica.setParameters(parameters);
+    }
+  }
+
+  /**
+   * Computes gradients for the given batches on the replicas concurrently, and updates parameters with their sum.
+   * The batches are validated with the outputs of the forward passes that computed the gradients.
+   * @param batches the batches, at most as many as the threads.
+   * @param trainingValidator the validator for training batches.
+   */
+  private void train(final List<Pair<Matrix, int[]>> batches, final Validator trainingValidator) {
+    final List<Callable<LayerParameter[]>> gradientTasks = new ArrayList<>(batches.size());
+    int batchSizeSum = 0;
+    for (int i = 0; i < batches.size(); ++i) {
+      final NeuralNetwork replica = replicas[i];
+      final Validator replicaValidator = new Validator(replica, trainingValidator.getValidationStats());
+      final Pair<Matrix, int[]> batch = batches.get(i);
+      batchSizeSum += batch.getFirst().getColumns();
+      gradientTasks.add(new Callable<LayerParameter[]>() {
+        @Override
+        public LayerParameter[] call() {
+          final LayerParameter[] gradients = replica.computeParameterGradients(batch.getFirst(), batch.getSecond());
+          replicaValidator.validateOutput(replica.getOutput(), batch.getSecond());
+          replicaValidator.recordLoss(batch.getSecond().length);
+          return gradients;
+        }
+      });
+    }
+    final List<LayerParameter[]> gradients = invokeAll(gradientTasks);
+
+    final long reduceStartTime = profiler.startTime();
+    final long reduceStartBytes = profiler.startBytes();
+    final LayerParameter[] gradientSum = reduce(gradients);
+    reduceStat.record(reduceStartTime, reduceStartBytes);
+
+    final long pushStartTime = profiler.startTime();
+    final long pushStartBytes = profiler.startBytes();
+    parameterProvider.push(batchSizeSum, gradientSum);
+    pushStat.record(pushStartTime, pushStartBytes);
+
+    final long pullStartTime = profiler.startTime();
+    final long pullStartBytes = profiler.startBytes();
+    final LayerParameter[] updatedParameters = parameterProvider.pull();
+    pullStat.record(pullStartTime, pullStartBytes);
+    for (final NeuralNetwork replica : replicas) {
+      replica.setParameters(updatedParameters);
+    }
+  }
+
+  /**
+   * Sums up the given gradients into the first element, adding pairs of gradients concurrently at each level.
+   * @param gradients the parameter gradients computed by each replica.
+   * @return the sum of the gradients.
+   */
+  private LayerParameter[] reduce(final List<LayerParameter[]> gradients) {
+    for (int stride = 1; stride < gradients.size(); stride *= 2) {
+      final List<Callable<Void>> addTasks = new ArrayList<>();
+      for (int i = 0; i + stride < gradients.size(); i += 2 * stride) {
+        final LayerParameter[] sum = gradients.get(i);
+        final LayerParameter[] addend = gradients.get(i + stride);
+        addTasks.add(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (int layer = 0; layer < sum.length; ++layer) {
+              sum[layer].getWeightParam().addi(addend[layer].getWeightParam());
+              sum[layer].getBiasParam().addi(addend[layer].getBiasParam());
+            }
+            return null;
+          }
+        });
+      }
+      invokeAll(addTasks);
+    }
+    return gradients.get(0);
+  }
+
+  /**
+   * Validates the given batches on the replicas concurrently.
+   * @param batches the batches, at most as many as the threads.
+   * @param validator the validator whose statistics the results are recorded to.
+   */
+  private void validate(final List<Pair<Matrix, int[]>> batches, final Validator validator) {
+    final List<Callable<Void>> validateTasks = new ArrayList<>(batches.size());
+    for (int i = 0; i < batches.size(); ++i) {
+      final Validator replicaValidator = new Validator(replicas[i], validator.getValidationStats());
+      final Pair<Matrix, int[]> batch = batches.get(i);
+      validateTasks.add(new Callable<Void>() {
+        @Override
+        public Void call() {
+          replicaValidator.validate(batch.getFirst(), batch.getSecond());
+          return null;
+        }
+      });
+    }
+    invokeAll(validateTasks);
+  }
+
+  /**
+   * Runs the given tasks on the thread pool and waits for all of them to finish.
+   * @param tasks the tasks to run.
+   * @param <T> the type of the results.
+   * @return the results of the tasks, in the same order.
+   */
+  private <T> List<T> invokeAll(final List<Callable<T>> tasks) {
+    try {
+      final List<T> results = new ArrayList<>(tasks.size());
+      for (final Future<T> future : threadPool.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (final InterruptedException e) {
+      throw new RuntimeException("InterruptedException while waiting for trainer threads", e);
+    } catch (final ExecutionException e) {
+      throw new RuntimeException("Exception in a trainer thread", e.getCause());
+    }
+  }
+}
@@ -15,19 +15,17 @@
  */
 package edu.snu.dolphin.dnn;
 
-import edu.snu.dolphin.bsp.core.DataParser;
 import edu.snu.dolphin.bsp.examples.ml.parameters.MaxIterations;
-import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.data.BatchPrefetcher;
 import edu.snu.dolphin.dnn.layerparam.provider.GroupCommParameterProvider;
 import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.dnn.util.NeuralNetworkProfiler;
 import edu.snu.dolphin.dnn.util.Validator;
 import org.apache.reef.annotations.audience.TaskSide;
-import org.apache.reef.io.network.util.Pair;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.task.Task;
 
 import javax.inject.Inject;
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,19 +44,26 @@ final class GroupCommNeuralNetworkTask implements Task {
 
   private final Validator crossValidator;
   private final Validator trainingValidator;
-  private final DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>> dataParser;
-  private final NeuralNetwork neuralNetwork;
+  private final BatchPrefetcher batchPrefetcher;
+  private final DataParallelTrainer trainer;
   private final int maxIterations;
+  private final ModelWriter modelWriter;
+  private final NeuralNetworkProfiler profiler;
   private final GroupCommParameterProvider parameterProvider;
 
   @Inject
-  GroupCommNeuralNetworkTask(final DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>> dataParser,
+  GroupCommNeuralNetworkTask(final BatchPrefetcher batchPrefetcher,
                              final NeuralNetwork neuralNetwork,
+                             final DataParallelTrainer trainer,
                              @Parameter(MaxIterations.class) final int maxIterations,
-                             final GroupCommParameterProvider parameterProvider) {
-    this.dataParser = dataParser;
-    this.neuralNetwork = neuralNetwork;
+                             final GroupCommParameterProvider parameterProvider,
+                             final ModelWriter modelWriter,
+                             final NeuralNetworkProfiler profiler) {
+    this.batchPrefetcher = batchPrefetcher;
+    this.trainer = trainer;
     this.maxIterations = maxIterations;
+    this.modelWriter = modelWriter;
+    this.profiler = profiler;
     this.trainingValidator = new Validator(neuralNetwork);
     this.crossValidator = new Validator(neuralNetwork);
     this.parameterProvider = parameterProvider;
@@ -68,9 +73,8 @@ final class GroupCommNeuralNetworkTask implements Task {
   public byte[] call(final byte[] bytes) throws Exception {
     LOG.log(Level.INFO, "GroupCommNeuralNetworkTask.call() commencing....");
 
-    final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet = dataParser.get();
     for (int i = 0; i < maxIterations; ++i) {
-      runIteration(dataSet, neuralNetwork, trainingValidator, crossValidator);
+      trainer.runIteration(batchPrefetcher.nextIteration(), trainingValidator, crossValidator);
 
       // Send dummy messages until the parameter server sends an empty message,
       // which means all Tasks have finished their iterations.
@@ -88,8 +92,11 @@ final class GroupCommNeuralNetworkTask implements Task {
           crossValidator.getValidationStats());
       crossValidator.getValidationStats().reset();
       trainingValidator.getValidationStats().reset();
+      profiler.report(i);
     }
 
+    modelWriter.write();
+
     LOG.log(Level.INFO, "GroupCommNeuralNetworkTask.call() terminating....");
     return null;
   }
@@ -18,6 +18,7 @@ package edu.snu.dolphin.dnn;
 import edu.snu.dolphin.bsp.examples.ml.parameters.MaxIterations;
 import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.*;
 import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.dnn.optimizer.Optimizer;
 import edu.snu.dolphin.dnn.util.ValidationStats;
 import org.apache.reef.io.network.group.api.operators.Broadcast;
 import org.apache.reef.io.network.group.api.operators.Reduce;
@@ -49,7 +50,7 @@ public final class GroupCommParameterServerTask implements Task {
   public static final String TASK_ID = GroupCommParameterServerTask.class.getSimpleName();
 
   private final LayerParameter[] layerParameters;
-  private final float stepsize;
+  private final Optimizer optimizer;
   private final int maxIterations;
   private final Broadcast.Sender<LayerParameter[]> layerParamBroadcastSender;
   private final Reduce.Receiver<Pair<Integer, LayerParameter[]>> parameterGradientReduceReceiver;
@@ -58,10 +59,10 @@ public final class GroupCommParameterServerTask implements Task {
   @Inject
   private GroupCommParameterServerTask(
       @Parameter(SerializedLayerConfigurationSet.class) final Set<String> serializedLayerConfigurationSet,
-      @Parameter(Stepsize.class) final float stepsize,
       @Parameter(MaxIterations.class) final int maxIterations,
       @Parameter(InputShape.class) final String inputShape,
       final ConfigurationSerializer configurationSerializer,
+      final Optimizer optimizer,
       final GroupCommClient groupCommClient,
       final Injector injector) {
 
@@ -77,7 +78,7 @@ public final class GroupCommParameterServerTask implements Task {
     final Configuration[] layerParamInitializerConfs =
         deserializeLayerConfSetToArray(configurationSerializer, serializedLayerConfigurationSet);
     this.layerParameters = getInitialLayerParameters(injector, layerParamInitializerConfs, inputShape);
-    this.stepsize = stepsize;
+    this.optimizer = optimizer;
     this.maxIterations = maxIterations;
   }
 
@@ -106,14 +107,8 @@ public final class GroupCommParameterServerTask implements Task {
       final int batchSizeSum = result.getFirst();
       final LayerParameter[] deltaLayerParameters = result.getSecond();
 
-      // apply the updates, regarding the size of the batch and the step size
-      for (int index = 0; index < layerParameters.length; ++index) {
-        final LayerParameter layerParameter = layerParameters[index];
-        final LayerParameter deltaLayerParameter = deltaLayerParameters[index];
-        final float factor = stepsize / batchSizeSum;
-        layerParameter.getWeightParam().subi(deltaLayerParameter.getWeightParam().muli(factor));
-        layerParameter.getBiasParam().subi(deltaLayerParameter.getBiasParam().muli(factor));
-      }
+      // apply the updates, regarding the size of the batch
+      optimizer.update(layerParameters, deltaLayerParameters, batchSizeSum);
 
       layerParamBroadcastSender.send(layerParameters);
     }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn;
+
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.ModelPath;
+import edu.snu.dolphin.dnn.data.ModelFile;
+import org.apache.hadoop.fs.Path;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the parameters of the neural network of a training task to a {@link ModelFile},
+ * named after the task in the directory given by {@link ModelPath}.
+ * Does nothing if no model path is given.
+ */
+@TaskSide
+final class ModelWriter {
+  private static final Logger LOG = Logger.getLogger(ModelWriter.class.getName());
+
+  private final ModelFile modelFile;
+  private final NeuralNetwork neuralNetwork;
+  private final String modelPath;
+  private final String taskId;
+
+  @Inject
+  ModelWriter(final ModelFile modelFile,
+              final NeuralNetwork neuralNetwork,
+              @Parameter(ModelPath.class) final String modelPath,
+              @Parameter(TaskConfigurationOptions.Identifier.class) final String taskId) {
+    this.modelFile = modelFile;
+    this.neuralNetwork = neuralNetwork;
+    this.modelPath = modelPath;
+    this.taskId = taskId;
+  }
+
+  /**
+   * Writes the current parameters of the neural network.
+   * @throws IOException if the model file cannot be written
+   */
+  void write() throws IOException {
+    if (modelPath.isEmpty()) {
+      return;
+    }
+    final String path = new Path(modelPath, taskId).toString();
+    modelFile.write(path, neuralNetwork.getParameters());
+    LOG.log(Level.INFO, "Wrote the trained model to {0}", path);
+  }
+}
@@ -21,6 +21,7 @@ import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.*;
 import edu.snu.dolphin.dnn.layers.LayerBase;
 import edu.snu.dolphin.dnn.layerparam.provider.ParameterProvider;
 import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.dnn.util.NeuralNetworkProfiler;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
@@ -33,6 +34,7 @@ import java.util.Set;
 import static edu.snu.dolphin.dnn.blas.MatrixUtils.createOutputMatrix;
 import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.getLayerInstances;
 import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.getShapeLength;
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.shapeFromString;
 import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.deserializeLayerConfSetToArray;
 
 /**
@@ -43,6 +45,12 @@ import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.deserializeLayerConfSe
  */
 public final class NeuralNetwork {
 
+  /**
+   * The names of the profiler stats for pushing gradients to and pulling parameters from the parameter provider.
+   */
+  static final String PUSH_STAT = "provider push";
+  static final String PULL_STAT = "provider pull";
+
   private final MatrixFactory matrixFactory;
 
   /**
@@ -67,20 +75,90 @@ public final class NeuralNetwork {
    */
   private final LayerParameter emptyLayerParam;
 
+  /**
+   * Workspace for training, which is reused across iterations to avoid allocating matrices for every mini-batch.
+   * The first element of activation buffers is the input, and (i + 1)-th element is the activation of i-th layer.
+   * The i-th element of error buffers is the error for the output of i-th layer.
+   * Each buffer is {@code null} until the corresponding layer produces it for the first time.
+   */
+  private final Matrix[] activationBuffers;
+  private final Matrix[] errorBuffers;
+  private final LayerParameter[] gradientBuffers;
+  private Matrix labelBuffer;
+
+  /**
+   * The injector, layer configurations and input shape the layers are built from, which are kept to build replicas.
+   */
+  private final Injector injector;
+  private final Configuration[] layerConfs;
+  private final String inputShape;
+
+  /**
+   * The profiler, which is shared by replicas, and its stats for each layer and the parameter provider.
+   */
+  private final NeuralNetworkProfiler profiler;
+  private final NeuralNetworkProfiler.Stat[] forwardStats;
+  private final NeuralNetworkProfiler.Stat[] backwardStats;
+  private final NeuralNetworkProfiler.Stat[] gradientStats;
+  private final NeuralNetworkProfiler.Stat pushStat;
+  private final NeuralNetworkProfiler.Stat pullStat;
+
   @Inject
   private NeuralNetwork(final MatrixFactory matrixFactory,
                         final ConfigurationSerializer configurationSerializer,
                         @Parameter(SerializedLayerConfigurationSet.class) final Set<String> serializedLayerConfSets,
                         final ParameterProvider parameterProvider,
                         @Parameter(InputShape.class) final String inputShape,
-                        final Injector injector) {
+                        final Injector injector,
+                        final NeuralNetworkProfiler profiler) {
+    this(matrixFactory, parameterProvider, injector,
+        deserializeLayerConfSetToArray(configurationSerializer, serializedLayerConfSets), inputShape, profiler);
+  }
+
+  private NeuralNetwork(final MatrixFactory matrixFactory,
+                        final ParameterProvider parameterProvider,
+                        final Injector injector,
+                        final Configuration[] layerConfs,
+                        final String inputShape,
+                        final NeuralNetworkProfiler profiler) {
     this.matrixFactory = matrixFactory;
     this.parameterProvider = parameterProvider;
-    final Configuration[] layerConfs =
-        deserializeLayerConfSetToArray(configurationSerializer, serializedLayerConfSets);
+    this.injector = injector;
+    this.layerConfs = layerConfs;
+    this.inputShape = inputShape;
     this.layers = getLayerInstances(injector, layerConfs, inputShape);
     this.emptyMatrix = matrixFactory.create(0);
     this.emptyLayerParam = LayerParameter.newEmptyInstance(matrixFactory);
+    this.activationBuffers = new Matrix[layers.length + 1];
+    this.errorBuffers = new Matrix[Math.max(layers.length - 1, 0)];
+    this.gradientBuffers = new LayerParameter[layers.length];
+    this.profiler = profiler;
+    this.forwardStats = new NeuralNetworkProfiler.Stat[layers.length];
+    this.backwardStats = new NeuralNetworkProfiler.Stat[layers.length];
+    this.gradientStats = new NeuralNetworkProfiler.Stat[layers.length];
+    for (int i = 0; i < layers.length; ++i) {
+      final String layerName = "layer " + i + " (" + layers[i].getClass().getSimpleName() + ") ";
+      forwardStats[i] = profiler.getStat(layerName + "forward");
+      backwardStats[i] = profiler.getStat(layerName + "backward");
+      gradientStats[i] = profiler.getStat(layerName + "gradient");
+    }
+    this.pushStat = profiler.getStat(PUSH_STAT);
+    this.pullStat = profiler.getStat(PULL_STAT);
+  }
+
+  /**
+   * Creates a replica of this neural network, whose layers share the parameters of this network.
+   * Replicas are used to compute parameter gradients for different inputs concurrently,
+   * because each network reuses its own buffers and layers keep intermediate results.
+   * The parameters of a replica should be updated with {@link #setParameters(LayerParameter[])},
+   * not by calling {@link #train(Matrix, Matrix)} on it.
+   * @return a new replica of this neural network.
+   */
+  public NeuralNetwork newReplica() {
+    final NeuralNetwork replica =
+        new NeuralNetwork(matrixFactory, parameterProvider, injector, layerConfs, inputShape, profiler);
+    replica.setParameters(getParameters());
+    return replica;
   }
 
   /**
@@ -102,29 +180,228 @@ public final class NeuralNetwork {
    * @param label the label matrix.
    */
   public void train(final Matrix input, final Matrix label) {
-    final Matrix[] activations = ArrayUtils.add(feedForward(input), 0, input); // inserts input at the beginning.
-    final Matrix[] errors = backPropagate(activations, label);
-    final LayerParameter[] parameterGradients = generateParameterGradients(activations, errors);
+    updateParameters(input.getColumns(), computeParameterGradients(input, label));
+  }
 
-    parameterProvider.push(input.getColumns(), parameterGradients);
+  /**
+   * Pushes the given gradients to the parameter provider, and replaces the parameters with the pulled ones.
+   * @param batchSize the number of inputs that the gradients were computed for.
+   * @param parameterGradients the parameter gradients for each layer.
+   */
+  private void updateParameters(final int batchSize, final LayerParameter[] parameterGradients) {
+    final long pushStartTime = profiler.startTime();
+    final long pushStartBytes = profiler.startBytes();
+    parameterProvider.push(batchSize, parameterGradients);
+    pushStat.record(pushStartTime, pushStartBytes);
+
+    final long pullStartTime = profiler.startTime();
+    final long pullStartBytes = profiler.startBytes();
+    final LayerParameter[] parameters = parameterProvider.pull();
+    pullStat.record(pullStartTime, pullStartBytes);
+    setParameters(parameters);
+  }
 
-    final LayerParameter[] updatedParameters = parameterProvider.pull();
+  /**
+   * Replaces the parameters of learnable layers.
+   * @param parameters the parameters of each layer, which are ignored for layers that are not learnable.
+   */
+  public void setParameters(final LayerParameter[] parameters) {
     for (int i = 0; i < layers.length; ++i) {
       if (layers[i].isLearnable()) {
-        layers[i].setLayerParameter(updatedParameters[i]);
+        layers[i].setLayerParameter(parameters[i]);
       }
     }
   }
 
+  /**
+   * Computes the parameter gradients of all layers for the given input and label, without updating parameters.
+   * The returned gradients are the buffers of this network, which are overwritten by the next call.
+   * @param input the input matrix.
+   * @param label the label matrix.
+   * @return the parameter gradients for each layer.
+   */
+  public LayerParameter[] computeParameterGradients(final Matrix input, final Matrix label) {
+    feedForwardInWorkspace(input);
+    backPropagateInWorkspace(label);
+    final LayerParameter[] parameterGradients = generateParameterGradientsInWorkspace();
+    activationBuffers[0] = null; // does not retain the input after training.
+    return parameterGradients;
+  }
+
+  /**
+   * Computes the parameter gradients of all layers for the given input and labels, without updating parameters.
+   * The returned gradients are the buffers of this network, which are overwritten by the next call.
+   * @param input the input matrix.
+   * @param labels the label array.
+   * @return the parameter gradients for each layer.
+   */
+  public LayerParameter[] computeParameterGradients(final Matrix input, final int[] labels) {
+    if (layers.length < 2 || !layers[layers.length - 1].acceptsLabelIndices()) {
+      return computeParameterGradients(input, createLabelMatrix(labels));
+    }
+    feedForwardInWorkspace(input);
+    backPropagateInWorkspace(labels);
+    final LayerParameter[] parameterGradients = generateParameterGradientsInWorkspace();
+    activationBuffers[0] = null; // does not retain the input after training.
+    return parameterGradients;
+  }
+
   /**
    * Trains neural network with the given input and label.
    * @param input the input matrix.
    * @param labels the label array.
    */
   public void train(final Matrix input, final int[] labels) {
-    final Matrix labelMatrix = createOutputMatrix(
-        matrixFactory, labels, getShapeLength(layers[layers.length - 1].getOutputShape()));
-    train(input, labelMatrix);
+    updateParameters(input.getColumns(), computeParameterGradients(input, labels));
+  }
+
+  /**
+   * @return the loss of the last mini-batch that this network was trained with,
+   *         or {@code NaN} if the output layer does not compute a loss.
+   */
+  public float getLoss() {
+    return layers.length == 0 ? Float.NaN : layers[layers.length - 1].getLoss();
+  }
+
+  /**
+   * @param labels the label array.
+   * @return the one-hot label matrix for the given labels, which reuses the label buffer of the workspace.
+   */
+  private Matrix createLabelMatrix(final int[] labels) {
+    final int outputLength = getShapeLength(layers[layers.length - 1].getOutputShape());
+    if (labelBuffer == null || labelBuffer.getRows() != outputLength || labelBuffer.getColumns() != labels.length) {
+      labelBuffer = createOutputMatrix(matrixFactory, labels, outputLength);
+    } else {
+      labelBuffer.fill(0.0f);
+      for (int i = 0; i < labels.length; ++i) {
+        labelBuffer.put(labels[i], i, 1.0f);
+      }
+    }
+    return labelBuffer;
+  }
+
+  /**
+   * Computes activations of all layers into the activation buffers of the workspace.
+   * @param input the input matrix for input layer.
+   */
+  private void feedForwardInWorkspace(final Matrix input) {
+    activationBuffers[0] = input;
+    for (int i = 0; i < layers.length; ++i) {
+      final long startTime = profiler.startTime();
+      final long startBytes = profiler.startBytes();
+      activationBuffers[i + 1] = activationBuffers[i + 1] == null
+          ? layers[i].feedForward(activationBuffers[i])
+          : layers[i].feedForward(activationBuffers[i], activationBuffers[i + 1]);
+      forwardStats[i].record(startTime, startBytes);
+    }
+  }
+
+  /**
+   * Computes errors from the output layer to the second layer into the error buffers of the workspace,
+   * as {@link #backPropagate(Matrix[], Matrix)} does.
+   * @param label the expected output.
+   */
+  private void backPropagateInWorkspace(final Matrix label) {
+    if (layers.length < 2) {
+      return;
+    }
+    final int lastLayerIndex = layers.length - 1;
+    errorBuffers[lastLayerIndex - 1] = backPropagateInWorkspace(
+        lastLayerIndex, label, activationBuffers[lastLayerIndex + 1], emptyMatrix);
+    backPropagateHiddenLayersInWorkspace();
+  }
+
+  /**
+   * Computes errors from the output layer to the second layer into the error buffers of the workspace,
+   * where the output layer computes its error directly from the given label indices.
+   * @param labels the index of the expected class for each input.
+   */
+  private void backPropagateInWorkspace(final int[] labels) {
+    final int lastLayerIndex = layers.length - 1;
+    final long startTime = profiler.startTime();
+    final long startBytes = profiler.startBytes();
+    errorBuffers[lastLayerIndex - 1] = layers[lastLayerIndex].backPropagate(
+        labels, activationBuffers[lastLayerIndex + 1], errorBuffers[lastLayerIndex - 1]);
+    backwardStats[lastLayerIndex].record(startTime, startBytes);
+    backPropagateHiddenLayersInWorkspace();
+  }
+
+  /**
+   * Computes errors from the layer before the output layer to the second layer into the error buffers
+   * of the workspace, once the error of the output layer is computed.
+   */
+  private void backPropagateHiddenLayersInWorkspace() {
+    for (int i = layers.length - 2; i >= 1; --i) {
+      errorBuffers[i - 1] =
+          backPropagateInWorkspace(i, activationBuffers[i], activationBuffers[i + 1], errorBuffers[i]);
+    }
+  }
+
+  private Matrix backPropagateInWorkspace(final int index, final Matrix input, final Matrix activation,
+                                          final Matrix nextError) {
+    final Matrix error = errorBuffers[index - 1];
+    final long startTime = profiler.startTime();
+    final long startBytes = profiler.startBytes();
+    final Matrix newError = error == null
+        ? layers[index].backPropagate(input, activation, nextError)
+        : layers[index].backPropagate(input, activation, nextError, error);
+    backwardStats[index].record(startTime, startBytes);
+    return newError;
+  }
+
+  /**
+   * Generates parameter gradients of all layers into the gradient buffers of the workspace.
+   * @return the gradient buffers.
+   */
+  private LayerParameter[] generateParameterGradientsInWorkspace() {
+    for (int i = 0; i < layers.length; ++i) {
+      if (!layers[i].isLearnable()) {
+        gradientBuffers[i] = emptyLayerParam;
+        continue;
+      }
+      final long startTime = profiler.startTime();
+      final long startBytes = profiler.startBytes();
+      if (gradientBuffers[i] == null) {
+        gradientBuffers[i] = layers[i].generateParameterGradient(activationBuffers[i], errorBuffers[i]);
+      } else {
+        gradientBuffers[i] = layers[i].generateParameterGradient(activationBuffers[i], errorBuffers[i],
+            gradientBuffers[i]);
+      }
+      gradientStats[i].record(startTime, startBytes);
+    }
+    return gradientBuffers;
+  }
+
+  /**
+   * @return the shape of an input instance of this network.
+   */
+  public int[] getInputShape() {
+    return shapeFromString(inputShape);
+  }
+
+  /**
+   * @return the activation of the output layer computed by the last call to the training methods
+   *         or {@link #predict(Matrix)}, which is overwritten by the next call.
+   */
+  public Matrix getOutput() {
+    return activationBuffers[layers.length];
+  }
+
+  /**
+   * Computes the output of this network for the given input, for inference.
+   * Unlike {@link #feedForward(Matrix)}, this reuses the activation buffers of the workspace
+   * and keeps nothing for back propagation, so the returned matrix is overwritten by the next call
+   * to this method or to the training methods.
+   * @param input the input matrix, each column of which is an input instance.
+   * @return the activation of the output layer.
+   */
+  public Matrix predict(final Matrix input) {
+    feedForwardInWorkspace(input);
+    activationBuffers[0] = null; // does not retain the input after inference.
+    for (final LayerBase layer : layers) {
+      layer.releaseCache(); // nor what the layers kept for back propagation.
+    }
+    return activationBuffers[layers.length];
   }
 
   /**
@@ -155,7 +432,10 @@ public final class NeuralNetwork {
     Matrix activation = input;
 
     for (int i = begin; i <= end; ++i) {
+      final long startTime = profiler.startTime();
+      final long startBytes = profiler.startBytes();
       activation = layers[i].feedForward(activation);
+      forwardStats[i].record(startTime, startBytes);
       activations[i - begin] = activation;
     }
 
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn;
+
+import edu.snu.dolphin.dnn.allreduce.RingChannel;
+import edu.snu.dolphin.dnn.allreduce.RingNetworkSetup;
+import edu.snu.dolphin.dnn.allreduce.RingParameters.RingRank;
+import edu.snu.dolphin.dnn.allreduce.RingParameters.RingSize;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.driver.context.ActiveContext;
+import org.apache.reef.driver.context.ContextConfiguration;
+import org.apache.reef.driver.task.TaskConfiguration;
+import org.apache.reef.io.data.loading.api.DataLoadingService;
+import org.apache.reef.io.network.naming.NameServer;
+import org.apache.reef.io.network.naming.parameters.NameResolverNameServerAddr;
+import org.apache.reef.io.network.naming.parameters.NameResolverNameServerPort;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Configurations;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.remote.address.LocalAddressProvider;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The driver code for the neural network REEF application when parameter gradients are all-reduced among Tasks.
+ * <p/>
+ * Each evaluator with input data is given a position in a ring, and its context registers itself to
+ * Network Connection Service, through which the Tasks send parameter gradients to their next Tasks in the ring.
+ * No evaluator is allocated for a parameter server.
+ */
+@DriverSide
+@Unit
+public final class NeuralNetworkAllReduceDriver {
+  private static final Logger LOG = Logger.getLogger(NeuralNetworkAllReduceDriver.class.getName());
+
+  private final AtomicInteger ranks = new AtomicInteger();
+  private final NeuralNetworkESParameters neuralNetworkESParameters;
+
+  /**
+   * Accessor for Data Loading Service.
+   * Can check whether an evaluator is configured with the service or not.
+   */
+  private final DataLoadingService dataLoadingService;
+
+  /**
+   * Server for providing remote identifiers to the Network Connection Service.
+   */
+  private final NameServer nameServer;
+
+  /**
+   * Object needed for detecting the local address of this container.
+   */
+  private final LocalAddressProvider localAddressProvider;
+
+  @Inject
+  private NeuralNetworkAllReduceDriver(final DataLoadingService dataLoadingService,
+                                       final NeuralNetworkESParameters neuralNetworkESParameters,
+                                       final NameServer nameServer,
+                                       final LocalAddressProvider localAddressProvider) {
+    this.dataLoadingService = dataLoadingService;
+    this.neuralNetworkESParameters = neuralNetworkESParameters;
+    this.nameServer = nameServer;
+    this.localAddressProvider = localAddressProvider;
+  }
+
+  /**
+   * @param rank the position of an evaluator in the ring.
+   * @return the service configuration for the ring, including Network Connection Service related configuration.
+   */
+  private Configuration getRingServiceConfiguration(final int rank) {
+    return Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(NameResolverNameServerPort.class, Integer.toString(nameServer.getPort()))
+        .bindNamedParameter(NameResolverNameServerAddr.class, localAddressProvider.getLocalAddress())
+        .bindImplementation(IdentifierFactory.class, StringIdentifierFactory.class)
+        .bindImplementation(RingChannel.class, RingNetworkSetup.class)
+        .bindNamedParameter(RingRank.class, Integer.toString(rank))
+        .bindNamedParameter(RingSize.class, Integer.toString(dataLoadingService.getNumberOfPartitions()))
+        .build();
+  }
+
+  final class ActiveContextHandler implements EventHandler<ActiveContext> {
+
+    @Override
+    public void onNext(final ActiveContext activeContext) {
+      final String contextId = activeContext.getId();
+      LOG.log(Level.FINER, "Context active: {0}", contextId);
+
+      // Case 1: Evaluator configured with a Data Loading context has been given.
+      // We need to add a context that joins the ring above this context.
+      if (dataLoadingService.isDataLoadedContext(activeContext)) {
+        final int rank = ranks.getAndIncrement();
+        final String nnCtxtId = "nnCtxt-" + rank;
+        LOG.log(Level.FINEST, "Submit neural network context {0} to: {1}", new Object[]{nnCtxtId, contextId});
+
+        final Configuration contextConf = ContextConfiguration.CONF
+            .set(ContextConfiguration.IDENTIFIER, nnCtxtId)
+            .set(ContextConfiguration.ON_CONTEXT_STARTED, RingNetworkSetup.RegisterContextHandler.class)
+            .set(ContextConfiguration.ON_CONTEXT_STOP, RingNetworkSetup.UnregisterContextHandler.class)
+            .build();
+
+        activeContext.submitContextAndService(contextConf, Configurations.merge(
+            neuralNetworkESParameters.getDataParseConfiguration(),
+            neuralNetworkESParameters.getServiceConfiguration(),
+            getRingServiceConfiguration(rank)));
+
+      // Case 2: Evaluator configured with a neural network context.
+      // We can now place a neural network task on top of the contexts.
+      } else if (contextId.startsWith("nnCtxt")) {
+        final String taskId = "nnTask-" + contextId.substring("nnCtxt-".length());
+        LOG.log(Level.FINEST, "Submit neural network task {0} to: {1}", new Object[]{taskId, contextId});
+
+        activeContext.submitTask(Configurations.merge(
+            TaskConfiguration.CONF
+                .set(TaskConfiguration.IDENTIFIER, taskId)
+                .set(TaskConfiguration.TASK, AllReduceNeuralNetworkTask.class)
+                .build(),
+            neuralNetworkESParameters.getTaskConfiguration()));
+
+      } else {
+        LOG.log(Level.FINEST, "Neural network Task {0} -- Closing", contextId);
+        activeContext.close();
+      }
+    }
+  }
+}
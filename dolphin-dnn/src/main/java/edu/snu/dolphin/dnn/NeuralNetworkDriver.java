@@ -15,8 +15,6 @@
  */
 package edu.snu.dolphin.dnn;
 
-import edu.snu.dolphin.bsp.core.DataParseService;
-import edu.snu.dolphin.dnn.data.NeuralNetworkDataParser;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.driver.context.ActiveContext;
 import org.apache.reef.driver.context.ContextConfiguration;
@@ -76,7 +74,7 @@ public final class NeuralNetworkDriver {
             new Object[]{nnCtxtId, contextId});
 
         // Add a Data Parse service
-        final Configuration dataParseConf = DataParseService.getServiceConfiguration(NeuralNetworkDataParser.class);
+        final Configuration dataParseConf = neuralNetworkESParameters.getDataParseConfiguration();
 
         activeContext.submitContextAndService(
             ContextConfiguration.CONF.set(ContextConfiguration.IDENTIFIER, nnCtxtId).build(),
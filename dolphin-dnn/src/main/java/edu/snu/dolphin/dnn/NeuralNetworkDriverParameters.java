@@ -20,8 +20,13 @@ import edu.snu.dolphin.bsp.examples.ml.parameters.MaxIterations;
 import edu.snu.dolphin.dnn.NeuralNetworkParameterUpdater.LogPeriod;
 import edu.snu.dolphin.dnn.blas.MatrixFactory;
 import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.blas.purejava.MatrixOffHeapFactory;
+import edu.snu.dolphin.dnn.blas.purejava.MatrixPureJavaFactory;
 import edu.snu.dolphin.dnn.conf.*;
 import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.BatchSize;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.WirePrecision;
+import edu.snu.dolphin.dnn.data.FloatPrecision;
+import edu.snu.dolphin.dnn.layerparam.provider.AllReduceParameterProvider;
 import edu.snu.dolphin.dnn.layerparam.provider.GroupCommParameterProvider;
 import edu.snu.dolphin.dnn.layerparam.provider.LocalNeuralNetParameterProvider;
 import edu.snu.dolphin.dnn.layerparam.provider.ParameterProvider;
@@ -51,11 +56,18 @@ public final class NeuralNetworkDriverParameters {
 
   private final String serializedNeuralNetworkConfiguration;
   private final String delimiter;
+  private final String inputFormat;
   private final int maxIterations;
   private final ProviderType providerType;
   private final int logPeriod;
   private final String serializedBlasConfiguration;
   private final int batchSize;
+  private final int numTrainerThreads;
+  private final boolean shuffle;
+  private final int prefetchSize;
+  private final int staleness;
+  private final String modelPath;
+  private final boolean profile;
 
   @NamedParameter(doc = "neural network configuration file path", short_name = "conf")
   public static final class ConfigurationPath implements Name<String> {
@@ -65,22 +77,68 @@ public final class NeuralNetworkDriverParameters {
   public static class Delimiter implements Name<String> {
   }
 
-  @NamedParameter(doc = "backend BLAS library", short_name = "blas", default_value = "jblas")
+  @NamedParameter(doc = "format of input data (text or binary)", short_name = "inputFormat", default_value = "text")
+  public static class InputFormat implements Name<String> {
+  }
+
+  @NamedParameter(doc = "backend BLAS library (jblas, purejava or offheap)",
+      short_name = "blas", default_value = "jblas")
   public static class BlasLibrary implements Name<String> {
   }
 
+  @NamedParameter(doc = "number of threads that train replicas of the neural network in each evaluator",
+      short_name = "threads", default_value = "1")
+  public static final class NumTrainerThreads implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "whether to shuffle training inputs every iteration",
+      short_name = "shuffle", default_value = "false")
+  public static final class Shuffle implements Name<Boolean> {
+  }
+
+  @NamedParameter(doc = "number of batches that are prepared ahead of training by a background thread",
+      short_name = "prefetch", default_value = "4")
+  public static final class PrefetchSize implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "number of gradient pushes that the parameters used for training may lag behind " +
+      "when the parameter server provider is used (0 for synchronous push and pull)",
+      short_name = "staleness", default_value = "0")
+  public static final class Staleness implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "directory that each training task writes its trained model to, named after the task " +
+      "(empty for not saving models)",
+      short_name = "modelPath", default_value = "")
+  public static final class ModelPath implements Name<String> {
+  }
+
+  @NamedParameter(doc = "whether to log the time and memory spent by each layer, parameter provider and codec " +
+      "every iteration",
+      short_name = "profile", default_value = "false")
+  public static final class Profile implements Name<Boolean> {
+  }
+
   enum ProviderType {
-    LOCAL, GROUP_COMM, PARAMETER_SERVER
+    LOCAL, GROUP_COMM, PARAMETER_SERVER, ALL_REDUCE
   }
 
   @Inject
   private NeuralNetworkDriverParameters(final ConfigurationSerializer configurationSerializer,
                                         @Parameter(ConfigurationPath.class) final String configurationPath,
                                         @Parameter(Delimiter.class) final String delimiter,
+                                        @Parameter(InputFormat.class) final String inputFormat,
                                         @Parameter(MaxIterations.class) final int maxIterations,
                                         @Parameter(OnLocal.class) final boolean onLocal,
                                         @Parameter(LogPeriod.class) final int logPeriod,
-                                        @Parameter(BlasLibrary.class) final String blasLibrary) throws IOException {
+                                        @Parameter(BlasLibrary.class) final String blasLibrary,
+                                        @Parameter(NumTrainerThreads.class) final int numTrainerThreads,
+                                        @Parameter(Shuffle.class) final boolean shuffle,
+                                        @Parameter(PrefetchSize.class) final int prefetchSize,
+                                        @Parameter(Staleness.class) final int staleness,
+                                        @Parameter(ModelPath.class) final String modelPath,
+                                        @Parameter(Profile.class) final boolean profile)
+      throws IOException {
     final NeuralNetworkConfiguration neuralNetConf = loadNeuralNetworkConfiguration(configurationPath, onLocal);
 
     // the method is being called twice: here and in `buildNeuralNetworkConfiguration`
@@ -89,10 +147,18 @@ public final class NeuralNetworkDriverParameters {
     this.serializedNeuralNetworkConfiguration = configurationSerializer.toString(
         buildNeuralNetworkConfiguration(neuralNetConf));
     this.delimiter = delimiter;
+    this.inputFormat = inputFormat;
     this.maxIterations = maxIterations;
     this.logPeriod = logPeriod;
-    this.serializedBlasConfiguration = configurationSerializer.toString(buildBlasConfiguration(blasLibrary));
+    this.serializedBlasConfiguration = configurationSerializer.toString(
+        buildBlasConfiguration(blasLibrary, neuralNetConf.getWirePrecision()));
     this.batchSize = neuralNetConf.getBatchSize();
+    this.numTrainerThreads = numTrainerThreads;
+    this.shuffle = shuffle;
+    this.prefetchSize = prefetchSize;
+    this.staleness = staleness;
+    this.modelPath = modelPath;
+    this.profile = profile;
   }
 
   /**
@@ -107,6 +173,8 @@ public final class NeuralNetworkDriverParameters {
       return ProviderType.GROUP_COMM;
     case "parameterserver":
       return ProviderType.PARAMETER_SERVER;
+    case "allreduce":
+      return ProviderType.ALL_REDUCE;
     default:
       throw new IllegalArgumentException("Illegal parameter provider: " + parameterProviderConfiguration.getType());
     }
@@ -124,6 +192,8 @@ public final class NeuralNetworkDriverParameters {
       return GroupCommParameterProvider.class;
     case "parameterserver":
       return ParameterServerParameterProvider.class;
+    case "allreduce":
+      return AllReduceParameterProvider.class;
     default:
       throw new IllegalArgumentException("Illegal parameter provider: " + parameterProvider);
     }
@@ -137,6 +207,10 @@ public final class NeuralNetworkDriverParameters {
     switch (blasLibraryType.toLowerCase()) {
     case "jblas":
       return MatrixJBLASFactory.class;
+    case "purejava":
+      return MatrixPureJavaFactory.class;
+    case "offheap":
+      return MatrixOffHeapFactory.class;
     default:
       throw new IllegalArgumentException("Unsupported BLAS library: " + blasLibraryType);
     }
@@ -158,6 +232,9 @@ public final class NeuralNetworkDriverParameters {
     case "activationwithloss":
       return ActivationWithLossLayerConfigurationBuilder.newConfigurationBuilder()
           .fromProtoConfiguration(layerConf).build();
+    case "softmaxwithloss":
+      return SoftmaxWithLossLayerConfigurationBuilder.newConfigurationBuilder()
+          .fromProtoConfiguration(layerConf).build();
     case "pooling":
       return PoolingLayerConfigurationBuilder.newConfigurationBuilder()
           .fromProtoConfiguration(layerConf).build();
@@ -178,7 +255,7 @@ public final class NeuralNetworkDriverParameters {
    * @return the neural network configuration protocol buffer message.
    * @throws IOException
    */
-  private static NeuralNetworkConfiguration loadNeuralNetworkConfiguration(final String path, final boolean onLocal)
+  static NeuralNetworkConfiguration loadNeuralNetworkConfiguration(final String path, final boolean onLocal)
       throws IOException {
     final NeuralNetworkConfiguration.Builder neuralNetProtoBuilder = NeuralNetworkConfiguration.newBuilder();
 
@@ -200,13 +277,35 @@ public final class NeuralNetworkDriverParameters {
    * @return the neural network configuration.
    */
   private static Configuration buildNeuralNetworkConfiguration(final NeuralNetworkConfiguration neuralNetConf) {
+    return buildNeuralNetworkConfiguration(neuralNetConf,
+        getParameterProviderClass(neuralNetConf.getParameterProvider().getType()));
+  }
+
+  /**
+   * Parses the protobuf message and builds neural network configuration,
+   * with the given parameter provider instead of the one specified in the message.
+   * @param neuralNetConf neural network configuration protobuf message.
+   * @param parameterProviderClass the parameter provider class to use.
+   * @return the neural network configuration.
+   */
+  static Configuration buildNeuralNetworkConfiguration(
+      final NeuralNetworkConfiguration neuralNetConf,
+      final Class<? extends ParameterProvider> parameterProviderClass) {
     final NeuralNetworkConfigurationBuilder neuralNetConfBuilder =
         NeuralNetworkConfigurationBuilder.newConfigurationBuilder();
 
     neuralNetConfBuilder.setStepsize(neuralNetConf.getStepsize())
-        .setParameterProviderClass(getParameterProviderClass(neuralNetConf.getParameterProvider().getType()))
+        .setParameterProviderClass(parameterProviderClass)
+        .setSyncInterval(neuralNetConf.getParameterProvider().getSyncInterval())
+        .setModelAveraging(neuralNetConf.getParameterProvider().getModelAveraging())
         .setInputShape(neuralNetConf.getInputShape().getDimList());
 
+    if (neuralNetConf.hasOptimizer()) {
+      neuralNetConfBuilder.setOptimizerConfiguration(OptimizerConfigurationBuilder.newConfigurationBuilder()
+          .fromProtoConfiguration(neuralNetConf.getOptimizer())
+          .build());
+    }
+
     // Adds the configuration of each layer.
     for (final LayerConfiguration layerConf : neuralNetConf.getLayerList()) {
       neuralNetConfBuilder.addLayerConfiguration(createLayerConfiguration(layerConf));
@@ -216,12 +315,16 @@ public final class NeuralNetworkDriverParameters {
   }
 
   /**
+   * Builds the configuration for matrices, which is given to both the services and the tasks.
+   * The wire precision is bound here, because every codec that encodes matrices also needs the BLAS library.
    * @param blasLibrary a string that indicates a BLAS library to be used
+   * @param wirePrecision a string that indicates the precision of matrix elements on the wire
    * @return the configuration for BLAS library
    */
-  private static Configuration buildBlasConfiguration(final String blasLibrary) {
+  static Configuration buildBlasConfiguration(final String blasLibrary, final String wirePrecision) {
     return Tang.Factory.getTang().newConfigurationBuilder()
         .bindImplementation(MatrixFactory.class, getMatrixFactoryClass(blasLibrary))
+        .bindNamedParameter(WirePrecision.class, FloatPrecision.fromString(wirePrecision).name().toLowerCase())
         .build();
   }
 
@@ -232,9 +335,16 @@ public final class NeuralNetworkDriverParameters {
   public static void registerShortNameOfClass(final CommandLine cl) {
     cl.registerShortNameOfClass(ConfigurationPath.class);
     cl.registerShortNameOfClass(Delimiter.class);
+    cl.registerShortNameOfClass(InputFormat.class);
     cl.registerShortNameOfClass(MaxIterations.class);
     cl.registerShortNameOfClass(LogPeriod.class);
     cl.registerShortNameOfClass(BlasLibrary.class);
+    cl.registerShortNameOfClass(NumTrainerThreads.class);
+    cl.registerShortNameOfClass(Shuffle.class);
+    cl.registerShortNameOfClass(PrefetchSize.class);
+    cl.registerShortNameOfClass(Staleness.class);
+    cl.registerShortNameOfClass(ModelPath.class);
+    cl.registerShortNameOfClass(Profile.class);
   }
 
   /**
@@ -246,10 +356,17 @@ public final class NeuralNetworkDriverParameters {
             NeuralNetworkESParameters.SerializedNeuralNetConf.class,
             serializedNeuralNetworkConfiguration)
         .bindNamedParameter(Delimiter.class, delimiter)
+        .bindNamedParameter(InputFormat.class, inputFormat)
         .bindNamedParameter(MaxIterations.class, String.valueOf(maxIterations))
         .bindNamedParameter(LogPeriod.class, String.valueOf(logPeriod))
         .bindNamedParameter(NeuralNetworkESParameters.SerializedBlasConf.class, serializedBlasConfiguration)
         .bindNamedParameter(BatchSize.class, String.valueOf(batchSize))
+        .bindNamedParameter(NumTrainerThreads.class, String.valueOf(numTrainerThreads))
+        .bindNamedParameter(Shuffle.class, String.valueOf(shuffle))
+        .bindNamedParameter(PrefetchSize.class, String.valueOf(prefetchSize))
+        .bindNamedParameter(Staleness.class, String.valueOf(staleness))
+        .bindNamedParameter(ModelPath.class, modelPath)
+        .bindNamedParameter(Profile.class, String.valueOf(profile))
         .build();
   }
 
@@ -259,4 +376,11 @@ public final class NeuralNetworkDriverParameters {
   public ProviderType getProviderType() {
     return this.providerType;
   }
+
+  /**
+   * @return the number of threads that train the neural network in each evaluator
+   */
+  public int getNumTrainerThreads() {
+    return this.numTrainerThreads;
+  }
 }
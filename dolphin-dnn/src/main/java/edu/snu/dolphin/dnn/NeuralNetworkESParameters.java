@@ -15,9 +15,20 @@
  */
 package edu.snu.dolphin.dnn;
 
+import edu.snu.dolphin.bsp.core.DataParseService;
+import edu.snu.dolphin.bsp.core.DataParser;
 import edu.snu.dolphin.bsp.examples.ml.parameters.MaxIterations;
 import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Delimiter;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.InputFormat;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.ModelPath;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.NumTrainerThreads;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.PrefetchSize;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Profile;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Shuffle;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Staleness;
 import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.BatchSize;
+import edu.snu.dolphin.dnn.data.NeuralNetworkBinaryDataParser;
+import edu.snu.dolphin.dnn.data.NeuralNetworkDataParser;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Name;
@@ -36,8 +47,15 @@ public final class NeuralNetworkESParameters {
   private final Configuration neuralNetworkConfiguration;
   private final Configuration blasConfiguration;
   private final String delimiter;
+  private final Class<? extends DataParser> dataParserClass;
   private final int maxIterations;
   private final int batchSize;
+  private final int numTrainerThreads;
+  private final boolean shuffle;
+  private final int prefetchSize;
+  private final int staleness;
+  private final String modelPath;
+  private final boolean profile;
 
   @NamedParameter(doc = "serialized neural network configuration")
   public static class SerializedNeuralNetConf implements Name<String> {
@@ -52,22 +70,61 @@ public final class NeuralNetworkESParameters {
                                     @Parameter(SerializedNeuralNetConf.class) final String serializedNeuralNetConf,
                                     @Parameter(SerializedBlasConf.class) final String serializedBlasConf,
                                     @Parameter(Delimiter.class) final String delimiter,
+                                    @Parameter(InputFormat.class) final String inputFormat,
                                     @Parameter(MaxIterations.class) final int maxIterations,
-                                    @Parameter(BatchSize.class) final int batchSize) throws IOException {
+                                    @Parameter(BatchSize.class) final int batchSize,
+                                    @Parameter(NumTrainerThreads.class) final int numTrainerThreads,
+                                    @Parameter(Shuffle.class) final boolean shuffle,
+                                    @Parameter(PrefetchSize.class) final int prefetchSize,
+                                    @Parameter(Staleness.class) final int staleness,
+                                    @Parameter(ModelPath.class) final String modelPath,
+                                    @Parameter(Profile.class) final boolean profile)
+      throws IOException {
     this.neuralNetworkConfiguration = configurationSerializer.fromString(serializedNeuralNetConf);
     this.blasConfiguration = configurationSerializer.fromString(serializedBlasConf);
     this.delimiter = delimiter;
+    this.dataParserClass = getDataParserClass(inputFormat);
     this.maxIterations = maxIterations;
     this.batchSize = batchSize;
+    this.numTrainerThreads = numTrainerThreads;
+    this.shuffle = shuffle;
+    this.prefetchSize = prefetchSize;
+    this.staleness = staleness;
+    this.modelPath = modelPath;
+    this.profile = profile;
   }
 
   /**
+   * @param inputFormat an input format string.
+   * @return the data parser class for the specified input format.
+   */
+  private static Class<? extends DataParser> getDataParserClass(final String inputFormat) {
+    switch (inputFormat.toLowerCase()) {
+    case "text":
+      return NeuralNetworkDataParser.class;
+    case "binary":
+      return NeuralNetworkBinaryDataParser.class;
+    default:
+      throw new IllegalArgumentException("Unsupported input format: " + inputFormat);
+    }
+  }
+
+  /**
+   * @return the configuration for the data parse service, with the data parser for the input format.
+   */
+  public Configuration getDataParseConfiguration() {
+    return DataParseService.getServiceConfiguration(dataParserClass);
+  }
+
+  /**
+   * Profiling is configured for services, so that the codecs of services and the task share the same profiler.
    * @return the configuration for service.
    */
   public Configuration getServiceConfiguration() {
     return Tang.Factory.getTang().newConfigurationBuilder(blasConfiguration)
         .bindNamedParameter(Delimiter.class, delimiter)
         .bindNamedParameter(BatchSize.class, String.valueOf(batchSize))
+        .bindNamedParameter(Profile.class, String.valueOf(profile))
         .build();
   }
 
@@ -77,6 +134,7 @@ public final class NeuralNetworkESParameters {
   public Configuration getServiceAndNeuralNetworkConfiguration() {
     return Tang.Factory.getTang().newConfigurationBuilder(blasConfiguration, neuralNetworkConfiguration)
         .bindNamedParameter(Delimiter.class, delimiter)
+        .bindNamedParameter(Profile.class, String.valueOf(profile))
         .build();
   }
 
@@ -86,6 +144,11 @@ public final class NeuralNetworkESParameters {
   public Configuration getTaskConfiguration() {
     return Tang.Factory.getTang().newConfigurationBuilder(neuralNetworkConfiguration)
         .bindNamedParameter(MaxIterations.class, String.valueOf(maxIterations))
+        .bindNamedParameter(NumTrainerThreads.class, String.valueOf(numTrainerThreads))
+        .bindNamedParameter(Shuffle.class, String.valueOf(shuffle))
+        .bindNamedParameter(PrefetchSize.class, String.valueOf(prefetchSize))
+        .bindNamedParameter(Staleness.class, String.valueOf(staleness))
+        .bindNamedParameter(ModelPath.class, modelPath)
         .build();
   }
 }
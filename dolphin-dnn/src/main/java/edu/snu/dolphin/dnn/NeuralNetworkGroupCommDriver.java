@@ -15,7 +15,6 @@
  */
 package edu.snu.dolphin.dnn;
 
-import edu.snu.dolphin.bsp.core.DataParseService;
 import edu.snu.dolphin.dnn.data.*;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.driver.context.ActiveContext;
@@ -145,7 +144,7 @@ public final class NeuralNetworkGroupCommDriver {
             new Object[]{nnCmpCtxtId, contextId});
 
         // Add Data Parse Service
-        final Configuration dataParseConf = DataParseService.getServiceConfiguration(NeuralNetworkDataParser.class);
+        final Configuration dataParseConf = neuralNetworkESParameters.getDataParseConfiguration();
 
         activeContext.submitContextAndService(groupCommContextConf,
             Configurations.merge(groupCommServiceConf, dataParseConf,
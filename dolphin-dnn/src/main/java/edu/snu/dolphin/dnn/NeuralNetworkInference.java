@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn;
+
+import edu.snu.dolphin.bsp.parameters.InputDir;
+import edu.snu.dolphin.bsp.parameters.OnLocal;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.BlasLibrary;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.ConfigurationPath;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Delimiter;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.InputShape;
+import edu.snu.dolphin.dnn.data.ModelFile;
+import edu.snu.dolphin.dnn.layerparam.provider.LocalNeuralNetParameterProvider;
+import edu.snu.dolphin.dnn.proto.NeuralNetworkProtos.NeuralNetworkConfiguration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.formats.CommandLine;
+
+import javax.inject.Inject;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.getShapeLength;
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.shapeFromString;
+
+/**
+ * Batched inference with a trained neural network model, on a single machine.
+ *
+ * Loads the network from its configuration and a model file written by a training job,
+ * and writes the predicted class of each input in the input file to the output file, one per line.
+ * Each line of the input file is an input instance in the same text format as the training data;
+ * values after the input length, such as labels and validation flags, are ignored.
+ * Inputs are grouped into mini-batches of the configured batch size, which are fed forward in parallel
+ * by replicas of the network that reuse their activation buffers across mini-batches.
+ * Predictions are written in the order of the inputs.
+ */
+public final class NeuralNetworkInference {
+
+  private static final Logger LOG = Logger.getLogger(NeuralNetworkInference.class.getName());
+
+  @NamedParameter(doc = "path of the model file to load the parameters of the neural network from",
+      short_name = "model")
+  public static final class ModelFilePath implements Name<String> {
+  }
+
+  @NamedParameter(doc = "path of the file to write predictions to", short_name = "output")
+  public static final class OutputPath implements Name<String> {
+  }
+
+  @NamedParameter(doc = "number of threads that feed forward mini-batches in parallel",
+      short_name = "inferenceThreads", default_value = "1")
+  public static final class NumInferenceThreads implements Name<Integer> {
+  }
+
+  private final String configurationPath;
+  private final boolean onLocal;
+  private final String blasLibrary;
+  private final String modelFilePath;
+  private final String inputPath;
+  private final String outputPath;
+  private final String delimiter;
+  private final int numThreads;
+
+  @Inject
+  private NeuralNetworkInference(@Parameter(ConfigurationPath.class) final String configurationPath,
+                                 @Parameter(OnLocal.class) final boolean onLocal,
+                                 @Parameter(BlasLibrary.class) final String blasLibrary,
+                                 @Parameter(ModelFilePath.class) final String modelFilePath,
+                                 @Parameter(InputDir.class) final String inputPath,
+                                 @Parameter(OutputPath.class) final String outputPath,
+                                 @Parameter(Delimiter.class) final String delimiter,
+                                 @Parameter(NumInferenceThreads.class) final int numThreads) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("The number of threads must be positive: " + numThreads);
+    }
+    this.configurationPath = configurationPath;
+    this.onLocal = onLocal;
+    this.blasLibrary = blasLibrary;
+    this.modelFilePath = modelFilePath;
+    this.inputPath = inputPath;
+    this.outputPath = outputPath;
+    this.delimiter = delimiter;
+    this.numThreads = numThreads;
+  }
+
+  /**
+   * Parses command line parameters and instantiates the inference job.
+   * @param args command line arguments.
+   * @return the inference job instance.
+   * @throws IOException
+   * @throws InjectionException
+   */
+  private static NeuralNetworkInference parseCommandLine(final String[] args) throws IOException, InjectionException {
+    final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder();
+    final CommandLine cl = new CommandLine(cb);
+
+    cl.registerShortNameOfClass(ConfigurationPath.class);
+    cl.registerShortNameOfClass(OnLocal.class);
+    cl.registerShortNameOfClass(BlasLibrary.class);
+    cl.registerShortNameOfClass(ModelFilePath.class);
+    cl.registerShortNameOfClass(InputDir.class);
+    cl.registerShortNameOfClass(OutputPath.class);
+    cl.registerShortNameOfClass(Delimiter.class);
+    cl.registerShortNameOfClass(NumInferenceThreads.class);
+
+    cl.processCommandLine(args);
+
+    return Tang.Factory.getTang().newInjector(cb.build()).getInstance(NeuralNetworkInference.class);
+  }
+
+  /**
+   * Loads the model and writes the predictions for all inputs.
+   * @return the number of inputs that were predicted.
+   * @throws IOException if the model, the input or the output cannot be read or written
+   * @throws InjectionException if the neural network cannot be instantiated from the configuration
+   */
+  private long run() throws IOException, InjectionException {
+    final NeuralNetworkConfiguration neuralNetConf =
+        NeuralNetworkDriverParameters.loadNeuralNetworkConfiguration(configurationPath, onLocal);
+    // the parameters are replaced by the trained ones, so the local provider is only used to instantiate the network.
+    final Injector injector = Tang.Factory.getTang().newInjector(
+        NeuralNetworkDriverParameters.buildNeuralNetworkConfiguration(
+            neuralNetConf, LocalNeuralNetParameterProvider.class),
+        NeuralNetworkDriverParameters.buildBlasConfiguration(blasLibrary, neuralNetConf.getWirePrecision()));
+    final MatrixFactory matrixFactory = injector.getInstance(MatrixFactory.class);
+    final NeuralNetwork neuralNetwork = injector.getInstance(NeuralNetwork.class);
+    neuralNetwork.setParameters(injector.getInstance(ModelFile.class).read(modelFilePath));
+    final int inputLength = getShapeLength(shapeFromString(injector.getNamedInstance(InputShape.class)));
+
+    final BlockingQueue<NeuralNetwork> networkPool = new ArrayBlockingQueue<>(numThreads);
+    networkPool.add(neuralNetwork);
+    for (int i = 1; i < numThreads; ++i) {
+      networkPool.add(neuralNetwork.newReplica());
+    }
+
+    final Path input = new Path(inputPath);
+    final Path output = new Path(outputPath);
+    final FileSystem inputFs = input.getFileSystem(new JobConf());
+    final FileSystem outputFs = output.getFileSystem(new JobConf());
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try (final BufferedReader reader = new BufferedReader(new InputStreamReader(inputFs.open(input)));
+         final Writer writer = new BufferedWriter(new OutputStreamWriter(outputFs.create(output, true)))) {
+      // mini-batches that are being fed forward, in the order of the inputs.
+      // bounded so that the inputs of a large file are not read ahead of the predictions being written.
+      final Deque<Future<int[]>> pendingBatches = new ArrayDeque<>();
+      final int batchSize = neuralNetConf.getBatchSize();
+      float[] batch = new float[inputLength * batchSize];
+      int batchCount = 0;
+      long numInputs = 0;
+
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String text = line.trim();
+        if (text.startsWith("#") || text.isEmpty()) {
+          continue;
+        }
+        final String[] values = text.split(delimiter);
+        if (values.length < inputLength) {
+          throw new IOException(String.format("An input has %d values, less than the input length %d: %s",
+              values.length, inputLength, text));
+        }
+        for (int i = 0; i < inputLength; ++i) {
+          batch[batchCount * inputLength + i] = Float.parseFloat(values[i]);
+        }
+        ++numInputs;
+
+        if (++batchCount == batchSize) {
+          pendingBatches.add(executor.submit(
+              new BatchPrediction(networkPool, matrixFactory, batch, inputLength, batchCount)));
+          batch = new float[inputLength * batchSize];
+          batchCount = 0;
+          if (pendingBatches.size() > 2 * numThreads) {
+            writePredictions(pendingBatches.poll(), writer);
+          }
+        }
+      }
+      if (batchCount > 0) {
+        pendingBatches.add(executor.submit(
+            new BatchPrediction(networkPool, matrixFactory, batch, inputLength, batchCount)));
+      }
+      while (!pendingBatches.isEmpty()) {
+        writePredictions(pendingBatches.poll(), writer);
+      }
+      return numInputs;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void writePredictions(final Future<int[]> batchPrediction, final Writer writer) throws IOException {
+    final int[] predictions;
+    try {
+      predictions = batchPrediction.get();
+    } catch (final InterruptedException | ExecutionException e) {
+      throw new RuntimeException("Failed to predict a mini-batch", e);
+    }
+    for (final int prediction : predictions) {
+      writer.write(String.valueOf(prediction));
+      writer.write('\n');
+    }
+  }
+
+  /**
+   * Predicts the classes of a mini-batch with a network borrowed from the pool.
+   */
+  private static final class BatchPrediction implements Callable<int[]> {
+    private final BlockingQueue<NeuralNetwork> networkPool;
+    private final MatrixFactory matrixFactory;
+    private final float[] data;
+    private final int inputLength;
+    private final int count;
+
+    BatchPrediction(final BlockingQueue<NeuralNetwork> networkPool, final MatrixFactory matrixFactory,
+                    final float[] data, final int inputLength, final int count) {
+      this.networkPool = networkPool;
+      this.matrixFactory = matrixFactory;
+      this.data = data;
+      this.inputLength = inputLength;
+      this.count = count;
+    }
+
+    @Override
+    public int[] call() throws InterruptedException {
+      final float[] inputData = count * inputLength == data.length ? data : Arrays.copyOf(data, count * inputLength);
+      final NeuralNetwork network = networkPool.take();
+      try {
+        final Matrix output = network.predict(matrixFactory.create(inputData, inputLength, count));
+        return output.columnArgmaxs();
+      } finally {
+        networkPool.put(network);
+      }
+    }
+  }
+
+  public static void main(final String[] args) {
+    try {
+      final long startTime = System.currentTimeMillis();
+      final long numInputs = parseCommandLine(args).run();
+      LOG.log(Level.INFO, "Predicted {0} inputs in {1} ms",
+          new Object[]{numInputs, System.currentTimeMillis() - startTime});
+    } catch (final Exception e) {
+      LOG.log(Level.SEVERE, "Fatal exception occurred: {0}", e);
+      throw new RuntimeException(e);
+    }
+  }
+}
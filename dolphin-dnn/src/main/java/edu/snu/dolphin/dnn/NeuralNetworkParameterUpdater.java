@@ -18,6 +18,7 @@ package edu.snu.dolphin.dnn;
 import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.*;
 import edu.snu.dolphin.dnn.data.NeuralNetParamServerData;
 import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.dnn.optimizer.Optimizer;
 import edu.snu.dolphin.dnn.util.ValidationStats;
 import edu.snu.dolphin.ps.server.api.ParameterUpdater;
 import org.apache.reef.io.network.util.Pair;
@@ -42,7 +43,7 @@ import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.deserializeLayerConfSe
  *
  * <p>This class either</p>
  * <ol>
- *   <li>aggregates gradients according to batch size and subtracts them from the current network parameters, or</li>
+ *   <li>applies gradients averaged over batches to the current network parameters with {@link Optimizer}, or</li>
  *   <li>records validations results and logs them per a certain log period.</li>
  * </ol>
  */
@@ -59,7 +60,7 @@ public final class NeuralNetworkParameterUpdater
   public static final String WHOLE_MODEL = "WHOLE_MODEL";
   public static final String VALIDATION = "VALIDATION";
 
-  private final float stepsize;
+  private final Optimizer optimizer;
   private final int logPeriod;
   private final Injector injector;
   private final String inputShape;
@@ -69,14 +70,14 @@ public final class NeuralNetworkParameterUpdater
   @Inject
   private NeuralNetworkParameterUpdater(
       @Parameter(SerializedLayerConfigurationSet.class) final Set<String> serializedLayerConfigurationSet,
-      @Parameter(Stepsize.class) final float stepsize,
       final ConfigurationSerializer configurationSerializer,
+      final Optimizer optimizer,
       @Parameter(LogPeriod.class) final int logPeriod,
       @Parameter(InputShape.class) final String inputShape,
       final Injector injector) {
     this.layerInitializerConfigurations =
         deserializeLayerConfSetToArray(configurationSerializer, serializedLayerConfigurationSet);
-    this.stepsize = stepsize;
+    this.optimizer = optimizer;
 
     if (logPeriod <= 0) {
       throw new RuntimeException("Log period is too small");
@@ -102,18 +103,13 @@ public final class NeuralNetworkParameterUpdater
   }
 
   /**
-   * Multiplies the step size (in-place update).
+   * Passes the parameter gradients through, which are applied by {@link Optimizer} when updating.
    */
   private LayerParameter[] processLayerParameters(final String key,
                                                   final LayerParameter[] parameterGradients) {
     if (parameterGradients == null || !key.equals(WHOLE_MODEL)) {
       return null;
     }
-
-    for (final LayerParameter parameterGradient : parameterGradients) {
-      parameterGradient.getWeightParam().muli(stepsize);
-      parameterGradient.getBiasParam().muli(stepsize);
-    }
     return parameterGradients;
   }
 
@@ -152,10 +148,14 @@ public final class NeuralNetworkParameterUpdater
 
     final ValidationStats newTrainingValidation = new ValidationStats(
         oldTrainingValidation.getTotalNum() + deltaTrainingValidation.getTotalNum(),
-        oldTrainingValidation.getCorrectNum() + deltaTrainingValidation.getCorrectNum());
+        oldTrainingValidation.getCorrectNum() + deltaTrainingValidation.getCorrectNum(),
+        oldTrainingValidation.getLossSum() + deltaTrainingValidation.getLossSum(),
+        oldTrainingValidation.getLossNum() + deltaTrainingValidation.getLossNum());
     final ValidationStats newCrossValidation = new ValidationStats(
         oldCrossValidation.getTotalNum() + deltaCrossValidation.getTotalNum(),
-        oldCrossValidation.getCorrectNum() + deltaCrossValidation.getCorrectNum());
+        oldCrossValidation.getCorrectNum() + deltaCrossValidation.getCorrectNum(),
+        oldCrossValidation.getLossSum() + deltaCrossValidation.getLossSum(),
+        oldCrossValidation.getLossNum() + deltaCrossValidation.getLossNum());
 
     if (oldTrainingValidation.getTotalNum() + deltaTrainingValidation.getTotalNum() >= logPeriod) {
       LOG.log(Level.INFO,
@@ -168,7 +168,8 @@ public final class NeuralNetworkParameterUpdater
   }
 
   /**
-   * Subtract the parameter gradients from the current layer parameter values (in-place update).
+   * Apply the parameter gradients to the current layer parameter values with {@link Optimizer} (in-place update).
+   * Workers push gradients that are already averaged over their batches, so the batch size is one.
    */
   private LayerParameter[] updateLayerParameter(final LayerParameter[] layerParameters,
                                                 final LayerParameter[] parameterGradients) {
@@ -176,12 +177,7 @@ public final class NeuralNetworkParameterUpdater
       throw new RuntimeException("The number of parameter gradients is not equal to the number of layers.");
     }
 
-    for (int index = 0; index < layerParameters.length; ++index) {
-      final LayerParameter layerParameter = layerParameters[index];
-      final LayerParameter parameterGradient = parameterGradients[index];
-      layerParameter.getWeightParam().subi(parameterGradient.getWeightParam());
-      layerParameter.getBiasParam().subi(parameterGradient.getBiasParam());
-    }
+    optimizer.update(layerParameters, parameterGradients, 1);
     return layerParameters;
   }
 
@@ -117,6 +117,8 @@ public final class NeuralNetworkREEF {
       return getDriverConfGroupCommProvider();
     case PARAMETER_SERVER:
       return getDriverConfParamServerProvider();
+    case ALL_REDUCE:
+      return getDriverConfAllReduceProvider();
     default:
       throw new RuntimeException("No driver configuration for provider type " +
           neuralNetworkDriverParameters.getProviderType());
@@ -131,7 +133,7 @@ public final class NeuralNetworkREEF {
         .set(DriverConfiguration.ON_CONTEXT_ACTIVE, NeuralNetworkDriver.ActiveContextHandler.class);
 
     final EvaluatorRequest dataRequest = EvaluatorRequest.newBuilder()
-        .setNumberOfCores(1)
+        .setNumberOfCores(neuralNetworkDriverParameters.getNumTrainerThreads())
         .setMemory(evalSize)
         .build();
 
@@ -161,7 +163,7 @@ public final class NeuralNetworkREEF {
         .setInputPath(processInputDir(inputDir))
         .setNumberOfDesiredSplits(desiredSplits)
         .addDataRequest(EvaluatorRequest.newBuilder()
-            .setNumberOfCores(1)
+            .setNumberOfCores(neuralNetworkDriverParameters.getNumTrainerThreads())
             .setMemory(evalSize)
             .build())
         .addComputeRequest(EvaluatorRequest.newBuilder()
@@ -195,7 +197,7 @@ public final class NeuralNetworkREEF {
         .setInputPath(processInputDir(inputDir))
         .setNumberOfDesiredSplits(desiredSplits)
         .addDataRequest(EvaluatorRequest.newBuilder()
-            .setNumberOfCores(1)
+            .setNumberOfCores(neuralNetworkDriverParameters.getNumTrainerThreads())
             .setMemory(evalSize)
             .build())
         .addComputeRequest(EvaluatorRequest.newBuilder()
@@ -219,6 +221,30 @@ public final class NeuralNetworkREEF {
         parameterServerConfiguration);
   }
 
+  private Configuration getDriverConfAllReduceProvider() {
+    final ConfigurationModule neuralNetworkDriverConf = DriverConfiguration.CONF
+        .set(DriverConfiguration.GLOBAL_LIBRARIES,
+            EnvironmentUtils.getClassLocation(NeuralNetworkAllReduceDriver.class))
+        .set(DriverConfiguration.GLOBAL_LIBRARIES, EnvironmentUtils.getClassLocation(TextInputFormat.class))
+        .set(DriverConfiguration.DRIVER_IDENTIFIER, "NeuralNetworkAllReduce")
+        .set(DriverConfiguration.ON_CONTEXT_ACTIVE, NeuralNetworkAllReduceDriver.ActiveContextHandler.class);
+
+    final Configuration dataLoadingConfiguration = new DataLoadingRequestBuilder()
+        .setInputFormatClass(TextInputFormat.class)
+        .setInputPath(processInputDir(inputDir))
+        .setNumberOfDesiredSplits(desiredSplits)
+        .addDataRequest(EvaluatorRequest.newBuilder()
+            .setNumberOfCores(neuralNetworkDriverParameters.getNumTrainerThreads())
+            .setMemory(evalSize)
+            .build())
+        .setDriverConfigurationModule(neuralNetworkDriverConf)
+        .build();
+
+    return Configurations.merge(
+        dataLoadingConfiguration,
+        neuralNetworkDriverParameters.getDriverConfiguration());
+  }
+
   /**
    * @return the configuration for running on local environment.
    */
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn;
+
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.getShapeLength;
+
+/**
+ * In-process scoring API for a trained neural network.
+ *
+ * Callers score one input at a time from any number of threads.
+ * Concurrent requests are gathered by a dispatcher thread into a mini-batch of up to {@code maxBatchSize} inputs,
+ * waiting at most {@code maxDelayMillis} after the first request of the batch for more requests to arrive,
+ * and the whole mini-batch is fed forward at once.
+ * This amortizes the cost of a forward pass over many requests under load, while a single request
+ * is delayed by no more than {@code maxDelayMillis}.
+ * The network is only used by the dispatcher thread, so it must not be used by others while this scorer is open.
+ */
+public final class NeuralNetworkScorer implements AutoCloseable {
+
+  private final NeuralNetwork neuralNetwork;
+  private final MatrixFactory matrixFactory;
+  private final int inputLength;
+  private final int maxBatchSize;
+  private final long maxDelayNanos;
+  private final BlockingQueue<Request> requestQueue = new LinkedBlockingQueue<>();
+  private final Thread dispatcher;
+  private volatile boolean closed = false;
+
+  /**
+   * @param neuralNetwork the trained neural network.
+   * @param matrixFactory the factory to create input matrices with.
+   * @param maxBatchSize the maximum number of inputs to feed forward at once.
+   * @param maxDelayMillis the maximum time to wait for more requests after the first request of a mini-batch.
+   */
+  public NeuralNetworkScorer(final NeuralNetwork neuralNetwork,
+                             final MatrixFactory matrixFactory,
+                             final int maxBatchSize,
+                             final long maxDelayMillis) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("The maximum batch size must be positive: " + maxBatchSize);
+    }
+    this.neuralNetwork = neuralNetwork;
+    this.matrixFactory = matrixFactory;
+    this.inputLength = getShapeLength(neuralNetwork.getInputShape());
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    this.dispatcher = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        dispatch();
+      }
+    }, "neural-network-scorer");
+    this.dispatcher.setDaemon(true);
+    this.dispatcher.start();
+  }
+
+  /**
+   * Computes the output of the network for a single input.
+   * @param input the input instance.
+   * @return the activation of the output layer for the input.
+   * @throws IllegalArgumentException if the length of the input does not match the input shape of the network.
+   * @throws InterruptedException if interrupted while waiting for the result.
+   */
+  public float[] score(final float[] input) throws InterruptedException {
+    if (closed) {
+      throw new IllegalStateException("The scorer is closed");
+    }
+    // checked before enqueueing, so that an invalid input does not fail the other requests of its mini-batch.
+    if (input.length != inputLength) {
+      throw new IllegalArgumentException(String.format(
+          "The length of the input (%d) does not match the input shape of the network (%d)",
+          input.length, inputLength));
+    }
+    final Request request = new Request(input);
+    requestQueue.put(request);
+    if (closed) {
+      // the scorer was closed after the check above, and the request may have missed being failed by close().
+      failAll(drain(), new IllegalStateException("The scorer is closed"));
+    }
+    request.done.await();
+    if (request.error != null) {
+      throw new RuntimeException("Failed to score the input", request.error);
+    }
+    return request.output;
+  }
+
+  /**
+   * @param input the input instance.
+   * @return the index of the largest output of the network for the input.
+   * @throws InterruptedException if interrupted while waiting for the result.
+   */
+  public int classify(final float[] input) throws InterruptedException {
+    final float[] output = score(input);
+    int maxIndex = 0;
+    for (int i = 1; i < output.length; ++i) {
+      if (output[i] > output[maxIndex]) {
+        maxIndex = i;
+      }
+    }
+    return maxIndex;
+  }
+
+  /**
+   * Stops the dispatcher thread. Requests that have not been scored yet fail.
+   * If interrupted while waiting for the dispatcher thread to stop, the interrupt status of the calling thread is set.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    dispatcher.interrupt();
+    try {
+      dispatcher.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    failAll(drain(), new IllegalStateException("The scorer is closed"));
+  }
+
+  /**
+   * Gathers requests into mini-batches and scores them, until this scorer is closed.
+   */
+  private void dispatch() {
+    final List<Request> batch = new ArrayList<>(maxBatchSize);
+    while (!closed) {
+      try {
+        batch.add(requestQueue.take());
+        final long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+          final Request request = requestQueue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (request == null) {
+            break;
+          }
+          batch.add(request);
+        }
+      } catch (final InterruptedException e) {
+        failAll(batch, new IllegalStateException("The scorer is closed"));
+        return;
+      }
+      scoreBatch(batch);
+      batch.clear();
+    }
+  }
+
+  /**
+   * Feeds forward the inputs of the given requests as a single mini-batch and completes the requests.
+   */
+  private void scoreBatch(final List<Request> batch) {
+    try {
+      final float[] data = new float[inputLength * batch.size()];
+      for (int i = 0; i < batch.size(); ++i) {
+        System.arraycopy(batch.get(i).input, 0, data, i * inputLength, inputLength);
+      }
+
+      final Matrix output = neuralNetwork.predict(matrixFactory.create(data, inputLength, batch.size()));
+      for (int i = 0; i < batch.size(); ++i) {
+        final Request request = batch.get(i);
+        request.output = output.getColumn(i).toFloatArray();
+        request.done.countDown();
+      }
+    } catch (final RuntimeException e) {
+      failAll(batch, e);
+    }
+  }
+
+  private List<Request> drain() {
+    final List<Request> requests = new ArrayList<>();
+    requestQueue.drainTo(requests);
+    return requests;
+  }
+
+  private static void failAll(final List<Request> requests, final Throwable error) {
+    for (final Request request : requests) {
+      if (request.done.getCount() > 0) {
+        request.error = error;
+        request.done.countDown();
+      }
+    }
+  }
+
+  /**
+   * A single input waiting to be scored, and its result.
+   */
+  private static final class Request {
+    private final float[] input;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile float[] output;
+    private volatile Throwable error;
+
+    Request(final float[] input) {
+      this.input = input;
+    }
+  }
+}
@@ -15,9 +15,7 @@
  */
 package edu.snu.dolphin.dnn;
 
-import edu.snu.dolphin.bsp.core.DataParseService;
 import edu.snu.dolphin.dnn.NeuralNetworkParameterUpdater.LogPeriod;
-import edu.snu.dolphin.dnn.data.NeuralNetworkDataParser;
 import edu.snu.dolphin.ps.driver.ParameterServerDriver;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.driver.context.ActiveContext;
@@ -118,7 +116,7 @@ public final class NeuralNetworkSingleNodeParameterServerDriver {
         // Add Data Parse Service and Neural Network configurations,
         // as well as the worker-side parameter server configuration.
         final Configuration serviceConf = Configurations.merge(
-            DataParseService.getServiceConfiguration(NeuralNetworkDataParser.class),
+            neuralNetworkESParameters.getDataParseConfiguration(),
             neuralNetworkESParameters.getServiceConfiguration(),
             psDriver.getWorkerServiceConfiguration());
 
@@ -15,9 +15,10 @@
  */
 package edu.snu.dolphin.dnn;
 
-import edu.snu.dolphin.bsp.core.DataParser;
 import edu.snu.dolphin.bsp.examples.ml.parameters.MaxIterations;
 import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.data.BatchPrefetcher;
+import edu.snu.dolphin.dnn.util.NeuralNetworkProfiler;
 import edu.snu.dolphin.dnn.util.ValidationStats;
 import edu.snu.dolphin.dnn.util.Validator;
 import org.apache.reef.annotations.audience.TaskSide;
@@ -26,7 +27,6 @@ import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.task.Task;
 
 import javax.inject.Inject;
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,18 +43,25 @@ public final class NeuralNetworkTask implements Task {
 
   private final Validator crossValidator;
   private final Validator trainingValidator;
-  private final DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>> dataParser;
-  private final NeuralNetwork neuralNetwork;
+  private final BatchPrefetcher batchPrefetcher;
+  private final DataParallelTrainer trainer;
   private final int maxIterations;
+  private final ModelWriter modelWriter;
+  private final NeuralNetworkProfiler profiler;
 
   @Inject
-  NeuralNetworkTask(final DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>> dataParser,
+  NeuralNetworkTask(final BatchPrefetcher batchPrefetcher,
                     final NeuralNetwork neuralNetwork,
-                    @Parameter(MaxIterations.class) final int maxIterations) {
+                    final DataParallelTrainer trainer,
+                    @Parameter(MaxIterations.class) final int maxIterations,
+                    final ModelWriter modelWriter,
+                    final NeuralNetworkProfiler profiler) {
     super();
-    this.dataParser = dataParser;
-    this.neuralNetwork = neuralNetwork;
+    this.batchPrefetcher = batchPrefetcher;
+    this.trainer = trainer;
     this.maxIterations = maxIterations;
+    this.modelWriter = modelWriter;
+    this.profiler = profiler;
     this.trainingValidator = new Validator(neuralNetwork);
     this.crossValidator = new Validator(neuralNetwork);
   }
@@ -64,20 +71,21 @@ public final class NeuralNetworkTask implements Task {
   public byte[] call(final byte[] bytes) throws Exception {
     LOG.log(Level.INFO, "ComputeTask.call() commencing....");
 
-    final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet = dataParser.get();
     for (int i = 0; i < maxIterations; ++i) {
-      runIteration(dataSet, neuralNetwork, trainingValidator, crossValidator);
+      trainer.runIteration(batchPrefetcher.nextIteration(), trainingValidator, crossValidator);
       LOG.log(Level.INFO, generateIterationLog(trainingValidator.getValidationStats(),
           crossValidator.getValidationStats(), i));
 
       crossValidator.getValidationStats().reset();
       trainingValidator.getValidationStats().reset();
+      profiler.report(i);
     }
 
+    modelWriter.write();
     return null;
   }
 
-  public static void runIteration(final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet,
+  public static void runIteration(final Iterable<Pair<Pair<Matrix, int[]>, Boolean>> dataSet,
                                   final NeuralNetwork neuralNetwork,
                                   final Validator trainingValidator,
                                   final Validator crossValidator) {
@@ -94,7 +102,9 @@ public final class NeuralNetworkTask implements Task {
         crossValidator.validate(input, labels);
       } else {
         neuralNetwork.train(input, labels);
-        trainingValidator.validate(input, labels);
+        // the output of the forward pass of training, before parameters are updated.
+        trainingValidator.validateOutput(neuralNetwork.getOutput(), labels);
+        trainingValidator.recordLoss(labels.length);
       }
     }
   }
@@ -102,7 +112,7 @@ public final class NeuralNetworkTask implements Task {
   public static String generateIterationLog(final ValidationStats trainingValidationStats,
                                             final ValidationStats crossValidationStats,
                                             final int iteration) {
-    return new StringBuilder()
+    final StringBuilder builder = new StringBuilder()
         .append(NEWLINE)
         .append("=========================================================")
         .append(NEWLINE)
@@ -111,7 +121,13 @@ public final class NeuralNetworkTask implements Task {
         .append(NEWLINE)
         .append("Training Error: ")
         .append(trainingValidationStats.getError())
-        .append(NEWLINE)
+        .append(NEWLINE);
+    if (trainingValidationStats.getLossNum() > 0) {
+      builder.append("Training Loss: ")
+          .append(trainingValidationStats.getLoss())
+          .append(NEWLINE);
+    }
+    return builder
         .append("Cross Validation Error: ")
         .append(crossValidationStats.getError())
         .append(NEWLINE)
@@ -15,10 +15,11 @@
  */
 package edu.snu.dolphin.dnn;
 
-import edu.snu.dolphin.bsp.core.DataParser;
 import edu.snu.dolphin.bsp.examples.ml.parameters.MaxIterations;
-import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.data.BatchPrefetcher;
 import edu.snu.dolphin.dnn.data.NeuralNetParamServerData;
+import edu.snu.dolphin.dnn.layerparam.provider.ParameterServerParameterProvider;
+import edu.snu.dolphin.dnn.util.NeuralNetworkProfiler;
 import edu.snu.dolphin.dnn.util.Validator;
 import edu.snu.dolphin.ps.worker.api.ParameterWorker;
 import org.apache.reef.annotations.audience.TaskSide;
@@ -27,7 +28,6 @@ import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.task.Task;
 
 import javax.inject.Inject;
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,22 +44,32 @@ public final class ParameterServerNeuralNetworkTask implements Task {
 
   private final Validator crossValidator;
   private final Validator trainingValidator;
-  private final DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>> dataParser;
-  private final NeuralNetwork neuralNetwork;
+  private final BatchPrefetcher batchPrefetcher;
+  private final DataParallelTrainer trainer;
   private final int maxIterations;
+  private final ModelWriter modelWriter;
+  private final NeuralNetworkProfiler profiler;
   private final ParameterWorker<String, NeuralNetParamServerData, ?> worker;
+  private final ParameterServerParameterProvider parameterProvider;
 
   @Inject
-  ParameterServerNeuralNetworkTask(final DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>> dataParser,
+  ParameterServerNeuralNetworkTask(final BatchPrefetcher batchPrefetcher,
                                    final NeuralNetwork neuralNetwork,
+                                   final DataParallelTrainer trainer,
                                    @Parameter(MaxIterations.class) final int maxIterations,
-                                   final ParameterWorker<String, NeuralNetParamServerData, ?> worker) {
-    this.dataParser = dataParser;
-    this.neuralNetwork = neuralNetwork;
+                                   final ParameterWorker<String, NeuralNetParamServerData, ?> worker,
+                                   final ParameterServerParameterProvider parameterProvider,
+                                   final ModelWriter modelWriter,
+                                   final NeuralNetworkProfiler profiler) {
+    this.batchPrefetcher = batchPrefetcher;
+    this.trainer = trainer;
     this.maxIterations = maxIterations;
+    this.modelWriter = modelWriter;
+    this.profiler = profiler;
     this.trainingValidator = new Validator(neuralNetwork);
     this.crossValidator = new Validator(neuralNetwork);
     this.worker = worker;
+    this.parameterProvider = parameterProvider;
   }
 
   /** {@inheritDoc} */
@@ -67,17 +77,20 @@ public final class ParameterServerNeuralNetworkTask implements Task {
   public byte[] call(final byte[] bytes) throws Exception {
     LOG.log(Level.INFO, "ComputeTask.call() commencing....");
 
-    final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet = dataParser.get();
     for (int i = 0; i < maxIterations; ++i) {
-      runIteration(dataSet, neuralNetwork, trainingValidator, crossValidator);
+      trainer.runIteration(batchPrefetcher.nextIteration(), trainingValidator, crossValidator);
+      // the gradients of this iteration are sent before its validation results.
+      parameterProvider.flush();
 
       worker.push(NeuralNetworkParameterUpdater.VALIDATION, new NeuralNetParamServerData(
           new Pair<>(trainingValidator.getValidationStats(), crossValidator.getValidationStats())));
 
       crossValidator.getValidationStats().reset();
       trainingValidator.getValidationStats().reset();
+      profiler.report(i);
     }
 
+    modelWriter.write();
     return null;
   }
 }
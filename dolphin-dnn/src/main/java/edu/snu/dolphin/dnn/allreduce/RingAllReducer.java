@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.allreduce;
+
+import edu.snu.dolphin.dnn.allreduce.RingParameters.RingRank;
+import edu.snu.dolphin.dnn.allreduce.RingParameters.RingSize;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+
+/**
+ * Sums arrays element-wise over all workers in a ring, leaving the sum in the array of every worker.
+ * <p/>
+ * The array is split into as many chunks as workers. In the first {@code n - 1} steps (reduce-scatter),
+ * each worker adds the chunk received from the previous worker to its own and passes the partial sum on,
+ * so that each worker ends up with the sum of one chunk. In the next {@code n - 1} steps (all-gather),
+ * the summed chunks are passed around the ring. Each worker sends and receives {@code 2 (n - 1) / n} times
+ * the array size, regardless of the number of workers, and each chunk is summed in the same order
+ * by a single worker, so every worker ends up with exactly the same values.
+ * <p/>
+ * All workers must call {@link #allReduce(float[])} the same number of times with arrays of the same length.
+ */
+@TaskSide
+public final class RingAllReducer {
+
+  private final RingChannel channel;
+  private final int rank;
+  private final int size;
+
+  @Inject
+  private RingAllReducer(final RingChannel channel,
+                         @Parameter(RingRank.class) final int rank,
+                         @Parameter(RingSize.class) final int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("The number of workers must be positive: " + size);
+    }
+    if (rank < 0 || rank >= size) {
+      throw new IllegalArgumentException(String.format("The rank (%d) must be in [0, %d)", rank, size));
+    }
+    this.channel = channel;
+    this.rank = rank;
+    this.size = size;
+  }
+
+  /**
+   * @return the position of this worker in the ring.
+   */
+  public int getRank() {
+    return rank;
+  }
+
+  /**
+   * Replaces the given array with the element-wise sum of the arrays of all workers.
+   * @param data the array of this worker.
+   */
+  public void allReduce(final float[] data) {
+    // reduce-scatter: after this, this worker holds the sum of chunk (rank + 1).
+    for (int step = 0; step < size - 1; ++step) {
+      sendChunk(data, rank - step);
+      final int chunk = mod(rank - step - 1);
+      final int begin = getChunkBegin(data.length, chunk);
+      final float[] received = receiveChunk(data.length, chunk);
+      for (int i = 0; i < received.length; ++i) {
+        data[begin + i] += received[i];
+      }
+    }
+
+    // all-gather: pass the summed chunks around the ring.
+    for (int step = 0; step < size - 1; ++step) {
+      sendChunk(data, rank + 1 - step);
+      final int chunk = mod(rank - step);
+      final float[] received = receiveChunk(data.length, chunk);
+      System.arraycopy(received, 0, data, getChunkBegin(data.length, chunk), received.length);
+    }
+  }
+
+  private void sendChunk(final float[] data, final int chunkIndex) {
+    final int chunk = mod(chunkIndex);
+    channel.send(Arrays.copyOfRange(data, getChunkBegin(data.length, chunk), getChunkBegin(data.length, chunk + 1)));
+  }
+
+  private float[] receiveChunk(final int length, final int chunk) {
+    final float[] received = channel.receive();
+    final int expectedLength = getChunkBegin(length, chunk + 1) - getChunkBegin(length, chunk);
+    if (received.length != expectedLength) {
+      throw new RuntimeException(String.format("Received a chunk of length %d, but expected %d. " +
+          "The arrays of all workers must have the same length", received.length, expectedLength));
+    }
+    return received;
+  }
+
+  private int getChunkBegin(final int length, final int chunk) {
+    return (int) ((long) length * chunk / size);
+  }
+
+  private int mod(final int index) {
+    return ((index % size) + size) % size;
+  }
+}
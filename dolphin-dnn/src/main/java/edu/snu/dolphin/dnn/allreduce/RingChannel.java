@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.allreduce;
+
+/**
+ * Channel through which a worker in a ring sends data to the next worker and receives data from the previous one.
+ * Data sent to the next worker must arrive in the order it is sent.
+ */
+public interface RingChannel {
+
+  /**
+   * Sends the given data to the next worker in the ring.
+   * This does not wait for the next worker to receive the data.
+   * @param data the data to send, which must not be modified after this call.
+   */
+  void send(float[] data);
+
+  /**
+   * Waits for and returns the next data sent by the previous worker in the ring.
+   * @return the received data.
+   */
+  float[] receive();
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.allreduce;
+
+import edu.snu.dolphin.dnn.allreduce.RingParameters.RingRank;
+import edu.snu.dolphin.dnn.allreduce.RingParameters.RingSize;
+import edu.snu.dolphin.dnn.data.FloatArrayCodec;
+import org.apache.reef.evaluator.context.events.ContextStart;
+import org.apache.reef.evaluator.context.events.ContextStop;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.Connection;
+import org.apache.reef.io.network.ConnectionFactory;
+import org.apache.reef.io.network.Message;
+import org.apache.reef.io.network.NetworkConnectionService;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.annotations.Unit;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+import org.apache.reef.wake.IdentifierFactory;
+
+import javax.inject.Inject;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link RingChannel} that uses Network Connection Service.
+ * <p/>
+ * Registers this worker to Network Connection Service when the context starts, and unregisters it when the context
+ * stops. Data from the previous worker is queued by the message handler until {@link #receive()} takes it,
+ * and the connection to the next worker is opened on the first {@link #send(float[])}, retrying until the next worker
+ * has registered itself.
+ */
+@Unit
+public final class RingNetworkSetup implements RingChannel {
+  private static final Logger LOG = Logger.getLogger(RingNetworkSetup.class.getName());
+  private static final String CONNECTION_FACTORY_IDENTIFIER = "NeuralNetworkRing";
+  private static final String ENDPOINT_ID_PREFIX = "nnRing-";
+  private static final int OPEN_RETRY_COUNT = 60;
+  private static final long OPEN_RETRY_INTERVAL_MS = 1000;
+
+  private final NetworkConnectionService networkConnectionService;
+  private final IdentifierFactory identifierFactory;
+  private final FloatArrayCodec floatArrayCodec;
+  private final int rank;
+  private final int size;
+  private final BlockingQueue<float[]> receivedData = new LinkedBlockingQueue<>();
+  private ConnectionFactory<float[]> connectionFactory;
+  private Connection<float[]> nextConnection;
+
+  @Inject
+  private RingNetworkSetup(final NetworkConnectionService networkConnectionService,
+                           final IdentifierFactory identifierFactory,
+                           final FloatArrayCodec floatArrayCodec,
+                           @Parameter(RingRank.class) final int rank,
+                           @Parameter(RingSize.class) final int size) {
+    this.networkConnectionService = networkConnectionService;
+    this.identifierFactory = identifierFactory;
+    this.floatArrayCodec = floatArrayCodec;
+    this.rank = rank;
+    this.size = size;
+  }
+
+  /**
+   * @param rank the position of a worker in the ring.
+   * @return the Network Connection Service identifier of the worker.
+   */
+  public static String getEndpointId(final int rank) {
+    return ENDPOINT_ID_PREFIX + rank;
+  }
+
+  @Override
+  public synchronized void send(final float[] data) {
+    if (nextConnection == null) {
+      nextConnection = openConnection(getEndpointId((rank + 1) % size));
+    }
+    nextConnection.write(data);
+  }
+
+  @Override
+  public float[] receive() {
+    try {
+      return receivedData.take();
+    } catch (final InterruptedException e) {
+      throw new RuntimeException("InterruptedException while waiting for data from the previous worker", e);
+    }
+  }
+
+  private Connection<float[]> openConnection(final String destId) {
+    if (connectionFactory == null) {
+      throw new RuntimeException("A connection factory has not been registered yet.");
+    }
+    final Connection<float[]> connection = connectionFactory.newConnection(identifierFactory.getNewInstance(destId));
+    for (int retry = 0;; ++retry) {
+      try {
+        connection.open();
+        return connection;
+      } catch (final NetworkException e) {
+        if (retry == OPEN_RETRY_COUNT) {
+          throw new RuntimeException("Failed to open a connection to " + destId, e);
+        }
+        LOG.log(Level.FINE, "Waiting for {0} to be registered", destId);
+      }
+      try {
+        Thread.sleep(OPEN_RETRY_INTERVAL_MS);
+      } catch (final InterruptedException e) {
+        throw new RuntimeException("InterruptedException while opening a connection to " + destId, e);
+      }
+    }
+  }
+
+  private final class ReceiveHandler implements EventHandler<Message<float[]>> {
+    @Override
+    public void onNext(final Message<float[]> message) {
+      for (final float[] data : message.getData()) {
+        receivedData.add(data);
+      }
+    }
+  }
+
+  public final class RegisterContextHandler implements EventHandler<ContextStart> {
+    @Override
+    public void onNext(final ContextStart contextStart) {
+      final Identifier connectionFactoryId = identifierFactory.getNewInstance(CONNECTION_FACTORY_IDENTIFIER);
+      synchronized (RingNetworkSetup.this) {
+        connectionFactory = networkConnectionService.registerConnectionFactory(connectionFactoryId,
+            floatArrayCodec, new ReceiveHandler(), null, identifierFactory.getNewInstance(getEndpointId(rank)));
+      }
+      LOG.log(Level.INFO, "My NCS id is {0}", getEndpointId(rank));
+    }
+  }
+
+  public final class UnregisterContextHandler implements EventHandler<ContextStop> {
+    @Override
+    public void onNext(final ContextStop contextStop) {
+      synchronized (RingNetworkSetup.this) {
+        if (nextConnection != null) {
+          try {
+            nextConnection.close();
+          } catch (final NetworkException e) {
+            LOG.log(Level.WARNING, "Failed to close the connection to the next worker", e);
+          }
+          nextConnection = null;
+        }
+      }
+      networkConnectionService.unregisterConnectionFactory(
+          identifierFactory.getNewInstance(CONNECTION_FACTORY_IDENTIFIER));
+    }
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.allreduce;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * Parameters for the ring of workers that all-reduce parameter gradients.
+ */
+public final class RingParameters {
+
+  private RingParameters() {
+  }
+
+  @NamedParameter(doc = "position of this worker in the ring, from 0 to the number of workers - 1")
+  public static final class RingRank implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "number of workers in the ring")
+  public static final class RingSize implements Name<Integer> {
+  }
+}
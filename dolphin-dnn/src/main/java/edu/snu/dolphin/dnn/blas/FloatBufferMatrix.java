@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas;
+
+import java.nio.FloatBuffer;
+
+/**
+ * {@link Matrix} whose elements are stored in a {@link FloatBuffer} in column-major order,
+ * so that they can be copied in bulk without going through {@link Matrix#get(int)} for each element.
+ */
+public interface FloatBufferMatrix extends Matrix {
+
+  /**
+   * Returns a view of the elements of this matrix, without copying.
+   * The view has its own position and limit, which are set to {@code 0} and {@link #getLength()}.
+   * Writes to the view change this matrix.
+   */
+  FloatBuffer getBuffer();
+}
@@ -344,6 +344,56 @@ public interface Matrix {
    */
   Matrix mmuli(Matrix matrix);
 
+  /**
+   * Matrix-Matrix multiplication, storing the product in the given result matrix.
+   * The result matrix is resized if its shape does not match the product.
+   */
+  Matrix mmuli(Matrix matrix, Matrix result);
+
+  /**
+   * Matrix-Matrix multiplication of the transpose of this matrix and the given matrix,
+   * without materializing the transpose.
+   */
+  Matrix mmulTransposeA(Matrix matrix);
+
+  /**
+   * Matrix-Matrix multiplication of the transpose of this matrix and the given matrix,
+   * storing the product in the given result matrix.
+   * The result matrix is resized if its shape does not match the product.
+   */
+  Matrix mmuliTransposeA(Matrix matrix, Matrix result);
+
+  /**
+   * Matrix-Matrix multiplication of this matrix and the transpose of the given matrix,
+   * without materializing the transpose.
+   */
+  Matrix mmulTransposeB(Matrix matrix);
+
+  /**
+   * Matrix-Matrix multiplication of this matrix and the transpose of the given matrix,
+   * storing the product in the given result matrix.
+   * The result matrix is resized if its shape does not match the product.
+   */
+  Matrix mmuliTransposeB(Matrix matrix, Matrix result);
+
+  /**
+   * General matrix multiplication that accumulates into this matrix (in place):
+   * {@code this = alpha * a * b + beta * this}.
+   * The shape of this matrix must match the product.
+   */
+  Matrix gemmi(float alpha, Matrix a, Matrix b, float beta);
+
+  /**
+   * Applies the given operator to all elements of this matrix (in place).
+   */
+  Matrix mapi(FloatUnaryOperator operator);
+
+  /**
+   * Applies the given operator to each element of this matrix and the corresponding element of a matrix,
+   * storing the results in this matrix (in place).
+   */
+  Matrix mapi(FloatBinaryOperator operator, Matrix matrix);
+
   /**
    * Returns the maximum element of the matrix.
    */
@@ -354,6 +404,12 @@ public interface Matrix {
    */
   Matrix columnMaxs();
 
+  /**
+   * Returns the row index of the maximum element of each column.
+   * If a column has several maximum elements, the smallest index is returned.
+   */
+  int[] columnArgmaxs();
+
   /**
    * Returns row-wise maximums.
    */
@@ -17,9 +17,53 @@ package edu.snu.dolphin.dnn.blas;
 
 /**
  * Utility class that provides functions for {@link Matrix}.
+ * The functions are applied with {@link Matrix#mapi(FloatUnaryOperator)},
+ * which loops over the elements in the backing array of the matrix.
  */
 public final class MatrixFunctions {
 
+  private static final FloatUnaryOperator NEG = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return -value;
+    }
+  };
+
+  private static final FloatUnaryOperator EXP = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return (float) Math.exp(value);
+    }
+  };
+
+  private static final FloatUnaryOperator SQUARE = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return value * value;
+    }
+  };
+
+  private static final FloatUnaryOperator ABS = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return Math.abs(value);
+    }
+  };
+
+  private static final FloatUnaryOperator SIGNUM = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return Math.signum(value);
+    }
+  };
+
+  private static final FloatUnaryOperator TANH = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return (float) Math.tanh(value);
+    }
+  };
+
   private MatrixFunctions() {
   }
 
@@ -28,10 +72,7 @@ public final class MatrixFunctions {
   }
 
   public static Matrix negi(final Matrix m) {
-    for (int i = 0; i < m.getLength(); ++i) {
-      m.put(i, -m.get(i));
-    }
-    return m;
+    return m.mapi(NEG);
   }
 
   public static Matrix exp(final Matrix m) {
@@ -39,10 +80,7 @@ public final class MatrixFunctions {
   }
 
   public static Matrix expi(final Matrix m) {
-    for (int i = 0; i < m.getLength(); ++i) {
-      m.put(i, (float) Math.exp(m.get(i)));
-    }
-    return m;
+    return m.mapi(EXP);
   }
 
   public static Matrix pow(final Matrix m, final float c) {
@@ -50,10 +88,15 @@ public final class MatrixFunctions {
   }
 
   public static Matrix powi(final Matrix m, final float c) {
-    for (int i = 0; i < m.getLength(); ++i) {
-      m.put(i, (float) Math.pow(m.get(i), c));
+    if (c == 2.0f) {
+      return m.mapi(SQUARE);
     }
-    return m;
+    return m.mapi(new FloatUnaryOperator() {
+      @Override
+      public float apply(final float value) {
+        return (float) Math.pow(value, c);
+      }
+    });
   }
 
   public static Matrix abs(final Matrix m) {
@@ -61,10 +104,7 @@ public final class MatrixFunctions {
   }
 
   public static Matrix absi(final Matrix m) {
-    for (int i = 0; i < m.getLength(); ++i) {
-      m.put(i, Math.abs(m.get(i)));
-    }
-    return m;
+    return m.mapi(ABS);
   }
 
   public static Matrix signum(final Matrix m) {
@@ -72,10 +112,7 @@ public final class MatrixFunctions {
   }
 
   public static Matrix signumi(final Matrix m) {
-    for (int i = 0; i < m.getLength(); ++i) {
-      m.put(i, Math.signum(m.get(i)));
-    }
-    return m;
+    return m.mapi(SIGNUM);
   }
 
   public static Matrix tanh(final Matrix m) {
@@ -83,9 +120,6 @@ public final class MatrixFunctions {
   }
 
   public static Matrix tanhi(final Matrix m) {
-    for (int i = 0; i < m.getLength(); ++i) {
-      m.put(i, (float) Math.tanh(m.get(i)));
-    }
-    return m;
+    return m.mapi(TANH);
   }
 }
@@ -15,6 +15,7 @@
  */
 package edu.snu.dolphin.dnn.blas.function;
 
+import edu.snu.dolphin.dnn.blas.FloatUnaryOperator;
 import edu.snu.dolphin.dnn.blas.Matrix;
 
 /**
@@ -22,6 +23,20 @@ import edu.snu.dolphin.dnn.blas.Matrix;
  */
 final class ReLU implements Function {
 
+  private static final FloatUnaryOperator RELU = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return value < 0 ? 0.0f : value;
+    }
+  };
+
+  private static final FloatUnaryOperator RELU_DERIVATIVE = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return value < 0 ? 0.0f : 1.0f;
+    }
+  };
+
   /**
    * Applies a rectified linear unit to all elements of the specified matrix.
    */
@@ -35,12 +50,7 @@ final class ReLU implements Function {
    */
   @Override
   public Matrix applyi(final Matrix m) {
-    for (int i = 0; i < m.getLength(); ++i) {
-      if (m.get(i) < 0) {
-        m.put(i, 0.0f);
-      }
-    }
-    return m;
+    return m.mapi(RELU);
   }
 
   /**
@@ -56,13 +66,6 @@ final class ReLU implements Function {
    */
   @Override
   public Matrix derivativei(final Matrix m) {
-    for (int i = 0; i < m.getLength(); ++i) {
-      if (m.get(i) < 0) {
-        m.put(i, 0.0f);
-      } else {
-        m.put(i, 1.0f);
-      }
-    }
-    return m;
+    return m.mapi(RELU_DERIVATIVE);
   }
 }
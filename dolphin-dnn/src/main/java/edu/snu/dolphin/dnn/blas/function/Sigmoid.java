@@ -15,14 +15,29 @@
  */
 package edu.snu.dolphin.dnn.blas.function;
 
+import edu.snu.dolphin.dnn.blas.FloatUnaryOperator;
 import edu.snu.dolphin.dnn.blas.Matrix;
-import edu.snu.dolphin.dnn.blas.MatrixFunctions;
 
 /**
  * Sigmoid function.
  */
 final class Sigmoid implements Function {
 
+  private static final FloatUnaryOperator SIGMOID = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return (float) (1.0 / (1.0 + Math.exp(-value)));
+    }
+  };
+
+  private static final FloatUnaryOperator SIGMOID_DERIVATIVE = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      final float sigmoid = (float) (1.0 / (1.0 + Math.exp(-value)));
+      return sigmoid * (1.0f - sigmoid);
+    }
+  };
+
   /**
    * Applies a sigmoid function to all elements of the specified matrix.
    */
@@ -36,7 +51,7 @@ final class Sigmoid implements Function {
    */
   @Override
   public Matrix applyi(final Matrix m) {
-    return MatrixFunctions.expi(MatrixFunctions.negi(m)).addi(1.0f).rdivi(1.0f);
+    return m.mapi(SIGMOID);
   }
 
   /**
@@ -52,7 +67,6 @@ final class Sigmoid implements Function {
    */
   @Override
   public Matrix derivativei(final Matrix m) {
-    applyi(m);
-    return m.muli(m.rsub(1.0f));
+    return m.mapi(SIGMOID_DERIVATIVE);
   }
 }
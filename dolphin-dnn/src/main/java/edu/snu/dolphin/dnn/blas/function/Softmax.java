@@ -15,6 +15,7 @@
  */
 package edu.snu.dolphin.dnn.blas.function;
 
+import edu.snu.dolphin.dnn.blas.FloatUnaryOperator;
 import edu.snu.dolphin.dnn.blas.Matrix;
 import edu.snu.dolphin.dnn.blas.MatrixFunctions;
 
@@ -25,6 +26,13 @@ import edu.snu.dolphin.dnn.blas.MatrixFunctions;
  */
 final class Softmax implements Function {
 
+  private static final FloatUnaryOperator SOFTMAX_DERIVATIVE = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      return value * (1.0f - value);
+    }
+  };
+
   /**
    * Applies the softmax function to all elements of the specified matrix.
    */
@@ -62,7 +70,6 @@ final class Softmax implements Function {
    */
   @Override
   public Matrix derivativei(final Matrix m) {
-    applyi(m);
-    return m.muli(m.rsub(1.0f));
+    return applyi(m).mapi(SOFTMAX_DERIVATIVE);
   }
 }
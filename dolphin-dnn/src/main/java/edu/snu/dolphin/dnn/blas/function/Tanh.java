@@ -15,6 +15,7 @@
  */
 package edu.snu.dolphin.dnn.blas.function;
 
+import edu.snu.dolphin.dnn.blas.FloatUnaryOperator;
 import edu.snu.dolphin.dnn.blas.Matrix;
 import edu.snu.dolphin.dnn.blas.MatrixFunctions;
 
@@ -23,6 +24,14 @@ import edu.snu.dolphin.dnn.blas.MatrixFunctions;
  */
 final class Tanh implements Function {
 
+  private static final FloatUnaryOperator TANH_DERIVATIVE = new FloatUnaryOperator() {
+    @Override
+    public float apply(final float value) {
+      final float tanh = (float) Math.tanh(value);
+      return 1.0f - tanh * tanh;
+    }
+  };
+
   /**
    * Applies a hyperbolic tangent function to all elements of the specified matrix.
    */
@@ -55,8 +64,6 @@ final class Tanh implements Function {
    */
   @Override
   public Matrix derivativei(final Matrix m) {
-    applyi(m);
-    MatrixFunctions.powi(m, 2);
-    return m.rsubi(1);
+    return m.mapi(TANH_DERIVATIVE);
   }
 }
@@ -15,8 +15,11 @@
  */
 package edu.snu.dolphin.dnn.blas.jblas;
 
+import edu.snu.dolphin.dnn.blas.FloatBinaryOperator;
+import edu.snu.dolphin.dnn.blas.FloatUnaryOperator;
 import edu.snu.dolphin.dnn.blas.Matrix;
 import org.jblas.FloatMatrix;
+import org.jblas.NativeBlas;
 
 /**
  * Matrix implementation based on JBLAS.
@@ -403,6 +406,137 @@ final class MatrixJBLASImpl implements Matrix {
     return this;
   }
 
+  @Override
+  public Matrix mmuli(final Matrix matrix, final Matrix result) {
+    checkImpl(matrix);
+    checkImpl(result);
+    jblasMatrix.mmuli(((MatrixJBLASImpl) matrix).jblasMatrix, ((MatrixJBLASImpl) result).jblasMatrix);
+    return result;
+  }
+
+  @Override
+  public Matrix mmulTransposeA(final Matrix matrix) {
+    checkImpl(matrix);
+    final FloatMatrix other = ((MatrixJBLASImpl) matrix).jblasMatrix;
+    final FloatMatrix product = new FloatMatrix(jblasMatrix.columns, other.columns);
+    gemm(true, false, 1.0f, jblasMatrix, other, 0.0f, product);
+    return new MatrixJBLASImpl(product);
+  }
+
+  @Override
+  public Matrix mmuliTransposeA(final Matrix matrix, final Matrix result) {
+    checkImpl(matrix);
+    checkImpl(result);
+    final FloatMatrix other = ((MatrixJBLASImpl) matrix).jblasMatrix;
+    final FloatMatrix target = ((MatrixJBLASImpl) result).jblasMatrix;
+    if (target == jblasMatrix || target == other) {
+      return result.copy(mmulTransposeA(matrix));
+    }
+    if (target.rows != jblasMatrix.columns || target.columns != other.columns) {
+      target.resize(jblasMatrix.columns, other.columns);
+    }
+    gemm(true, false, 1.0f, jblasMatrix, other, 0.0f, target);
+    return result;
+  }
+
+  @Override
+  public Matrix mmulTransposeB(final Matrix matrix) {
+    checkImpl(matrix);
+    final FloatMatrix other = ((MatrixJBLASImpl) matrix).jblasMatrix;
+    final FloatMatrix product = new FloatMatrix(jblasMatrix.rows, other.rows);
+    gemm(false, true, 1.0f, jblasMatrix, other, 0.0f, product);
+    return new MatrixJBLASImpl(product);
+  }
+
+  @Override
+  public Matrix mmuliTransposeB(final Matrix matrix, final Matrix result) {
+    checkImpl(matrix);
+    checkImpl(result);
+    final FloatMatrix other = ((MatrixJBLASImpl) matrix).jblasMatrix;
+    final FloatMatrix target = ((MatrixJBLASImpl) result).jblasMatrix;
+    if (target == jblasMatrix || target == other) {
+      return result.copy(mmulTransposeB(matrix));
+    }
+    if (target.rows != jblasMatrix.rows || target.columns != other.rows) {
+      target.resize(jblasMatrix.rows, other.rows);
+    }
+    gemm(false, true, 1.0f, jblasMatrix, other, 0.0f, target);
+    return result;
+  }
+
+  @Override
+  public Matrix gemmi(final float alpha, final Matrix a, final Matrix b, final float beta) {
+    checkImpl(a);
+    checkImpl(b);
+    final FloatMatrix aMatrix = ((MatrixJBLASImpl) a).jblasMatrix;
+    final FloatMatrix bMatrix = ((MatrixJBLASImpl) b).jblasMatrix;
+    if (aMatrix == jblasMatrix || bMatrix == jblasMatrix) {
+      throw new IllegalArgumentException("The operands of gemmi cannot be the matrix that the result is stored in.");
+    }
+    gemm(false, false, alpha, aMatrix, bMatrix, beta, jblasMatrix);
+    return this;
+  }
+
+  /**
+   * Computes {@code c = alpha * op(a) * op(b) + beta * c} with BLAS {@code sgemm},
+   * where {@code op} transposes its operand if the corresponding flag is set,
+   * so that the transposes are not materialized.
+   */
+  private static void gemm(final boolean transposeA, final boolean transposeB, final float alpha,
+                           final FloatMatrix a, final FloatMatrix b, final float beta, final FloatMatrix c) {
+    final int m = transposeA ? a.columns : a.rows;
+    final int k = transposeA ? a.rows : a.columns;
+    final int n = transposeB ? b.rows : b.columns;
+    if ((transposeB ? b.columns : b.rows) != k) {
+      throw new IllegalArgumentException("Number of columns of left matrix must be equal to number of rows of right"
+          + " matrix.");
+    }
+    if (c.rows != m || c.columns != n) {
+      throw new IllegalArgumentException(String.format(
+          "The result matrix (%d x %d) does not match the shape of the product (%d x %d).", c.rows, c.columns, m, n));
+    }
+    if (m == 0 || n == 0) {
+      return;
+    }
+    if (k == 0) {
+      // BLAS does not accept an empty shared dimension; the product is zero.
+      if (beta == 0.0f) {
+        c.fill(0.0f);
+      } else {
+        c.muli(beta);
+      }
+      return;
+    }
+    NativeBlas.sgemm(transposeA ? 'T' : 'N', transposeB ? 'T' : 'N', m, n, k,
+        alpha, a.data, 0, a.rows, b.data, 0, b.rows, beta, c.data, 0, m);
+  }
+
+  @Override
+  public Matrix mapi(final FloatUnaryOperator operator) {
+    final float[] data = jblasMatrix.data;
+    final int length = jblasMatrix.length;
+    for (int i = 0; i < length; ++i) {
+      data[i] = operator.apply(data[i]);
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix mapi(final FloatBinaryOperator operator, final Matrix matrix) {
+    checkImpl(matrix);
+    final FloatMatrix other = ((MatrixJBLASImpl) matrix).jblasMatrix;
+    if (other.length != jblasMatrix.length) {
+      throw new IllegalArgumentException("Matrices must have the same length");
+    }
+    final float[] data = jblasMatrix.data;
+    final float[] otherData = other.data;
+    final int length = jblasMatrix.length;
+    for (int i = 0; i < length; ++i) {
+      data[i] = operator.apply(data[i], otherData[i]);
+    }
+    return this;
+  }
+
   @Override
   public float max() {
     return jblasMatrix.max();
@@ -413,6 +547,11 @@ final class MatrixJBLASImpl implements Matrix {
     return new MatrixJBLASImpl(jblasMatrix.columnMaxs());
   }
 
+  @Override
+  public int[] columnArgmaxs() {
+    return jblasMatrix.columnArgmaxs();
+  }
+
   @Override
   public Matrix rowMaxs() {
     return new MatrixJBLASImpl(jblasMatrix.rowMaxs());
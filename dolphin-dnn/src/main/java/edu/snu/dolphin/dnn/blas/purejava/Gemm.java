@@ -0,0 +1,424 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas.purejava;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * General matrix multiplication on column-major float arrays and float buffers.
+ *
+ * The innermost loop runs over contiguous elements of a column of A and C, so that it can be vectorized by the JIT.
+ * The loops over rows and the shared dimension are blocked, so that the block of A being used stays in cache
+ * while it is applied to every column of B.
+ * Large multiplications are split by columns of C, which are computed in parallel by a shared thread pool.
+ * The buffer variants use the same blocking and thread pool, reading the buffers by absolute index,
+ * and fall back to the array variants if every buffer is backed by an array.
+ */
+final class Gemm {
+
+  /**
+   * Number of rows of A in a block.
+   */
+  private static final int ROW_BLOCK = 256;
+
+  /**
+   * Number of columns of A (rows of B) in a block.
+   */
+  private static final int INNER_BLOCK = 128;
+
+  /**
+   * Multiplications with fewer multiply-adds than this are computed on the calling thread.
+   */
+  private static final long PARALLEL_THRESHOLD = 1L << 20;
+
+  private static final int NUM_THREADS = Runtime.getRuntime().availableProcessors();
+
+  private static final ExecutorService THREAD_POOL = Executors.newFixedThreadPool(NUM_THREADS, new ThreadFactory() {
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, "purejava-gemm");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  /**
+   * Should not be instantiated.
+   */
+  private Gemm() {
+  }
+
+  /**
+   * Computes {@code c = a * b}.
+   * @param a column-major {@code m x k} matrix
+   * @param b column-major {@code k x n} matrix
+   * @param c column-major {@code m x n} matrix that the result is written to
+   */
+  static void gemm(final float[] a, final float[] b, final float[] c, final int m, final int n, final int k) {
+    computeColumns(new ColumnKernel() {
+      @Override
+      public void compute(final int columnStart, final int columnEnd) {
+        zeroColumns(c, m, columnStart, columnEnd);
+        gemm(1.0f, a, b, c, m, k, columnStart, columnEnd);
+      }
+    }, m, n, k);
+  }
+
+  /**
+   * Computes {@code c += alpha * a * b}, accumulating into the existing elements of C.
+   * @param a column-major {@code m x k} matrix
+   * @param b column-major {@code k x n} matrix
+   * @param c column-major {@code m x n} matrix that the product is added to
+   */
+  static void gemmAccumulate(final float alpha, final float[] a, final float[] b, final float[] c,
+                             final int m, final int n, final int k) {
+    computeColumns(new ColumnKernel() {
+      @Override
+      public void compute(final int columnStart, final int columnEnd) {
+        gemm(alpha, a, b, c, m, k, columnStart, columnEnd);
+      }
+    }, m, n, k);
+  }
+
+  /**
+   * Computes {@code c = transpose(a) * b}.
+   * Each element of C is the dot product of a column of A and a column of B, which are both contiguous.
+   * @param a column-major {@code k x m} matrix
+   * @param b column-major {@code k x n} matrix
+   * @param c column-major {@code m x n} matrix that the result is written to
+   */
+  static void gemmTransposeA(final float[] a, final float[] b, final float[] c,
+                             final int m, final int n, final int k) {
+    computeColumns(new ColumnKernel() {
+      @Override
+      public void compute(final int columnStart, final int columnEnd) {
+        gemmTransposeA(a, b, c, m, k, columnStart, columnEnd);
+      }
+    }, m, n, k);
+  }
+
+  /**
+   * Computes {@code c = a * transpose(b)}.
+   * @param a column-major {@code m x k} matrix
+   * @param b column-major {@code n x k} matrix
+   * @param c column-major {@code m x n} matrix that the result is written to
+   */
+  static void gemmTransposeB(final float[] a, final float[] b, final float[] c,
+                             final int m, final int n, final int k) {
+    computeColumns(new ColumnKernel() {
+      @Override
+      public void compute(final int columnStart, final int columnEnd) {
+        gemmTransposeB(a, b, c, m, n, k, columnStart, columnEnd);
+      }
+    }, m, n, k);
+  }
+
+  /**
+   * Computes {@code c = a * b} on buffers, whose positions and limits are ignored.
+   * @see #gemm(float[], float[], float[], int, int, int)
+   */
+  static void gemm(final FloatBuffer a, final FloatBuffer b, final FloatBuffer c,
+                   final int m, final int n, final int k) {
+    if (isArrayBacked(a, b, c)) {
+      gemm(a.array(), b.array(), c.array(), m, n, k);
+      return;
+    }
+    computeColumns(new ColumnKernel() {
+      @Override
+      public void compute(final int columnStart, final int columnEnd) {
+        zeroColumns(c, m, columnStart, columnEnd);
+        gemm(1.0f, a, b, c, m, k, columnStart, columnEnd);
+      }
+    }, m, n, k);
+  }
+
+  /**
+   * Computes {@code c += alpha * a * b} on buffers, whose positions and limits are ignored.
+   * @see #gemmAccumulate(float, float[], float[], float[], int, int, int)
+   */
+  static void gemmAccumulate(final float alpha, final FloatBuffer a, final FloatBuffer b, final FloatBuffer c,
+                             final int m, final int n, final int k) {
+    if (isArrayBacked(a, b, c)) {
+      gemmAccumulate(alpha, a.array(), b.array(), c.array(), m, n, k);
+      return;
+    }
+    computeColumns(new ColumnKernel() {
+      @Override
+      public void compute(final int columnStart, final int columnEnd) {
+        gemm(alpha, a, b, c, m, k, columnStart, columnEnd);
+      }
+    }, m, n, k);
+  }
+
+  /**
+   * Computes {@code c = transpose(a) * b} on buffers, whose positions and limits are ignored.
+   * @see #gemmTransposeA(float[], float[], float[], int, int, int)
+   */
+  static void gemmTransposeA(final FloatBuffer a, final FloatBuffer b, final FloatBuffer c,
+                             final int m, final int n, final int k) {
+    if (isArrayBacked(a, b, c)) {
+      gemmTransposeA(a.array(), b.array(), c.array(), m, n, k);
+      return;
+    }
+    computeColumns(new ColumnKernel() {
+      @Override
+      public void compute(final int columnStart, final int columnEnd) {
+        gemmTransposeA(a, b, c, m, k, columnStart, columnEnd);
+      }
+    }, m, n, k);
+  }
+
+  /**
+   * Computes {@code c = a * transpose(b)} on buffers, whose positions and limits are ignored.
+   * @see #gemmTransposeB(float[], float[], float[], int, int, int)
+   */
+  static void gemmTransposeB(final FloatBuffer a, final FloatBuffer b, final FloatBuffer c,
+                             final int m, final int n, final int k) {
+    if (isArrayBacked(a, b, c)) {
+      gemmTransposeB(a.array(), b.array(), c.array(), m, n, k);
+      return;
+    }
+    computeColumns(new ColumnKernel() {
+      @Override
+      public void compute(final int columnStart, final int columnEnd) {
+        gemmTransposeB(a, b, c, m, n, k, columnStart, columnEnd);
+      }
+    }, m, n, k);
+  }
+
+  /**
+   * Computes a range of columns of a matrix product.
+   */
+  private interface ColumnKernel {
+    void compute(int columnStart, int columnEnd);
+  }
+
+  /**
+   * Runs the given kernel over all {@code n} columns of an {@code m x n} product with shared dimension {@code k},
+   * splitting the columns over the thread pool if the multiplication is large.
+   */
+  private static void computeColumns(final ColumnKernel kernel, final int m, final int n, final int k) {
+    final long work = (long) m * n * k;
+    if (work < PARALLEL_THRESHOLD || n < 2 || NUM_THREADS < 2) {
+      kernel.compute(0, n);
+      return;
+    }
+
+    final int numTasks = Math.min(NUM_THREADS, n);
+    final int columnsPerTask = (n + numTasks - 1) / numTasks;
+    final List<Future<?>> futures = new ArrayList<>(numTasks);
+    for (int columnStart = 0; columnStart < n; columnStart += columnsPerTask) {
+      final int start = columnStart;
+      final int end = Math.min(n, columnStart + columnsPerTask);
+      futures.add(THREAD_POOL.submit(new Runnable() {
+        @Override
+        public void run() {
+          kernel.compute(start, end);
+        }
+      }));
+    }
+
+    for (final Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (final InterruptedException | ExecutionException e) {
+        throw new RuntimeException("Failed to compute matrix multiplication", e);
+      }
+    }
+  }
+
+  /**
+   * Sets the columns from {@code columnStart} (inclusive) to {@code columnEnd} (exclusive) of C to zero.
+   */
+  private static void zeroColumns(final float[] c, final int m, final int columnStart, final int columnEnd) {
+    for (int j = columnStart; j < columnEnd; ++j) {
+      final int cOffset = j * m;
+      for (int i = 0; i < m; ++i) {
+        c[cOffset + i] = 0;
+      }
+    }
+  }
+
+  /**
+   * Adds the columns from {@code columnStart} (inclusive) to {@code columnEnd} (exclusive) of {@code alpha * a * b}
+   * to those of C.
+   */
+  private static void gemm(final float alpha, final float[] a, final float[] b, final float[] c,
+                           final int m, final int k, final int columnStart, final int columnEnd) {
+    for (int rowBlock = 0; rowBlock < m; rowBlock += ROW_BLOCK) {
+      final int rowEnd = Math.min(m, rowBlock + ROW_BLOCK);
+      for (int innerBlock = 0; innerBlock < k; innerBlock += INNER_BLOCK) {
+        final int innerEnd = Math.min(k, innerBlock + INNER_BLOCK);
+        for (int j = columnStart; j < columnEnd; ++j) {
+          final int bOffset = j * k;
+          final int cOffset = j * m;
+          for (int p = innerBlock; p < innerEnd; ++p) {
+            final float bValue = alpha * b[bOffset + p];
+            final int aOffset = p * m;
+            for (int i = rowBlock; i < rowEnd; ++i) {
+              c[cOffset + i] += a[aOffset + i] * bValue;
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the columns from {@code columnStart} (inclusive) to {@code columnEnd} (exclusive)
+   * of {@code c = transpose(a) * b}.
+   */
+  private static void gemmTransposeA(final float[] a, final float[] b, final float[] c, final int m, final int k,
+                                     final int columnStart, final int columnEnd) {
+    for (int j = columnStart; j < columnEnd; ++j) {
+      final int bOffset = j * k;
+      final int cOffset = j * m;
+      for (int i = 0; i < m; ++i) {
+        final int aOffset = i * k;
+        float sum = 0;
+        for (int p = 0; p < k; ++p) {
+          sum += a[aOffset + p] * b[bOffset + p];
+        }
+        c[cOffset + i] = sum;
+      }
+    }
+  }
+
+  /**
+   * Computes the columns from {@code columnStart} (inclusive) to {@code columnEnd} (exclusive)
+   * of {@code c = a * transpose(b)},
+   * blocked in the same way as {@link #gemm(float[], float[], float[], int, int, int)}.
+   */
+  private static void gemmTransposeB(final float[] a, final float[] b, final float[] c,
+                                     final int m, final int n, final int k,
+                                     final int columnStart, final int columnEnd) {
+    zeroColumns(c, m, columnStart, columnEnd);
+
+    for (int rowBlock = 0; rowBlock < m; rowBlock += ROW_BLOCK) {
+      final int rowEnd = Math.min(m, rowBlock + ROW_BLOCK);
+      for (int innerBlock = 0; innerBlock < k; innerBlock += INNER_BLOCK) {
+        final int innerEnd = Math.min(k, innerBlock + INNER_BLOCK);
+        for (int j = columnStart; j < columnEnd; ++j) {
+          final int cOffset = j * m;
+          for (int p = innerBlock; p < innerEnd; ++p) {
+            final float bValue = b[p * n + j];
+            final int aOffset = p * m;
+            for (int i = rowBlock; i < rowEnd; ++i) {
+              c[cOffset + i] += a[aOffset + i] * bValue;
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return whether every given buffer is a writable view of a whole array, starting at its first element
+   */
+  private static boolean isArrayBacked(final FloatBuffer... buffers) {
+    for (final FloatBuffer buffer : buffers) {
+      if (!buffer.hasArray() || buffer.arrayOffset() != 0 || buffer.capacity() != buffer.array().length) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sets the columns from {@code columnStart} (inclusive) to {@code columnEnd} (exclusive) of C to zero.
+   */
+  private static void zeroColumns(final FloatBuffer c, final int m, final int columnStart, final int columnEnd) {
+    for (int index = columnStart * m; index < columnEnd * m; ++index) {
+      c.put(index, 0);
+    }
+  }
+
+  /**
+   * Buffer variant of {@link #gemm(float, float[], float[], float[], int, int, int, int)}.
+   */
+  private static void gemm(final float alpha, final FloatBuffer a, final FloatBuffer b, final FloatBuffer c,
+                           final int m, final int k, final int columnStart, final int columnEnd) {
+    for (int rowBlock = 0; rowBlock < m; rowBlock += ROW_BLOCK) {
+      final int rowEnd = Math.min(m, rowBlock + ROW_BLOCK);
+      for (int innerBlock = 0; innerBlock < k; innerBlock += INNER_BLOCK) {
+        final int innerEnd = Math.min(k, innerBlock + INNER_BLOCK);
+        for (int j = columnStart; j < columnEnd; ++j) {
+          final int bOffset = j * k;
+          final int cOffset = j * m;
+          for (int p = innerBlock; p < innerEnd; ++p) {
+            final float bValue = alpha * b.get(bOffset + p);
+            final int aOffset = p * m;
+            for (int i = rowBlock; i < rowEnd; ++i) {
+              c.put(cOffset + i, c.get(cOffset + i) + a.get(aOffset + i) * bValue);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Buffer variant of {@link #gemmTransposeA(float[], float[], float[], int, int, int, int)}.
+   */
+  private static void gemmTransposeA(final FloatBuffer a, final FloatBuffer b, final FloatBuffer c,
+                                     final int m, final int k, final int columnStart, final int columnEnd) {
+    for (int j = columnStart; j < columnEnd; ++j) {
+      final int bOffset = j * k;
+      final int cOffset = j * m;
+      for (int i = 0; i < m; ++i) {
+        final int aOffset = i * k;
+        float sum = 0;
+        for (int p = 0; p < k; ++p) {
+          sum += a.get(aOffset + p) * b.get(bOffset + p);
+        }
+        c.put(cOffset + i, sum);
+      }
+    }
+  }
+
+  /**
+   * Buffer variant of {@link #gemmTransposeB(float[], float[], float[], int, int, int, int, int)}.
+   */
+  private static void gemmTransposeB(final FloatBuffer a, final FloatBuffer b, final FloatBuffer c,
+                                     final int m, final int n, final int k,
+                                     final int columnStart, final int columnEnd) {
+    zeroColumns(c, m, columnStart, columnEnd);
+
+    for (int rowBlock = 0; rowBlock < m; rowBlock += ROW_BLOCK) {
+      final int rowEnd = Math.min(m, rowBlock + ROW_BLOCK);
+      for (int innerBlock = 0; innerBlock < k; innerBlock += INNER_BLOCK) {
+        final int innerEnd = Math.min(k, innerBlock + INNER_BLOCK);
+        for (int j = columnStart; j < columnEnd; ++j) {
+          final int cOffset = j * m;
+          for (int p = innerBlock; p < innerEnd; ++p) {
+            final float bValue = b.get(p * n + j);
+            final int aOffset = p * m;
+            for (int i = rowBlock; i < rowEnd; ++i) {
+              c.put(cOffset + i, c.get(cOffset + i) + a.get(aOffset + i) * bValue);
+            }
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,956 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas.purejava;
+
+import edu.snu.dolphin.dnn.blas.FloatBinaryOperator;
+import edu.snu.dolphin.dnn.blas.FloatUnaryOperator;
+import edu.snu.dolphin.dnn.blas.Matrix;
+
+/**
+ * Base class of the matrix implementations of this package, which store their elements in column-major order.
+ * The shape checks, the scalar and broadcast semantics and the element-wise operations are implemented here
+ * over the element accessors {@link #get(int)} and {@link #put(int, float)}.
+ * Subclasses provide the storage, bulk copies and the matrix multiplication kernels.
+ * Follows the semantics of the JBLAS based implementation, e.g., a 1 x 1 matrix operand is treated as a scalar.
+ * @param <M> the type of the implementation, whose operands and results are of the same type.
+ */
+abstract class MatrixBase<M extends MatrixBase<M>> implements Matrix {
+
+  private int rows;
+  private int columns;
+
+  MatrixBase(final int rows, final int columns) {
+    this.rows = rows;
+    this.columns = columns;
+  }
+
+  /**
+   * Creates a zero-filled matrix of the same implementation, for the result of an operation.
+   */
+  abstract M newMatrix(int newRows, int newColumns);
+
+  /**
+   * Replaces the storage of this matrix with a zero-filled one of {@code newLength} elements.
+   */
+  abstract void reallocate(int newLength);
+
+  /**
+   * Copies {@code count} elements from {@code srcIndex} of this matrix to {@code dstIndex} of {@code destination}.
+   */
+  abstract void copyTo(int srcIndex, M destination, int dstIndex, int count);
+
+  /**
+   * Computes {@code this = a * b}, where the shape of this matrix is already set to that of the product.
+   */
+  abstract void multiply(M a, M b);
+
+  /**
+   * Computes {@code this += alpha * a * b}, where this matrix has the shape of the product.
+   */
+  abstract void multiplyAccumulate(float alpha, M a, M b);
+
+  /**
+   * Computes {@code this = transpose(a) * b}, where the shape of this matrix is already set to that of the product.
+   */
+  abstract void multiplyTransposeA(M a, M b);
+
+  /**
+   * Computes {@code this = a * transpose(b)}, where the shape of this matrix is already set to that of the product.
+   */
+  abstract void multiplyTransposeB(M a, M b);
+
+  @Override
+  public final int getRows() {
+    return rows;
+  }
+
+  @Override
+  public final int getColumns() {
+    return columns;
+  }
+
+  @Override
+  public final int getLength() {
+    return rows * columns;
+  }
+
+  @Override
+  public Matrix get(final int[] indices) {
+    final M ret = newMatrix(indices.length, 1);
+    for (int i = 0; i < indices.length; ++i) {
+      ret.put(i, get(indices[i]));
+    }
+    return ret;
+  }
+
+  @Override
+  public float get(final int rowIndex, final int columnIndex) {
+    return get(columnIndex * rows + rowIndex);
+  }
+
+  @Override
+  public Matrix put(final int rowIndex, final int columnIndex, final float value) {
+    return put(columnIndex * rows + rowIndex, value);
+  }
+
+  @Override
+  public void putColumn(final int index, final Matrix vector) {
+    final M other = checkImpl(vector);
+    checkLength(other, rows);
+    other.copyTo(0, self(), index * rows, rows);
+  }
+
+  @Override
+  public void putRow(final int index, final Matrix vector) {
+    final M other = checkImpl(vector);
+    checkLength(other, columns);
+    for (int c = 0; c < columns; ++c) {
+      put(c * rows + index, other.get(c));
+    }
+  }
+
+  @Override
+  public Matrix getColumn(final int index) {
+    final M ret = newMatrix(rows, 1);
+    copyTo(index * rows, ret, 0, rows);
+    return ret;
+  }
+
+  @Override
+  public Matrix getRow(final int index) {
+    final M ret = newMatrix(1, columns);
+    for (int c = 0; c < columns; ++c) {
+      ret.put(c, get(c * rows + index));
+    }
+    return ret;
+  }
+
+  @Override
+  public boolean isColumnVector() {
+    return columns == 1;
+  }
+
+  @Override
+  public boolean isRowVector() {
+    return rows == 1;
+  }
+
+  @Override
+  public Matrix fill(final float value) {
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      put(i, value);
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix reshape(final int newRows, final int newColumns) {
+    if (newRows * newColumns != getLength()) {
+      throw new IllegalArgumentException("Number of elements must not change.");
+    }
+    this.rows = newRows;
+    this.columns = newColumns;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder("[");
+    for (int r = 0; r < rows; ++r) {
+      for (int c = 0; c < columns; ++c) {
+        builder.append(String.format("%f", get(c * rows + r)));
+        if (c < columns - 1) {
+          builder.append(", ");
+        }
+      }
+      if (r < rows - 1) {
+        builder.append("; ");
+      }
+    }
+    return builder.append(']').toString();
+  }
+
+  @Override
+  public float[] toFloatArray() {
+    final float[] ret = new float[getLength()];
+    for (int i = 0; i < ret.length; ++i) {
+      ret[i] = get(i);
+    }
+    return ret;
+  }
+
+  @Override
+  public Matrix copy(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    resize(other.getRows(), other.getColumns());
+    other.copyTo(0, self(), 0, getLength());
+    return this;
+  }
+
+  @Override
+  public Matrix dup() {
+    final M ret = newMatrix(rows, columns);
+    copyTo(0, ret, 0, getLength());
+    return ret;
+  }
+
+  @Override
+  public Matrix transpose() {
+    final M ret = newMatrix(columns, rows);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      for (int r = 0; r < rows; ++r) {
+        ret.put(r * columns + c, get(offset + r));
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public Matrix add(final float value) {
+    return dup().addi(value);
+  }
+
+  @Override
+  public Matrix addi(final float value) {
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      put(i, get(i) + value);
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix add(final Matrix matrix) {
+    return dup().addi(matrix);
+  }
+
+  @Override
+  public Matrix addi(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    if (other.isScalar()) {
+      return addi(other.get(0));
+    }
+    final int length = getLength();
+    checkLength(other, length);
+    for (int i = 0; i < length; ++i) {
+      put(i, get(i) + other.get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix addColumnVector(final Matrix vector) {
+    return dup().addiColumnVector(vector);
+  }
+
+  @Override
+  public Matrix addiColumnVector(final Matrix vector) {
+    final M other = checkColumnVector(vector);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      for (int r = 0; r < rows; ++r) {
+        put(offset + r, get(offset + r) + other.get(r));
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix addRowVector(final Matrix vector) {
+    return dup().addiRowVector(vector);
+  }
+
+  @Override
+  public Matrix addiRowVector(final Matrix vector) {
+    final M other = checkRowVector(vector);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      final float value = other.get(c);
+      for (int r = 0; r < rows; ++r) {
+        put(offset + r, get(offset + r) + value);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix sub(final float value) {
+    return dup().subi(value);
+  }
+
+  @Override
+  public Matrix subi(final float value) {
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      put(i, get(i) - value);
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix sub(final Matrix matrix) {
+    return dup().subi(matrix);
+  }
+
+  @Override
+  public Matrix subi(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    if (other.isScalar()) {
+      return subi(other.get(0));
+    }
+    final int length = getLength();
+    checkLength(other, length);
+    for (int i = 0; i < length; ++i) {
+      put(i, get(i) - other.get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix subColumnVector(final Matrix vector) {
+    return dup().subiColumnVector(vector);
+  }
+
+  @Override
+  public Matrix subiColumnVector(final Matrix vector) {
+    final M other = checkColumnVector(vector);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      for (int r = 0; r < rows; ++r) {
+        put(offset + r, get(offset + r) - other.get(r));
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix subRowVector(final Matrix vector) {
+    return dup().subiRowVector(vector);
+  }
+
+  @Override
+  public Matrix subiRowVector(final Matrix vector) {
+    final M other = checkRowVector(vector);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      final float value = other.get(c);
+      for (int r = 0; r < rows; ++r) {
+        put(offset + r, get(offset + r) - value);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix rsub(final float value) {
+    return dup().rsubi(value);
+  }
+
+  @Override
+  public Matrix rsubi(final float value) {
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      put(i, value - get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix rsub(final Matrix matrix) {
+    return dup().rsubi(matrix);
+  }
+
+  @Override
+  public Matrix rsubi(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    if (other.isScalar()) {
+      return rsubi(other.get(0));
+    }
+    final int length = getLength();
+    checkLength(other, length);
+    for (int i = 0; i < length; ++i) {
+      put(i, other.get(i) - get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix mul(final float value) {
+    return dup().muli(value);
+  }
+
+  @Override
+  public Matrix muli(final float value) {
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      put(i, get(i) * value);
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix mul(final Matrix matrix) {
+    return dup().muli(matrix);
+  }
+
+  @Override
+  public Matrix muli(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    if (other.isScalar()) {
+      return muli(other.get(0));
+    }
+    final int length = getLength();
+    checkLength(other, length);
+    for (int i = 0; i < length; ++i) {
+      put(i, get(i) * other.get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix mulColumnVector(final Matrix vector) {
+    return dup().muliColumnVector(vector);
+  }
+
+  @Override
+  public Matrix muliColumnVector(final Matrix vector) {
+    final M other = checkColumnVector(vector);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      for (int r = 0; r < rows; ++r) {
+        put(offset + r, get(offset + r) * other.get(r));
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix mulRowVector(final Matrix vector) {
+    return dup().muliRowVector(vector);
+  }
+
+  @Override
+  public Matrix muliRowVector(final Matrix vector) {
+    final M other = checkRowVector(vector);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      final float value = other.get(c);
+      for (int r = 0; r < rows; ++r) {
+        put(offset + r, get(offset + r) * value);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix div(final float value) {
+    return dup().divi(value);
+  }
+
+  @Override
+  public Matrix divi(final float value) {
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      put(i, get(i) / value);
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix div(final Matrix matrix) {
+    return dup().divi(matrix);
+  }
+
+  @Override
+  public Matrix divi(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    if (other.isScalar()) {
+      return divi(other.get(0));
+    }
+    final int length = getLength();
+    checkLength(other, length);
+    for (int i = 0; i < length; ++i) {
+      put(i, get(i) / other.get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix divColumnVector(final Matrix vector) {
+    return dup().diviColumnVector(vector);
+  }
+
+  @Override
+  public Matrix diviColumnVector(final Matrix vector) {
+    final M other = checkColumnVector(vector);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      for (int r = 0; r < rows; ++r) {
+        put(offset + r, get(offset + r) / other.get(r));
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix divRowVector(final Matrix vector) {
+    return dup().diviRowVector(vector);
+  }
+
+  @Override
+  public Matrix diviRowVector(final Matrix vector) {
+    final M other = checkRowVector(vector);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      final float value = other.get(c);
+      for (int r = 0; r < rows; ++r) {
+        put(offset + r, get(offset + r) / value);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix rdiv(final float value) {
+    return dup().rdivi(value);
+  }
+
+  @Override
+  public Matrix rdivi(final float value) {
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      put(i, value / get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix rdiv(final Matrix matrix) {
+    return dup().rdivi(matrix);
+  }
+
+  @Override
+  public Matrix rdivi(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    if (other.isScalar()) {
+      return rdivi(other.get(0));
+    }
+    final int length = getLength();
+    checkLength(other, length);
+    for (int i = 0; i < length; ++i) {
+      put(i, other.get(i) / get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix mmul(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    if (other.isScalar()) {
+      return mul(other.get(0));
+    }
+    if (isScalar()) {
+      return other.mul(get(0));
+    }
+    return mmuli(other, newMatrix(rows, other.getColumns()));
+  }
+
+  @Override
+  public Matrix mmuli(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    if (other.isScalar()) {
+      return muli(other.get(0));
+    }
+    final M product = checkImpl(mmul(other));
+    if (product.getRows() != rows || product.getColumns() != columns) {
+      throw new IllegalArgumentException("Cannot resize result matrix because it is used in-place.");
+    }
+    product.copyTo(0, self(), 0, getLength());
+    return this;
+  }
+
+  @Override
+  public Matrix mmuli(final Matrix matrix, final Matrix result) {
+    final M other = checkImpl(matrix);
+    final M target = checkImpl(result);
+    if (other.isScalar() || isScalar()) {
+      return target.copy(mmul(other));
+    }
+    if (columns != other.getRows()) {
+      throw new IllegalArgumentException("Number of columns of left matrix must be equal to number of rows of right"
+          + " matrix.");
+    }
+    if (target == this || target == other) {
+      return target.copy(mmul(other));
+    }
+    target.resize(rows, other.getColumns());
+    target.multiply(self(), other);
+    return target;
+  }
+
+  @Override
+  public Matrix mmulTransposeA(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    return mmuliTransposeA(other, newMatrix(columns, other.getColumns()));
+  }
+
+  @Override
+  public Matrix mmuliTransposeA(final Matrix matrix, final Matrix result) {
+    final M other = checkImpl(matrix);
+    final M target = checkImpl(result);
+    if (rows != other.getRows()) {
+      throw new IllegalArgumentException("Number of rows of left matrix must be equal to number of rows of right"
+          + " matrix.");
+    }
+    if (target == this || target == other) {
+      return target.copy(mmulTransposeA(other));
+    }
+    target.resize(columns, other.getColumns());
+    target.multiplyTransposeA(self(), other);
+    return target;
+  }
+
+  @Override
+  public Matrix mmulTransposeB(final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    return mmuliTransposeB(other, newMatrix(rows, other.getRows()));
+  }
+
+  @Override
+  public Matrix mmuliTransposeB(final Matrix matrix, final Matrix result) {
+    final M other = checkImpl(matrix);
+    final M target = checkImpl(result);
+    if (columns != other.getColumns()) {
+      throw new IllegalArgumentException("Number of columns of left matrix must be equal to number of columns of"
+          + " right matrix.");
+    }
+    if (target == this || target == other) {
+      return target.copy(mmulTransposeB(other));
+    }
+    target.resize(rows, other.getRows());
+    target.multiplyTransposeB(self(), other);
+    return target;
+  }
+
+  @Override
+  public Matrix gemmi(final float alpha, final Matrix a, final Matrix b, final float beta) {
+    final M aMatrix = checkImpl(a);
+    final M bMatrix = checkImpl(b);
+    if (aMatrix == this || bMatrix == this) {
+      throw new IllegalArgumentException("The operands of gemmi cannot be the matrix that the result is stored in.");
+    }
+    if (aMatrix.getColumns() != bMatrix.getRows()) {
+      throw new IllegalArgumentException("Number of columns of left matrix must be equal to number of rows of right"
+          + " matrix.");
+    }
+    if (rows != aMatrix.getRows() || columns != bMatrix.getColumns()) {
+      throw new IllegalArgumentException(String.format(
+          "The result matrix (%d x %d) does not match the shape of the product (%d x %d).",
+          rows, columns, aMatrix.getRows(), bMatrix.getColumns()));
+    }
+    if (beta == 0.0f) {
+      fill(0.0f);
+    } else if (beta != 1.0f) {
+      muli(beta);
+    }
+    multiplyAccumulate(alpha, aMatrix, bMatrix);
+    return this;
+  }
+
+  @Override
+  public Matrix mapi(final FloatUnaryOperator operator) {
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      put(i, operator.apply(get(i)));
+    }
+    return this;
+  }
+
+  @Override
+  public Matrix mapi(final FloatBinaryOperator operator, final Matrix matrix) {
+    final M other = checkImpl(matrix);
+    final int length = getLength();
+    checkLength(other, length);
+    for (int i = 0; i < length; ++i) {
+      put(i, operator.apply(get(i), other.get(i)));
+    }
+    return this;
+  }
+
+  @Override
+  public float max() {
+    float max = Float.NEGATIVE_INFINITY;
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      if (get(i) > max) {
+        max = get(i);
+      }
+    }
+    return max;
+  }
+
+  @Override
+  public Matrix columnMaxs() {
+    final M ret = newMatrix(1, columns);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      float max = Float.NEGATIVE_INFINITY;
+      for (int r = 0; r < rows; ++r) {
+        if (get(offset + r) > max) {
+          max = get(offset + r);
+        }
+      }
+      ret.put(c, max);
+    }
+    return ret;
+  }
+
+  @Override
+  public int[] columnArgmaxs() {
+    final int[] ret = new int[columns];
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      float max = Float.NEGATIVE_INFINITY;
+      for (int r = 0; r < rows; ++r) {
+        if (get(offset + r) > max) {
+          max = get(offset + r);
+          ret[c] = r;
+        }
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public Matrix rowMaxs() {
+    final M ret = newMatrix(rows, 1);
+    ret.fill(Float.NEGATIVE_INFINITY);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      for (int r = 0; r < rows; ++r) {
+        if (get(offset + r) > ret.get(r)) {
+          ret.put(r, get(offset + r));
+        }
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public float min() {
+    float min = Float.POSITIVE_INFINITY;
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      if (get(i) < min) {
+        min = get(i);
+      }
+    }
+    return min;
+  }
+
+  @Override
+  public Matrix columnMins() {
+    final M ret = newMatrix(1, columns);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      float min = Float.POSITIVE_INFINITY;
+      for (int r = 0; r < rows; ++r) {
+        if (get(offset + r) < min) {
+          min = get(offset + r);
+        }
+      }
+      ret.put(c, min);
+    }
+    return ret;
+  }
+
+  @Override
+  public Matrix rowMins() {
+    final M ret = newMatrix(rows, 1);
+    ret.fill(Float.POSITIVE_INFINITY);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      for (int r = 0; r < rows; ++r) {
+        if (get(offset + r) < ret.get(r)) {
+          ret.put(r, get(offset + r));
+        }
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public Matrix columnSums() {
+    final M ret = newMatrix(1, columns);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      float sum = 0;
+      for (int r = 0; r < rows; ++r) {
+        sum += get(offset + r);
+      }
+      ret.put(c, sum);
+    }
+    return ret;
+  }
+
+  @Override
+  public Matrix rowSums() {
+    final M ret = newMatrix(rows, 1);
+    for (int c = 0; c < columns; ++c) {
+      final int offset = c * rows;
+      for (int r = 0; r < rows; ++r) {
+        ret.put(r, ret.get(r) + get(offset + r));
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public float sum() {
+    float sum = 0;
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      sum += get(i);
+    }
+    return sum;
+  }
+
+  /**
+   * As in the JBLAS based implementation, the maximum absolute difference is divided by the number of elements.
+   */
+  @Override
+  public boolean compare(final Matrix matrix, final float tolerance) {
+    if (matrix == null || matrix.getClass() != getClass()) {
+      return false;
+    }
+    final M other = checkImpl(matrix);
+    if (rows != other.getRows() || columns != other.getColumns()) {
+      return false;
+    }
+    float maxDiff = 0;
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      maxDiff = Math.max(maxDiff, Math.abs(get(i) - other.get(i)));
+    }
+    return maxDiff / length < tolerance;
+  }
+
+  /**
+   * Two matrices of the same implementation are equal if they have the same shape and elements,
+   * where elements are compared as {@link java.util.Arrays#equals(float[], float[])} does.
+   */
+  @Override
+  public boolean equals(final Object o) {
+    if (o == null || o.getClass() != getClass()) {
+      return false;
+    }
+    final M other = checkImpl((Matrix) o);
+    if (rows != other.getRows() || columns != other.getColumns()) {
+      return false;
+    }
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      if (Float.floatToIntBits(get(i)) != Float.floatToIntBits(other.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Combines the shape with the hash of the elements computed as {@link java.util.Arrays#hashCode(float[])} does.
+   */
+  @Override
+  public int hashCode() {
+    int elementsHash = 1;
+    final int length = getLength();
+    for (int i = 0; i < length; ++i) {
+      elementsHash = 31 * elementsHash + Float.floatToIntBits(get(i));
+    }
+    return 31 * (31 * rows + columns) + elementsHash;
+  }
+
+  static <M extends MatrixBase<M>> M concatHorizontally(final M a, final M b) {
+    if (a.getRows() != b.getRows()) {
+      throw new RuntimeException("Matrices do not have the same number of rows");
+    }
+    final M ret = a.newMatrix(a.getRows(), a.getColumns() + b.getColumns());
+    a.copyTo(0, ret, 0, a.getLength());
+    b.copyTo(0, ret, a.getLength(), b.getLength());
+    return ret;
+  }
+
+  static <M extends MatrixBase<M>> M concatVertically(final M a, final M b) {
+    if (a.getColumns() != b.getColumns()) {
+      throw new RuntimeException("Matrices do not have the same number of columns");
+    }
+    final M ret = a.newMatrix(a.getRows() + b.getRows(), a.getColumns());
+    for (int c = 0; c < a.getColumns(); ++c) {
+      a.copyTo(c * a.getRows(), ret, c * ret.getRows(), a.getRows());
+      b.copyTo(c * b.getRows(), ret, c * ret.getRows() + a.getRows(), b.getRows());
+    }
+    return ret;
+  }
+
+  /**
+   * Changes the shape of this matrix, reallocating the storage only if the number of elements changes.
+   * The elements are not preserved.
+   */
+  final void resize(final int newRows, final int newColumns) {
+    if (getLength() != newRows * newColumns) {
+      reallocate(newRows * newColumns);
+    }
+    this.rows = newRows;
+    this.columns = newColumns;
+  }
+
+  final boolean isScalar() {
+    return getLength() == 1;
+  }
+
+  private M checkColumnVector(final Matrix vector) {
+    final M other = checkImpl(vector);
+    checkLength(other, rows);
+    return other;
+  }
+
+  private M checkRowVector(final Matrix vector) {
+    final M other = checkImpl(vector);
+    checkLength(other, columns);
+    return other;
+  }
+
+  private static void checkLength(final MatrixBase<?> matrix, final int length) {
+    if (matrix.getLength() != length) {
+      throw new IllegalArgumentException("Matrix must have length " + length + ", but has " + matrix.getLength());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private M self() {
+    return (M) this;
+  }
+
+  @SuppressWarnings("unchecked")
+  private M checkImpl(final Matrix matrix) {
+    if (matrix == null || matrix.getClass() != getClass()) {
+      throw new IllegalArgumentException("The given matrix should be a " + getClass().getSimpleName());
+    }
+    return (M) matrix;
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas.purejava;
+
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.SynchronizedRandomGenerator;
+
+/**
+ * Base class of the factories of this package, which differ only in how matrices are allocated.
+ * @param <M> the type of the matrices created by the factory
+ */
+abstract class MatrixFactoryBase<M extends MatrixBase<M>> implements MatrixFactory {
+
+  private static final SynchronizedRandomGenerator RANDOM = new SynchronizedRandomGenerator(new MersenneTwister());
+
+  private final Class<M> implClass;
+
+  MatrixFactoryBase(final Class<M> implClass) {
+    this.implClass = implClass;
+  }
+
+  /**
+   * Creates a zero-filled matrix of the given shape.
+   */
+  abstract M newMatrix(int rows, int columns);
+
+  /**
+   * Creates a matrix with the given column-major elements.
+   */
+  abstract M wrap(float[] data, int rows, int columns);
+
+  @Override
+  public Matrix create(final int length) {
+    return newMatrix(length, 1);
+  }
+
+  @Override
+  public Matrix create(final int rows, final int columns) {
+    return newMatrix(rows, columns);
+  }
+
+  @Override
+  public Matrix create(final float[] data) {
+    return wrap(data, data.length, 1);
+  }
+
+  @Override
+  public Matrix create(final float[][] data) {
+    final int rows = data.length;
+    final int columns = rows == 0 ? 0 : data[0].length;
+    final M ret = newMatrix(rows, columns);
+    for (int r = 0; r < rows; ++r) {
+      if (data[r].length != columns) {
+        throw new IllegalArgumentException("All rows must have the same number of columns.");
+      }
+      for (int c = 0; c < columns; ++c) {
+        ret.put(r, c, data[r][c]);
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public Matrix create(final float[] data, final int rows, final int columns) {
+    return wrap(data, rows, columns);
+  }
+
+  @Override
+  public Matrix ones(final int length) {
+    return ones(length, 1);
+  }
+
+  @Override
+  public Matrix ones(final int rows, final int columns) {
+    return newMatrix(rows, columns).fill(1.0f);
+  }
+
+  @Override
+  public Matrix zeros(final int length) {
+    return zeros(length, 1);
+  }
+
+  @Override
+  public Matrix zeros(final int rows, final int columns) {
+    return newMatrix(rows, columns);
+  }
+
+  @Override
+  public Matrix rand(final int length) {
+    return rand(length, 1);
+  }
+
+  @Override
+  public Matrix rand(final int rows, final int columns) {
+    final M ret = newMatrix(rows, columns);
+    final int length = ret.getLength();
+
+    for (int i = 0; i < length; ++i) {
+      ret.put(i, RANDOM.nextFloat());
+    }
+
+    return ret;
+  }
+
+  @Override
+  public Matrix rand(final int rows, final int columns, final long seed) {
+    RANDOM.setSeed(seed);
+    return rand(rows, columns);
+  }
+
+  @Override
+  public Matrix randn(final int length) {
+    return randn(length, 1);
+  }
+
+  @Override
+  public Matrix randn(final int rows, final int columns) {
+    final M ret = newMatrix(rows, columns);
+    final int length = ret.getLength();
+
+    for (int i = 0; i < length; ++i) {
+      ret.put(i, (float) RANDOM.nextGaussian());
+    }
+
+    return ret;
+  }
+
+  @Override
+  public Matrix randn(final int rows, final int columns, final long seed) {
+    RANDOM.setSeed(seed);
+    return randn(rows, columns);
+  }
+
+  @Override
+  public Matrix concatHorizontally(final Matrix a, final Matrix b) {
+    if (implClass.isInstance(a) && implClass.isInstance(b)) {
+      return MatrixBase.concatHorizontally(implClass.cast(a), implClass.cast(b));
+    }
+
+    if (a.getRows() != b.getRows()) {
+      throw new RuntimeException("Matrices do not have the same number of rows");
+    } else {
+      final Matrix ret = create(a.getRows(), a.getColumns() + b.getColumns());
+      for (int i = 0; i < a.getColumns(); ++i) {
+        ret.putColumn(i, a.getColumn(i));
+      }
+      for (int i = 0; i < b.getColumns(); ++i) {
+        ret.putColumn(a.getColumns() + i, b.getColumn(i));
+      }
+      return ret;
+    }
+  }
+
+  @Override
+  public Matrix concatVertically(final Matrix a, final Matrix b) {
+    if (implClass.isInstance(a) && implClass.isInstance(b)) {
+      return MatrixBase.concatVertically(implClass.cast(a), implClass.cast(b));
+    }
+
+    if (a.getColumns() != b.getColumns()) {
+      throw new RuntimeException("Matrices do not have the same number of columns");
+    } else {
+      final Matrix ret = create(a.getRows() + b.getRows(), a.getColumns());
+      for (int i = 0; i < a.getRows(); ++i) {
+        ret.putRow(i, a.getRow(i));
+      }
+      for (int i = 0; i < b.getRows(); ++i) {
+        ret.putRow(a.getRows() + i, b.getRow(i));
+      }
+      return ret;
+    }
+  }
+}
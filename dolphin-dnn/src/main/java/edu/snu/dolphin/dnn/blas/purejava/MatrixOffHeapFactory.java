@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas.purejava;
+
+import javax.inject.Inject;
+import java.nio.FloatBuffer;
+
+/**
+ * Factory class for the off-heap matrix implementation, which keeps elements in direct buffers.
+ * Matrices allocated by shape, i.e., by {@code create(rows, columns)}, {@code zeros}, {@code ones}, {@code rand}
+ * and {@code randn}, are direct; these are the parameters, the preallocated buffers of layers
+ * and the matrices decoded by codecs.
+ * Matrices created from {@code float} arrays wrap the given array on the heap without copying, as the pure Java
+ * implementation does, since they are usually short-lived inputs and activations.
+ */
+public final class MatrixOffHeapFactory extends MatrixFactoryBase<MatrixOffHeapImpl> {
+
+  @Inject
+  private MatrixOffHeapFactory() {
+    super(MatrixOffHeapImpl.class);
+  }
+
+  @Override
+  MatrixOffHeapImpl newMatrix(final int rows, final int columns) {
+    return new MatrixOffHeapImpl(MatrixOffHeapImpl.allocateDirect(rows * columns), rows, columns);
+  }
+
+  @Override
+  MatrixOffHeapImpl wrap(final float[] data, final int rows, final int columns) {
+    return new MatrixOffHeapImpl(FloatBuffer.wrap(data), rows, columns);
+  }
+}
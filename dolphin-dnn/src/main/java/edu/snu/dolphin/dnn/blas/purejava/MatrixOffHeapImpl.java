@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas.purejava;
+
+import edu.snu.dolphin.dnn.blas.FloatBufferMatrix;
+import edu.snu.dolphin.dnn.blas.Matrix;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Matrix implementation based on a column-major {@link FloatBuffer}, which codecs can copy in bulk
+ * through {@link #getBuffer()}.
+ * The buffer is either a direct buffer in native byte order, which lives outside the Java heap,
+ * or a heap buffer; see {@link MatrixOffHeapFactory} for which matrices are allocated where.
+ * Results of operations, such as {@link #dup()} or {@link #mmul(Matrix)}, are always kept on the heap,
+ * so that short-lived temporaries do not exhaust the direct memory, which is only reclaimed lazily.
+ */
+final class MatrixOffHeapImpl extends MatrixBase<MatrixOffHeapImpl> implements FloatBufferMatrix {
+
+  private FloatBuffer data;
+
+  MatrixOffHeapImpl(final FloatBuffer data, final int rows, final int columns) {
+    super(rows, columns);
+    if (data.capacity() != rows * columns) {
+      throw new IllegalArgumentException("Passed data must match matrix dimensions.");
+    }
+    this.data = data;
+  }
+
+  /**
+   * Allocates a zero-filled direct buffer of {@code numElements} floats in native byte order.
+   */
+  static FloatBuffer allocateDirect(final int numElements) {
+    return ByteBuffer.allocateDirect(numElements * (Float.SIZE / Byte.SIZE)).order(ByteOrder.nativeOrder())
+        .asFloatBuffer();
+  }
+
+  @Override
+  public FloatBuffer getBuffer() {
+    final FloatBuffer view = data.duplicate();
+    view.clear();
+    return view;
+  }
+
+  @Override
+  public float get(final int index) {
+    return data.get(index);
+  }
+
+  @Override
+  public Matrix put(final int index, final float value) {
+    data.put(index, value);
+    return this;
+  }
+
+  @Override
+  public float[] toFloatArray() {
+    final float[] ret = new float[getLength()];
+    getBuffer().get(ret);
+    return ret;
+  }
+
+  @Override
+  MatrixOffHeapImpl newMatrix(final int newRows, final int newColumns) {
+    return new MatrixOffHeapImpl(FloatBuffer.allocate(newRows * newColumns), newRows, newColumns);
+  }
+
+  /**
+   * Keeps the matrix off the heap if it was, so that a parameter stays direct when it is resized.
+   */
+  @Override
+  void reallocate(final int newLength) {
+    data = data.isDirect() ? allocateDirect(newLength) : FloatBuffer.allocate(newLength);
+  }
+
+  /**
+   * Copies in bulk, without touching the positions of the buffers.
+   */
+  @Override
+  void copyTo(final int srcIndex, final MatrixOffHeapImpl destination, final int dstIndex, final int count) {
+    final FloatBuffer srcView = data.duplicate();
+    srcView.limit(srcIndex + count).position(srcIndex);
+    final FloatBuffer dstView = destination.data.duplicate();
+    dstView.position(dstIndex);
+    dstView.put(srcView);
+  }
+
+  @Override
+  void multiply(final MatrixOffHeapImpl a, final MatrixOffHeapImpl b) {
+    Gemm.gemm(a.data, b.data, data, a.getRows(), b.getColumns(), a.getColumns());
+  }
+
+  @Override
+  void multiplyAccumulate(final float alpha, final MatrixOffHeapImpl a, final MatrixOffHeapImpl b) {
+    Gemm.gemmAccumulate(alpha, a.data, b.data, data, a.getRows(), b.getColumns(), a.getColumns());
+  }
+
+  @Override
+  void multiplyTransposeA(final MatrixOffHeapImpl a, final MatrixOffHeapImpl b) {
+    Gemm.gemmTransposeA(a.data, b.data, data, a.getColumns(), b.getColumns(), a.getRows());
+  }
+
+  @Override
+  void multiplyTransposeB(final MatrixOffHeapImpl a, final MatrixOffHeapImpl b) {
+    Gemm.gemmTransposeB(a.data, b.data, data, a.getRows(), b.getRows(), a.getColumns());
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas.purejava;
+
+import javax.inject.Inject;
+
+/**
+ * Factory class for the pure Java matrix implementation, which does not depend on any native BLAS library.
+ */
+public final class MatrixPureJavaFactory extends MatrixFactoryBase<MatrixPureJavaImpl> {
+
+  @Inject
+  private MatrixPureJavaFactory() {
+    super(MatrixPureJavaImpl.class);
+  }
+
+  @Override
+  MatrixPureJavaImpl newMatrix(final int rows, final int columns) {
+    return new MatrixPureJavaImpl(rows, columns);
+  }
+
+  @Override
+  MatrixPureJavaImpl wrap(final float[] data, final int rows, final int columns) {
+    return new MatrixPureJavaImpl(data, rows, columns);
+  }
+}
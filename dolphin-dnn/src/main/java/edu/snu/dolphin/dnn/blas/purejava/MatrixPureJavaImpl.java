@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas.purejava;
+
+import edu.snu.dolphin.dnn.blas.Matrix;
+
+import java.util.Arrays;
+
+/**
+ * Matrix implementation based on a plain column-major float array.
+ */
+final class MatrixPureJavaImpl extends MatrixBase<MatrixPureJavaImpl> {
+
+  private float[] data;
+
+  MatrixPureJavaImpl(final float[] data, final int rows, final int columns) {
+    super(rows, columns);
+    if (data.length != rows * columns) {
+      throw new IllegalArgumentException("Passed data must match matrix dimensions.");
+    }
+    this.data = data;
+  }
+
+  MatrixPureJavaImpl(final int rows, final int columns) {
+    this(new float[rows * columns], rows, columns);
+  }
+
+  /**
+   * @return the backing array, without copying
+   */
+  float[] getData() {
+    return data;
+  }
+
+  @Override
+  public float get(final int index) {
+    return data[index];
+  }
+
+  @Override
+  public Matrix put(final int index, final float value) {
+    data[index] = value;
+    return this;
+  }
+
+  @Override
+  public Matrix fill(final float value) {
+    Arrays.fill(data, value);
+    return this;
+  }
+
+  @Override
+  public float[] toFloatArray() {
+    return Arrays.copyOf(data, data.length);
+  }
+
+  @Override
+  MatrixPureJavaImpl newMatrix(final int newRows, final int newColumns) {
+    return new MatrixPureJavaImpl(newRows, newColumns);
+  }
+
+  @Override
+  void reallocate(final int newLength) {
+    data = new float[newLength];
+  }
+
+  @Override
+  void copyTo(final int srcIndex, final MatrixPureJavaImpl destination, final int dstIndex, final int count) {
+    System.arraycopy(data, srcIndex, destination.data, dstIndex, count);
+  }
+
+  @Override
+  void multiply(final MatrixPureJavaImpl a, final MatrixPureJavaImpl b) {
+    Gemm.gemm(a.data, b.data, data, a.getRows(), b.getColumns(), a.getColumns());
+  }
+
+  @Override
+  void multiplyAccumulate(final float alpha, final MatrixPureJavaImpl a, final MatrixPureJavaImpl b) {
+    Gemm.gemmAccumulate(alpha, a.data, b.data, data, a.getRows(), b.getColumns(), a.getColumns());
+  }
+
+  @Override
+  void multiplyTransposeA(final MatrixPureJavaImpl a, final MatrixPureJavaImpl b) {
+    Gemm.gemmTransposeA(a.data, b.data, data, a.getColumns(), b.getColumns(), a.getRows());
+  }
+
+  @Override
+  void multiplyTransposeB(final MatrixPureJavaImpl a, final MatrixPureJavaImpl b) {
+    Gemm.gemmTransposeB(a.data, b.data, data, a.getRows(), b.getRows(), a.getColumns());
+  }
+}
@@ -16,6 +16,7 @@
 package edu.snu.dolphin.dnn.conf;
 
 import edu.snu.dolphin.dnn.layerparam.provider.ParameterProvider;
+import edu.snu.dolphin.dnn.layerparam.provider.PeriodicSyncParameterProvider;
 import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.*;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.JavaConfigurationBuilder;
@@ -42,6 +43,9 @@ public final class NeuralNetworkConfigurationBuilder implements Builder<Configur
   private Class<? extends ParameterProvider> parameterProviderClass;
   private float stepsize = 1e-2f;
   private String inputShape;
+  private int syncInterval = 1;
+  private boolean modelAveraging = false;
+  private Configuration optimizerConfiguration;
 
   public static NeuralNetworkConfigurationBuilder newConfigurationBuilder() {
     return new NeuralNetworkConfigurationBuilder();
@@ -63,6 +67,38 @@ public final class NeuralNetworkConfigurationBuilder implements Builder<Configur
     return this;
   }
 
+  /**
+   * Makes workers synchronize with the parameter provider once every {@code syncInterval} mini-batches,
+   * through {@link PeriodicSyncParameterProvider}.
+   * @param syncInterval the number of mini-batches between synchronizations, which is 1 by default.
+   * @return this builder.
+   */
+  public synchronized NeuralNetworkConfigurationBuilder setSyncInterval(final int syncInterval) {
+    this.syncInterval = syncInterval;
+    return this;
+  }
+
+  /**
+   * @param modelAveraging whether workers update parameters locally between synchronizations and average them,
+   *                       instead of accumulating gradients.
+   * @return this builder.
+   */
+  public synchronized NeuralNetworkConfigurationBuilder setModelAveraging(final boolean modelAveraging) {
+    this.modelAveraging = modelAveraging;
+    return this;
+  }
+
+  /**
+   * @param optimizerConfiguration the configuration built by {@link OptimizerConfigurationBuilder}.
+   *                               Parameters are updated by stochastic gradient descent if it is not set.
+   * @return this builder.
+   */
+  public synchronized NeuralNetworkConfigurationBuilder setOptimizerConfiguration(
+      final Configuration optimizerConfiguration) {
+    this.optimizerConfiguration = optimizerConfiguration;
+    return this;
+  }
+
   public synchronized NeuralNetworkConfigurationBuilder setInputShape(final List<Integer> inputShapeList) {
     this.inputShape = shapeToString(inputShapeList);
     return this;
@@ -87,9 +123,19 @@ public final class NeuralNetworkConfigurationBuilder implements Builder<Configur
           configurationSerializer.toString(finalLayerConfiguration));
     }
 
-    jb.bindImplementation(ParameterProvider.class, parameterProviderClass);
+    if (syncInterval == 1) {
+      jb.bindImplementation(ParameterProvider.class, parameterProviderClass);
+    } else {
+      jb.bindImplementation(ParameterProvider.class, PeriodicSyncParameterProvider.class);
+      jb.bindNamedParameter(SynchronizedParameterProvider.class, parameterProviderClass);
+      jb.bindNamedParameter(SyncInterval.class, String.valueOf(syncInterval));
+      jb.bindNamedParameter(ModelAveraging.class, String.valueOf(modelAveraging));
+    }
     jb.bindNamedParameter(Stepsize.class, String.valueOf(stepsize));
     jb.bindNamedParameter(InputShape.class, inputShape);
+    if (optimizerConfiguration != null) {
+      jb.addConfiguration(optimizerConfiguration);
+    }
 
     return jb.build();
   }
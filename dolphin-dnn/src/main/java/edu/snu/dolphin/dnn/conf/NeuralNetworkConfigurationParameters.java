@@ -15,6 +15,7 @@
  */
 package edu.snu.dolphin.dnn.conf;
 
+import edu.snu.dolphin.dnn.layerparam.provider.ParameterProvider;
 import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
 
@@ -47,4 +48,46 @@ public final class NeuralNetworkConfigurationParameters {
   @NamedParameter(doc = "the shape of input data")
   public static final class InputShape implements Name<String> {
   }
+
+  @NamedParameter(doc = "precision of matrix elements on the wire (float32, float16 or bfloat16)",
+      default_value = "float32")
+  public static final class WirePrecision implements Name<String> {
+  }
+
+  @NamedParameter(doc = "the number of mini-batches that a worker trains between synchronizations with the parameter "
+      + "provider", default_value = "1")
+  public static final class SyncInterval implements Name<Integer> {
+  }
+
+  @NamedParameter(doc = "whether a worker updates its parameters locally between synchronizations "
+      + "and then averages them, instead of accumulating gradients", default_value = "false")
+  public static final class ModelAveraging implements Name<Boolean> {
+  }
+
+  @NamedParameter(doc = "the parameter provider that a periodic synchronization provider synchronizes with")
+  public static final class SynchronizedParameterProvider implements Name<ParameterProvider> {
+  }
+
+  @NamedParameter(doc = "momentum of the momentum and Nesterov optimizers", default_value = "0.9")
+  public static final class Momentum implements Name<Float> {
+  }
+
+  @NamedParameter(doc = "decay rate of the moving average of squared gradients of the RMSProp optimizer",
+      default_value = "0.9")
+  public static final class DecayRate implements Name<Float> {
+  }
+
+  @NamedParameter(doc = "decay rate of the moving average of gradients of the Adam optimizer", default_value = "0.9")
+  public static final class Beta1 implements Name<Float> {
+  }
+
+  @NamedParameter(doc = "decay rate of the moving average of squared gradients of the Adam optimizer",
+      default_value = "0.999")
+  public static final class Beta2 implements Name<Float> {
+  }
+
+  @NamedParameter(doc = "small value added to denominators of the AdaGrad, RMSProp and Adam optimizers",
+      default_value = "1e-8")
+  public static final class Epsilon implements Name<Float> {
+  }
 }
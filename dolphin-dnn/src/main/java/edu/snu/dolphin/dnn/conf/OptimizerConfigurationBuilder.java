@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.conf;
+
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.*;
+import edu.snu.dolphin.dnn.optimizer.AdaGrad;
+import edu.snu.dolphin.dnn.optimizer.Adam;
+import edu.snu.dolphin.dnn.optimizer.MomentumSGD;
+import edu.snu.dolphin.dnn.optimizer.NesterovSGD;
+import edu.snu.dolphin.dnn.optimizer.Optimizer;
+import edu.snu.dolphin.dnn.optimizer.RMSProp;
+import edu.snu.dolphin.dnn.optimizer.SGD;
+import edu.snu.dolphin.dnn.proto.NeuralNetworkProtos;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.util.Builder;
+
+/**
+ * Configuration builder for optimizer.
+ *
+ * The configuration that this builder generates is used to create the optimizer of parameter providers and servers,
+ * and should be merged with the neural network configuration, which binds the step size.
+ */
+public final class OptimizerConfigurationBuilder implements Builder<Configuration> {
+
+  public static OptimizerConfigurationBuilder newConfigurationBuilder() {
+    return new OptimizerConfigurationBuilder();
+  }
+
+  private String type = "sgd";
+  private float momentum = 0.9f;
+  private float decayRate = 0.9f;
+  private float beta1 = 0.9f;
+  private float beta2 = 0.999f;
+  private float epsilon = 1e-8f;
+
+  /**
+   * @param type the type of optimizer, {@code sgd}, {@code momentum}, {@code nesterov}, {@code adagrad},
+   *             {@code rmsprop} or {@code adam}.
+   * @return this builder.
+   */
+  public synchronized OptimizerConfigurationBuilder setType(final String type) {
+    this.type = type;
+    return this;
+  }
+
+  public synchronized OptimizerConfigurationBuilder setMomentum(final float momentum) {
+    this.momentum = momentum;
+    return this;
+  }
+
+  public synchronized OptimizerConfigurationBuilder setDecayRate(final float decayRate) {
+    this.decayRate = decayRate;
+    return this;
+  }
+
+  public synchronized OptimizerConfigurationBuilder setBeta1(final float beta1) {
+    this.beta1 = beta1;
+    return this;
+  }
+
+  public synchronized OptimizerConfigurationBuilder setBeta2(final float beta2) {
+    this.beta2 = beta2;
+    return this;
+  }
+
+  public synchronized OptimizerConfigurationBuilder setEpsilon(final float epsilon) {
+    this.epsilon = epsilon;
+    return this;
+  }
+
+  public synchronized OptimizerConfigurationBuilder fromProtoConfiguration(
+      final NeuralNetworkProtos.OptimizerConfiguration protoConf) {
+    type = protoConf.getType();
+    momentum = protoConf.getMomentum();
+    decayRate = protoConf.getDecayRate();
+    beta1 = protoConf.getBeta1();
+    beta2 = protoConf.getBeta2();
+    epsilon = protoConf.getEpsilon();
+    return this;
+  }
+
+  @Override
+  public synchronized Configuration build() {
+    return Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(Optimizer.class, getOptimizerClass(type))
+        .bindNamedParameter(Momentum.class, String.valueOf(momentum))
+        .bindNamedParameter(DecayRate.class, String.valueOf(decayRate))
+        .bindNamedParameter(Beta1.class, String.valueOf(beta1))
+        .bindNamedParameter(Beta2.class, String.valueOf(beta2))
+        .bindNamedParameter(Epsilon.class, String.valueOf(epsilon))
+        .build();
+  }
+
+  private static Class<? extends Optimizer> getOptimizerClass(final String type) {
+    switch (type.toLowerCase()) {
+    case "sgd":
+      return SGD.class;
+    case "momentum":
+      return MomentumSGD.class;
+    case "nesterov":
+      return NesterovSGD.class;
+    case "adagrad":
+      return AdaGrad.class;
+    case "rmsprop":
+      return RMSProp.class;
+    case "adam":
+      return Adam.class;
+    default:
+      throw new IllegalArgumentException("Illegal optimizer type: " + type);
+    }
+  }
+}
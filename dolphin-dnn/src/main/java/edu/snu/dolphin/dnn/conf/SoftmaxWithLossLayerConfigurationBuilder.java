@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.conf;
+
+import edu.snu.dolphin.dnn.layers.LayerBase;
+import edu.snu.dolphin.dnn.layers.SoftmaxWithLossLayer;
+import edu.snu.dolphin.dnn.proto.NeuralNetworkProtos;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.util.Builder;
+
+/**
+ * Configuration builder for softmax with loss layer.
+ *
+ * The configuration that this builder generates is used to create a softmax with loss layer instance.
+ * The generated configuration needs to bind the parameter for a layer input shape, to inject a layer instance.
+ */
+public final class SoftmaxWithLossLayerConfigurationBuilder implements Builder<Configuration> {
+
+  public static SoftmaxWithLossLayerConfigurationBuilder newConfigurationBuilder() {
+    return new SoftmaxWithLossLayerConfigurationBuilder();
+  }
+
+  /**
+   * The layer does not have parameters, so nothing is read from the given message.
+   */
+  public synchronized SoftmaxWithLossLayerConfigurationBuilder fromProtoConfiguration(
+      final NeuralNetworkProtos.LayerConfiguration protoConf) {
+    return this;
+  }
+
+  @Override
+  public synchronized Configuration build() {
+    return Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(LayerBase.class, SoftmaxWithLossLayer.class)
+        .build();
+  }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import edu.snu.dolphin.bsp.core.DataParser;
+import edu.snu.dolphin.bsp.core.ParseException;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.PrefetchSize;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Shuffle;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.BatchSize;
+import org.apache.reef.annotations.audience.TaskSide;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Provides the batches of the parsed data set for each iteration, prepared ahead of training by a background thread.
+ *
+ * The background thread puts batches into a bounded queue, so that reading and assembling batches,
+ * e.g., from memory-mapped files, overlaps with training and only a limited number of batches are held at once.
+ * If shuffling is enabled, the training examples are shuffled every iteration and assembled into new batches,
+ * followed by the validation examples in their original order.
+ * Otherwise, the batches of the data set are provided as they are.
+ */
+@TaskSide
+public final class BatchPrefetcher {
+
+  /**
+   * Marker that indicates the end of the batches of an iteration.
+   */
+  private static final Object END_OF_ITERATION = new Object();
+
+  private final DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>> dataParser;
+  private final MatrixFactory matrixFactory;
+  private final int batchSize;
+  private final boolean shuffle;
+  private final int prefetchSize;
+  private final Random random = new Random();
+  private final ExecutorService prefetchThread;
+
+  /**
+   * The task that prepares the batches of the last iteration, which is cancelled when the next iteration starts.
+   */
+  private Future<?> prefetchTask;
+
+  @Inject
+  private BatchPrefetcher(final DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>> dataParser,
+                          final MatrixFactory matrixFactory,
+                          @Parameter(BatchSize.class) final int batchSize,
+                          @Parameter(Shuffle.class) final boolean shuffle,
+                          @Parameter(PrefetchSize.class) final int prefetchSize) {
+    if (prefetchSize < 1) {
+      throw new IllegalArgumentException("The number of prefetched batches must be positive: " + prefetchSize);
+    }
+    this.dataParser = dataParser;
+    this.matrixFactory = matrixFactory;
+    this.batchSize = batchSize;
+    this.shuffle = shuffle;
+    this.prefetchSize = prefetchSize;
+    this.prefetchThread = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "nn-prefetch");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Starts preparing the batches of the next iteration.
+   * @return the batches of the next iteration, which can be iterated only once.
+   * @throws ParseException if the data set could not be parsed.
+   */
+  public synchronized Iterable<Pair<Pair<Matrix, int[]>, Boolean>> nextIteration() throws ParseException {
+    final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet = dataParser.get();
+    if (prefetchTask != null) {
+      prefetchTask.cancel(true);
+    }
+
+    final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(prefetchSize);
+    final Runnable producer = shuffle
+        ? new ShuffledBatchProducer(getExampleSource(dataSet), queue)
+        : new BatchProducer(dataSet, queue);
+    prefetchTask = prefetchThread.submit(producer);
+
+    final Iterator<Pair<Pair<Matrix, int[]>, Boolean>> iterator = new BatchIterator(queue);
+    return new Iterable<Pair<Pair<Matrix, int[]>, Boolean>>() {
+      private boolean iterated = false;
+
+      @Override
+      public synchronized Iterator<Pair<Pair<Matrix, int[]>, Boolean>> iterator() {
+        if (iterated) {
+          throw new IllegalStateException("The batches of an iteration can be iterated only once");
+        }
+        iterated = true;
+        return iterator;
+      }
+    };
+  }
+
+  /**
+   * @return the given data set as an example source, adapting its batches if it is not an example source by itself.
+   */
+  private static ExampleSource getExampleSource(final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet) {
+    return dataSet instanceof ExampleSource ? (ExampleSource) dataSet : new BatchListExampleSource(dataSet);
+  }
+
+  /**
+   * Base class of the producers, which puts the end marker into the queue after the batches of an iteration.
+   * If preparing the batches fails with any {@link Throwable}, including an {@link Error},
+   * the throwable is put into the queue instead, so that the consumer never waits for a batch that will not come.
+   */
+  private abstract static class AbstractBatchProducer implements Runnable {
+    private final BlockingQueue<Object> queue;
+
+    AbstractBatchProducer(final BlockingQueue<Object> queue) {
+      this.queue = queue;
+    }
+
+    /**
+     * Puts all batches of the iteration into the queue.
+     */
+    protected abstract void produce() throws InterruptedException;
+
+    protected final void put(final Pair<Pair<Matrix, int[]>, Boolean> batch) throws InterruptedException {
+      queue.put(batch);
+    }
+
+    @Override
+    public final void run() {
+      try {
+        try {
+          produce();
+          queue.put(END_OF_ITERATION);
+        } catch (final InterruptedException e) {
+          throw e;
+        } catch (final Throwable t) {
+          queue.put(t);
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt(); // cancelled
+      }
+    }
+  }
+
+  /**
+   * Producer that puts the batches of the data set into the queue as they are.
+   */
+  private static final class BatchProducer extends AbstractBatchProducer {
+    private final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet;
+
+    BatchProducer(final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet, final BlockingQueue<Object> queue) {
+      super(queue);
+      this.dataSet = dataSet;
+    }
+
+    @Override
+    protected void produce() throws InterruptedException {
+      for (final Pair<Pair<Matrix, int[]>, Boolean> batch : dataSet) {
+        put(batch);
+      }
+    }
+  }
+
+  /**
+   * Producer that assembles batches of shuffled training examples, followed by batches of validation examples,
+   * and puts them into the queue.
+   */
+  private final class ShuffledBatchProducer extends AbstractBatchProducer {
+    private final ExampleSource source;
+
+    ShuffledBatchProducer(final ExampleSource source, final BlockingQueue<Object> queue) {
+      super(queue);
+      this.source = source;
+    }
+
+    @Override
+    protected void produce() throws InterruptedException {
+      final int numExamples = source.getNumExamples();
+      final int[] trainingIndices = new int[numExamples];
+      final int[] validationIndices = new int[numExamples];
+      int numTrainingExamples = 0;
+      int numValidationExamples = 0;
+      for (int i = 0; i < numExamples; ++i) {
+        if (source.isValidation(i)) {
+          validationIndices[numValidationExamples++] = i;
+        } else {
+          trainingIndices[numTrainingExamples++] = i;
+        }
+      }
+      shuffle(trainingIndices, numTrainingExamples);
+      putBatches(trainingIndices, numTrainingExamples, false);
+      putBatches(validationIndices, numValidationExamples, true);
+    }
+
+    /**
+     * Shuffles the first elements of the given array with the Fisher-Yates algorithm.
+     */
+    private void shuffle(final int[] indices, final int length) {
+      for (int i = length - 1; i > 0; --i) {
+        final int j = random.nextInt(i + 1);
+        final int temp = indices[i];
+        indices[i] = indices[j];
+        indices[j] = temp;
+      }
+    }
+
+    /**
+     * Assembles batches of the examples of the first given indices in order, and puts them into the queue.
+     */
+    private void putBatches(final int[] indices, final int length, final boolean isValidation)
+        throws InterruptedException {
+      final int featureLength = source.getFeatureLength();
+      for (int begin = 0; begin < length; begin += batchSize) {
+        final int numInputs = Math.min(batchSize, length - begin);
+        final float[] features = new float[numInputs * featureLength];
+        final int[] labels = new int[numInputs];
+        for (int i = 0; i < numInputs; ++i) {
+          source.getFeatures(indices[begin + i], features, i * featureLength);
+          labels[i] = source.getLabel(indices[begin + i]);
+        }
+        final Matrix input = matrixFactory.create(features, featureLength, numInputs);
+        put(new Pair<>(new Pair<>(input, labels), isValidation));
+      }
+    }
+  }
+
+  /**
+   * Iterator that takes the batches from the queue, until the end of the iteration.
+   */
+  private static final class BatchIterator implements Iterator<Pair<Pair<Matrix, int[]>, Boolean>> {
+    private final BlockingQueue<Object> queue;
+    private Object next;
+
+    BatchIterator(final BlockingQueue<Object> queue) {
+      this.queue = queue;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null) {
+        try {
+          next = queue.take();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException("InterruptedException while waiting for the next batch", e);
+        }
+      }
+      if (next instanceof Throwable) {
+        throw new RuntimeException("Exception while preparing batches", (Throwable) next);
+      }
+      return next != END_OF_ITERATION;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Pair<Pair<Matrix, int[]>, Boolean> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Pair<Pair<Matrix, int[]>, Boolean> batch = (Pair<Pair<Matrix, int[]>, Boolean>) next;
+      next = null;
+      return batch;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * Example source that reads the examples from a list of batches.
+   */
+  private static final class BatchListExampleSource implements ExampleSource {
+    private final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet;
+    private final int[] batchIndices;
+    private final int[] columnIndices;
+    private final int featureLength;
+
+    BatchListExampleSource(final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet) {
+      this.dataSet = dataSet;
+      int numExamples = 0;
+      for (final Pair<Pair<Matrix, int[]>, Boolean> batch : dataSet) {
+        numExamples += batch.getFirst().getFirst().getColumns();
+      }
+      this.batchIndices = new int[numExamples];
+      this.columnIndices = new int[numExamples];
+      int exampleIndex = 0;
+      for (int b = 0; b < dataSet.size(); ++b) {
+        final int numColumns = dataSet.get(b).getFirst().getFirst().getColumns();
+        for (int c = 0; c < numColumns; ++c) {
+          batchIndices[exampleIndex] = b;
+          columnIndices[exampleIndex] = c;
+          ++exampleIndex;
+        }
+      }
+      this.featureLength = dataSet.isEmpty() ? 0 : dataSet.get(0).getFirst().getFirst().getRows();
+    }
+
+    @Override
+    public int getNumExamples() {
+      return batchIndices.length;
+    }
+
+    @Override
+    public int getFeatureLength() {
+      return featureLength;
+    }
+
+    @Override
+    public boolean isValidation(final int index) {
+      return dataSet.get(batchIndices[index]).getSecond();
+    }
+
+    @Override
+    public int getLabel(final int index) {
+      return dataSet.get(batchIndices[index]).getFirst().getSecond()[columnIndices[index]];
+    }
+
+    @Override
+    public void getFeatures(final int index, final float[] destination, final int offset) {
+      final Matrix input = dataSet.get(batchIndices[index]).getFirst().getFirst();
+      final int column = columnIndices[index];
+      for (int row = 0; row < featureLength; ++row) {
+        destination[offset + row] = input.get(row, column);
+      }
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import edu.snu.dolphin.dnn.data.BinaryDataFile.FeatureType;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Converts the Numpy compatible plain text data that {@link NeuralNetworkDataParser} parses
+ * into the binary format of {@link BinaryDataFile}.
+ * <p/>
+ * Each line of the text data has the features of an input, its label and whether it is for validation or not.
+ * The text file is read twice: once for counting inputs and once for writing them.
+ * <p/>
+ * Usage: {@code BinaryDataConverter <text file> <binary file> [float32|uint8] [delimiter]}
+ */
+public final class BinaryDataConverter {
+
+  private static final Logger LOG = Logger.getLogger(BinaryDataConverter.class.getName());
+
+  private BinaryDataConverter() {
+  }
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 2 || args.length > 4) {
+      throw new IllegalArgumentException(
+          "Usage: BinaryDataConverter <text file> <binary file> [float32|uint8] [delimiter]");
+    }
+    final FeatureType featureType = args.length > 2 ? FeatureType.valueOf(args[2].toUpperCase()) : FeatureType.FLOAT32;
+    final String delimiter = args.length > 3 ? args[3] : ",";
+    convert(new File(args[0]), new File(args[1]), featureType, delimiter);
+  }
+
+  /**
+   * Converts the given text data file into a binary data file.
+   * @param textFile the text data file.
+   * @param binaryFile the binary data file to write.
+   * @param featureType the type of feature values in the binary data file.
+   * @param delimiter the delimiter that is used in the text data file.
+   * @throws IOException if the files cannot be read or written.
+   */
+  public static void convert(final File textFile, final File binaryFile, final FeatureType featureType,
+                             final String delimiter) throws IOException {
+    int featureLength = -1;
+    int numTrainingInputs = 0;
+    int numValidationInputs = 0;
+    try (final BufferedReader reader = newReader(textFile)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final float[] values = parseLine(line, delimiter, featureLength);
+        if (values == null) {
+          continue;
+        }
+        featureLength = values.length - 2;
+        if (isValidation(values)) {
+          ++numValidationInputs;
+        } else {
+          ++numTrainingInputs;
+        }
+      }
+    }
+
+    final MappedByteBuffer buffer = BinaryDataFile.create(binaryFile, featureType, Math.max(featureLength, 0),
+        numTrainingInputs, numValidationInputs);
+    final int numInputs = numTrainingInputs + numValidationInputs;
+    int trainingIndex = 0;
+    int validationIndex = numTrainingInputs;
+    try (final BufferedReader reader = newReader(textFile)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final float[] values = parseLine(line, delimiter, featureLength);
+        if (values == null) {
+          continue;
+        }
+        final int index = isValidation(values) ? validationIndex++ : trainingIndex++;
+        buffer.position(BinaryDataFile.getFeatureOffset(featureType, featureLength, index));
+        for (int i = 0; i < featureLength; ++i) {
+          putFeature(buffer, featureType, values[i]);
+        }
+        buffer.putInt(BinaryDataFile.getLabelOffset(featureType, featureLength, numInputs, index),
+            (int) values[featureLength]);
+      }
+    }
+    buffer.force();
+
+    LOG.log(Level.INFO, "Converted {0} training inputs and {1} validation inputs with {2} features into {3}",
+        new Object[]{numTrainingInputs, numValidationInputs, featureLength, binaryFile});
+  }
+
+  private static BufferedReader newReader(final File file) throws IOException {
+    return new BufferedReader(new InputStreamReader(new FileInputStream(file)));
+  }
+
+  /**
+   * @return the values of the given line, or {@code null} if the line is empty or a comment.
+   */
+  private static float[] parseLine(final String line, final String delimiter, final int featureLength) {
+    final String text = line.trim();
+    if (text.startsWith("#") || text.isEmpty()) {
+      return null;
+    }
+    final String[] split = text.split(delimiter);
+    if (split.length < 2 || (featureLength >= 0 && split.length != featureLength + 2)) {
+      throw new RuntimeException("Data has inconsistent length");
+    }
+    final float[] values = new float[split.length];
+    for (int i = 0; i < split.length; ++i) {
+      values[i] = Float.parseFloat(split[i]);
+    }
+    return values;
+  }
+
+  private static boolean isValidation(final float[] values) {
+    return (int) values[values.length - 1] == 1;
+  }
+
+  private static void putFeature(final MappedByteBuffer buffer, final FeatureType featureType, final float value) {
+    switch (featureType) {
+    case FLOAT32:
+      buffer.putFloat(value);
+      break;
+    case UINT8:
+      if (value < 0 || value > 255 || value != (int) value) {
+        throw new IllegalArgumentException("Feature value " + value + " cannot be stored as an unsigned byte");
+      }
+      buffer.put((byte) value);
+      break;
+    default:
+      throw new IllegalStateException("Unknown feature type: " + featureType);
+    }
+  }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory-mapped file of neural network data in a compact binary format,
+ * which can be read without parsing text.
+ * <p/>
+ * A file consists of a header, the features of all inputs, and the labels of all inputs, in little-endian order.
+ * The header has six 32-bit integers: the magic number, the format version, the feature type,
+ * the number of features per input, the number of training inputs and the number of validation inputs.
+ * The features of each input are stored contiguously and training inputs precede validation inputs,
+ * so that the features of consecutive inputs form a column-major matrix.
+ * Each label is a 32-bit integer.
+ * <p/>
+ * A file is mapped as a whole, so it must be smaller than 2GB. Larger data sets should be split into multiple files.
+ * This class is thread-safe.
+ */
+public final class BinaryDataFile {
+
+  public static final int MAGIC = 0x424E4E44; // "DNNB" in little-endian order
+  public static final int VERSION = 1;
+  public static final int HEADER_SIZE = 6 * 4;
+  public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  /**
+   * Types of feature values.
+   */
+  public enum FeatureType {
+    FLOAT32(4), UINT8(1);
+
+    private final int size;
+
+    FeatureType(final int size) {
+      this.size = size;
+    }
+
+    /**
+     * @return the number of bytes of a feature value.
+     */
+    public int getSize() {
+      return size;
+    }
+  }
+
+  private final String path;
+  private final MappedByteBuffer buffer;
+  private final FeatureType featureType;
+  private final int featureLength;
+  private final int numTrainingInputs;
+  private final int numValidationInputs;
+  private final int labelOffset;
+
+  private BinaryDataFile(final String path, final MappedByteBuffer buffer) {
+    this.path = path;
+    this.buffer = buffer;
+    buffer.order(BYTE_ORDER);
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException(path + " is not a binary data file");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("Unsupported version of binary data file " + path + ": " + buffer.getInt(4));
+    }
+    final int featureTypeIndex = buffer.getInt(8);
+    if (featureTypeIndex < 0 || featureTypeIndex >= FeatureType.values().length) {
+      throw new IllegalArgumentException("Unknown feature type of binary data file " + path + ": " + featureTypeIndex);
+    }
+    this.featureType = FeatureType.values()[featureTypeIndex];
+    this.featureLength = buffer.getInt(12);
+    this.numTrainingInputs = buffer.getInt(16);
+    this.numValidationInputs = buffer.getInt(20);
+    this.labelOffset = HEADER_SIZE + getNumInputs() * featureLength * featureType.getSize();
+    if (buffer.capacity() != getFileSize(featureType, featureLength, getNumInputs())) {
+      throw new IllegalArgumentException("The size of binary data file " + path + " does not match its header");
+    }
+  }
+
+  /**
+   * Memory-maps the binary data file at the given path.
+   * @param path the path of the file on the local filesystem.
+   * @return the mapped file.
+   * @throws IOException if the file cannot be mapped.
+   */
+  public static BinaryDataFile open(final String path) throws IOException {
+    try (final RandomAccessFile file = new RandomAccessFile(path, "r")) {
+      final FileChannel channel = file.getChannel();
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Binary data file " + path + " is larger than 2GB");
+      }
+      // the mapping remains valid after the channel is closed.
+      return new BinaryDataFile(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Creates a binary data file at the given path and memory-maps it for writing.
+   * The header is written, and the features and labels are written with the returned buffer.
+   * @param file the file to create.
+   * @param featureType the type of feature values.
+   * @param featureLength the number of features per input.
+   * @param numTrainingInputs the number of training inputs.
+   * @param numValidationInputs the number of validation inputs.
+   * @return the buffer of the whole file, in which only the header has been written.
+   * @throws IOException if the file cannot be created.
+   */
+  static MappedByteBuffer create(final File file, final FeatureType featureType, final int featureLength,
+                                 final int numTrainingInputs, final int numValidationInputs) throws IOException {
+    final long size = getFileSize(featureType, featureLength, numTrainingInputs + numValidationInputs);
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Binary data file " + file + " would be larger than 2GB. Split the data set.");
+    }
+    try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      randomAccessFile.setLength(size);
+      final MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+      buffer.order(BYTE_ORDER);
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+      buffer.putInt(8, featureType.ordinal());
+      buffer.putInt(12, featureLength);
+      buffer.putInt(16, numTrainingInputs);
+      buffer.putInt(20, numValidationInputs);
+      return buffer;
+    }
+  }
+
+  /**
+   * @return the size of a binary data file with the given header values, in bytes.
+   */
+  static long getFileSize(final FeatureType featureType, final int featureLength, final int numInputs) {
+    return HEADER_SIZE + (long) numInputs * featureLength * featureType.getSize() + (long) numInputs * 4;
+  }
+
+  /**
+   * @return the offset of the features of the specified input, in bytes.
+   */
+  static int getFeatureOffset(final FeatureType featureType, final int featureLength, final int index) {
+    return HEADER_SIZE + index * featureLength * featureType.getSize();
+  }
+
+  /**
+   * @return the offset of the label of the specified input, in bytes.
+   */
+  static int getLabelOffset(final FeatureType featureType, final int featureLength, final int numInputs,
+                            final int index) {
+    return getFeatureOffset(featureType, featureLength, numInputs) + index * 4;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public FeatureType getFeatureType() {
+    return featureType;
+  }
+
+  public int getFeatureLength() {
+    return featureLength;
+  }
+
+  public int getNumTrainingInputs() {
+    return numTrainingInputs;
+  }
+
+  public int getNumValidationInputs() {
+    return numValidationInputs;
+  }
+
+  /**
+   * @return the number of all inputs, training inputs first and validation inputs next.
+   */
+  public int getNumInputs() {
+    return numTrainingInputs + numValidationInputs;
+  }
+
+  /**
+   * Reads the features of the inputs in the given range, as a column-major array where each column is an input.
+   * @param begin the index of the first input, inclusive.
+   * @param end the index of the last input, exclusive.
+   * @return the features of the inputs.
+   */
+  public float[] readFeatures(final int begin, final int end) {
+    final float[] features = new float[(end - begin) * featureLength];
+    readFeatures(begin, end, features, 0);
+    return features;
+  }
+
+  /**
+   * Reads the features of the inputs in the given range into the given array,
+   * as a column-major array where each column is an input.
+   * @param begin the index of the first input, inclusive.
+   * @param end the index of the last input, exclusive.
+   * @param destination the array to read the features into.
+   * @param offset the position in the array of the first feature.
+   */
+  public void readFeatures(final int begin, final int end, final float[] destination, final int offset) {
+    checkRange(begin, end);
+    final int length = (end - begin) * featureLength;
+    final ByteBuffer view = buffer.duplicate().order(BYTE_ORDER);
+    view.position(getFeatureOffset(featureType, featureLength, begin));
+    switch (featureType) {
+    case FLOAT32:
+      view.asFloatBuffer().get(destination, offset, length);
+      break;
+    case UINT8:
+      for (int i = offset; i < offset + length; ++i) {
+        destination[i] = view.get() & 0xFF;
+      }
+      break;
+    default:
+      throw new IllegalStateException("Unknown feature type: " + featureType);
+    }
+  }
+
+  /**
+   * Reads the labels of the inputs in the given range.
+   * @param begin the index of the first input, inclusive.
+   * @param end the index of the last input, exclusive.
+   * @return the labels of the inputs.
+   */
+  public int[] readLabels(final int begin, final int end) {
+    checkRange(begin, end);
+    final int[] labels = new int[end - begin];
+    final ByteBuffer view = buffer.duplicate().order(BYTE_ORDER);
+    view.position(labelOffset + begin * 4);
+    view.asIntBuffer().get(labels);
+    return labels;
+  }
+
+  /**
+   * @param index the index of an input.
+   * @return the label of the input.
+   */
+  public int readLabel(final int index) {
+    checkRange(index, index + 1);
+    return buffer.getInt(labelOffset + index * 4);
+  }
+
+  private void checkRange(final int begin, final int end) {
+    if (begin < 0 || end > getNumInputs() || begin > end) {
+      throw new IndexOutOfBoundsException(
+          String.format("Invalid range [%d, %d) of %d inputs in %s", begin, end, getNumInputs(), path));
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+/**
+ * Random-access source of the examples of a data set, from which batches can be assembled in any order.
+ */
+public interface ExampleSource {
+
+  /**
+   * @return the number of examples.
+   */
+  int getNumExamples();
+
+  /**
+   * @return the number of features of an example.
+   */
+  int getFeatureLength();
+
+  /**
+   * @param index the index of an example.
+   * @return whether the example is for validation or not.
+   */
+  boolean isValidation(int index);
+
+  /**
+   * @param index the index of an example.
+   * @return the label of the example.
+   */
+  int getLabel(int index);
+
+  /**
+   * Copies the features of an example into the given array.
+   * @param index the index of an example.
+   * @param destination the array to copy the features into.
+   * @param offset the position in the array of the first feature.
+   */
+  void getFeatures(int index, float[] destination, int offset);
+}
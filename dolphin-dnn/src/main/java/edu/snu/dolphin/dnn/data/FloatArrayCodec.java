@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import org.apache.reef.wake.remote.Codec;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+
+/**
+ * Serialization codec for float arrays.
+ */
+public final class FloatArrayCodec implements Codec<float[]> {
+
+  @Inject
+  private FloatArrayCodec() {
+  }
+
+  @Override
+  public byte[] encode(final float[] data) {
+    final ByteBuffer buffer = ByteBuffer.allocate(Integer.SIZE / Byte.SIZE + data.length * Float.SIZE / Byte.SIZE);
+    buffer.putInt(data.length);
+    buffer.asFloatBuffer().put(data);
+    return buffer.array();
+  }
+
+  @Override
+  public float[] decode(final byte[] bytes) {
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    final float[] data = new float[buffer.getInt()];
+    buffer.asFloatBuffer().get(data);
+    return data;
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+/**
+ * Precision in which {@link MatrixCodec} transfers matrix elements.
+ * Matrices are always kept as 32-bit floats in memory, so a lower precision only reduces the size on the wire;
+ * values are rounded to the nearest representable value, with ties to even.
+ */
+public enum FloatPrecision {
+
+  /**
+   * IEEE 754 single precision, which is lossless.
+   */
+  FLOAT32(4),
+
+  /**
+   * IEEE 754 half precision: 5 exponent bits and 10 mantissa bits.
+   * Magnitudes beyond 65504 become infinite, and those below about 6e-8 become zero.
+   */
+  FLOAT16(2),
+
+  /**
+   * Brain floating point: the upper 16 bits of a single precision value.
+   * Keeps the range of single precision, with 7 mantissa bits.
+   */
+  BFLOAT16(2);
+
+  private final int bytes;
+
+  FloatPrecision(final int bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * @return the number of bytes an element takes
+   */
+  public int getBytes() {
+    return bytes;
+  }
+
+  /**
+   * @param precision a precision string: {@code float32}, {@code float16} or {@code bfloat16}
+   * @return the precision that the given string indicates
+   */
+  public static FloatPrecision fromString(final String precision) {
+    switch (precision.toLowerCase()) {
+    case "float32":
+      return FLOAT32;
+    case "float16":
+      return FLOAT16;
+    case "bfloat16":
+      return BFLOAT16;
+    default:
+      throw new IllegalArgumentException("Unsupported precision: " + precision);
+    }
+  }
+
+  /**
+   * Converts a single precision value to the bits of the nearest half precision value.
+   */
+  public static short toFloat16(final float value) {
+    final int bits = Float.floatToRawIntBits(value);
+    final int sign = (bits >>> 16) & 0x8000;
+    final int exponent = (bits >>> 23) & 0xff;
+    final int mantissa = bits & 0x7fffff;
+
+    if (exponent == 0xff) { // infinity or NaN, keeping NaNs quiet
+      return (short) (sign | 0x7c00 | (mantissa == 0 ? 0 : 0x200));
+    }
+
+    final int halfExponent = exponent - 127 + 15;
+    if (halfExponent >= 0x1f) { // overflow
+      return (short) (sign | 0x7c00);
+    }
+
+    if (halfExponent <= 0) { // subnormal half, in units of 2^-24
+      final int shift = 126 - exponent;
+      if (shift > 24) {
+        return (short) sign;
+      }
+      final int significand = mantissa | 0x800000;
+      final int halfway = 1 << (shift - 1);
+      final int rest = significand & ((1 << shift) - 1);
+      int half = significand >> shift;
+      if (rest > halfway || (rest == halfway && (half & 1) != 0)) {
+        half++;
+      }
+      return (short) (sign | half);
+    }
+
+    // rounding up may carry into the exponent, which is still the correct result (even up to infinity)
+    int half = sign | (halfExponent << 10) | (mantissa >> 13);
+    final int rest = mantissa & 0x1fff;
+    if (rest > 0x1000 || (rest == 0x1000 && (half & 1) != 0)) {
+      half++;
+    }
+    return (short) half;
+  }
+
+  /**
+   * Converts the bits of a half precision value to a single precision value, which is exact.
+   */
+  public static float fromFloat16(final short value) {
+    final int half = value & 0xffff;
+    final int sign = (half & 0x8000) << 16;
+    final int exponent = (half >>> 10) & 0x1f;
+    final int mantissa = half & 0x3ff;
+
+    if (exponent == 0x1f) {
+      return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+    }
+    if (exponent == 0) {
+      final float magnitude = mantissa * 0x1p-24f;
+      return sign == 0 ? magnitude : -magnitude;
+    }
+    return Float.intBitsToFloat(sign | ((exponent - 15 + 127) << 23) | (mantissa << 13));
+  }
+
+  /**
+   * Converts a single precision value to the bits of the nearest bfloat16 value.
+   */
+  public static short toBFloat16(final float value) {
+    final int bits = Float.floatToRawIntBits(value);
+    if (Float.isNaN(value)) {
+      return (short) ((bits >>> 16) | 0x40);
+    }
+    return (short) ((bits + 0x7fff + ((bits >>> 16) & 1)) >>> 16);
+  }
+
+  /**
+   * Converts the bits of a bfloat16 value to a single precision value, which is exact.
+   */
+  public static float fromBFloat16(final short value) {
+    return Float.intBitsToFloat((value & 0xffff) << 16);
+  }
+}
@@ -15,30 +15,72 @@
  */
 package edu.snu.dolphin.dnn.data;
 
+import edu.snu.dolphin.dnn.blas.FloatBufferMatrix;
 import edu.snu.dolphin.dnn.blas.Matrix;
 import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.WirePrecision;
+import edu.snu.dolphin.dnn.util.NeuralNetworkProfiler;
 import org.apache.reef.io.network.impl.StreamingCodec;
+import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
 
 /**
  * Serialization codec for {@link edu.snu.dolphin.dnn.blas.Matrix}.
  * Implements the {@code StreamingCodec} interface for efficient usages in other codec classes.
+ *
+ * Elements are written as big-endian floats, as {@link DataOutputStream#writeFloat(float)} does,
+ * but are converted and copied in bulk through a chunk buffer instead of one by one.
+ * Matrices implementing {@link FloatBufferMatrix} are copied directly from and to their buffers.
+ *
+ * If {@link WirePrecision} is {@code float16} or {@code bfloat16}, elements are rounded to 16 bits on the wire,
+ * which halves the size of encoded matrices. Encoders and decoders must be configured with the same precision.
  */
 public final class MatrixCodec implements StreamingCodec<Matrix> {
 
+  /**
+   * Number of bytes of elements that are converted at a time.
+   */
+  private static final int CHUNK_SIZE = 1 << 16;
+
   private final MatrixFactory matrixFactory;
+  private final FloatPrecision precision;
+
+  /**
+   * Whether the matrices created by {@link #matrixFactory} are {@link FloatBufferMatrix}es,
+   * into which decoded elements can be copied directly.
+   */
+  private final boolean createsFloatBufferMatrices;
+
+  private final NeuralNetworkProfiler profiler;
+  private final NeuralNetworkProfiler.Stat encodeStat;
+  private final NeuralNetworkProfiler.Stat decodeStat;
 
   @Inject
-  private MatrixCodec(final MatrixFactory matrixFactory) {
+  private MatrixCodec(final MatrixFactory matrixFactory,
+                      @Parameter(WirePrecision.class) final String wirePrecision,
+                      final NeuralNetworkProfiler profiler) {
+    this(matrixFactory, FloatPrecision.fromString(wirePrecision), profiler);
+  }
+
+  MatrixCodec(final MatrixFactory matrixFactory, final FloatPrecision precision,
+              final NeuralNetworkProfiler profiler) {
     this.matrixFactory = matrixFactory;
+    this.precision = precision;
+    this.createsFloatBufferMatrices = matrixFactory.create(0) instanceof FloatBufferMatrix;
+    this.profiler = profiler;
+    this.encodeStat = profiler.getStat("matrix encode");
+    this.decodeStat = profiler.getStat("matrix decode");
   }
 
   @Override
   public byte[] encode(final Matrix matrix) {
-    try (final ByteArrayOutputStream bstream = new ByteArrayOutputStream(Integer.SIZE * 2 +
-                                                                         Float.SIZE * matrix.getLength());
+    try (final ByteArrayOutputStream bstream = new ByteArrayOutputStream(Integer.SIZE / Byte.SIZE * 2 +
+                                                                         precision.getBytes() * matrix.getLength());
          final DataOutputStream dstream = new DataOutputStream(bstream)) {
 
       encodeToStream(matrix, dstream);
@@ -51,16 +93,19 @@ public final class MatrixCodec implements StreamingCodec<Matrix> {
 
   @Override
   public void encodeToStream(final Matrix matrix, final DataOutputStream dstream) {
+    final long startTime = profiler.startTime();
+    final long startBytes = profiler.startBytes();
     try {
       dstream.writeInt(matrix.getRows());
       dstream.writeInt(matrix.getColumns());
 
-      for (int elementIndex = 0; elementIndex < matrix.getLength(); elementIndex++) {
-        dstream.writeFloat(matrix.get(elementIndex));
-      }
+      writeElements(dstream, matrix instanceof FloatBufferMatrix ?
+          ((FloatBufferMatrix) matrix).getBuffer() : FloatBuffer.wrap(matrix.toFloatArray()));
 
     } catch (final IOException e) {
       throw new RuntimeException("IOException during MatrixCodec.encodeToStream()", e);
+    } finally {
+      encodeStat.record(startTime, startBytes);
     }
   }
 
@@ -76,20 +121,87 @@ public final class MatrixCodec implements StreamingCodec<Matrix> {
 
   @Override
   public Matrix decodeFromStream(final DataInputStream dstream) {
+    final long startTime = profiler.startTime();
+    final long startBytes = profiler.startBytes();
     try {
       final int rows = dstream.readInt();
       final int columns = dstream.readInt();
       final int length = rows * columns; // overflow may occur if matrix is too big, but in practice is not a concern
 
-      final float[] elements = new float[length];
-      for (int index = 0; index < length; index++) {
-        elements[index] = dstream.readFloat();
+      if (createsFloatBufferMatrices) {
+        final Matrix matrix = matrixFactory.create(rows, columns);
+        readElements(dstream, ((FloatBufferMatrix) matrix).getBuffer());
+        return matrix;
       }
 
+      final float[] elements = new float[length];
+      readElements(dstream, FloatBuffer.wrap(elements));
       return matrixFactory.create(elements, rows, columns);
 
     } catch (final IOException e) {
       throw new RuntimeException("IOException during MatrixCodec.decodeFromStream()", e);
+    } finally {
+      decodeStat.record(startTime, startBytes);
+    }
+  }
+
+  /**
+   * Writes the remaining elements of the given buffer to the stream, in big-endian order and in {@link #precision}.
+   */
+  private void writeElements(final DataOutputStream dstream, final FloatBuffer elements) throws IOException {
+    final byte[] chunk = new byte[Math.min(CHUNK_SIZE, precision.getBytes() * elements.remaining())];
+    if (precision == FloatPrecision.FLOAT32) {
+      final FloatBuffer chunkView = ByteBuffer.wrap(chunk).asFloatBuffer();
+      while (elements.hasRemaining()) {
+        final int count = Math.min(chunkView.capacity(), elements.remaining());
+        final FloatBuffer source = elements.duplicate();
+        source.limit(source.position() + count);
+        chunkView.clear();
+        chunkView.put(source);
+        elements.position(elements.position() + count);
+        dstream.write(chunk, 0, precision.getBytes() * count);
+      }
+
+    } else {
+      final ShortBuffer chunkView = ByteBuffer.wrap(chunk).asShortBuffer();
+      final boolean half = precision == FloatPrecision.FLOAT16;
+      while (elements.hasRemaining()) {
+        final int count = Math.min(chunkView.capacity(), elements.remaining());
+        for (int i = 0; i < count; ++i) {
+          final float value = elements.get();
+          chunkView.put(i, half ? FloatPrecision.toFloat16(value) : FloatPrecision.toBFloat16(value));
+        }
+        dstream.write(chunk, 0, precision.getBytes() * count);
+      }
+    }
+  }
+
+  /**
+   * Reads elements in {@link #precision} from the stream until the given buffer is full.
+   */
+  private void readElements(final DataInputStream dstream, final FloatBuffer elements) throws IOException {
+    final byte[] chunk = new byte[Math.min(CHUNK_SIZE, precision.getBytes() * elements.remaining())];
+    if (precision == FloatPrecision.FLOAT32) {
+      final FloatBuffer chunkView = ByteBuffer.wrap(chunk).asFloatBuffer();
+      while (elements.hasRemaining()) {
+        final int count = Math.min(chunkView.capacity(), elements.remaining());
+        dstream.readFully(chunk, 0, precision.getBytes() * count);
+        chunkView.clear();
+        chunkView.limit(count);
+        elements.put(chunkView);
+      }
+
+    } else {
+      final ShortBuffer chunkView = ByteBuffer.wrap(chunk).asShortBuffer();
+      final boolean half = precision == FloatPrecision.FLOAT16;
+      while (elements.hasRemaining()) {
+        final int count = Math.min(chunkView.capacity(), elements.remaining());
+        dstream.readFully(chunk, 0, precision.getBytes() * count);
+        for (int i = 0; i < count; ++i) {
+          final short value = chunkView.get(i);
+          elements.put(half ? FloatPrecision.fromFloat16(value) : FloatPrecision.fromBFloat16(value));
+        }
+      }
     }
   }
 }
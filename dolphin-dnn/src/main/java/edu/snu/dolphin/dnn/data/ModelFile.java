@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.dnn.util.NeuralNetworkProfiler;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+
+import javax.inject.Inject;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Reads and writes the parameters of a trained neural network model.
+ *
+ * A model file holds the number of layers followed by the weight and bias matrices of each layer,
+ * encoded by {@link MatrixCodec} in {@code float32} regardless of the configured wire precision.
+ * Layers that are not learnable have empty matrices.
+ * Paths are resolved by Hadoop {@link FileSystem}, so they may be on the local filesystem or on HDFS.
+ */
+public final class ModelFile {
+
+  private final MatrixFactory matrixFactory;
+  private final MatrixCodec matrixCodec;
+
+  @Inject
+  private ModelFile(final MatrixFactory matrixFactory, final NeuralNetworkProfiler profiler) {
+    this.matrixFactory = matrixFactory;
+    this.matrixCodec = new MatrixCodec(matrixFactory, FloatPrecision.FLOAT32, profiler);
+  }
+
+  /**
+   * Writes the given parameters to a model file, overwriting the file if it exists.
+   * @param path the path of the model file
+   * @param layerParameters the parameters of each layer, which may be {@code null} for layers that are not learnable
+   * @throws IOException if the file cannot be written
+   */
+  public void write(final String path, final LayerParameter[] layerParameters) throws IOException {
+    final Path filePath = new Path(path);
+    final FileSystem fs = filePath.getFileSystem(new JobConf());
+    try (final DataOutputStream dstream = new DataOutputStream(new BufferedOutputStream(fs.create(filePath, true)))) {
+      final LayerParameter emptyLayerParameter = LayerParameter.newEmptyInstance(matrixFactory);
+      dstream.writeInt(layerParameters.length);
+      for (final LayerParameter layerParameter : layerParameters) {
+        final LayerParameter parameter = layerParameter == null ? emptyLayerParameter : layerParameter;
+        matrixCodec.encodeToStream(parameter.getWeightParam(), dstream);
+        matrixCodec.encodeToStream(parameter.getBiasParam(), dstream);
+      }
+    }
+  }
+
+  /**
+   * Reads parameters from a model file.
+   * @param path the path of the model file
+   * @return the parameters of each layer
+   * @throws IOException if the file cannot be read
+   */
+  public LayerParameter[] read(final String path) throws IOException {
+    final Path filePath = new Path(path);
+    final FileSystem fs = filePath.getFileSystem(new JobConf());
+    try (final DataInputStream dstream = new DataInputStream(new BufferedInputStream(fs.open(filePath)))) {
+      final LayerParameter[] layerParameters = new LayerParameter[dstream.readInt()];
+      for (int i = 0; i < layerParameters.length; ++i) {
+        layerParameters[i] = LayerParameter.newBuilder()
+            .setWeightParam(matrixCodec.decodeFromStream(dstream))
+            .setBiasParam(matrixCodec.decodeFromStream(dstream))
+            .build();
+      }
+      return layerParameters;
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import edu.snu.dolphin.bsp.core.DataParser;
+import edu.snu.dolphin.bsp.core.ParseException;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.BatchSize;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.reef.io.data.loading.api.DataSet;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data parser for neural network, which reads files in the binary format of {@link BinaryDataFile}.
+ *
+ * Each line of the input is the path of a binary data file on the local filesystem of evaluators,
+ * so that the list of files is split over evaluators by data loading.
+ * The files are memory-mapped, and the parsed list of batches reads a batch from the mapped file when it is accessed,
+ * instead of keeping the whole data set on heap.
+ * The list is also an {@link ExampleSource}, which reads single examples from the mapped files.
+ */
+public final class NeuralNetworkBinaryDataParser implements DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>> {
+
+  private final MatrixFactory matrixFactory;
+  private final DataSet<LongWritable, Text> dataSet;
+  private final int batchSize;
+  private List<Pair<Pair<Matrix, int[]>, Boolean>> result;
+  private ParseException parseException;
+
+  @Inject
+  private NeuralNetworkBinaryDataParser(final MatrixFactory matrixFactory,
+                                        final DataSet<LongWritable, Text> dataSet,
+                                        @Parameter(BatchSize.class) final int batchSize) {
+    this.matrixFactory = matrixFactory;
+    this.dataSet = dataSet;
+    this.batchSize = batchSize;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<Pair<Pair<Matrix, int[]>, Boolean>> get() throws ParseException {
+    if (result == null) {
+      parse();
+    }
+    if (parseException != null) {
+      throw parseException;
+    }
+    return result;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void parse() {
+    final List<Batch> batches = new ArrayList<>();
+
+    for (final Pair<LongWritable, Text> keyValue : dataSet) {
+      final String path = keyValue.getSecond().toString().trim();
+      if (path.startsWith("#") || 0 == path.length()) {
+        continue;
+      }
+      try {
+        final BinaryDataFile file = BinaryDataFile.open(path);
+        addBatches(batches, file, 0, file.getNumTrainingInputs(), false);
+        addBatches(batches, file, file.getNumTrainingInputs(), file.getNumInputs(), true);
+      } catch (final IOException | IllegalArgumentException e) {
+        parseException = new ParseException("Failed to read binary data file " + path + ": " + e.toString());
+        return;
+      }
+    }
+
+    result = new BatchList(batches);
+  }
+
+  /**
+   * Splits the inputs of the given range into batches of the batch size, and adds them to the given list.
+   */
+  private void addBatches(final List<Batch> batches, final BinaryDataFile file,
+                          final int begin, final int end, final boolean isValidation) {
+    for (int batchBegin = begin; batchBegin < end; batchBegin += batchSize) {
+      batches.add(new Batch(file, batchBegin, Math.min(batchBegin + batchSize, end), isValidation));
+    }
+  }
+
+  /**
+   * Range of consecutive inputs in a binary data file that forms a batch.
+   */
+  private static final class Batch {
+    private final BinaryDataFile file;
+    private final int begin;
+    private final int end;
+    private final boolean isValidation;
+
+    /**
+     * The index of the first example of this batch, among the examples of all batches.
+     */
+    private int firstExampleIndex;
+
+    Batch(final BinaryDataFile file, final int begin, final int end, final boolean isValidation) {
+      this.file = file;
+      this.begin = begin;
+      this.end = end;
+      this.isValidation = isValidation;
+    }
+  }
+
+  /**
+   * List of batches, which reads the input matrix and labels of a batch from the mapped file on every access.
+   */
+  private final class BatchList extends AbstractList<Pair<Pair<Matrix, int[]>, Boolean>> implements ExampleSource {
+    private final List<Batch> batches;
+    private final int numExamples;
+    private final int featureLength;
+
+    BatchList(final List<Batch> batches) {
+      this.batches = batches;
+      int exampleIndex = 0;
+      for (final Batch batch : batches) {
+        batch.firstExampleIndex = exampleIndex;
+        exampleIndex += batch.end - batch.begin;
+      }
+      this.numExamples = exampleIndex;
+      this.featureLength = batches.isEmpty() ? 0 : batches.get(0).file.getFeatureLength();
+      for (final Batch batch : batches) {
+        if (batch.file.getFeatureLength() != featureLength) {
+          throw new IllegalArgumentException("Binary data files have different numbers of features");
+        }
+      }
+    }
+
+    @Override
+    public Pair<Pair<Matrix, int[]>, Boolean> get(final int index) {
+      final Batch batch = batches.get(index);
+      final Matrix input = matrixFactory.create(batch.file.readFeatures(batch.begin, batch.end),
+          batch.file.getFeatureLength(), batch.end - batch.begin);
+      final int[] labels = batch.file.readLabels(batch.begin, batch.end);
+      return new Pair<>(new Pair<>(input, labels), batch.isValidation);
+    }
+
+    @Override
+    public int size() {
+      return batches.size();
+    }
+
+    @Override
+    public int getNumExamples() {
+      return numExamples;
+    }
+
+    @Override
+    public int getFeatureLength() {
+      return featureLength;
+    }
+
+    @Override
+    public boolean isValidation(final int index) {
+      return findBatch(index).isValidation;
+    }
+
+    @Override
+    public int getLabel(final int index) {
+      final Batch batch = findBatch(index);
+      final int fileIndex = batch.begin + index - batch.firstExampleIndex;
+      return batch.file.readLabel(fileIndex);
+    }
+
+    @Override
+    public void getFeatures(final int index, final float[] destination, final int offset) {
+      final Batch batch = findBatch(index);
+      final int fileIndex = batch.begin + index - batch.firstExampleIndex;
+      batch.file.readFeatures(fileIndex, fileIndex + 1, destination, offset);
+    }
+
+    /**
+     * @return the batch that contains the example of the given index.
+     */
+    private Batch findBatch(final int index) {
+      if (index < 0 || index >= numExamples) {
+        throw new IndexOutOfBoundsException("Example index " + index + " is out of " + numExamples + " examples");
+      }
+      int low = 0;
+      int high = batches.size() - 1;
+      while (low < high) {
+        final int middle = (low + high + 1) >>> 1;
+        if (batches.get(middle).firstExampleIndex <= index) {
+          low = middle;
+        } else {
+          high = middle - 1;
+        }
+      }
+      return batches.get(low);
+    }
+  }
+}
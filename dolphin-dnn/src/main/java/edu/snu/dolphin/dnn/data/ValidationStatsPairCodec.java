@@ -36,7 +36,7 @@ public final class ValidationStatsPairCodec implements
 
   @Override
   public byte[] encode(final Pair<ValidationStats, ValidationStats> validationStatsPair) {
-    try (final ByteArrayOutputStream bstream = new ByteArrayOutputStream(4 * Integer.SIZE);
+    try (final ByteArrayOutputStream bstream = new ByteArrayOutputStream(6 * Integer.SIZE + 2 * Float.SIZE);
          final DataOutputStream dstream = new DataOutputStream(bstream)) {
       encodeToStream(validationStatsPair, dstream);
       return bstream.toByteArray();
@@ -50,10 +50,8 @@ public final class ValidationStatsPairCodec implements
   public void encodeToStream(final Pair<ValidationStats, ValidationStats> validationStatsPair,
                              final DataOutputStream dstream) {
     try {
-      dstream.writeInt(validationStatsPair.getFirst().getTotalNum());
-      dstream.writeInt(validationStatsPair.getFirst().getCorrectNum());
-      dstream.writeInt(validationStatsPair.getSecond().getTotalNum());
-      dstream.writeInt(validationStatsPair.getSecond().getCorrectNum());
+      writeValidationStats(validationStatsPair.getFirst(), dstream);
+      writeValidationStats(validationStatsPair.getSecond(), dstream);
     } catch (final IOException e) {
       throw new RuntimeException("IOException during ValidationStatsPairCodec.encodeToStream()", e);
     }
@@ -72,14 +70,27 @@ public final class ValidationStatsPairCodec implements
   @Override
   public Pair<ValidationStats, ValidationStats> decodeFromStream(final DataInputStream dstream) {
     try {
-      final int firstTotalNum = dstream.readInt();
-      final int firstCorrectNum = dstream.readInt();
-      final int secondTotalNum = dstream.readInt();
-      final int secondCorrectNum = dstream.readInt();
-      return new Pair<>(new ValidationStats(firstTotalNum, firstCorrectNum),
-          new ValidationStats(secondTotalNum, secondCorrectNum));
+      final ValidationStats first = readValidationStats(dstream);
+      final ValidationStats second = readValidationStats(dstream);
+      return new Pair<>(first, second);
     } catch (final IOException e) {
       throw new RuntimeException("IOException during ValidationStatsPairCodec.decodeFromStream()", e);
     }
   }
+
+  private static void writeValidationStats(final ValidationStats validationStats, final DataOutputStream dstream)
+      throws IOException {
+    dstream.writeInt(validationStats.getTotalNum());
+    dstream.writeInt(validationStats.getCorrectNum());
+    dstream.writeFloat(validationStats.getLossSum());
+    dstream.writeInt(validationStats.getLossNum());
+  }
+
+  private static ValidationStats readValidationStats(final DataInputStream dstream) throws IOException {
+    final int totalNum = dstream.readInt();
+    final int correctNum = dstream.readInt();
+    final float lossSum = dstream.readFloat();
+    final int lossNum = dstream.readInt();
+    return new ValidationStats(totalNum, correctNum, lossSum, lossNum);
+  }
 }
@@ -37,17 +37,25 @@ public final class ValidationStatsPairReduceFunction
       final Iterable<Pair<ValidationStats, ValidationStats>> validationStatsPairIterable) {
     int firstTotalNum = 0;
     int firstCorrectNum = 0;
+    float firstLossSum = 0.0f;
+    int firstLossNum = 0;
     int secondTotalNum = 0;
     int secondCorrectNum = 0;
+    float secondLossSum = 0.0f;
+    int secondLossNum = 0;
 
     for (final Pair<ValidationStats, ValidationStats> validationStatsPair : validationStatsPairIterable) {
       firstTotalNum += validationStatsPair.getFirst().getTotalNum();
       firstCorrectNum += validationStatsPair.getFirst().getCorrectNum();
+      firstLossSum += validationStatsPair.getFirst().getLossSum();
+      firstLossNum += validationStatsPair.getFirst().getLossNum();
       secondTotalNum += validationStatsPair.getSecond().getTotalNum();
       secondCorrectNum += validationStatsPair.getSecond().getCorrectNum();
+      secondLossSum += validationStatsPair.getSecond().getLossSum();
+      secondLossNum += validationStatsPair.getSecond().getLossNum();
     }
 
-    return new Pair<>(new ValidationStats(firstTotalNum, firstCorrectNum),
-        new ValidationStats(secondTotalNum, secondCorrectNum));
+    return new Pair<>(new ValidationStats(firstTotalNum, firstCorrectNum, firstLossSum, firstLossNum),
+        new ValidationStats(secondTotalNum, secondCorrectNum, secondLossSum, secondLossNum));
   }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.layerparam.provider;
+
+import edu.snu.dolphin.dnn.allreduce.RingAllReducer;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.*;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.dnn.optimizer.Optimizer;
+import edu.snu.dolphin.dnn.util.ValidationStats;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Set;
+
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.deserializeLayerConfSetToArray;
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.getInitialLayerParameters;
+
+/**
+ * Parameter provider for a neural network that all-reduces parameter gradients among workers,
+ * without a parameter server.
+ * <p/>
+ * Every worker keeps its own copy of the parameters, which starts from the same initial parameters
+ * because the layers are initialized with the random seeds in the shared configuration.
+ * Gradients and batch sizes are summed over all workers by {@link RingAllReducer},
+ * and every worker applies the identical update to its copy with its {@link Optimizer}.
+ * As with {@link GroupCommParameterProvider}, all workers must push the same number of times;
+ * a worker that has no more inputs pushes an empty batch, and {@link #pull()} returns an empty array
+ * once every worker has pushed an empty batch.
+ */
+@ThreadSafe
+public final class AllReduceParameterProvider implements ParameterProvider {
+
+  private final LayerParameter[] layerParameters;
+  private final Optimizer optimizer;
+  private final MatrixFactory matrixFactory;
+  private final RingAllReducer allReducer;
+
+  /**
+   * The batch size followed by the gradients of all layers, in the order of weights and biases.
+   */
+  private final float[] buffer;
+  private final float[] validationStatsBuffer = new float[8];
+  private boolean isLastPushEmpty;
+
+  @Inject
+  private AllReduceParameterProvider(
+      @Parameter(SerializedLayerConfigurationSet.class) final Set<String> serializedLayerConfigurationSet,
+      @Parameter(InputShape.class) final String inputShape,
+      final ConfigurationSerializer configurationSerializer,
+      final Optimizer optimizer,
+      final MatrixFactory matrixFactory,
+      final RingAllReducer allReducer,
+      final Injector injector) {
+    final Configuration[] layerParamInitializerConfs =
+        deserializeLayerConfSetToArray(configurationSerializer, serializedLayerConfigurationSet);
+    this.layerParameters = getInitialLayerParameters(injector, layerParamInitializerConfs, inputShape);
+    this.optimizer = optimizer;
+    this.matrixFactory = matrixFactory;
+    this.allReducer = allReducer;
+
+    int length = 1;
+    for (final LayerParameter layerParameter : layerParameters) {
+      length += layerParameter.getWeightParam().getLength() + layerParameter.getBiasParam().getLength();
+    }
+    this.buffer = new float[length];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public synchronized void push(final int batchSize, final LayerParameter[] parameterGradients) {
+    if (batchSize == 0 || parameterGradients == null || parameterGradients.length == 0) {
+      Arrays.fill(buffer, 0.0f);
+    } else {
+      buffer[0] = batchSize;
+      int offset = 1;
+      for (final LayerParameter parameterGradient : parameterGradients) {
+        offset = copy(parameterGradient.getWeightParam().toFloatArray(), buffer, offset);
+        offset = copy(parameterGradient.getBiasParam().toFloatArray(), buffer, offset);
+      }
+      if (offset != buffer.length) {
+        throw new RuntimeException("The size of parameter gradients is not equal to the size of parameters");
+      }
+    }
+
+    allReducer.allReduce(buffer);
+
+    final float batchSizeSum = buffer[0];
+    isLastPushEmpty = batchSizeSum == 0;
+    if (isLastPushEmpty) {
+      return;
+    }
+
+    final LayerParameter[] gradientSums = new LayerParameter[layerParameters.length];
+    int offset = 1;
+    for (int i = 0; i < layerParameters.length; ++i) {
+      final Matrix weightGradient = getGradient(layerParameters[i].getWeightParam(), offset);
+      offset += weightGradient.getLength();
+      final Matrix biasGradient = getGradient(layerParameters[i].getBiasParam(), offset);
+      offset += biasGradient.getLength();
+      gradientSums[i] = LayerParameter.newBuilder()
+          .setWeightParam(weightGradient)
+          .setBiasParam(biasGradient)
+          .build();
+    }
+    optimizer.update(layerParameters, gradientSums, (int) batchSizeSum);
+  }
+
+  /**
+   * @return the updated parameters, or an empty array if all workers pushed empty batches last time.
+   */
+  @Override
+  public synchronized LayerParameter[] pull() {
+    return isLastPushEmpty ? new LayerParameter[0] : layerParameters;
+  }
+
+  /**
+   * Sums the validation statistics over all workers.
+   * @param trainingValidationStats the training validation statistics of this worker.
+   * @param crossValidationStats the cross validation statistics of this worker.
+   * @return the sums of the training and cross validation statistics.
+   */
+  public synchronized Pair<ValidationStats, ValidationStats> allReduceValidationStats(
+      final ValidationStats trainingValidationStats, final ValidationStats crossValidationStats) {
+    validationStatsBuffer[0] = trainingValidationStats.getTotalNum();
+    validationStatsBuffer[1] = trainingValidationStats.getCorrectNum();
+    validationStatsBuffer[2] = trainingValidationStats.getLossSum();
+    validationStatsBuffer[3] = trainingValidationStats.getLossNum();
+    validationStatsBuffer[4] = crossValidationStats.getTotalNum();
+    validationStatsBuffer[5] = crossValidationStats.getCorrectNum();
+    validationStatsBuffer[6] = crossValidationStats.getLossSum();
+    validationStatsBuffer[7] = crossValidationStats.getLossNum();
+    allReducer.allReduce(validationStatsBuffer);
+    return new Pair<>(
+        new ValidationStats((int) validationStatsBuffer[0], (int) validationStatsBuffer[1],
+            validationStatsBuffer[2], (int) validationStatsBuffer[3]),
+        new ValidationStats((int) validationStatsBuffer[4], (int) validationStatsBuffer[5],
+            validationStatsBuffer[6], (int) validationStatsBuffer[7]));
+  }
+
+  private static int copy(final float[] source, final float[] destination, final int offset) {
+    System.arraycopy(source, 0, destination, offset, source.length);
+    return offset + source.length;
+  }
+
+  /**
+   * @return the gradient in the buffer at the given offset, which has the shape of the given parameter.
+   */
+  private Matrix getGradient(final Matrix parameter, final int offset) {
+    return matrixFactory.create(Arrays.copyOfRange(buffer, offset, offset + parameter.getLength()),
+        parameter.getRows(), parameter.getColumns());
+  }
+}
@@ -17,6 +17,7 @@ package edu.snu.dolphin.dnn.layerparam.provider;
 
 import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.*;
 import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.dnn.optimizer.Optimizer;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.annotations.Parameter;
@@ -31,34 +32,30 @@ import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.deserializeLayerConfSe
 /**
  * Parameter provider for a neural network on the local environment.
  * <p/>
- * Calculates the updated parameters by stochastic gradient descent algorithm.
+ * Calculates the updated parameters by the configured {@link Optimizer}, stochastic gradient descent by default.
  */
 public final class LocalNeuralNetParameterProvider implements ParameterProvider {
 
   private final LayerParameter[] layerParameters;
-  private final float stepsize;
+  private final Optimizer optimizer;
 
   @Inject
   public LocalNeuralNetParameterProvider(
       @Parameter(SerializedLayerConfigurationSet.class) final Set<String> serializedLayerConfigurationSet,
-      @Parameter(Stepsize.class) final float stepsize,
       @Parameter(InputShape.class) final String inputShape,
       final ConfigurationSerializer configurationSerializer,
+      final Optimizer optimizer,
       final Injector injector) {
     final Configuration[] layerParamInitializerConfs =
         deserializeLayerConfSetToArray(configurationSerializer, serializedLayerConfigurationSet);
     this.layerParameters = getInitialLayerParameters(injector, layerParamInitializerConfs, inputShape);
-    this.stepsize = stepsize;
+    this.optimizer = optimizer;
   }
 
   /** {@inheritDoc} */
   @Override
   public void push(final int batchSize, final LayerParameter[] parameterGradients) {
-    final float factor = stepsize / batchSize;
-    for (int i = 0; i < layerParameters.length; ++i) {
-      layerParameters[i].getWeightParam().subi(parameterGradients[i].getWeightParam().mul(factor));
-      layerParameters[i].getBiasParam().subi(parameterGradients[i].getBiasParam().mul(factor));
-    }
+    optimizer.update(layerParameters, parameterGradients, batchSize);
   }
 
   /** {@inheritDoc} */
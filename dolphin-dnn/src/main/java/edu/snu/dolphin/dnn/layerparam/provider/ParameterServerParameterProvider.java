@@ -15,35 +15,94 @@
  */
 package edu.snu.dolphin.dnn.layerparam.provider;
 
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Staleness;
 import edu.snu.dolphin.dnn.NeuralNetworkParameterUpdater;
 import edu.snu.dolphin.dnn.data.NeuralNetParamServerData;
 import edu.snu.dolphin.dnn.layers.LayerParameter;
 import edu.snu.dolphin.ps.worker.api.ParameterWorker;
+import org.apache.reef.tang.annotations.Parameter;
 
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Parameter provider for a neural network that uses Dolphin Parameter Server, {@code dolphin-ps}.
  * <p/>
  * Sends parameter gradients to the server using a certain batch size.
  * Receives updated parameters from the server.
+ * <p/>
+ * With a positive {@link Staleness} {@code k}, pushes and pulls are sent by a background thread,
+ * so that the communication with the server overlaps with the computation of the next batches.
+ * {@link #pull()} returns the latest parameters that have arrived, and waits for newer ones only if
+ * the parameters miss more than {@code k} of the gradients pushed by this provider.
+ * At most {@code k} pushes are in flight at a time.
  */
 @ThreadSafe
 public final class ParameterServerParameterProvider implements ParameterProvider {
 
   private static final int RETRY_COUNT = 3;
   private final ParameterWorker<String, NeuralNetParamServerData, NeuralNetParamServerData> worker;
+  private final int staleness;
+
+  /**
+   * The thread that sends pushes and pulls in the order they are requested,
+   * or {@code null} if pushes and pulls are synchronous.
+   */
+  private final ExecutorService communicationThread;
+
+  /**
+   * Pushes that are not sent yet, in the order they are requested.
+   */
+  private final Deque<Future<?>> pendingPushes = new ArrayDeque<>();
+
+  /**
+   * The number of pushes requested so far.
+   */
+  private long pushCount;
+
+  /**
+   * The latest parameters that have arrived, and the number of pushes requested before they were pulled.
+   */
+  private LayerParameter[] parameters;
+  private long parametersPushCount;
+
+  /**
+   * The outstanding pull, and the number of pushes requested before it, or {@code null} if there is none.
+   */
+  private Future<LayerParameter[]> pendingPull;
+  private long pendingPullPushCount;
 
   @Inject
   private ParameterServerParameterProvider(
-      final ParameterWorker<String, NeuralNetParamServerData, NeuralNetParamServerData> worker) {
+      final ParameterWorker<String, NeuralNetParamServerData, NeuralNetParamServerData> worker,
+      @Parameter(Staleness.class) final int staleness) {
+    if (staleness < 0) {
+      throw new IllegalArgumentException("The staleness must be non-negative: " + staleness);
+    }
     this.worker = worker;
+    this.staleness = staleness;
+    this.communicationThread = staleness == 0 ? null : Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "nn-ps-communication");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
   }
 
   @Override
-  public void push(final int batchSize, final LayerParameter[] parameterGradients) {
+  public synchronized void push(final int batchSize, final LayerParameter[] parameterGradients) {
     // averaging parameter gradients
+    // this also copies the gradients, so that the caller can reuse its buffers while the copies are being sent
     final LayerParameter[] parameterGradientsToPush = new LayerParameter[parameterGradients.length];
     for (int i = 0; i < parameterGradients.length; ++i) {
       parameterGradientsToPush[i] = LayerParameter.newBuilder()
@@ -51,11 +110,69 @@ public final class ParameterServerParameterProvider implements ParameterProvider
           .setBiasParam(parameterGradients[i].getBiasParam().div(batchSize))
           .build();
     }
-    worker.push(NeuralNetworkParameterUpdater.WHOLE_MODEL, new NeuralNetParamServerData(parameterGradientsToPush));
+    final NeuralNetParamServerData data = new NeuralNetParamServerData(parameterGradientsToPush);
+
+    if (communicationThread == null) {
+      worker.push(NeuralNetworkParameterUpdater.WHOLE_MODEL, data);
+      return;
+    }
+
+    while (pendingPushes.size() >= staleness) {
+      await(pendingPushes.poll());
+    }
+    pendingPushes.add(communicationThread.submit(new Runnable() {
+      @Override
+      public void run() {
+        worker.push(NeuralNetworkParameterUpdater.WHOLE_MODEL, data);
+      }
+    }));
+    pushCount++;
   }
 
   @Override
-  public LayerParameter[] pull() {
+  public synchronized LayerParameter[] pull() {
+    if (communicationThread == null) {
+      return pullFromServer();
+    }
+
+    if (pendingPull == null) {
+      startPull();
+    }
+    if (parameters == null || pendingPull.isDone() || pushCount - parametersPushCount > staleness) {
+      parameters = await(pendingPull);
+      parametersPushCount = pendingPullPushCount;
+      pendingPull = null;
+      // prefetch the parameters for the next batch, if there are gradients that the parameters miss
+      if (pushCount > parametersPushCount) {
+        startPull();
+      }
+    }
+    return parameters;
+  }
+
+  /**
+   * Waits until all pushes requested so far are sent to the server.
+   */
+  public synchronized void flush() {
+    while (!pendingPushes.isEmpty()) {
+      await(pendingPushes.poll());
+    }
+  }
+
+  /**
+   * Requests a pull to the communication thread, which is sent after all pushes requested so far.
+   */
+  private void startPull() {
+    pendingPull = communicationThread.submit(new Callable<LayerParameter[]>() {
+      @Override
+      public LayerParameter[] call() {
+        return pullFromServer();
+      }
+    });
+    pendingPullPushCount = pushCount;
+  }
+
+  private LayerParameter[] pullFromServer() {
     int retryCount = 0;
     while (retryCount < RETRY_COUNT) {
       final NeuralNetParamServerData neuralNetParamServerData = worker.pull(NeuralNetworkParameterUpdater.WHOLE_MODEL);
@@ -73,4 +190,21 @@ public final class ParameterServerParameterProvider implements ParameterProvider
 
     throw new RuntimeException("Retried " + RETRY_COUNT + " times but failed to pull model from server.");
   }
+
+  /**
+   * Waits for the given request to finish, rethrowing its failure.
+   */
+  private static <T> T await(final Future<T> future) {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while communicating with the parameter server", e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.layerparam.provider;
+
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.*;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+import java.util.Set;
+
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.deserializeLayerConfSetToArray;
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.getInitialLayerParameters;
+
+/**
+ * Parameter provider that synchronizes with another parameter provider once every {@link SyncInterval} pushes,
+ * to reduce the communication of workers whose mini-batches are trained faster than parameters are exchanged.
+ * <p/>
+ * By default, the gradients of the mini-batches between synchronizations are accumulated,
+ * and pushed to the synchronized provider as the gradients of a single large batch.
+ * The parameters do not change until the next synchronization.
+ * <p/>
+ * With {@link ModelAveraging}, the parameters are updated locally by stochastic gradient descent for every push.
+ * At a synchronization, the difference between the local parameters and the last synchronized ones is pushed
+ * as the gradients of all the batches since then, scaled so that applying them with the same step size
+ * reproduces the local updates. Group communication and all-reduce providers thus replace the parameters with
+ * the average of the local parameters of all workers, weighted by the number of inputs each worker trained,
+ * while the parameter server provider applies the local updates of each worker to the shared parameters.
+ * The local updates always use plain stochastic gradient descent,
+ * and the {@link edu.snu.dolphin.dnn.optimizer.Optimizer} of the synchronized provider is applied to the pushed ones.
+ * <p/>
+ * Pushes of empty batches, with which workers tell that they have finished an iteration,
+ * are sent to the synchronized provider right after synchronizing.
+ */
+@ThreadSafe
+public final class PeriodicSyncParameterProvider implements ParameterProvider {
+
+  private final ParameterProvider parameterProvider;
+  private final int syncInterval;
+  private final boolean modelAveraging;
+  private final float stepsize;
+
+  /**
+   * The parameters returned by {@link #pull()}, which are the local parameters with model averaging,
+   * or the parameters pulled at the last synchronization without it.
+   */
+  private LayerParameter[] parameters;
+
+  /**
+   * The sum of the gradients pushed since the last synchronization without model averaging,
+   * or the parameters at the last synchronization with model averaging.
+   */
+  private LayerParameter[] buffers;
+
+  private int pushCount;
+  private int batchSizeSum;
+  private boolean isLastPushEmpty;
+
+  @Inject
+  private PeriodicSyncParameterProvider(
+      @Parameter(SynchronizedParameterProvider.class) final ParameterProvider parameterProvider,
+      @Parameter(SyncInterval.class) final int syncInterval,
+      @Parameter(ModelAveraging.class) final boolean modelAveraging,
+      @Parameter(SerializedLayerConfigurationSet.class) final Set<String> serializedLayerConfigurationSet,
+      @Parameter(Stepsize.class) final float stepsize,
+      @Parameter(InputShape.class) final String inputShape,
+      final ConfigurationSerializer configurationSerializer,
+      final Injector injector) {
+    if (syncInterval < 1) {
+      throw new IllegalArgumentException("The synchronization interval must be positive: " + syncInterval);
+    }
+    this.parameterProvider = parameterProvider;
+    this.syncInterval = syncInterval;
+    this.modelAveraging = modelAveraging;
+    this.stepsize = stepsize;
+
+    // starts from the same initial parameters as the layers and the other providers, which use the same random seeds.
+    final Configuration[] layerParamInitializerConfs =
+        deserializeLayerConfSetToArray(configurationSerializer, serializedLayerConfigurationSet);
+    this.parameters = getInitialLayerParameters(injector, layerParamInitializerConfs, inputShape);
+    if (modelAveraging) {
+      this.buffers = copyOf(parameters);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public synchronized void push(final int batchSize, final LayerParameter[] parameterGradients) {
+    if (batchSize == 0 || parameterGradients == null || parameterGradients.length == 0) {
+      synchronize();
+      parameterProvider.push(batchSize, parameterGradients);
+      isLastPushEmpty = true;
+      return;
+    }
+    isLastPushEmpty = false;
+
+    if (modelAveraging) {
+      final float factor = stepsize / batchSize;
+      for (int i = 0; i < parameters.length; ++i) {
+        parameters[i].getWeightParam().subi(parameterGradients[i].getWeightParam().mul(factor));
+        parameters[i].getBiasParam().subi(parameterGradients[i].getBiasParam().mul(factor));
+      }
+    } else if (pushCount == 0) {
+      // copies the gradients, because the caller reuses its buffers for the next batch.
+      if (buffers == null) {
+        buffers = copyOf(parameterGradients);
+      } else {
+        for (int i = 0; i < buffers.length; ++i) {
+          buffers[i].getWeightParam().copy(parameterGradients[i].getWeightParam());
+          buffers[i].getBiasParam().copy(parameterGradients[i].getBiasParam());
+        }
+      }
+    } else {
+      for (int i = 0; i < buffers.length; ++i) {
+        buffers[i].getWeightParam().addi(parameterGradients[i].getWeightParam());
+        buffers[i].getBiasParam().addi(parameterGradients[i].getBiasParam());
+      }
+    }
+
+    batchSizeSum += batchSize;
+    if (++pushCount == syncInterval) {
+      synchronize();
+    }
+  }
+
+  /**
+   * @return the local parameters, after replacing them with the parameters pulled from the synchronized provider
+   *         if the last push was an empty batch, or an empty array if the synchronized provider returned one.
+   */
+  @Override
+  public synchronized LayerParameter[] pull() {
+    if (isLastPushEmpty) {
+      final LayerParameter[] pulledParameters = parameterProvider.pull();
+      if (pulledParameters.length == 0) {
+        return pulledParameters;
+      }
+      setSynchronizedParameters(pulledParameters);
+    }
+    return parameters;
+  }
+
+  /**
+   * Pushes the gradients accumulated since the last synchronization, or the difference of the local parameters,
+   * to the synchronized provider, and pulls the parameters from it.
+   * Does nothing if nothing has been pushed since the last synchronization.
+   * Without model averaging, the parameters of networks should be replaced with {@link #pull()} afterwards.
+   */
+  public synchronized void synchronize() {
+    if (pushCount == 0) {
+      return;
+    }
+
+    if (modelAveraging) {
+      final float factor = batchSizeSum / stepsize;
+      for (int i = 0; i < buffers.length; ++i) {
+        buffers[i].getWeightParam().subi(parameters[i].getWeightParam()).muli(factor);
+        buffers[i].getBiasParam().subi(parameters[i].getBiasParam()).muli(factor);
+      }
+    }
+    parameterProvider.push(batchSizeSum, buffers);
+    setSynchronizedParameters(parameterProvider.pull());
+    pushCount = 0;
+    batchSizeSum = 0;
+  }
+
+  /**
+   * Replaces the local parameters with the given parameters pulled from the synchronized provider.
+   */
+  private void setSynchronizedParameters(final LayerParameter[] pulledParameters) {
+    if (!modelAveraging) {
+      parameters = pulledParameters;
+      return;
+    }
+    // the parameters are updated in place, because networks share them.
+    for (int i = 0; i < parameters.length; ++i) {
+      parameters[i].getWeightParam().copy(pulledParameters[i].getWeightParam());
+      parameters[i].getBiasParam().copy(pulledParameters[i].getBiasParam());
+      buffers[i].getWeightParam().copy(pulledParameters[i].getWeightParam());
+      buffers[i].getBiasParam().copy(pulledParameters[i].getBiasParam());
+    }
+  }
+
+  private static LayerParameter[] copyOf(final LayerParameter[] layerParameters) {
+    final LayerParameter[] copies = new LayerParameter[layerParameters.length];
+    for (int i = 0; i < layerParameters.length; ++i) {
+      copies[i] = LayerParameter.newBuilder()
+          .setWeightParam(layerParameters[i].getWeightParam().dup())
+          .setBiasParam(layerParameters[i].getBiasParam().dup())
+          .build();
+    }
+    return copies;
+  }
+}
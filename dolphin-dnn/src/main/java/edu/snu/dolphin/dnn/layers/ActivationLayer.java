@@ -63,6 +63,12 @@ public final class ActivationLayer extends LayerBase {
     return activationFunction.apply(input);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Matrix feedForward(final Matrix input, final Matrix output) {
+    return activationFunction.applyi(output.copy(input));
+  }
+
   /**
    * Computes an error for this activation layer.
    * @param input the input value.
@@ -76,6 +82,13 @@ public final class ActivationLayer extends LayerBase {
     return nextError.mul(derivative);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Matrix backPropagate(final Matrix input, final Matrix activation, final Matrix nextError,
+                              final Matrix error) {
+    return activationFunction.derivativei(error.copy(input)).muli(nextError);
+  }
+
   /** {@inheritDoc} */
   @Override
   public LayerParameter generateParameterGradient(final Matrix input, final Matrix error) {
@@ -82,6 +82,11 @@ public final class ActivationWithLossLayer extends LayerBase {
     return activationLayer.feedForward(input);
   }
 
+  @Override
+  public Matrix feedForward(final Matrix input, final Matrix output) {
+    return activationLayer.feedForward(input, output);
+  }
+
   /**
    * Compute the error for the specified loss function.
    * @param label the label value.
@@ -100,6 +105,17 @@ public final class ActivationWithLossLayer extends LayerBase {
 
   }
 
+  @Override
+  public Matrix backPropagate(final Matrix label, final Matrix activation, final Matrix nextError,
+                              final Matrix error) {
+    switch (lossFunction.toLowerCase()) {
+    case "crossentropy":
+      return error.copy(activation).subi(label);
+    default:
+      throw new IllegalArgumentException("Unsupported loss function");
+    }
+  }
+
   @Override
   public LayerParameter generateParameterGradient(final Matrix input, final Matrix error) {
     throw new RuntimeException("This layer is not learnable");
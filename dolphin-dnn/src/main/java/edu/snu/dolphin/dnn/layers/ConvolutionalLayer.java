@@ -35,6 +35,11 @@ import javax.inject.Inject;
  * In a backward pass,
  * the error of each input pixel comes from the product
  * between weight and errors of output pixels affected by the input pixel in feedforward step.
+ *
+ * All images of a mini-batch are processed together: the patches of every image are laid out into
+ * a single column buffer (im2col), so that each pass performs a single matrix multiplication.
+ * The column buffer built by feedForward is kept and reused by generateParameterGradient for the same input,
+ * unless it is released by {@link #releaseCache()} after inference.
  */
 public final class ConvolutionalLayer extends LayerBase {
 
@@ -48,8 +53,17 @@ public final class ConvolutionalLayer extends LayerBase {
   private final int inputHeight;
   private final int inputWidth;
   private final int inputChannel;
+  private final int kernelSize;
+  private final int outputSize;
   private final MatrixFactory matrixFactory;
 
+  /**
+   * The input of the last feedForward, and the column buffer built from it.
+   * Cleared once the buffer is used by generateParameterGradient, or by {@link #releaseCache()}.
+   */
+  private Matrix cachedInput;
+  private Matrix cachedColumns;
+
   @Inject
   private ConvolutionalLayer(@Parameter(LayerIndex.class) final int index,
                              @Parameter(LayerInputShape.class) final String inputShape,
@@ -81,6 +95,8 @@ public final class ConvolutionalLayer extends LayerBase {
       this.inputHeight = getInputShape()[1];
       this.inputWidth = getInputShape()[2];
     }
+    this.kernelSize = kernelHeight * kernelWidth * inputChannel;
+    this.outputSize = outputShape[1] * outputShape[2];
   }
 
   @Override
@@ -95,74 +111,130 @@ public final class ConvolutionalLayer extends LayerBase {
   }
 
   /**
-   * Transform the given image to rows to facilitate matrix multiplication.
-   * @param imageIndex the index of the image in the input matrix.
+   * Transform the given images to rows to facilitate matrix multiplication.
+   * The returned matrix has {@code outputSize * numImages} rows, where the rows from
+   * {@code n * outputSize} to {@code (n + 1) * outputSize - 1} hold the patches of the n-th image,
+   * and {@code kernelSize} columns.
    * @param input input values for this layer.
-   * @return the converted rows.
+   * @return the converted rows of all images.
    */
-  private Matrix im2row(final int imageIndex, final Matrix input) {
+  private Matrix im2col(final Matrix input) {
+    final int numImages = input.getColumns();
+    final int inputLength = input.getRows();
     final int inputSize = inputHeight * inputWidth;
-    final int outputSize = outputShape[1] * outputShape[2];
-    final Matrix row =
-        matrixFactory.zeros(outputSize, kernelHeight * kernelWidth * inputChannel);
+    final int numRows = outputSize * numImages;
+    final float[] inputData = input.toFloatArray();
+    final float[] columns = new float[numRows * kernelSize];
     for (int c = 0; c < inputChannel; ++c) {
       for (int kh = 0; kh < kernelHeight; ++kh) {
         for (int kw = 0; kw < kernelWidth; ++kw) {
-          int ih = kh - paddingHeight;
-          for (int oh = 0; oh < outputShape[1]; ++oh) {
-            if (ih >= 0 && ih < inputHeight) {
-              int iw = kw - paddingWidth;
-              for (int ow = 0; ow < outputShape[2]; ++ow) {
-                if (iw >= 0 && iw < inputWidth) {
-                  row.put(oh * outputShape[2] + ow, c * kernelHeight * kernelWidth + kh * kernelWidth + kw,
-                      input.get(c * inputSize + ih * inputWidth + iw, imageIndex));
+          final int columnOffset = (c * kernelHeight * kernelWidth + kh * kernelWidth + kw) * numRows;
+          for (int n = 0; n < numImages; ++n) {
+            final int inputOffset = n * inputLength + c * inputSize;
+            int rowIndex = columnOffset + n * outputSize;
+            int ih = kh - paddingHeight;
+            for (int oh = 0; oh < outputShape[1]; ++oh) {
+              if (ih < 0 || ih >= inputHeight) {
+                rowIndex += outputShape[2];
+              } else {
+                int iw = kw - paddingWidth;
+                for (int ow = 0; ow < outputShape[2]; ++ow) {
+                  if (iw >= 0 && iw < inputWidth) {
+                    columns[rowIndex] = inputData[inputOffset + ih * inputWidth + iw];
+                  }
+                  rowIndex++;
+                  iw += strideWidth;
                 }
-                iw += strideWidth;
               }
+              ih += strideHeight;
             }
-            ih += strideHeight;
           }
         }
       }
     }
-    return row;
+    return matrixFactory.create(columns, numRows, kernelSize);
   }
 
   /**
-   * Transform the given rows to the image to facilitate matrix multiplication.
-   * @param row the given rows.
-   * @return the converted image.
+   * Transform the given rows of all images back to the images, accumulating overlapping patches.
+   * This is the reverse of {@link #im2col(Matrix)}.
+   * @param rows the given rows, with the layout produced by {@link #im2col(Matrix)}.
+   * @param numImages the number of images.
+   * @return the converted images, one per column.
    */
-  private Matrix row2im(final Matrix row) {
-    final int[] inputShape = getInputShape();
+  private Matrix col2im(final Matrix rows, final int numImages) {
+    final int inputLength = NeuralNetworkUtils.getShapeLength(getInputShape());
     final int inputSize = inputHeight * inputWidth;
-    final Matrix im = matrixFactory.zeros(NeuralNetworkUtils.getShapeLength(inputShape));
-    int rowIndex = 0;
+    final int numRows = outputSize * numImages;
+    final float[] rowData = rows.toFloatArray();
+    final float[] im = new float[inputLength * numImages];
     for (int c = 0; c < inputChannel; ++c) {
       for (int kh = 0; kh < kernelHeight; ++kh) {
         for (int kw = 0; kw < kernelWidth; ++kw) {
-          int ih = kh - paddingHeight;
-          for (int oh = 0; oh < outputShape[1]; ++oh) {
-            if (ih < 0 || ih >= inputHeight) {
-              rowIndex += outputShape[2];
-            } else {
-              int iw = kw - paddingWidth;
-              for (int ow = 0; ow < outputShape[2]; ++ow) {
-                if (iw >= 0 && iw < inputWidth) {
-                  final int inputIndex = c * inputSize + ih * inputWidth + iw;
-                  final float newValue = row.get(rowIndex) + im.get(inputIndex);
-                  im.put(inputIndex, newValue);
+          final int columnOffset = (c * kernelHeight * kernelWidth + kh * kernelWidth + kw) * numRows;
+          for (int n = 0; n < numImages; ++n) {
+            final int inputOffset = n * inputLength + c * inputSize;
+            int rowIndex = columnOffset + n * outputSize;
+            int ih = kh - paddingHeight;
+            for (int oh = 0; oh < outputShape[1]; ++oh) {
+              if (ih < 0 || ih >= inputHeight) {
+                rowIndex += outputShape[2];
+              } else {
+                int iw = kw - paddingWidth;
+                for (int ow = 0; ow < outputShape[2]; ++ow) {
+                  if (iw >= 0 && iw < inputWidth) {
+                    im[inputOffset + ih * inputWidth + iw] += rowData[rowIndex];
+                  }
+                  rowIndex++;
+                  iw += strideWidth;
                 }
-                rowIndex++;
-                iw += strideWidth;
               }
+              ih += strideHeight;
             }
-            ih += strideHeight;
           }
         }
       }
     }
-    return im;
+    return matrixFactory.create(im, inputLength, numImages);
+  }
+
+  /**
+   * Rearrange output-shaped values (one image per column, channel-major) into
+   * the row layout of {@link #im2col(Matrix)}, with one column per output channel.
+   * @param values output-shaped values, e.g., errors of this layer.
+   * @return the rearranged values.
+   */
+  private Matrix outputToRows(final Matrix values) {
+    final int numImages = values.getColumns();
+    final int numRows = outputSize * numImages;
+    final float[] data = values.toFloatArray();
+    final float[] rows = new float[data.length];
+    for (int n = 0; n < numImages; ++n) {
+      for (int ch = 0; ch < outputShape[0]; ++ch) {
+        System.arraycopy(data, (n * outputShape[0] + ch) * outputSize,
+            rows, ch * numRows + n * outputSize, outputSize);
+      }
+    }
+    return matrixFactory.create(rows, numRows, outputShape[0]);
+  }
+
+  /**
+   * The reverse of {@link #outputToRows(Matrix)}.
+   * @param rows values in the row layout of {@link #im2col(Matrix)}, with one column per output channel.
+   * @param numImages the number of images.
+   * @return output-shaped values, one image per column.
+   */
+  private Matrix rowsToOutput(final Matrix rows, final int numImages) {
+    final int numRows = outputSize * numImages;
+    final float[] data = rows.toFloatArray();
+    final float[] output = new float[data.length];
+    for (int n = 0; n < numImages; ++n) {
+      for (int ch = 0; ch < outputShape[0]; ++ch) {
+        System.arraycopy(data, ch * numRows + n * outputSize,
+            output, (n * outputShape[0] + ch) * outputSize, outputSize);
+      }
+    }
+    return matrixFactory.create(output, outputShape[0] * outputSize, numImages);
   }
 
   /**
@@ -172,11 +244,10 @@ public final class ConvolutionalLayer extends LayerBase {
    */
   @Override
   public Matrix feedForward(final Matrix input) {
-    final Matrix output = matrixFactory.create(NeuralNetworkUtils.getShapeLength(outputShape), input.getColumns());
-    for (int n = 0; n < input.getColumns(); ++n) {
-      final Matrix newValue = im2row(n, input).mmul(getLayerParameter().getWeightParam());
-      output.putColumn(n, newValue.reshape(NeuralNetworkUtils.getShapeLength(outputShape), 1));
-    }
+    final Matrix columns = im2col(input);
+    cachedInput = input;
+    cachedColumns = columns;
+    final Matrix output = rowsToOutput(columns.mmul(getLayerParameter().getWeightParam()), input.getColumns());
     output.addiColumnVector(getLayerParameter().getBiasParam());
     return output;
   }
@@ -190,25 +261,28 @@ public final class ConvolutionalLayer extends LayerBase {
    */
   @Override
   public Matrix backPropagate(final Matrix input, final Matrix activation, final Matrix nextError) {
-    final Matrix error = matrixFactory.create(input.getRows(), input.getColumns());
-    for (int n = 0; n < input.getColumns(); ++n) {
-      final Matrix singleNextError = nextError.getColumn(n).reshape(outputShape[1] * outputShape[2], outputShape[0]);
-      final Matrix row = singleNextError.mmul(getLayerParameter().getWeightParam().transpose());
-      final Matrix im = row2im(row);
-      error.putColumn(n, im);
-    }
-    return error;
+    final Matrix rows = outputToRows(nextError).mmulTransposeB(getLayerParameter().getWeightParam());
+    return col2im(rows, input.getColumns());
+  }
+
+  @Override
+  public void releaseCache() {
+    cachedInput = null;
+    cachedColumns = null;
   }
 
   /** {@inheritDoc} */
   @Override
   public LayerParameter generateParameterGradient(final Matrix input, final Matrix error) {
-    final Matrix weightGradient = matrixFactory.create(kernelHeight * kernelWidth * inputChannel, outputShape[0]);
-    for (int n = 0; n < input.getColumns(); ++n) {
-      final Matrix row = im2row(n, input);
-      weightGradient.addi(row.transpose().mmul(error.getColumn(n)
-          .reshape(outputShape[1] * outputShape[2], outputShape[0])));
+    final Matrix columns;
+    if (input == cachedInput) {
+      columns = cachedColumns;
+    } else {
+      columns = im2col(input);
     }
+    releaseCache();
+
+    final Matrix weightGradient = columns.mmulTransposeA(outputToRows(error));
     final Matrix biasGradient = error.rowSums();
     return LayerParameter.newBuilder()
         .setWeightParam(weightGradient)
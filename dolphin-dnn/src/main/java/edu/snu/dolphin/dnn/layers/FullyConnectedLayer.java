@@ -65,6 +65,13 @@ public final class FullyConnectedLayer extends LayerBase {
     return getLayerParameter().getWeightParam().mmul(input).addiColumnVector(getLayerParameter().getBiasParam());
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Matrix feedForward(final Matrix input, final Matrix output) {
+    return getLayerParameter().getWeightParam().mmuli(input, output)
+        .addiColumnVector(getLayerParameter().getBiasParam());
+  }
+
   /**
    * Computes errors for this fully connected layer.
    * @param input the input values for this layer.
@@ -75,15 +82,31 @@ public final class FullyConnectedLayer extends LayerBase {
   @Override
   public Matrix backPropagate(final Matrix input, final Matrix activation, final Matrix nextError) {
     // (error matrix) = (transposed weight matrix) x (next error matrix)
-    return getLayerParameter().getWeightParam().transpose().mmul(nextError);
+    return getLayerParameter().getWeightParam().mmulTransposeA(nextError);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Matrix backPropagate(final Matrix input, final Matrix activation, final Matrix nextError,
+                              final Matrix error) {
+    return getLayerParameter().getWeightParam().mmuliTransposeA(nextError, error);
   }
 
   /** {@inheritDoc} */
   @Override
   public LayerParameter generateParameterGradient(final Matrix input, final Matrix error) {
     return LayerParameter.newBuilder()
-        .setWeightParam(error.mmul(input.transpose()))
+        .setWeightParam(error.mmulTransposeB(input))
         .setBiasParam(error.rowSums())
         .build();
   }
+
+  /** {@inheritDoc} */
+  @Override
+  public LayerParameter generateParameterGradient(final Matrix input, final Matrix error,
+                                                  final LayerParameter gradient) {
+    error.mmuliTransposeB(input, gradient.getWeightParam());
+    gradient.getBiasParam().copy(error.rowSums());
+    return gradient;
+  }
 }
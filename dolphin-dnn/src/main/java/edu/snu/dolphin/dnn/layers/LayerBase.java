@@ -87,6 +87,18 @@ public abstract class LayerBase {
    */
   public abstract Matrix feedForward(final Matrix input);
 
+  /**
+   * Computes output values, reusing the given matrix for them if possible.
+   * The default implementation ignores {@code output} and allocates a new matrix.
+   * @param input input values for this layer.
+   * @param output a matrix that was returned by this method or {@link #feedForward(Matrix)} before,
+   *               which may be overwritten.
+   * @return output values for this layer, which may or may not be {@code output}.
+   */
+  public Matrix feedForward(final Matrix input, final Matrix output) {
+    return feedForward(input);
+  }
+
   /**
    * Computes errors.
    * @param input the input values for this layer, or the expected output if the layer is a loss layer.
@@ -98,6 +110,58 @@ public abstract class LayerBase {
                                        final Matrix activation,
                                        final Matrix nextError);
 
+  /**
+   * Computes errors, reusing the given matrix for them if possible.
+   * The default implementation ignores {@code error} and allocates a new matrix.
+   * @param input the input values for this layer, or the expected output if the layer is a loss layer.
+   * @param activation the output values.
+   * @param nextError the errors of the next layer - the one closer to the output layer.
+   * @param error a matrix that was returned by this method or {@link #backPropagate(Matrix, Matrix, Matrix)} before,
+   *              which may be overwritten.
+   * @return errors for this layer with the specified input value, which may or may not be {@code error}.
+   */
+  public Matrix backPropagate(final Matrix input,
+                              final Matrix activation,
+                              final Matrix nextError,
+                              final Matrix error) {
+    return backPropagate(input, activation, nextError);
+  }
+
+  /**
+   * @return whether this layer is a loss layer that computes errors from the indices of the expected classes
+   *         with {@link #backPropagate(int[], Matrix, Matrix)}, without a one-hot label matrix.
+   */
+  public boolean acceptsLabelIndices() {
+    return false;
+  }
+
+  /**
+   * Computes errors from the indices of the expected classes, if this layer {@link #acceptsLabelIndices()}.
+   * @param labels the index of the expected class for each input.
+   * @param activation the output values.
+   * @param error a matrix that was returned by this method before, which may be overwritten, or {@code null}.
+   * @return errors for this layer with the specified labels, which may or may not be {@code error}.
+   */
+  public Matrix backPropagate(final int[] labels, final Matrix activation, final Matrix error) {
+    throw new UnsupportedOperationException(this + " does not accept label indices");
+  }
+
+  /**
+   * @return the loss computed by the last backward pass of this layer,
+   *         or {@code NaN} if this layer does not compute a loss.
+   */
+  public float getLoss() {
+    return Float.NaN;
+  }
+
+  /**
+   * Releases the intermediate results that the last feed forward pass kept for computing parameter gradients.
+   * Called after passes that are not followed by back propagation, such as inference.
+   * The default implementation does nothing.
+   */
+  public void releaseCache() {
+  }
+
   /**
    * Computes parameter gradients for this layer.
    * @param input inputs for this layer.
@@ -106,4 +170,19 @@ public abstract class LayerBase {
    *         or {@code null} if this layer is not learnable.
    */
   public abstract LayerParameter generateParameterGradient(final Matrix input, final Matrix error);
+
+  /**
+   * Computes parameter gradients for this layer, reusing the given layer parameter for them if possible.
+   * The default implementation ignores {@code gradient} and allocates a new layer parameter.
+   * @param input inputs for this layer.
+   * @param error errors for this layer.
+   * @param gradient a layer parameter that was returned by this method or
+   *                 {@link #generateParameterGradient(Matrix, Matrix)} before, which may be overwritten.
+   * @return the element-wise sum of parameter gradients for the specified input and error,
+   *         which may or may not be {@code gradient}.
+   */
+  public LayerParameter generateParameterGradient(final Matrix input, final Matrix error,
+                                                  final LayerParameter gradient) {
+    return generateParameterGradient(input, error);
+  }
 }
@@ -20,6 +20,7 @@ import edu.snu.dolphin.dnn.blas.MatrixFactory;
 import edu.snu.dolphin.dnn.conf.LayerConfigurationParameters.*;
 import edu.snu.dolphin.dnn.layerparam.initializer.LayerParameterInitializer;
 import edu.snu.dolphin.dnn.util.NeuralNetworkUtils;
+import edu.snu.dolphin.dnn.util.ParallelUtils;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
@@ -36,6 +37,9 @@ import javax.inject.Inject;
  * and these values make up output.
  * In a backward pass,
  * error of each input pixel comes from errors of output pixels affected by the input pixel in feedforward step.
+ *
+ * The kernels work on the float arrays of matrices, and process the inputs of a batch in parallel.
+ * The kernel bounds of each output position are computed once, when the layer is created.
  */
 public final class PoolingLayer extends LayerBase {
 
@@ -44,20 +48,41 @@ public final class PoolingLayer extends LayerBase {
   }
   private final int[] outputShape;
   private final PoolType poolingType;
-  private final int paddingHeight;
-  private final int paddingWidth;
-  private final int strideHeight;
-  private final int strideWidth;
-  private final int kernelHeight;
-  private final int kernelWidth;
-  private Matrix indexMatrix;
   private final int inputHeight;
   private final int inputWidth;
   private final int inputChannel;
   private final int outputHeight;
   private final int outputWidth;
+  private final int inputLength;
+  private final int outputLength;
   private final MatrixFactory matrixFactory;
 
+  /**
+   * The first row (inclusive) and the last row (exclusive) of the kernel of each output row,
+   * clipped to the input.
+   */
+  private final int[] kernelRowBegins;
+  private final int[] kernelRowEnds;
+
+  /**
+   * The first column (inclusive) and the last column (exclusive) of the kernel of each output column,
+   * clipped to the input.
+   */
+  private final int[] kernelColumnBegins;
+  private final int[] kernelColumnEnds;
+
+  /**
+   * The number of rows and columns of the kernel of each output position that average pooling divides by,
+   * which includes padding.
+   */
+  private final int[] averageKernelHeights;
+  private final int[] averageKernelWidths;
+
+  /**
+   * The index of the maximum input value of each output value for the last feedforward step of max pooling.
+   */
+  private int[] maxIndices;
+
   @Inject
   private PoolingLayer(@Parameter(LayerIndex.class) final int index,
                        @Parameter(LayerInputShape.class) final String inputShape,
@@ -71,22 +96,16 @@ public final class PoolingLayer extends LayerBase {
                        final LayerParameterInitializer layerParameterInitializer,
                        final MatrixFactory matrixFactory) {
     super(index, inputShape);
-    this.paddingHeight = paddingHeight;
-    this.paddingWidth = paddingWidth;
-    this.strideHeight = strideHeight;
-    this.strideWidth = strideWidth;
-    this.kernelHeight = kernelHeight;
-    this.kernelWidth = kernelWidth;
     this.outputShape = layerParameterInitializer.getOutputShape();
     this.poolingType = PoolType.valueOf(poolingType.toUpperCase());
     this.matrixFactory = matrixFactory;
-  
+
     if (getInputShape().length == 2) {
       this.inputChannel = 1;
       this.inputHeight = getInputShape()[0];
       this.inputWidth = getInputShape()[1];
       this.outputHeight = outputShape[0];
-      this.outputWidth = outputHeight;
+      this.outputWidth = outputShape[1];
     } else {
       this.inputChannel = getInputShape()[0];
       this.inputHeight = getInputShape()[1];
@@ -94,6 +113,40 @@ public final class PoolingLayer extends LayerBase {
       this.outputHeight = outputShape[1];
       this.outputWidth = outputShape[2];
     }
+    this.inputLength = NeuralNetworkUtils.getShapeLength(getInputShape());
+    this.outputLength = NeuralNetworkUtils.getShapeLength(outputShape);
+
+    this.kernelRowBegins = new int[outputHeight];
+    this.kernelRowEnds = new int[outputHeight];
+    this.averageKernelHeights = new int[outputHeight];
+    computeKernelBounds(strideHeight, paddingHeight, kernelHeight, inputHeight,
+        kernelRowBegins, kernelRowEnds, averageKernelHeights);
+    this.kernelColumnBegins = new int[outputWidth];
+    this.kernelColumnEnds = new int[outputWidth];
+    this.averageKernelWidths = new int[outputWidth];
+    computeKernelBounds(strideWidth, paddingWidth, kernelWidth, inputWidth,
+        kernelColumnBegins, kernelColumnEnds, averageKernelWidths);
+  }
+
+  /**
+   * Computes the bounds of the kernel for each output position along one spatial dimension.
+   * @param stride the stride along the dimension.
+   * @param padding the padding along the dimension.
+   * @param kernel the size of the kernel along the dimension.
+   * @param inputSize the size of the input along the dimension.
+   * @param begins the array to store the first input positions (inclusive) clipped to the input.
+   * @param ends the array to store the last input positions (exclusive) clipped to the input.
+   * @param averageSizes the array to store the kernel sizes including padding, used for average pooling.
+   */
+  private static void computeKernelBounds(final int stride, final int padding, final int kernel, final int inputSize,
+                                          final int[] begins, final int[] ends, final int[] averageSizes) {
+    for (int o = 0; o < begins.length; ++o) {
+      final int begin = stride * o - padding;
+      final int averageEnd = Math.min(kernel + begin, inputSize + padding);
+      averageSizes[o] = averageEnd - begin;
+      begins[o] = Math.max(begin, 0);
+      ends[o] = Math.min(kernel + begin, inputSize);
+    }
   }
 
   @Override
@@ -113,43 +166,58 @@ public final class PoolingLayer extends LayerBase {
    * @return the output values for this layer.
    */
   private Matrix feedForwardMaxPooling(final Matrix input) {
+    final int numInputs = input.getColumns();
+    final float[] inputData = input.toFloatArray();
+    final float[] output = new float[outputLength * numInputs];
+    if (maxIndices == null || maxIndices.length != output.length) {
+      maxIndices = new int[output.length];
+    }
+    final int[] indices = maxIndices;
+    ParallelUtils.parallelFor(numInputs, inputLength, new ParallelUtils.RangeBody() {
+      @Override
+      public void run(final int begin, final int end) {
+        for (int n = begin; n < end; ++n) {
+          maxPool(inputData, n * inputLength, output, indices, n * outputLength);
+        }
+      }
+    });
+    return matrixFactory.create(output, outputLength, numInputs);
+  }
+
+  /**
+   * Max pooling kernel for an input.
+   * Stores the maximum value within the kernel range of each output position,
+   * and the index of the value relative to {@code inputOffset}.
+   */
+  private void maxPool(final float[] input, final int inputOffset,
+                       final float[] output, final int[] indices, final int outputOffset) {
     final int inputSize = inputHeight * inputWidth;
-    final int outputSize = outputHeight * outputWidth;
-    final int outputLength = NeuralNetworkUtils.getShapeLength(outputShape);
-    final Matrix output = matrixFactory.create(outputLength, input.getColumns());
-    indexMatrix = matrixFactory.create(outputLength, input.getColumns());
-    for (int n = 0; n < input.getColumns(); ++n) {
-      for (int c = 0; c < inputChannel; ++c) {
-        for (int oh = 0; oh < outputHeight; ++oh) {
-          for (int ow = 0; ow < outputWidth; ++ow) {
-            //Find the maximum value within kernel range and put it in the output matrix.
-            int hstart = strideHeight * oh - paddingHeight;
-            int wstart = strideWidth * ow - paddingWidth;
-            final int hend = Math.min(kernelHeight + hstart, inputHeight);
-            final int wend = Math.min(kernelWidth + wstart, inputWidth);
-            hstart = Math.max(hstart, 0);
-            wstart = Math.max(wstart, 0);
-            int maxIndex = c * inputSize + hstart * inputWidth + wstart;
-            float max = input.get(maxIndex, n);
-            for (int kh = hstart; kh < hend; ++kh) {
-              for (int kw = wstart; kw < wend; ++kw) {
-                final int newIndex = c * inputSize + kh * inputWidth + kw;
-                final float newValue = input.get(newIndex, n);
-                if (newValue > max) {
-                  max = newValue;
-                  maxIndex = newIndex;
-                }
+    int outputIndex = outputOffset;
+    for (int c = 0; c < inputChannel; ++c) {
+      final int channelOffset = inputOffset + c * inputSize;
+      for (int oh = 0; oh < outputHeight; ++oh) {
+        final int hstart = kernelRowBegins[oh];
+        final int hend = kernelRowEnds[oh];
+        for (int ow = 0; ow < outputWidth; ++ow) {
+          final int wstart = kernelColumnBegins[ow];
+          final int wend = kernelColumnEnds[ow];
+          int maxIndex = channelOffset + hstart * inputWidth + wstart;
+          float max = input[maxIndex];
+          for (int kh = hstart; kh < hend; ++kh) {
+            final int rowOffset = channelOffset + kh * inputWidth;
+            for (int kw = wstart; kw < wend; ++kw) {
+              if (input[rowOffset + kw] > max) {
+                max = input[rowOffset + kw];
+                maxIndex = rowOffset + kw;
               }
             }
-            final int outputIndex = c * outputSize + oh * outputWidth + ow;
-            output.put(outputIndex, n, max);
-            //Save the index of max value.
-            indexMatrix.put(outputIndex, n, maxIndex);
           }
+          output[outputIndex] = max;
+          indices[outputIndex] = maxIndex - inputOffset;
+          ++outputIndex;
         }
       }
     }
-    return output;
   }
 
   /**
@@ -158,35 +226,46 @@ public final class PoolingLayer extends LayerBase {
    * @return the output values for this layer.
    */
   private Matrix feedForwardAveragePooling(final Matrix input) {
+    final int numInputs = input.getColumns();
+    final float[] inputData = input.toFloatArray();
+    final float[] output = new float[outputLength * numInputs];
+    ParallelUtils.parallelFor(numInputs, inputLength, new ParallelUtils.RangeBody() {
+      @Override
+      public void run(final int begin, final int end) {
+        for (int n = begin; n < end; ++n) {
+          averagePool(inputData, n * inputLength, output, n * outputLength);
+        }
+      }
+    });
+    return matrixFactory.create(output, outputLength, numInputs);
+  }
+
+  /**
+   * Average pooling kernel for an input.
+   * Stores the sum of values within the kernel range of each output position, divided by the kernel size.
+   */
+  private void averagePool(final float[] input, final int inputOffset, final float[] output, final int outputOffset) {
     final int inputSize = inputHeight * inputWidth;
-    final int outputSize = outputHeight * outputWidth;
-    final Matrix output = matrixFactory.create(NeuralNetworkUtils.getShapeLength(outputShape), input.getColumns());
-    for (int n = 0; n < input.getColumns(); ++n) {
-      for (int c = 0; c < inputChannel; ++c) {
-        for (int oh = 0; oh < outputHeight; ++oh) {
-          for (int ow = 0; ow < outputWidth; ++ow) {
-            //Compute sum of values within kernel range and put the average value in the output matrix.
-            int hstart = strideHeight * oh - paddingHeight;
-            int wstart = strideWidth * ow - paddingWidth;
-            int hend = Math.min(kernelHeight + hstart, inputHeight + paddingHeight);
-            int wend = Math.min(kernelWidth + wstart, inputWidth + paddingWidth);
-            final int kernelSize = (hend - hstart) * (wend - wstart);
-            hstart = Math.max(hstart, 0);
-            wstart = Math.max(wstart, 0);
-            hend = Math.min(hend, inputHeight);
-            wend = Math.min(wend, inputWidth);
-            float sum = 0;
-            for (int kh = hstart; kh < hend; ++kh) {
-              for (int kw = wstart; kw < wend; ++kw) {
-                sum += input.get(c * inputSize + kh * inputWidth + kw, n);
-              }
+    int outputIndex = outputOffset;
+    for (int c = 0; c < inputChannel; ++c) {
+      final int channelOffset = inputOffset + c * inputSize;
+      for (int oh = 0; oh < outputHeight; ++oh) {
+        final int hstart = kernelRowBegins[oh];
+        final int hend = kernelRowEnds[oh];
+        for (int ow = 0; ow < outputWidth; ++ow) {
+          final int wstart = kernelColumnBegins[ow];
+          final int wend = kernelColumnEnds[ow];
+          float sum = 0;
+          for (int kh = hstart; kh < hend; ++kh) {
+            final int rowOffset = channelOffset + kh * inputWidth;
+            for (int kw = wstart; kw < wend; ++kw) {
+              sum += input[rowOffset + kw];
             }
-            output.put(c * outputSize + oh * outputWidth + ow, n, sum / kernelSize);
           }
+          output[outputIndex++] = sum / (averageKernelHeights[oh] * averageKernelWidths[ow]);
         }
       }
     }
-    return output;
   }
 
   /**
@@ -214,22 +293,23 @@ public final class PoolingLayer extends LayerBase {
    * @return errors for this layer with the specified input value.
    */
   private Matrix backPropagateMaxPooling(final Matrix input, final Matrix nextError) {
-    final Matrix error = matrixFactory.zeros(input.getRows(), input.getColumns());
-    final int outputSize = outputHeight * outputWidth;
-    for (int n = 0; n < input.getColumns(); ++n) {
-      for (int c = 0; c < inputChannel; ++c) {
-        for (int oh = 0; oh < outputHeight; ++oh) {
-          for (int ow = 0; ow < outputWidth; ++ow) {
-            //Add error to saved index.
-            final int outputIndex = c * outputSize + oh * outputWidth + ow;
-            final int maxIndex = (int) indexMatrix.get(outputIndex, n);
-            final float newError = nextError.get(outputIndex, n) + error.get(maxIndex, n);
-            error.put(maxIndex, n, newError);
+    final int numInputs = input.getColumns();
+    final float[] nextErrorData = nextError.toFloatArray();
+    final float[] error = new float[inputLength * numInputs];
+    final int[] indices = maxIndices;
+    ParallelUtils.parallelFor(numInputs, outputLength, new ParallelUtils.RangeBody() {
+      @Override
+      public void run(final int begin, final int end) {
+        for (int n = begin; n < end; ++n) {
+          final int inputOffset = n * inputLength;
+          //Add error to saved index.
+          for (int o = n * outputLength; o < (n + 1) * outputLength; ++o) {
+            error[inputOffset + indices[o]] += nextErrorData[o];
           }
         }
       }
-    }
-    return error;
+    });
+    return matrixFactory.create(error, inputLength, numInputs);
   }
 
   /**
@@ -239,37 +319,46 @@ public final class PoolingLayer extends LayerBase {
    * @return errors for this layer with the specified input value.
    */
   private Matrix backPropagateAveragePooling(final Matrix input, final Matrix nextError) {
-    final Matrix error = matrixFactory.zeros(input.getRows(), input.getColumns());
-    final int inputSize = inputHeight * inputWidth;
-    final int outputSize = outputHeight * outputWidth;
-    for (int n = 0; n < input.getColumns(); ++n) {
-      for (int c = 0; c < inputChannel; ++c) {
-        for (int oh = 0; oh < outputHeight; ++oh) {
-          for (int ow = 0; ow < outputWidth; ++ow) {
-            int hstart = strideHeight * oh - paddingHeight;
-            int wstart = strideWidth * ow - paddingWidth;
-            int hend = Math.min(kernelHeight + hstart, inputHeight + paddingHeight);
-            int wend = Math.min(kernelWidth + wstart, inputWidth + paddingWidth);
-            final int kernelSize = (hend - hstart) * (wend - wstart);
-            hstart = Math.max(hstart, 0);
-            wstart = Math.max(wstart, 0);
-            hend = Math.min(hend, inputHeight);
-            wend = Math.min(wend, inputWidth);
-            final int outputIndex = c * outputSize + oh * outputWidth + ow;
+    final int numInputs = input.getColumns();
+    final float[] nextErrorData = nextError.toFloatArray();
+    final float[] error = new float[inputLength * numInputs];
+    ParallelUtils.parallelFor(numInputs, inputLength, new ParallelUtils.RangeBody() {
+      @Override
+      public void run(final int begin, final int end) {
+        for (int n = begin; n < end; ++n) {
+          averageUnpool(nextErrorData, n * outputLength, error, n * inputLength);
+        }
+      }
+    });
+    return matrixFactory.create(error, inputLength, numInputs);
+  }
 
-            for (int kh = hstart; kh < hend; ++kh) {
-              for (int kw = wstart; kw < wend; ++kw) {
-                //Add error divided by kernel size for all pixels within the range.
-                final int inputIndex = c * inputSize + kh * inputWidth + kw;
-                final float newError = nextError.get(outputIndex, n) / kernelSize + error.get(inputIndex, n);
-                error.put(inputIndex, n, newError);
-              }
+  /**
+   * Average pooling backpropagation kernel for an input.
+   * Adds the error of each output position divided by the kernel size to all input positions within the kernel range.
+   */
+  private void averageUnpool(final float[] nextError, final int outputOffset,
+                             final float[] error, final int inputOffset) {
+    final int inputSize = inputHeight * inputWidth;
+    int outputIndex = outputOffset;
+    for (int c = 0; c < inputChannel; ++c) {
+      final int channelOffset = inputOffset + c * inputSize;
+      for (int oh = 0; oh < outputHeight; ++oh) {
+        final int hstart = kernelRowBegins[oh];
+        final int hend = kernelRowEnds[oh];
+        for (int ow = 0; ow < outputWidth; ++ow) {
+          final int wstart = kernelColumnBegins[ow];
+          final int wend = kernelColumnEnds[ow];
+          final float value = nextError[outputIndex++] / (averageKernelHeights[oh] * averageKernelWidths[ow]);
+          for (int kh = hstart; kh < hend; ++kh) {
+            final int rowOffset = channelOffset + kh * inputWidth;
+            for (int kw = wstart; kw < wend; ++kw) {
+              error[rowOffset + kw] += value;
             }
           }
         }
       }
     }
-    return error;
   }
 
   /**
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.layers;
+
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.conf.LayerConfigurationParameters.*;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * Loss layer that fuses the softmax activation function and the cross-entropy loss function.
+ *
+ * This layer is intended to be the last layer, and is not learnable.
+ * <br/>
+ * In a forward pass,
+ * this layer computes the softmax of each column of an input in a single sweep over the column.
+ * In a backward pass,
+ * this layer computes the error and the cross-entropy loss together from the indices of the expected classes,
+ * without a one-hot label matrix. A label matrix is also accepted, as {@link ActivationWithLossLayer} does.
+ */
+public final class SoftmaxWithLossLayer extends LayerBase {
+
+  private final MatrixFactory matrixFactory;
+
+  /**
+   * The cross-entropy loss summed over the inputs of the last backward pass with label indices.
+   */
+  private float loss = Float.NaN;
+
+  @Inject
+  private SoftmaxWithLossLayer(@Parameter(LayerIndex.class) final int index,
+                               @Parameter(LayerInputShape.class) final String inputShape,
+                               final MatrixFactory matrixFactory) {
+    super(index, inputShape);
+    this.matrixFactory = matrixFactory;
+  }
+
+  @Override
+  public int[] getOutputShape() {
+    return getInputShape();
+  }
+
+  @Override
+  public boolean isLearnable() {
+    return false;
+  }
+
+  /**
+   * Applies the softmax function to each column of the input.
+   * @param input the input values for this layer.
+   * @return the activation.
+   */
+  @Override
+  public Matrix feedForward(final Matrix input) {
+    final int rows = input.getRows();
+    final int columns = input.getColumns();
+    final float[] data = input.toFloatArray();
+    for (int c = 0; c < columns; ++c) {
+      final int begin = c * rows;
+      final int end = begin + rows;
+      float max = Float.NEGATIVE_INFINITY;
+      for (int i = begin; i < end; ++i) {
+        if (data[i] > max) {
+          max = data[i];
+        }
+      }
+      float sum = 0.0f;
+      for (int i = begin; i < end; ++i) {
+        data[i] = (float) Math.exp(data[i] - max);
+        sum += data[i];
+      }
+      final float inverseSum = 1.0f / sum;
+      for (int i = begin; i < end; ++i) {
+        data[i] *= inverseSum;
+      }
+    }
+    return matrixFactory.create(data, rows, columns);
+  }
+
+  /**
+   * Computes the error for the cross-entropy loss.
+   * @param label the label value.
+   * @param activation the activation value.
+   * @param nextError an error of the next layer - this argument is ignored.
+   * @return the error with respect to the activation and label values.
+   */
+  @Override
+  public Matrix backPropagate(final Matrix label, final Matrix activation, final Matrix nextError) {
+    return activation.sub(label);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Matrix backPropagate(final Matrix label, final Matrix activation, final Matrix nextError,
+                              final Matrix error) {
+    return error.copy(activation).subi(label);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean acceptsLabelIndices() {
+    return true;
+  }
+
+  /**
+   * Computes the error and the cross-entropy loss for the given label indices.
+   * The error of an input is its activation, minus one at the expected class.
+   * @param labels the index of the expected class for each input.
+   * @param activation the activation value.
+   * @param error a matrix that may be overwritten with the error, or {@code null}.
+   * @return the error with respect to the activation and labels.
+   */
+  @Override
+  public Matrix backPropagate(final int[] labels, final Matrix activation, final Matrix error) {
+    if (activation.getColumns() != labels.length) {
+      throw new IllegalArgumentException("The number of inputs is not equal to the number of labels");
+    }
+    final Matrix ret = error == null ? activation.dup() : error.copy(activation);
+    float lossSum = 0.0f;
+    for (int i = 0; i < labels.length; ++i) {
+      final float probability = ret.get(labels[i], i);
+      lossSum -= Math.log(Math.max(probability, Float.MIN_NORMAL));
+      ret.put(labels[i], i, probability - 1.0f);
+    }
+    this.loss = lossSum;
+    return ret;
+  }
+
+  /**
+   * @return the cross-entropy loss summed over the inputs of the last backward pass with label indices,
+   *         or {@code NaN} if there was no such pass.
+   */
+  @Override
+  public float getLoss() {
+    return loss;
+  }
+
+  @Override
+  public LayerParameter generateParameterGradient(final Matrix input, final Matrix error) {
+    throw new RuntimeException("This layer is not learnable");
+  }
+}
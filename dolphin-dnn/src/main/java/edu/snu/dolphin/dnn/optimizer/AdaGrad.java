@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.optimizer;
+
+import edu.snu.dolphin.dnn.blas.FloatBinaryOperator;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Epsilon;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Stepsize;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * AdaGrad, which divides the step of each element by the square root of the sum of its squared gradients,
+ * {@code h += g^2} and {@code parameter -= stepsize * g / (sqrt(h) + epsilon)},
+ * where {@code g} is the average gradient.
+ */
+public final class AdaGrad extends OptimizerBase {
+
+  private final float stepsize;
+  private final float epsilon;
+  private float scale;
+  private float factor;
+
+  private final FloatBinaryOperator accumulate = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float squareSum, final float gradient) {
+      final float averageGradient = gradient * scale;
+      return squareSum + averageGradient * averageGradient;
+    }
+  };
+
+  private final FloatBinaryOperator adapt = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float gradient, final float squareSum) {
+      return factor * gradient / ((float) Math.sqrt(squareSum) + epsilon);
+    }
+  };
+
+  @Inject
+  private AdaGrad(@Parameter(Stepsize.class) final float stepsize,
+                  @Parameter(Epsilon.class) final float epsilon) {
+    super(2);
+    this.stepsize = stepsize;
+    this.epsilon = epsilon;
+  }
+
+  /**
+   * The second state matrix holds the step of the parameter, to which the gradient is copied.
+   */
+  @Override
+  protected void update(final Matrix parameter, final Matrix gradient, final int batchSize,
+                        final Matrix[] parameterStates) {
+    final Matrix squareSum = parameterStates[0];
+    final Matrix step = parameterStates[1];
+    scale = 1.0f / batchSize;
+    factor = stepsize / batchSize;
+    squareSum.mapi(accumulate, gradient);
+    step.copy(gradient).mapi(adapt, squareSum);
+    parameter.subi(step);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.optimizer;
+
+import edu.snu.dolphin.dnn.blas.FloatBinaryOperator;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Beta1;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Beta2;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Epsilon;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Stepsize;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * Adam, which moves each element by the moving average of its gradients divided by the root of
+ * the moving average of its squared gradients, {@code m = beta1 * m + (1 - beta1) * g},
+ * {@code v = beta2 * v + (1 - beta2) * g^2} and {@code parameter -= stepsize_t * m / (sqrt(v) + epsilon)},
+ * where {@code g} is the average gradient and {@code stepsize_t = stepsize * sqrt(1 - beta2^t) / (1 - beta1^t)}
+ * corrects the bias of the averages towards their initial value, zero, at the {@code t}-th update.
+ */
+public final class Adam extends OptimizerBase {
+
+  private final float stepsize;
+  private final float beta1;
+  private final float beta2;
+  private final float epsilon;
+  private float scale;
+  private float factor;
+
+  private final FloatBinaryOperator accumulateFirstMoment = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float firstMoment, final float gradient) {
+      return beta1 * firstMoment + (1 - beta1) * gradient * scale;
+    }
+  };
+
+  private final FloatBinaryOperator accumulateSecondMoment = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float secondMoment, final float gradient) {
+      final float averageGradient = gradient * scale;
+      return beta2 * secondMoment + (1 - beta2) * averageGradient * averageGradient;
+    }
+  };
+
+  private final FloatBinaryOperator adapt = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float firstMoment, final float secondMoment) {
+      return factor * firstMoment / ((float) Math.sqrt(secondMoment) + epsilon);
+    }
+  };
+
+  @Inject
+  private Adam(@Parameter(Stepsize.class) final float stepsize,
+               @Parameter(Beta1.class) final float beta1,
+               @Parameter(Beta2.class) final float beta2,
+               @Parameter(Epsilon.class) final float epsilon) {
+    super(3);
+    this.stepsize = stepsize;
+    this.beta1 = beta1;
+    this.beta2 = beta2;
+    this.epsilon = epsilon;
+  }
+
+  /**
+   * The third state matrix holds the step of the parameter, to which the first moment is copied.
+   */
+  @Override
+  protected void update(final Matrix parameter, final Matrix gradient, final int batchSize,
+                        final Matrix[] parameterStates) {
+    final Matrix firstMoment = parameterStates[0];
+    final Matrix secondMoment = parameterStates[1];
+    final Matrix step = parameterStates[2];
+    final long t = getStep();
+    scale = 1.0f / batchSize;
+    factor = (float) (stepsize * Math.sqrt(1 - Math.pow(beta2, t)) / (1 - Math.pow(beta1, t)));
+    firstMoment.mapi(accumulateFirstMoment, gradient);
+    secondMoment.mapi(accumulateSecondMoment, gradient);
+    step.copy(firstMoment).mapi(adapt, secondMoment);
+    parameter.subi(step);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.optimizer;
+
+import edu.snu.dolphin.dnn.blas.FloatBinaryOperator;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Momentum;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Stepsize;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * Stochastic gradient descent with momentum.
+ * The velocity {@code v = momentum * v - stepsize * g} is added to the parameter,
+ * where {@code g} is the average gradient.
+ */
+public final class MomentumSGD extends OptimizerBase {
+
+  private final float stepsize;
+  private final float momentum;
+  private float factor;
+
+  private final FloatBinaryOperator accumulate = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float velocity, final float gradient) {
+      return momentum * velocity - factor * gradient;
+    }
+  };
+
+  @Inject
+  private MomentumSGD(@Parameter(Stepsize.class) final float stepsize,
+                      @Parameter(Momentum.class) final float momentum) {
+    super(1);
+    this.stepsize = stepsize;
+    this.momentum = momentum;
+  }
+
+  @Override
+  protected void update(final Matrix parameter, final Matrix gradient, final int batchSize,
+                        final Matrix[] parameterStates) {
+    final Matrix velocity = parameterStates[0];
+    factor = stepsize / batchSize;
+    velocity.mapi(accumulate, gradient);
+    parameter.addi(velocity);
+  }
+}
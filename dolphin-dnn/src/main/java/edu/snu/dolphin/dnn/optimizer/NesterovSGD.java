@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.optimizer;
+
+import edu.snu.dolphin.dnn.blas.FloatBinaryOperator;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Momentum;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Stepsize;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * Stochastic gradient descent with Nesterov's accelerated gradient.
+ * The velocity is updated as in {@link MomentumSGD}, and the parameter is moved by
+ * {@code (1 + momentum) * v - momentum * previousV}, which is the momentum step taken from the look-ahead point
+ * for the parameters whose gradients were computed at the look-ahead point of the previous update.
+ */
+public final class NesterovSGD extends OptimizerBase {
+
+  private final float stepsize;
+  private final float momentum;
+  private float factor;
+
+  private final FloatBinaryOperator undoLookAhead = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float parameter, final float velocity) {
+      return parameter - momentum * velocity;
+    }
+  };
+
+  private final FloatBinaryOperator accumulate = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float velocity, final float gradient) {
+      return momentum * velocity - factor * gradient;
+    }
+  };
+
+  private final FloatBinaryOperator lookAhead = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float parameter, final float velocity) {
+      return parameter + (1 + momentum) * velocity;
+    }
+  };
+
+  @Inject
+  private NesterovSGD(@Parameter(Stepsize.class) final float stepsize,
+                      @Parameter(Momentum.class) final float momentum) {
+    super(1);
+    this.stepsize = stepsize;
+    this.momentum = momentum;
+  }
+
+  @Override
+  protected void update(final Matrix parameter, final Matrix gradient, final int batchSize,
+                        final Matrix[] parameterStates) {
+    final Matrix velocity = parameterStates[0];
+    factor = stepsize / batchSize;
+    parameter.mapi(undoLookAhead, velocity);
+    velocity.mapi(accumulate, gradient);
+    parameter.mapi(lookAhead, velocity);
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.optimizer;
+
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+
+/**
+ * Interface for optimizers, which update the parameters of a neural network in place with their gradients.
+ *
+ * An optimizer is used by the parameter provider or server that owns the parameters.
+ * Stateful optimizers keep their state, such as the velocity of momentum, for each parameter,
+ * so an instance should update the parameters of a single network, given in the same order every time.
+ */
+@DefaultImplementation(SGD.class)
+public interface Optimizer {
+
+  /**
+   * Updates the given parameters in place.
+   * @param parameters the parameters of each layer.
+   * @param parameterGradients the parameter gradients of each layer, summed over a batch, which are not modified.
+   * @param batchSize the number of inputs that the gradients are summed over.
+   */
+  void update(LayerParameter[] parameters, LayerParameter[] parameterGradients, int batchSize);
+}
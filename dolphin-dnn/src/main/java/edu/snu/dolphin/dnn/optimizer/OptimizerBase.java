@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.optimizer;
+
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Base class for optimizers, which updates the weight and the bias of each layer separately
+ * and keeps the state matrices of each of them.
+ *
+ * State matrices have the shape of their parameter and are zero at first.
+ * They are allocated at the first update, and updated in place afterwards,
+ * so that no matrix is allocated for an update once the state exists.
+ */
+@ThreadSafe
+abstract class OptimizerBase implements Optimizer {
+
+  private final int numStates;
+
+  /**
+   * The state matrices of each parameter, in the order of the weight and the bias of each layer.
+   */
+  private Matrix[][] states;
+
+  /**
+   * The number of updates so far, including the ongoing one.
+   */
+  private long step;
+
+  /**
+   * @param numStates the number of state matrices for each parameter.
+   */
+  protected OptimizerBase(final int numStates) {
+    this.numStates = numStates;
+  }
+
+  @Override
+  public final synchronized void update(final LayerParameter[] parameters, final LayerParameter[] parameterGradients,
+                                        final int batchSize) {
+    if (parameters.length != parameterGradients.length) {
+      throw new IllegalArgumentException("The number of parameter gradients is not equal to the number of layers");
+    }
+    if (states == null) {
+      states = new Matrix[2 * parameters.length][];
+    }
+
+    ++step;
+    for (int i = 0; i < parameters.length; ++i) {
+      update(2 * i, parameters[i].getWeightParam(), parameterGradients[i].getWeightParam(), batchSize);
+      update(2 * i + 1, parameters[i].getBiasParam(), parameterGradients[i].getBiasParam(), batchSize);
+    }
+  }
+
+  private void update(final int index, final Matrix parameter, final Matrix gradient, final int batchSize) {
+    if (parameter.getLength() == 0) {
+      return;
+    }
+    if (states[index] == null) {
+      states[index] = new Matrix[numStates];
+      for (int i = 0; i < numStates; ++i) {
+        states[index][i] = parameter.dup().fill(0.0f);
+      }
+    }
+    update(parameter, gradient, batchSize, states[index]);
+  }
+
+  /**
+   * @return the number of updates so far, starting from 1 at the first update.
+   */
+  protected final long getStep() {
+    return step;
+  }
+
+  /**
+   * Updates a parameter in place.
+   * @param parameter the parameter.
+   * @param gradient the gradient of the parameter summed over a batch, which should not be modified.
+   * @param batchSize the number of inputs that the gradient is summed over.
+   * @param parameterStates the state matrices of the parameter.
+   */
+  protected abstract void update(Matrix parameter, Matrix gradient, int batchSize, Matrix[] parameterStates);
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.optimizer;
+
+import edu.snu.dolphin.dnn.blas.FloatBinaryOperator;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Stepsize;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * Stochastic gradient descent, which subtracts the average gradient multiplied by the step size.
+ */
+public final class SGD extends OptimizerBase {
+
+  private final float stepsize;
+  private float factor;
+
+  private final FloatBinaryOperator descent = new FloatBinaryOperator() {
+    @Override
+    public float apply(final float parameter, final float gradient) {
+      return parameter - gradient * factor;
+    }
+  };
+
+  @Inject
+  private SGD(@Parameter(Stepsize.class) final float stepsize) {
+    super(0);
+    this.stepsize = stepsize;
+  }
+
+  @Override
+  protected void update(final Matrix parameter, final Matrix gradient, final int batchSize,
+                        final Matrix[] parameterStates) {
+    factor = stepsize / batchSize;
+    parameter.mapi(descent, gradient);
+  }
+}
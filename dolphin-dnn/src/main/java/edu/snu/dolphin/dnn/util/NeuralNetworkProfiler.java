@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.util;
+
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Profile;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Opt-in instrumentation of the time and memory spent by each part of neural network training,
+ * such as the forward pass, back propagation and gradient generation of each layer,
+ * parameter provider pushes and pulls, and matrix encoding and decoding.
+ *
+ * Each part records into a {@link Stat}, which is looked up by name once and then updated without allocation.
+ * A stat accumulates the number of calls, the elapsed time and the bytes allocated by the calling thread,
+ * the last of which is only available on JVMs that support measuring thread allocation.
+ * The stats are reported to the log and reset every iteration by {@link #report(int)}.
+ * When profiling is disabled, recording and reporting do nothing.
+ */
+@ThreadSafe
+public final class NeuralNetworkProfiler {
+  private static final Logger LOG = Logger.getLogger(NeuralNetworkProfiler.class.getName());
+  private static final String NEWLINE = System.getProperty("line.separator");
+
+  private final boolean enabled;
+  private final com.sun.management.ThreadMXBean allocationBean;
+  private final Map<String, Stat> stats = new LinkedHashMap<>();
+
+  @Inject
+  private NeuralNetworkProfiler(@Parameter(Profile.class) final boolean enabled) {
+    this.enabled = enabled;
+    this.allocationBean = enabled ? getAllocationBean() : null;
+  }
+
+  /**
+   * @return the bean that measures the bytes allocated by each thread, or {@code null} if it is not supported.
+   */
+  private static com.sun.management.ThreadMXBean getAllocationBean() {
+    final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (threadBean instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+      if (allocationBean.isThreadAllocatedMemorySupported()) {
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        return allocationBean;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return whether profiling is enabled.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return the current time in nanoseconds to pass to {@link Stat#record(long, long)},
+   *         or {@code 0} if profiling is disabled.
+   */
+  public long startTime() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * @return the bytes allocated by the current thread so far to pass to {@link Stat#record(long, long)},
+   *         or {@code 0} if profiling is disabled or the JVM does not support measuring it.
+   */
+  public long startBytes() {
+    return allocationBean == null ? 0 : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * @param name the name of the stat, which is shown in reports.
+   * @return the stat of the given name, which is created if it does not exist.
+   */
+  public synchronized Stat getStat(final String name) {
+    Stat stat = stats.get(name);
+    if (stat == null) {
+      stat = new Stat();
+      stats.put(name, stat);
+    }
+    return stat;
+  }
+
+  /**
+   * Logs the stats recorded since the last report, and resets them.
+   * @param iteration the iteration that the stats were recorded in.
+   */
+  public void report(final int iteration) {
+    if (enabled) {
+      LOG.log(Level.INFO, generateReport(iteration));
+      reset();
+    }
+  }
+
+  /**
+   * @param iteration the iteration that the stats were recorded in.
+   * @return the report of the stats that have been called at least once since the last reset.
+   */
+  public synchronized String generateReport(final int iteration) {
+    final StringBuilder report = new StringBuilder()
+        .append(NEWLINE)
+        .append("=========================================================")
+        .append(NEWLINE)
+        .append("Profile of iteration: ")
+        .append(iteration)
+        .append(NEWLINE)
+        .append(String.format("%-40s %10s %12s %12s %12s", "", "calls", "total(ms)", "avg(us)", "alloc(MB)"));
+    for (final Map.Entry<String, Stat> entry : stats.entrySet()) {
+      final Stat stat = entry.getValue();
+      final long count = stat.getCount();
+      if (count == 0) {
+        continue;
+      }
+      report.append(NEWLINE)
+          .append(String.format("%-40s %10d %12.1f %12.1f %12.1f", entry.getKey(), count,
+              stat.getNanos() / 1e6, stat.getNanos() / 1e3 / count, stat.getBytes() / (double) (1 << 20)));
+    }
+    return report.append(NEWLINE)
+        .append("=========================================================")
+        .append(NEWLINE)
+        .toString();
+  }
+
+  /**
+   * Resets all stats.
+   */
+  public synchronized void reset() {
+    for (final Stat stat : stats.values()) {
+      stat.reset();
+    }
+  }
+
+  /**
+   * Accumulated measurements of a part of training.
+   */
+  @ThreadSafe
+  public final class Stat {
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    private Stat() {
+    }
+
+    /**
+     * Records a call that started at the given time and allocation counter, and ends now.
+     * @param startTime the value of {@link #startTime()} when the call started.
+     * @param startBytes the value of {@link #startBytes()} when the call started.
+     */
+    public void record(final long startTime, final long startBytes) {
+      if (!enabled) {
+        return;
+      }
+      count.incrementAndGet();
+      nanos.addAndGet(System.nanoTime() - startTime);
+      if (allocationBean != null) {
+        bytes.addAndGet(startBytes() - startBytes);
+      }
+    }
+
+    /**
+     * @return the number of calls recorded since the last reset.
+     */
+    public long getCount() {
+      return count.get();
+    }
+
+    /**
+     * @return the total elapsed time of the calls recorded since the last reset, in nanoseconds.
+     */
+    public long getNanos() {
+      return nanos.get();
+    }
+
+    /**
+     * @return the total bytes allocated by the calls recorded since the last reset.
+     */
+    public long getBytes() {
+      return bytes.get();
+    }
+
+    private void reset() {
+      count.set(0);
+      nanos.set(0);
+      bytes.set(0);
+    }
+  }
+}
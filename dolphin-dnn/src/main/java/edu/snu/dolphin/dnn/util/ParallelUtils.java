@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Utility class for running loops over independent indices, e.g., the inputs of a batch, with multiple threads.
+ */
+public final class ParallelUtils {
+
+  /**
+   * Loops with less work than this are run on the calling thread.
+   */
+  private static final long PARALLEL_THRESHOLD = 1L << 16;
+
+  private static final int NUM_THREADS = Runtime.getRuntime().availableProcessors();
+
+  private static final ExecutorService THREAD_POOL = Executors.newFixedThreadPool(NUM_THREADS, new ThreadFactory() {
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, "dnn-parallel");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  private ParallelUtils() {
+  }
+
+  /**
+   * Body of a loop over a range of indices.
+   */
+  public interface RangeBody {
+
+    /**
+     * @param begin the beginning index, inclusive.
+     * @param end the ending index, exclusive.
+     */
+    void run(int begin, int end);
+  }
+
+  /**
+   * Runs the given loop body over {@code [0, length)}, splitting the range into chunks that run concurrently.
+   * The calling thread runs the first chunk, and the others are run by a shared thread pool.
+   * @param length the number of indices.
+   * @param workPerIndex the estimated amount of work for an index, used to decide whether to split the range.
+   * @param body the loop body.
+   */
+  public static void parallelFor(final int length, final long workPerIndex, final RangeBody body) {
+    final int numChunks = (int) Math.min(Math.min(NUM_THREADS, length), length * workPerIndex / PARALLEL_THRESHOLD);
+    if (numChunks < 2) {
+      body.run(0, length);
+      return;
+    }
+
+    final int chunkSize = (length + numChunks - 1) / numChunks;
+    final List<Future<?>> futures = new ArrayList<>(numChunks - 1);
+    for (int begin = chunkSize; begin < length; begin += chunkSize) {
+      final int chunkBegin = begin;
+      final int chunkEnd = Math.min(begin + chunkSize, length);
+      futures.add(THREAD_POOL.submit(new Runnable() {
+        @Override
+        public void run() {
+          body.run(chunkBegin, chunkEnd);
+        }
+      }));
+    }
+    body.run(0, Math.min(chunkSize, length));
+
+    try {
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } catch (final InterruptedException e) {
+      throw new RuntimeException("InterruptedException while waiting for a parallel loop", e);
+    } catch (final ExecutionException e) {
+      throw new RuntimeException("Exception in a parallel loop", e.getCause());
+    }
+  }
+}
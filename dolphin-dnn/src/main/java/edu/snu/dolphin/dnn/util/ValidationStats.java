@@ -19,20 +19,35 @@ import javax.annotation.concurrent.ThreadSafe;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Class for storing the validation statistics of a {@link Validator}.
+ * Class for storing the validation statistics of a {@link Validator},
+ * and the loss of the training inputs if the output layer of the network computes one.
  */
 @ThreadSafe
 public final class ValidationStats {
   private final AtomicInteger totalNum;
   private final AtomicInteger correctNum;
+  private double lossSum;
+  private int lossNum;
 
   public ValidationStats() {
     this(0, 0);
   }
 
   public ValidationStats(final int totalNum, final int correctNum) {
+    this(totalNum, correctNum, 0.0f, 0);
+  }
+
+  /**
+   * @param totalNum the number of evaluated inputs.
+   * @param correctNum the number of inputs that were classified correctly.
+   * @param lossSum the loss summed over {@code lossNum} inputs.
+   * @param lossNum the number of inputs that the loss is summed over.
+   */
+  public ValidationStats(final int totalNum, final int correctNum, final float lossSum, final int lossNum) {
     this.totalNum = new AtomicInteger(totalNum);
     this.correctNum = new AtomicInteger(correctNum);
+    this.lossSum = lossSum;
+    this.lossNum = lossNum;
   }
 
   /**
@@ -50,12 +65,26 @@ public final class ValidationStats {
     totalNum.incrementAndGet();
   }
 
+  /**
+   * Adds the loss of a mini-batch. A {@code NaN} loss, of a network that does not compute a loss, is ignored.
+   * @param batchLossSum the loss summed over the inputs of the mini-batch.
+   * @param batchSize the number of inputs of the mini-batch.
+   */
+  public synchronized void addLoss(final float batchLossSum, final int batchSize) {
+    if (!Float.isNaN(batchLossSum)) {
+      lossSum += batchLossSum;
+      lossNum += batchSize;
+    }
+  }
+
   /**
    * Reset statistics.
    */
-  public void reset() {
+  public synchronized void reset() {
     totalNum.set(0);
     correctNum.set(0);
+    lossSum = 0.0;
+    lossNum = 0;
   }
 
   /**
@@ -85,4 +114,25 @@ public final class ValidationStats {
   public int getCorrectNum() {
     return correctNum.get();
   }
+
+  /**
+   * @return the loss summed over the inputs that a loss was added for.
+   */
+  public synchronized float getLossSum() {
+    return (float) lossSum;
+  }
+
+  /**
+   * @return the number of inputs that a loss was added for.
+   */
+  public synchronized int getLossNum() {
+    return lossNum;
+  }
+
+  /**
+   * @return the average loss per input, or {@code NaN} if no loss was added.
+   */
+  public synchronized float getLoss() {
+    return lossNum == 0 ? Float.NaN : (float) (lossSum / lossNum);
+  }
 }
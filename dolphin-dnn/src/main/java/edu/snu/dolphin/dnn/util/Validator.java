@@ -27,28 +27,37 @@ public final class Validator {
   private final ValidationStats validationStats;
 
   public Validator(final NeuralNetwork network) {
+    this(network, new ValidationStats());
+  }
+
+  /**
+   * @param network the neural network to validate.
+   * @param validationStats the statistics to record the results to, which can be shared by other validators.
+   */
+  public Validator(final NeuralNetwork network, final ValidationStats validationStats) {
     this.network = network;
-    this.validationStats = new ValidationStats();
+    this.validationStats = validationStats;
   }
 
+  /**
+   * Computes the output of the network for the given input, and records whether each input is predicted correctly.
+   * @param input the input matrix, each column of which is an input instance.
+   * @param labels the label of each input.
+   */
   public void validate(final Matrix input, final int[] labels) {
-    final Matrix[] activations = network.feedForward(input);
-    final Matrix outputMatrix = activations[activations.length - 1];
-
-    for (int i = 0; i < outputMatrix.getColumns(); ++i) {
-      final Matrix output = outputMatrix.getColumn(i);
-      float maxValue = output.get(0);
-
-      // Find the index with highest probability.
-      int maxIndex = 0;
-      for (int j = 1; j < output.getLength(); ++j) {
-        if (output.get(j) > maxValue) {
-          maxValue = output.get(j);
-          maxIndex = j;
-        }
-      }
+    validateOutput(network.predict(input), labels);
+  }
 
-      if (maxIndex == labels[i]) {
+  /**
+   * Records whether each input is predicted correctly, from the output that the network has already computed,
+   * such as the output of the forward pass of training.
+   * @param output the activation of the output layer, each column of which is the output for an input instance.
+   * @param labels the label of each input.
+   */
+  public void validateOutput(final Matrix output, final int[] labels) {
+    final int[] predictions = output.columnArgmaxs();
+    for (int i = 0; i < predictions.length; ++i) {
+      if (predictions[i] == labels[i]) {
         validationStats.validationCorrect();
       } else {
         validationStats.validationIncorrect();
@@ -56,6 +65,15 @@ public final class Validator {
     }
   }
 
+  /**
+   * Records the loss of the last mini-batch that the network was trained with,
+   * if the output layer of the network computes a loss.
+   * @param batchSize the number of inputs of the mini-batch.
+   */
+  public void recordLoss(final int batchSize) {
+    validationStats.addLoss(network.getLoss(), batchSize);
+  }
+
   public ValidationStats getValidationStats() {
     return validationStats;
   }
@@ -15,6 +15,8 @@
  */
 package edu.snu.dolphin.dnn;
 
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.NumTrainerThreads;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Profile;
 import edu.snu.dolphin.dnn.blas.Matrix;
 import edu.snu.dolphin.dnn.blas.MatrixFactory;
 import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
@@ -23,9 +25,14 @@ import edu.snu.dolphin.dnn.conf.ActivationLayerConfigurationBuilder;
 import edu.snu.dolphin.dnn.conf.ActivationWithLossLayerConfigurationBuilder;
 import edu.snu.dolphin.dnn.conf.FullyConnectedLayerConfigurationBuilder;
 import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationBuilder;
+import edu.snu.dolphin.dnn.conf.SoftmaxWithLossLayerConfigurationBuilder;
 import edu.snu.dolphin.dnn.layers.LayerParameter;
 import edu.snu.dolphin.dnn.layerparam.provider.LocalNeuralNetParameterProvider;
+import edu.snu.dolphin.dnn.util.NeuralNetworkProfiler;
+import edu.snu.dolphin.dnn.util.ValidationStats;
+import edu.snu.dolphin.dnn.util.Validator;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.reef.io.network.util.Pair;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
@@ -33,6 +40,9 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static edu.snu.dolphin.dnn.layers.LayerParameterUtils.compare;
 import static org.junit.Assert.*;
 
@@ -44,6 +54,7 @@ public final class NeuralNetworkTest {
   private static MatrixFactory matrixFactory;
   private static LayerParameter emptyLayerParam;
   private static final float TOLERANCE = 1e-7f;
+  private static final float LOSS_TOLERANCE = 1e-6f;
 
   static {
     final Configuration configuration = Tang.Factory.getTang().newConfigurationBuilder()
@@ -72,33 +83,7 @@ public final class NeuralNetworkTest {
           3.88833708754e-01f, 2.18417983427e-01f, -4.49433571251e-02f}),
       expectedOutput};
 
-  private final Configuration neuralNetworkConfiguration = NeuralNetworkConfigurationBuilder.newConfigurationBuilder()
-      .setInputShape(input.getLength())
-      .setStepsize(1e-2f)
-      .setParameterProviderClass(LocalNeuralNetParameterProvider.class)
-      .addLayerConfiguration(
-          FullyConnectedLayerConfigurationBuilder.newConfigurationBuilder()
-              .setNumOutput(numHiddenUnits)
-              .setInitWeight(0.0001f)
-              .setInitBias(0.0002f)
-              .setRandomSeed(10)
-              .build())
-      .addLayerConfiguration(
-          ActivationLayerConfigurationBuilder.newConfigurationBuilder()
-              .setActivationFunction("sigmoid")
-              .build())
-      .addLayerConfiguration(
-          FullyConnectedLayerConfigurationBuilder.newConfigurationBuilder()
-              .setNumOutput(expectedOutput.getLength())
-              .setInitWeight(0.2f)
-              .setInitBias(0.3f)
-              .setRandomSeed(10)
-              .build())
-      .addLayerConfiguration(ActivationWithLossLayerConfigurationBuilder.newConfigurationBuilder()
-          .setActivationFunction("sigmoid")
-          .setLossFunction("crossentropy")
-          .build())
-      .build();
+  private final Configuration neuralNetworkConfiguration = buildNeuralNetworkConfiguration(1, false);
 
   private final Configuration blasConfiguration = Tang.Factory.getTang().newConfigurationBuilder()
       .bindImplementation(MatrixFactory.class, MatrixJBLASFactory.class)
@@ -139,6 +124,51 @@ public final class NeuralNetworkTest {
           .build(),
       emptyLayerParam}; // sigmoid activation layer
 
+  /**
+   * @return the configuration of the network under test, which synchronizes with a local parameter provider
+   *         once every {@code syncInterval} mini-batches.
+   */
+  private Configuration buildNeuralNetworkConfiguration(final int syncInterval, final boolean modelAveraging) {
+    return buildNeuralNetworkConfiguration(syncInterval, modelAveraging,
+        ActivationWithLossLayerConfigurationBuilder.newConfigurationBuilder()
+            .setActivationFunction("sigmoid")
+            .setLossFunction("crossentropy")
+            .build());
+  }
+
+  /**
+   * @return the configuration of the network under test with the given output layer.
+   */
+  private Configuration buildNeuralNetworkConfiguration(final int syncInterval, final boolean modelAveraging,
+                                                        final Configuration outputLayerConfiguration) {
+    return NeuralNetworkConfigurationBuilder.newConfigurationBuilder()
+        .setInputShape(input.getLength())
+        .setStepsize(1e-2f)
+        .setParameterProviderClass(LocalNeuralNetParameterProvider.class)
+        .setSyncInterval(syncInterval)
+        .setModelAveraging(modelAveraging)
+        .addLayerConfiguration(
+            FullyConnectedLayerConfigurationBuilder.newConfigurationBuilder()
+                .setNumOutput(numHiddenUnits)
+                .setInitWeight(0.0001f)
+                .setInitBias(0.0002f)
+                .setRandomSeed(10)
+                .build())
+        .addLayerConfiguration(
+            ActivationLayerConfigurationBuilder.newConfigurationBuilder()
+                .setActivationFunction("sigmoid")
+                .build())
+        .addLayerConfiguration(
+            FullyConnectedLayerConfigurationBuilder.newConfigurationBuilder()
+                .setNumOutput(expectedOutput.getLength())
+                .setInitWeight(0.2f)
+                .setInitBias(0.3f)
+                .setRandomSeed(10)
+                .build())
+        .addLayerConfiguration(outputLayerConfiguration)
+        .build();
+  }
+
   @Before
   public void buildNeuralNetwork() throws InjectionException {
     final Injector injector = Tang.Factory.getTang().newInjector(blasConfiguration, neuralNetworkConfiguration);
@@ -294,4 +324,283 @@ public final class NeuralNetworkTest {
         neuralNetwork.generateParameterGradients(batchActivations, expectedBatchErrors));
     assertTrue(compare(expectedBatchParams, localNeuralNetParameterProvider.pull(), TOLERANCE));
   }
+
+  /**
+   * Unit test for training of neural network, which reuses the buffers of the workspace across iterations.
+   */
+  @Test
+  public void trainTest() {
+    neuralNetwork.train(batchInput, labels);
+    assertLearnableParameters(expectedBatchParams, neuralNetwork.getParameters());
+    // the output of training is computed with the parameters before the update.
+    assertTrue(expectedBatchOutput.compare(neuralNetwork.getOutput(), TOLERANCE));
+
+    final Validator validator = new Validator(neuralNetwork);
+    validator.validateOutput(neuralNetwork.getOutput(), expectedBatchOutput.columnArgmaxs());
+    assertEquals(batchInput.getColumns(), validator.getValidationStats().getCorrectNum());
+
+    // reuses the buffers of the same shape, and then resizes them for a different batch size.
+    checkTrainingStep(batchInput, labels);
+    checkTrainingStep(input, label);
+    checkTrainingStep(batchInput, labels);
+  }
+
+  /**
+   * Unit test for the loss of training, which is computed by a softmax output layer and recorded by a validator.
+   * The expected loss is {@code -ln(softmax(z)[1])} for the inputs {@code z} of the output layer,
+   * which are the third expected activations.
+   */
+  @Test
+  public void lossTest() throws InjectionException {
+    assertTrue(Float.isNaN(neuralNetwork.getLoss()));
+
+    final NeuralNetwork softmaxNetwork = Tang.Factory.getTang()
+        .newInjector(blasConfiguration, buildNeuralNetworkConfiguration(1, false,
+            SoftmaxWithLossLayerConfigurationBuilder.newConfigurationBuilder().build()))
+        .getInstance(NeuralNetwork.class);
+    final float expectedLoss = 1.08324883f;
+    final Validator validator = new Validator(softmaxNetwork);
+
+    softmaxNetwork.train(input, new int[]{1});
+    assertEquals(expectedLoss, softmaxNetwork.getLoss(), LOSS_TOLERANCE);
+
+    validator.recordLoss(input.getColumns());
+    validator.recordLoss(input.getColumns());
+    assertEquals(2, validator.getValidationStats().getLossNum());
+    assertEquals(2 * expectedLoss, validator.getValidationStats().getLossSum(), LOSS_TOLERANCE);
+    assertEquals(expectedLoss, validator.getValidationStats().getLoss(), LOSS_TOLERANCE);
+    assertTrue(NeuralNetworkTask.generateIterationLog(validator.getValidationStats(), new ValidationStats(), 0)
+        .contains("Training Loss: " + validator.getValidationStats().getLoss()));
+
+    // a network without a loss does not add to the statistics.
+    new Validator(neuralNetwork, validator.getValidationStats()).recordLoss(input.getColumns());
+    assertEquals(2, validator.getValidationStats().getLossNum());
+    validator.getValidationStats().reset();
+    assertTrue(Float.isNaN(validator.getValidationStats().getLoss()));
+    assertFalse(NeuralNetworkTask.generateIterationLog(validator.getValidationStats(), new ValidationStats(), 0)
+        .contains("Training Loss"));
+  }
+
+  /**
+   * Unit test for accumulating the gradients of mini-batches between synchronizations with the parameter provider.
+   */
+  @Test
+  public void gradientAccumulationTest() throws InjectionException {
+    final NeuralNetwork accumulatingNeuralNetwork = Tang.Factory.getTang()
+        .newInjector(blasConfiguration, buildNeuralNetworkConfiguration(2, false)).getInstance(NeuralNetwork.class);
+
+    // the parameters do not change until the gradients of two batches are accumulated.
+    accumulatingNeuralNetwork.train(batchInput, labels);
+    assertLearnableParameters(neuralNetwork.getParameters(), accumulatingNeuralNetwork.getParameters());
+    accumulatingNeuralNetwork.train(batchInput, labels);
+    assertLearnableParameters(expectedBatchParams, accumulatingNeuralNetwork.getParameters());
+  }
+
+  /**
+   * Unit test for updating parameters locally between synchronizations with the parameter provider,
+   * which is equivalent to training without periodic synchronization for a single worker.
+   */
+  @Test
+  public void modelAveragingTest() throws InjectionException {
+    final NeuralNetwork averagingNeuralNetwork = Tang.Factory.getTang()
+        .newInjector(blasConfiguration, buildNeuralNetworkConfiguration(2, true)).getInstance(NeuralNetwork.class);
+
+    for (int i = 0; i < 3; ++i) {
+      neuralNetwork.train(batchInput, labels);
+      averagingNeuralNetwork.train(batchInput, labels);
+      assertLearnableParameters(neuralNetwork.getParameters(), averagingNeuralNetwork.getParameters());
+    }
+  }
+
+  /**
+   * Checks that a training step produces the same parameters as
+   * the step computed by the methods that allocate new matrices.
+   */
+  private void checkTrainingStep(final Matrix trainInput, final Matrix trainLabel) {
+    final float stepsize = 1e-2f;
+    final Matrix[] activations = ArrayUtils.add(neuralNetwork.feedForward(trainInput), 0, trainInput);
+    final LayerParameter[] gradients = neuralNetwork.generateParameterGradients(
+        activations, neuralNetwork.backPropagate(activations, trainLabel));
+    final LayerParameter[] parameters = neuralNetwork.getParameters();
+    final LayerParameter[] expectedParameters = new LayerParameter[parameters.length];
+    for (int i = 0; i < parameters.length; ++i) {
+      if (parameters[i] != null) {
+        expectedParameters[i] = LayerParameter.newBuilder()
+            .setWeightParam(parameters[i].getWeightParam().sub(
+                gradients[i].getWeightParam().mul(stepsize / trainInput.getColumns())))
+            .setBiasParam(parameters[i].getBiasParam().sub(
+                gradients[i].getBiasParam().mul(stepsize / trainInput.getColumns())))
+            .build();
+      }
+    }
+
+    neuralNetwork.train(trainInput, trainLabel);
+    assertLearnableParameters(expectedParameters, neuralNetwork.getParameters());
+  }
+
+  /**
+   * Checks the parameters of learnable layers, whose parameters returned by {@link NeuralNetwork#getParameters()}
+   * are not {@code null}.
+   */
+  private static void assertLearnableParameters(final LayerParameter[] expected, final LayerParameter[] actual) {
+    for (int i = 0; i < actual.length; ++i) {
+      if (actual[i] != null) {
+        assertTrue(expected[i].getWeightParam().compare(actual[i].getWeightParam(), TOLERANCE));
+        assertTrue(expected[i].getBiasParam().compare(actual[i].getBiasParam(), TOLERANCE));
+      }
+    }
+  }
+
+  /**
+   * Unit test for data parallel training with multiple replicas of neural network.
+   * @throws InjectionException
+   */
+  @Test
+  public void dataParallelTrainerTest() throws InjectionException {
+    final Configuration threadsConfiguration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(NumTrainerThreads.class, "2")
+        .build();
+    final Injector injector =
+        Tang.Factory.getTang().newInjector(blasConfiguration, neuralNetworkConfiguration, threadsConfiguration);
+    final DataParallelTrainer trainer = injector.getInstance(DataParallelTrainer.class);
+    final NeuralNetwork trainedNeuralNetwork = injector.getInstance(NeuralNetwork.class);
+
+    // the gradients of both batches are summed up, and the parameters are updated once.
+    final Matrix[] activations = ArrayUtils.add(neuralNetwork.feedForward(input), 0, input);
+    final LayerParameter[] gradients = neuralNetwork.generateParameterGradients(
+        activations, neuralNetwork.backPropagate(activations, label));
+    final Matrix[] batchActivations = ArrayUtils.add(neuralNetwork.feedForward(batchInput), 0, batchInput);
+    final LayerParameter[] batchGradients = neuralNetwork.generateParameterGradients(
+        batchActivations, neuralNetwork.backPropagate(batchActivations, labels));
+    final float factor = 1e-2f / (input.getColumns() + batchInput.getColumns());
+    final LayerParameter[] parameters = neuralNetwork.getParameters();
+    final LayerParameter[] expectedParameters = new LayerParameter[parameters.length];
+    for (int i = 0; i < parameters.length; ++i) {
+      if (parameters[i] != null) {
+        expectedParameters[i] = LayerParameter.newBuilder()
+            .setWeightParam(parameters[i].getWeightParam().sub(
+                gradients[i].getWeightParam().add(batchGradients[i].getWeightParam()).mul(factor)))
+            .setBiasParam(parameters[i].getBiasParam().sub(
+                gradients[i].getBiasParam().add(batchGradients[i].getBiasParam()).mul(factor)))
+            .build();
+      }
+    }
+
+    final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet = new ArrayList<>();
+    dataSet.add(new Pair<>(new Pair<>(input, new int[]{1}), false));
+    dataSet.add(new Pair<>(new Pair<>(batchInput, new int[]{1, 2, 0}), true));
+    dataSet.add(new Pair<>(new Pair<>(batchInput, new int[]{1, 2, 0}), false));
+    final Validator trainingValidator = new Validator(trainedNeuralNetwork);
+    final Validator crossValidator = new Validator(trainedNeuralNetwork);
+    trainer.runIteration(dataSet, trainingValidator, crossValidator);
+
+    assertLearnableParameters(expectedParameters, trainedNeuralNetwork.getParameters());
+    assertEquals(input.getColumns() + batchInput.getColumns(), trainingValidator.getValidationStats().getTotalNum());
+    assertEquals(batchInput.getColumns(), crossValidator.getValidationStats().getTotalNum());
+  }
+
+  /**
+   * Unit test for inference, which feeds forward the inputs of concurrent requests as mini-batches.
+   * @throws InterruptedException
+   */
+  @Test
+  public void scorerTest() throws InterruptedException {
+    assertTrue(expectedBatchOutput.compare(neuralNetwork.predict(batchInput), TOLERANCE));
+    assertTrue(expectedOutput.compare(neuralNetwork.predict(input), TOLERANCE));
+
+    final float[][] outputs = new float[numBatch][];
+    final Thread[] threads = new Thread[numBatch];
+    try (final NeuralNetworkScorer scorer = new NeuralNetworkScorer(neuralNetwork, matrixFactory, 2, 10)) {
+      for (int i = 0; i < numBatch; ++i) {
+        final int index = i;
+        threads[i] = new Thread(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              outputs[index] = scorer.score(batchInput.getColumn(index).toFloatArray());
+            } catch (final InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+          }
+        });
+        threads[i].start();
+      }
+      for (final Thread thread : threads) {
+        thread.join();
+      }
+      assertEquals(0, scorer.classify(input.toFloatArray()));
+    }
+
+    for (int i = 0; i < numBatch; ++i) {
+      assertArrayEquals(expectedBatchOutput.getColumn(i).toFloatArray(), outputs[i], TOLERANCE);
+    }
+  }
+
+  /**
+   * Unit test for inference with an invalid input, which should fail only the request with the invalid input
+   * and not the valid request that is gathered into the same mini-batch.
+   * @throws InterruptedException
+   */
+  @Test
+  public void scorerInvalidInputTest() throws InterruptedException {
+    final float[][] output = new float[1][];
+    try (final NeuralNetworkScorer scorer = new NeuralNetworkScorer(neuralNetwork, matrixFactory, 2, 500)) {
+      final Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            output[0] = scorer.score(input.toFloatArray());
+          } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      });
+      thread.start();
+      try {
+        scorer.score(new float[input.getLength() + 1]);
+        fail("An input of a wrong length should be rejected");
+      } catch (final IllegalArgumentException e) {
+        // expected
+      }
+      thread.join();
+    }
+
+    assertArrayEquals(expectedOutput.toFloatArray(), output[0], TOLERANCE);
+  }
+
+  /**
+   * Unit test for profiling, which records each layer and parameter provider call while training.
+   * @throws InjectionException
+   */
+  @Test
+  public void profilerTest() throws InjectionException {
+    final Configuration profileConfiguration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(Profile.class, "true")
+        .build();
+    final Injector injector =
+        Tang.Factory.getTang().newInjector(blasConfiguration, neuralNetworkConfiguration, profileConfiguration);
+    final NeuralNetwork profiledNeuralNetwork = injector.getInstance(NeuralNetwork.class);
+    final NeuralNetworkProfiler profiler = injector.getInstance(NeuralNetworkProfiler.class);
+
+    profiledNeuralNetwork.train(batchInput, labels);
+    profiledNeuralNetwork.train(input, label);
+    assertEquals(2, profiler.getStat("layer 0 (FullyConnectedLayer) forward").getCount());
+    assertEquals(2, profiler.getStat("layer 2 (FullyConnectedLayer) backward").getCount());
+    assertEquals(2, profiler.getStat("layer 2 (FullyConnectedLayer) gradient").getCount());
+    assertEquals(0, profiler.getStat("layer 1 (ActivationLayer) gradient").getCount());
+    assertEquals(2, profiler.getStat(NeuralNetwork.PUSH_STAT).getCount());
+    assertEquals(2, profiler.getStat(NeuralNetwork.PULL_STAT).getCount());
+    assertTrue(profiler.generateReport(0).contains("layer 3 (ActivationWithLossLayer) backward"));
+
+    profiler.reset();
+    assertEquals(0, profiler.getStat(NeuralNetwork.PUSH_STAT).getCount());
+    assertEquals(0, profiler.getStat(NeuralNetwork.PUSH_STAT).getNanos());
+
+    // stats are not recorded unless profiling is enabled.
+    final NeuralNetworkProfiler disabledProfiler =
+        Tang.Factory.getTang().newInjector().getInstance(NeuralNetworkProfiler.class);
+    final NeuralNetworkProfiler.Stat disabledStat = disabledProfiler.getStat(NeuralNetwork.PUSH_STAT);
+    disabledStat.record(disabledProfiler.startTime(), disabledProfiler.startBytes());
+    assertEquals(0, disabledStat.getCount());
+  }
 }
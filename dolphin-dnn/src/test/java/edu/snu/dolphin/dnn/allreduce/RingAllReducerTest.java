@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.allreduce;
+
+import edu.snu.dolphin.dnn.allreduce.RingParameters.RingRank;
+import edu.snu.dolphin.dnn.allreduce.RingParameters.RingSize;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Test class for {@link RingAllReducer}.
+ * Workers run on separate threads, connected by in-memory channels.
+ */
+public final class RingAllReducerTest {
+
+  private static final float TOLERANCE = 1e-4f;
+
+  /**
+   * Channel that sends data to the queue of the next worker, and receives data from its own queue.
+   */
+  private static final class QueueRingChannel implements RingChannel {
+    private final BlockingQueue<float[]> receiveQueue;
+    private final BlockingQueue<float[]> sendQueue;
+
+    QueueRingChannel(final BlockingQueue<float[]> receiveQueue, final BlockingQueue<float[]> sendQueue) {
+      this.receiveQueue = receiveQueue;
+      this.sendQueue = sendQueue;
+    }
+
+    @Override
+    public void send(final float[] data) {
+      sendQueue.add(data);
+    }
+
+    @Override
+    public float[] receive() {
+      try {
+        return receiveQueue.take();
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  private static RingAllReducer[] newRing(final int size) throws InjectionException {
+    final List<BlockingQueue<float[]>> queues = new ArrayList<>(size);
+    for (int i = 0; i < size; ++i) {
+      queues.add(new LinkedBlockingQueue<float[]>());
+    }
+    final RingAllReducer[] allReducers = new RingAllReducer[size];
+    for (int rank = 0; rank < size; ++rank) {
+      final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+          .bindNamedParameter(RingRank.class, String.valueOf(rank))
+          .bindNamedParameter(RingSize.class, String.valueOf(size))
+          .build();
+      final Injector injector = Tang.Factory.getTang().newInjector(conf);
+      injector.bindVolatileInstance(RingChannel.class,
+          new QueueRingChannel(queues.get(rank), queues.get((rank + 1) % size)));
+      allReducers[rank] = injector.getInstance(RingAllReducer.class);
+    }
+    return allReducers;
+  }
+
+  /**
+   * Checks that every worker ends up with the element-wise sum of all arrays, for various numbers of workers and
+   * array lengths, including arrays shorter than the number of workers, for two rounds.
+   */
+  @Test
+  public void testAllReduce() throws Exception {
+    final Random random = new Random(0);
+    for (final int size : new int[]{1, 2, 3, 5}) {
+      final RingAllReducer[] allReducers = newRing(size);
+      for (final int length : new int[]{1, 4, 17, 100}) {
+        final float[][] data = new float[size][length];
+        final float[] expected = new float[length];
+        for (int rank = 0; rank < size; ++rank) {
+          for (int i = 0; i < length; ++i) {
+            data[rank][i] = random.nextFloat();
+            expected[i] += data[rank][i];
+          }
+        }
+
+        allReduce(allReducers, data);
+
+        for (int rank = 0; rank < size; ++rank) {
+          assertArrayEquals(expected, data[rank], TOLERANCE);
+          // every worker must have exactly the same values.
+          assertArrayEquals(data[0], data[rank], 0.0f);
+        }
+      }
+    }
+  }
+
+  private static void allReduce(final RingAllReducer[] allReducers, final float[][] data) throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(allReducers.length);
+    try {
+      final List<Future<Void>> futures = new ArrayList<>(allReducers.length);
+      for (int rank = 0; rank < allReducers.length; ++rank) {
+        final RingAllReducer allReducer = allReducers[rank];
+        final float[] workerData = data[rank];
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            allReducer.allReduce(workerData);
+            return null;
+          }
+        }));
+      }
+      for (final Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.benchmark;
+
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.blas.purejava.MatrixOffHeapFactory;
+import edu.snu.dolphin.dnn.blas.purejava.MatrixPureJavaFactory;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Measures and reports the time of benchmarked operations.
+ *
+ * An operation is warmed up, so that it is compiled by the JIT before it is measured,
+ * and then measured in several trials of the given number of iterations.
+ * The median, minimum and maximum time per operation over the trials are reported,
+ * so that a single trial disturbed by garbage collection or other processes does not skew the result.
+ */
+final class BenchmarkRunner {
+
+  private static final Logger LOG = Logger.getLogger(BenchmarkRunner.class.getName());
+
+  private static final int WARMUP_ITERATIONS = 20;
+  private static final int TRIALS = 5;
+
+  /**
+   * Should not be instantiated.
+   */
+  private BenchmarkRunner() {
+  }
+
+  /**
+   * @return the average time of an iteration in nanoseconds, measured after warming up.
+   */
+  static long measure(final int iterations, final Runnable runnable) {
+    for (int i = 0; i < WARMUP_ITERATIONS; ++i) {
+      runnable.run();
+    }
+    return measureWithoutWarmup(iterations, runnable);
+  }
+
+  private static long measureWithoutWarmup(final int iterations, final Runnable runnable) {
+    final long start = System.nanoTime();
+    for (int i = 0; i < iterations; ++i) {
+      runnable.run();
+    }
+    return (System.nanoTime() - start) / iterations;
+  }
+
+  /**
+   * Measures the given operation in several trials after warming up, and logs the time per operation.
+   * @param name the name of the operation.
+   * @param iterations the number of iterations of each trial.
+   * @param runnable the operation.
+   */
+  static void run(final String name, final int iterations, final Runnable runnable) {
+    final long[] trialNanos = new long[TRIALS];
+    trialNanos[0] = measure(iterations, runnable);
+    for (int i = 1; i < TRIALS; ++i) {
+      trialNanos[i] = measureWithoutWarmup(iterations, runnable);
+    }
+    Arrays.sort(trialNanos);
+    LOG.log(Level.INFO, String.format("%-50s %10.3f ms/op (min %.3f, max %.3f)", name,
+        trialNanos[TRIALS / 2] / 1e6, trialNanos[0] / 1e6, trialNanos[TRIALS - 1] / 1e6));
+  }
+
+  /**
+   * @param blasLibrary the name of a BLAS library, {@code jblas}, {@code purejava} or {@code offheap}.
+   * @return the configuration that binds the matrix factory of the given BLAS library.
+   */
+  static Configuration getBlasConfiguration(final String blasLibrary) {
+    final Class<? extends MatrixFactory> matrixFactoryClass;
+    switch (blasLibrary.toLowerCase()) {
+    case "jblas":
+      matrixFactoryClass = MatrixJBLASFactory.class;
+      break;
+    case "purejava":
+      matrixFactoryClass = MatrixPureJavaFactory.class;
+      break;
+    case "offheap":
+      matrixFactoryClass = MatrixOffHeapFactory.class;
+      break;
+    default:
+      throw new IllegalArgumentException("Unsupported BLAS library: " + blasLibrary);
+    }
+    return Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(MatrixFactory.class, matrixFactoryClass)
+        .build();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.benchmark;
+
+import edu.snu.dolphin.dnn.blas.FloatUnaryOperator;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+
+import static edu.snu.dolphin.dnn.benchmark.BenchmarkRunner.getBlasConfiguration;
+import static edu.snu.dolphin.dnn.benchmark.BenchmarkRunner.run;
+
+/**
+ * Benchmark for matrix multiplications and elementwise operations of a BLAS library.
+ * Multiplications are measured at the shapes of a fully connected layer from 784 to 1024 units
+ * with a batch of 64, for the forward pass, back propagation and gradient generation,
+ * and for square 512 x 512 matrices.
+ * Results are written into preallocated matrices, as layers do.
+ *
+ * Usage: {@code BlasBenchmark [jblas|purejava|offheap] [iterations]}
+ */
+public final class BlasBenchmark {
+
+  private static final int BATCH_SIZE = 64;
+  private static final int NUM_INPUT = 784;
+  private static final int NUM_OUTPUT = 1024;
+  private static final int SQUARE_SIZE = 512;
+  private static final int ELEMENTWISE_ROWS = 1024;
+  private static final int ELEMENTWISE_COLUMNS = 1024;
+
+  /**
+   * Should not be instantiated.
+   */
+  private BlasBenchmark() {
+  }
+
+  public static void main(final String[] args) throws InjectionException {
+    final String blasLibrary = args.length > 0 ? args[0] : "jblas";
+    final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+    final MatrixFactory matrixFactory =
+        Tang.Factory.getTang().newInjector(getBlasConfiguration(blasLibrary)).getInstance(MatrixFactory.class);
+
+    benchmarkMultiplications(matrixFactory, iterations);
+    benchmarkElementwise(matrixFactory, iterations);
+  }
+
+  private static void benchmarkMultiplications(final MatrixFactory matrixFactory, final int iterations) {
+    final Matrix weight = matrixFactory.randn(NUM_OUTPUT, NUM_INPUT, 10);
+    final Matrix input = matrixFactory.randn(NUM_INPUT, BATCH_SIZE, 11);
+    final Matrix error = matrixFactory.randn(NUM_OUTPUT, BATCH_SIZE, 12);
+    final Matrix output = matrixFactory.zeros(NUM_OUTPUT, BATCH_SIZE);
+    final Matrix inputError = matrixFactory.zeros(NUM_INPUT, BATCH_SIZE);
+    final Matrix weightGradient = matrixFactory.zeros(NUM_OUTPUT, NUM_INPUT);
+    final Matrix squareA = matrixFactory.randn(SQUARE_SIZE, SQUARE_SIZE, 13);
+    final Matrix squareB = matrixFactory.randn(SQUARE_SIZE, SQUARE_SIZE, 14);
+    final Matrix squareResult = matrixFactory.zeros(SQUARE_SIZE, SQUARE_SIZE);
+
+    run("mmuli 1024x784 * 784x64", iterations, new Runnable() {
+      @Override
+      public void run() {
+        weight.mmuli(input, output);
+      }
+    });
+    run("mmuliTransposeA 784x1024' * 1024x64", iterations, new Runnable() {
+      @Override
+      public void run() {
+        weight.mmuliTransposeA(error, inputError);
+      }
+    });
+    run("mmuliTransposeB 1024x64 * 784x64'", iterations, new Runnable() {
+      @Override
+      public void run() {
+        error.mmuliTransposeB(input, weightGradient);
+      }
+    });
+    run("gemmi 1024x64 += 1024x784 * 784x64", iterations, new Runnable() {
+      @Override
+      public void run() {
+        output.gemmi(1.0f, weight, input, 0.5f);
+      }
+    });
+    run("mmuli 512x512 * 512x512", iterations, new Runnable() {
+      @Override
+      public void run() {
+        squareA.mmuli(squareB, squareResult);
+      }
+    });
+  }
+
+  private static void benchmarkElementwise(final MatrixFactory matrixFactory, final int iterations) {
+    final Matrix a = matrixFactory.rand(ELEMENTWISE_ROWS, ELEMENTWISE_COLUMNS, 20);
+    final Matrix b = matrixFactory.rand(ELEMENTWISE_ROWS, ELEMENTWISE_COLUMNS, 21);
+    final Matrix column = matrixFactory.rand(ELEMENTWISE_ROWS, 1, 22);
+    final FloatUnaryOperator halve = new FloatUnaryOperator() {
+      @Override
+      public float apply(final float value) {
+        return value * 0.5f;
+      }
+    };
+    // the operations are balanced, so that the values stay bounded over the iterations.
+    run("addi 1024x1024", iterations, new Runnable() {
+      @Override
+      public void run() {
+        a.addi(b).subi(b);
+      }
+    });
+    run("muli 1024x1024", iterations, new Runnable() {
+      @Override
+      public void run() {
+        a.muli(b).divi(b);
+      }
+    });
+    run("addiColumnVector 1024x1024", iterations, new Runnable() {
+      @Override
+      public void run() {
+        a.addiColumnVector(column).subiColumnVector(column);
+      }
+    });
+    run("mapi 1024x1024", iterations, new Runnable() {
+      @Override
+      public void run() {
+        a.mapi(halve).muli(2.0f);
+      }
+    });
+    final float[] sum = new float[1];
+    run("sum 1024x1024", iterations, new Runnable() {
+      @Override
+      public void run() {
+        sum[0] += a.sum();
+      }
+    });
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.benchmark;
+
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.WirePrecision;
+import edu.snu.dolphin.dnn.data.LayerParameterArrayCodec;
+import edu.snu.dolphin.dnn.data.NeuralNetParamServerData;
+import edu.snu.dolphin.dnn.data.NeuralNetParamServerDataCodec;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+
+import static edu.snu.dolphin.dnn.benchmark.BenchmarkRunner.getBlasConfiguration;
+import static edu.snu.dolphin.dnn.benchmark.BenchmarkRunner.run;
+
+/**
+ * Benchmark for encoding and decoding the parameters of a network,
+ * with a fully connected layer from 784 to 1024 units and another from 1024 to 10 units,
+ * through the codecs used for the group communication and the parameter server.
+ *
+ * Usage: {@code CodecBenchmark [jblas|purejava|offheap] [float32|float16|bfloat16] [iterations]}
+ */
+public final class CodecBenchmark {
+
+  /**
+   * Should not be instantiated.
+   */
+  private CodecBenchmark() {
+  }
+
+  public static void main(final String[] args) throws InjectionException {
+    final String blasLibrary = args.length > 0 ? args[0] : "jblas";
+    final String precision = args.length > 1 ? args[1] : "float32";
+    final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+    final Configuration precisionConf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(WirePrecision.class, precision)
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(getBlasConfiguration(blasLibrary), precisionConf);
+    final MatrixFactory matrixFactory = injector.getInstance(MatrixFactory.class);
+    final LayerParameterArrayCodec layerParameterArrayCodec = injector.getInstance(LayerParameterArrayCodec.class);
+    final NeuralNetParamServerDataCodec paramServerDataCodec =
+        injector.getInstance(NeuralNetParamServerDataCodec.class);
+
+    final LayerParameter[] layerParameters = new LayerParameter[] {
+        LayerParameter.newBuilder()
+            .setWeightParam(matrixFactory.randn(1024, 784, 10))
+            .setBiasParam(matrixFactory.randn(1024, 1, 11))
+            .build(),
+        LayerParameter.newBuilder()
+            .setWeightParam(matrixFactory.randn(10, 1024, 12))
+            .setBiasParam(matrixFactory.randn(10, 1, 13))
+            .build()};
+    final NeuralNetParamServerData paramServerData = new NeuralNetParamServerData(layerParameters);
+
+    run(String.format("LayerParameterArrayCodec round trip (%s)", precision), iterations, new Runnable() {
+      @Override
+      public void run() {
+        layerParameterArrayCodec.decode(layerParameterArrayCodec.encode(layerParameters));
+      }
+    });
+    run(String.format("NeuralNetParamServerDataCodec round trip (%s)", precision), iterations, new Runnable() {
+      @Override
+      public void run() {
+        paramServerDataCodec.decode(paramServerDataCodec.encode(paramServerData));
+      }
+    });
+  }
+}
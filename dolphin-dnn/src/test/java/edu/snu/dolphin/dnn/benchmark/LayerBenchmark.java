@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.benchmark;
+
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.conf.ActivationWithLossLayerConfigurationBuilder;
+import edu.snu.dolphin.dnn.conf.ConvolutionalLayerConfigurationBuilder;
+import edu.snu.dolphin.dnn.conf.FullyConnectedLayerConfigurationBuilder;
+import edu.snu.dolphin.dnn.conf.LayerConfigurationParameters.LayerIndex;
+import edu.snu.dolphin.dnn.conf.LayerConfigurationParameters.LayerInputShape;
+import edu.snu.dolphin.dnn.conf.PoolingLayerConfigurationBuilder;
+import edu.snu.dolphin.dnn.layers.LayerBase;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+
+import static edu.snu.dolphin.dnn.benchmark.BenchmarkRunner.getBlasConfiguration;
+import static edu.snu.dolphin.dnn.benchmark.BenchmarkRunner.run;
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.getShapeLength;
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.shapeFromString;
+
+/**
+ * Benchmark for the forward pass, back propagation and gradient generation of layers,
+ * at shapes of typical image classification networks:
+ * a fully connected layer from an MNIST image to 1024 hidden units, a 5 x 5 convolutional layer
+ * with 32 filters on a CIFAR-10 image, 2 x 2 max pooling on 32 channels of 28 x 28, and a sigmoid
+ * cross-entropy output layer of 1000 classes.
+ * Layers write into the buffers of the previous iteration, as they do when training a network.
+ *
+ * Usage: {@code LayerBenchmark [jblas|purejava|offheap] [batchSize] [iterations]}
+ */
+public final class LayerBenchmark {
+
+  private final Configuration blasConfiguration;
+  private final MatrixFactory matrixFactory;
+  private final int batchSize;
+  private final int iterations;
+
+  private LayerBenchmark(final Configuration blasConfiguration, final int batchSize, final int iterations)
+      throws InjectionException {
+    this.blasConfiguration = blasConfiguration;
+    this.matrixFactory = Tang.Factory.getTang().newInjector(blasConfiguration).getInstance(MatrixFactory.class);
+    this.batchSize = batchSize;
+    this.iterations = iterations;
+  }
+
+  public static void main(final String[] args) throws InjectionException {
+    final String blasLibrary = args.length > 0 ? args[0] : "jblas";
+    final int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+    final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+    final LayerBenchmark benchmark = new LayerBenchmark(getBlasConfiguration(blasLibrary), batchSize, iterations);
+
+    benchmark.benchmark("fully connected 784 -> 1024", "784", false,
+        FullyConnectedLayerConfigurationBuilder.newConfigurationBuilder()
+            .setNumOutput(1024)
+            .setInitWeight(1e-2f)
+            .setInitBias(0)
+            .setRandomSeed(10)
+            .build());
+    benchmark.benchmark("convolutional 3x32x32, 5x5 x 32", "3,32,32", false,
+        ConvolutionalLayerConfigurationBuilder.newConfigurationBuilder()
+            .setKernelHeight(5)
+            .setKernelWidth(5)
+            .setStrideHeight(1)
+            .setStrideWidth(1)
+            .setNumOutput(32)
+            .setInitWeight(1e-2f)
+            .setInitBias(0)
+            .setRandomSeed(10)
+            .build());
+    benchmark.benchmark("max pooling 32x28x28, 2x2", "32,28,28", false,
+        PoolingLayerConfigurationBuilder.newConfigurationBuilder()
+            .setPoolingType("MAX")
+            .setKernelHeight(2)
+            .setKernelWidth(2)
+            .setStrideHeight(2)
+            .setStrideWidth(2)
+            .build());
+    benchmark.benchmark("sigmoid cross-entropy 1000", "1000", true,
+        ActivationWithLossLayerConfigurationBuilder.newConfigurationBuilder()
+            .setActivationFunction("sigmoid")
+            .setLossFunction("crossentropy")
+            .build());
+  }
+
+  /**
+   * Measures the forward pass, back propagation and, if the layer is learnable, gradient generation of a layer.
+   * @param name the name of the layer shown in the results.
+   * @param inputShape the input shape of the layer.
+   * @param isLossLayer whether the layer computes its error from labels, instead of the error of the next layer.
+   * @param layerConf the configuration of the layer.
+   */
+  private void benchmark(final String name, final String inputShape, final boolean isLossLayer,
+                         final Configuration layerConf) throws InjectionException {
+    final Configuration shapeConf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(LayerIndex.class, "0")
+        .bindNamedParameter(LayerInputShape.class, inputShape)
+        .build();
+    final LayerBase layer =
+        Tang.Factory.getTang().newInjector(blasConfiguration, shapeConf, layerConf).getInstance(LayerBase.class);
+    final int inputLength = getShapeLength(shapeFromString(inputShape));
+    final int outputLength = getShapeLength(layer.getOutputShape());
+
+    final Matrix input = matrixFactory.rand(inputLength, batchSize, 10);
+    final Matrix[] output = {layer.feedForward(input)};
+    // for the loss layer, this is the label of the batch.
+    final Matrix nextError = isLossLayer ? matrixFactory.zeros(outputLength, batchSize)
+        : matrixFactory.randn(outputLength, batchSize, 11);
+    final Matrix emptyMatrix = matrixFactory.create(0);
+    final Matrix initialError = isLossLayer
+        ? layer.backPropagate(nextError, output[0], emptyMatrix)
+        : layer.backPropagate(input, output[0], nextError);
+    final Matrix[] error = {initialError};
+
+    run(name + " forward", iterations, new Runnable() {
+      @Override
+      public void run() {
+        output[0] = layer.feedForward(input, output[0]);
+      }
+    });
+    run(name + " backward", iterations, new Runnable() {
+      @Override
+      public void run() {
+        error[0] = isLossLayer
+            ? layer.backPropagate(nextError, output[0], emptyMatrix, error[0])
+            : layer.backPropagate(input, output[0], nextError, error[0]);
+      }
+    });
+    if (layer.isLearnable()) {
+      final LayerParameter[] gradient = {layer.generateParameterGradient(input, nextError)};
+      run(name + " gradient", iterations, new Runnable() {
+        @Override
+        public void run() {
+          gradient[0] = layer.generateParameterGradient(input, nextError, gradient[0]);
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.benchmark;
+
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.conf.LayerConfigurationParameters.LayerIndex;
+import edu.snu.dolphin.dnn.conf.LayerConfigurationParameters.LayerInputShape;
+import edu.snu.dolphin.dnn.conf.PoolingLayerConfigurationBuilder;
+import edu.snu.dolphin.dnn.layers.LayerBase;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static edu.snu.dolphin.dnn.benchmark.BenchmarkRunner.measure;
+
+/**
+ * Benchmark that compares the pooling layer with the reference implementation,
+ * which accesses every element through {@link Matrix#get(int, int)} and {@link Matrix#put(int, int, float)}
+ * and stores the indices of maximum values in a matrix.
+ *
+ * Usage: {@code PoolingLayerBenchmark [batchSize] [channels] [inputSize] [iterations]}
+ */
+public final class PoolingLayerBenchmark {
+
+  private static final Logger LOG = Logger.getLogger(PoolingLayerBenchmark.class.getName());
+
+  private static final int KERNEL_SIZE = 2;
+  private static final int STRIDE = 2;
+
+  private final MatrixFactory matrixFactory;
+  private final int channels;
+  private final int inputSize;
+  private final int outputSize;
+  private Matrix indexMatrix;
+
+  private PoolingLayerBenchmark(final MatrixFactory matrixFactory, final int channels, final int inputSize) {
+    this.matrixFactory = matrixFactory;
+    this.channels = channels;
+    this.inputSize = inputSize;
+    this.outputSize = (inputSize - KERNEL_SIZE) / STRIDE + 1;
+  }
+
+  public static void main(final String[] args) throws InjectionException {
+    final int batchSize = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    final int channels = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+    final int inputSize = args.length > 2 ? Integer.parseInt(args[2]) : 24;
+    final int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(MatrixFactory.class, MatrixJBLASFactory.class)
+        .build());
+    final MatrixFactory matrixFactory = injector.getInstance(MatrixFactory.class);
+    final PoolingLayerBenchmark benchmark = new PoolingLayerBenchmark(matrixFactory, channels, inputSize);
+
+    final Matrix input = matrixFactory.randn(channels * inputSize * inputSize, batchSize, 10);
+    final int outputLength = channels * benchmark.outputSize * benchmark.outputSize;
+    final Matrix nextError = matrixFactory.randn(outputLength, batchSize, 11);
+
+    for (final String poolingType : new String[]{"MAX", "AVERAGE"}) {
+      final LayerBase layer = benchmark.newPoolingLayer(poolingType);
+      final boolean isMax = "MAX".equals(poolingType);
+
+      final long referenceNanos = measure(iterations, new Runnable() {
+        @Override
+        public void run() {
+          if (isMax) {
+            benchmark.backPropagateMaxPooling(input, nextError, benchmark.feedForwardMaxPooling(input));
+          } else {
+            benchmark.feedForwardAveragePooling(input);
+            benchmark.backPropagateAveragePooling(input, nextError);
+          }
+        }
+      });
+      final long layerNanos = measure(iterations, new Runnable() {
+        @Override
+        public void run() {
+          layer.backPropagate(input, layer.feedForward(input), nextError);
+        }
+      });
+
+      final Matrix expectedOutput = isMax ? benchmark.feedForwardMaxPooling(input)
+          : benchmark.feedForwardAveragePooling(input);
+      final Matrix expectedError = isMax ? benchmark.backPropagateMaxPooling(input, nextError, expectedOutput)
+          : benchmark.backPropagateAveragePooling(input, nextError);
+      final Matrix output = layer.feedForward(input);
+      final Matrix error = layer.backPropagate(input, output, nextError);
+
+      LOG.log(Level.INFO, String.format("%s pooling, batch %d, %d x %d x %d: reference %.3f ms/op, layer %.3f ms/op, "
+              + "speedup %.2fx, max difference %e",
+          poolingType, batchSize, channels, inputSize, inputSize, referenceNanos / 1e6, layerNanos / 1e6,
+          (double) referenceNanos / layerNanos,
+          Math.max(maxDifference(expectedOutput, output), maxDifference(expectedError, error))));
+    }
+  }
+
+  private static float maxDifference(final Matrix a, final Matrix b) {
+    final Matrix difference = a.sub(b);
+    return Math.max(difference.max(), -difference.min());
+  }
+
+  private LayerBase newPoolingLayer(final String poolingType) throws InjectionException {
+    final Configuration layerConf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(LayerIndex.class, "0")
+        .bindNamedParameter(LayerInputShape.class, channels + "," + inputSize + "," + inputSize)
+        .bindImplementation(MatrixFactory.class, matrixFactory.getClass())
+        .build();
+    final Configuration poolingConf = PoolingLayerConfigurationBuilder.newConfigurationBuilder()
+        .setPoolingType(poolingType)
+        .setKernelHeight(KERNEL_SIZE)
+        .setKernelWidth(KERNEL_SIZE)
+        .setStrideHeight(STRIDE)
+        .setStrideWidth(STRIDE)
+        .build();
+    return Tang.Factory.getTang().newInjector(layerConf, poolingConf).getInstance(LayerBase.class);
+  }
+
+  private Matrix feedForwardMaxPooling(final Matrix input) {
+    final int inputArea = inputSize * inputSize;
+    final int outputArea = outputSize * outputSize;
+    final Matrix output = matrixFactory.create(channels * outputArea, input.getColumns());
+    indexMatrix = matrixFactory.create(channels * outputArea, input.getColumns());
+    for (int n = 0; n < input.getColumns(); ++n) {
+      for (int c = 0; c < channels; ++c) {
+        for (int oh = 0; oh < outputSize; ++oh) {
+          for (int ow = 0; ow < outputSize; ++ow) {
+            final int hstart = STRIDE * oh;
+            final int wstart = STRIDE * ow;
+            final int hend = Math.min(KERNEL_SIZE + hstart, inputSize);
+            final int wend = Math.min(KERNEL_SIZE + wstart, inputSize);
+            int maxIndex = c * inputArea + hstart * inputSize + wstart;
+            float max = input.get(maxIndex, n);
+            for (int kh = hstart; kh < hend; ++kh) {
+              for (int kw = wstart; kw < wend; ++kw) {
+                final int newIndex = c * inputArea + kh * inputSize + kw;
+                final float newValue = input.get(newIndex, n);
+                if (newValue > max) {
+                  max = newValue;
+                  maxIndex = newIndex;
+                }
+              }
+            }
+            final int outputIndex = c * outputArea + oh * outputSize + ow;
+            output.put(outputIndex, n, max);
+            indexMatrix.put(outputIndex, n, maxIndex);
+          }
+        }
+      }
+    }
+    return output;
+  }
+
+  private Matrix backPropagateMaxPooling(final Matrix input, final Matrix nextError, final Matrix output) {
+    final Matrix error = matrixFactory.zeros(input.getRows(), input.getColumns());
+    for (int n = 0; n < input.getColumns(); ++n) {
+      for (int o = 0; o < output.getRows(); ++o) {
+        final int maxIndex = (int) indexMatrix.get(o, n);
+        error.put(maxIndex, n, nextError.get(o, n) + error.get(maxIndex, n));
+      }
+    }
+    return error;
+  }
+
+  private Matrix feedForwardAveragePooling(final Matrix input) {
+    final int inputArea = inputSize * inputSize;
+    final int outputArea = outputSize * outputSize;
+    final Matrix output = matrixFactory.create(channels * outputArea, input.getColumns());
+    for (int n = 0; n < input.getColumns(); ++n) {
+      for (int c = 0; c < channels; ++c) {
+        for (int oh = 0; oh < outputSize; ++oh) {
+          for (int ow = 0; ow < outputSize; ++ow) {
+            final int hstart = STRIDE * oh;
+            final int wstart = STRIDE * ow;
+            final int hend = Math.min(KERNEL_SIZE + hstart, inputSize);
+            final int wend = Math.min(KERNEL_SIZE + wstart, inputSize);
+            final int kernelArea = (hend - hstart) * (wend - wstart);
+            float sum = 0;
+            for (int kh = hstart; kh < hend; ++kh) {
+              for (int kw = wstart; kw < wend; ++kw) {
+                sum += input.get(c * inputArea + kh * inputSize + kw, n);
+              }
+            }
+            output.put(c * outputArea + oh * outputSize + ow, n, sum / kernelArea);
+          }
+        }
+      }
+    }
+    return output;
+  }
+
+  private Matrix backPropagateAveragePooling(final Matrix input, final Matrix nextError) {
+    final int inputArea = inputSize * inputSize;
+    final int outputArea = outputSize * outputSize;
+    final Matrix error = matrixFactory.zeros(input.getRows(), input.getColumns());
+    for (int n = 0; n < input.getColumns(); ++n) {
+      for (int c = 0; c < channels; ++c) {
+        for (int oh = 0; oh < outputSize; ++oh) {
+          for (int ow = 0; ow < outputSize; ++ow) {
+            final int hstart = STRIDE * oh;
+            final int wstart = STRIDE * ow;
+            final int hend = Math.min(KERNEL_SIZE + hstart, inputSize);
+            final int wend = Math.min(KERNEL_SIZE + wstart, inputSize);
+            final int kernelArea = (hend - hstart) * (wend - wstart);
+            final int outputIndex = c * outputArea + oh * outputSize + ow;
+            for (int kh = hstart; kh < hend; ++kh) {
+              for (int kw = wstart; kw < wend; ++kw) {
+                final int inputIndex = c * inputArea + kh * inputSize + kw;
+                error.put(inputIndex, n, nextError.get(outputIndex, n) / kernelArea + error.get(inputIndex, n));
+              }
+            }
+          }
+        }
+      }
+    }
+    return error;
+  }
+}
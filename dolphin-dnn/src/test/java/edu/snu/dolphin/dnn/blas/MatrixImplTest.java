@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas;
+
+import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.blas.purejava.MatrixOffHeapFactory;
+import edu.snu.dolphin.dnn.blas.purejava.MatrixPureJavaFactory;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the matrix implementations of each {@link MatrixFactory} against the JBLAS based implementation.
+ */
+@RunWith(Parameterized.class)
+public final class MatrixImplTest {
+
+  private static final float TOLERANCE = 1e-4f;
+
+  private final Class<? extends MatrixFactory> factoryClass;
+  private MatrixFactory factory;
+  private MatrixFactory jblasFactory;
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> factoryClasses() {
+    return Arrays.asList(new Object[][]{
+        {MatrixPureJavaFactory.class},
+        {MatrixOffHeapFactory.class}});
+  }
+
+  public MatrixImplTest(final Class<? extends MatrixFactory> factoryClass) {
+    this.factoryClass = factoryClass;
+  }
+
+  @Before
+  public void setup() throws InjectionException {
+    this.factory = Tang.Factory.getTang().newInjector().getInstance(factoryClass);
+    this.jblasFactory = Tang.Factory.getTang().newInjector().getInstance(MatrixJBLASFactory.class);
+  }
+
+  /**
+   * Checks that the given matrices have the same shape and elements.
+   */
+  private static void assertSameMatrix(final Matrix expected, final Matrix actual) {
+    assertEquals(expected.getRows(), actual.getRows());
+    assertEquals(expected.getColumns(), actual.getColumns());
+    assertArrayEquals(expected.toFloatArray(), actual.toFloatArray(), TOLERANCE);
+  }
+
+  @Test
+  public void testElementwise() {
+    final float[] a = factory.rand(5, 7, 10).toFloatArray();
+    final float[] b = factory.rand(5, 7, 11).add(0.5f).toFloatArray();
+    final float[] column = factory.rand(5, 1, 12).add(0.5f).toFloatArray();
+    final float[] row = factory.rand(1, 7, 13).add(0.5f).toFloatArray();
+
+    final Matrix pa = factory.create(a.clone(), 5, 7);
+    final Matrix pb = factory.create(b.clone(), 5, 7);
+    final Matrix pColumn = factory.create(column.clone(), 5, 1);
+    final Matrix pRow = factory.create(row.clone(), 1, 7);
+    final Matrix ja = jblasFactory.create(a.clone(), 5, 7);
+    final Matrix jb = jblasFactory.create(b.clone(), 5, 7);
+    final Matrix jColumn = jblasFactory.create(column.clone(), 5, 1);
+    final Matrix jRow = jblasFactory.create(row.clone(), 1, 7);
+
+    assertSameMatrix(ja.add(jb), pa.add(pb));
+    assertSameMatrix(ja.sub(jb), pa.sub(pb));
+    assertSameMatrix(ja.rsub(jb), pa.rsub(pb));
+    assertSameMatrix(ja.mul(jb), pa.mul(pb));
+    assertSameMatrix(ja.div(jb), pa.div(pb));
+    assertSameMatrix(ja.rdiv(jb), pa.rdiv(pb));
+    assertSameMatrix(ja.add(2.0f), pa.add(2.0f));
+    assertSameMatrix(ja.rsub(2.0f), pa.rsub(2.0f));
+    assertSameMatrix(ja.rdiv(2.0f), pa.rdiv(2.0f));
+    assertSameMatrix(ja.addColumnVector(jColumn), pa.addColumnVector(pColumn));
+    assertSameMatrix(ja.subColumnVector(jColumn), pa.subColumnVector(pColumn));
+    assertSameMatrix(ja.mulColumnVector(jColumn), pa.mulColumnVector(pColumn));
+    assertSameMatrix(ja.divColumnVector(jColumn), pa.divColumnVector(pColumn));
+    assertSameMatrix(ja.addRowVector(jRow), pa.addRowVector(pRow));
+    assertSameMatrix(ja.subRowVector(jRow), pa.subRowVector(pRow));
+    assertSameMatrix(ja.mulRowVector(jRow), pa.mulRowVector(pRow));
+    assertSameMatrix(ja.divRowVector(jRow), pa.divRowVector(pRow));
+    assertSameMatrix(ja.transpose(), pa.transpose());
+  }
+
+  @Test
+  public void testReductions() {
+    final float[] a = factory.randn(6, 4, 20).toFloatArray();
+    final Matrix pa = factory.create(a.clone(), 6, 4);
+    final Matrix ja = jblasFactory.create(a.clone(), 6, 4);
+
+    assertEquals(ja.max(), pa.max(), 0.0f);
+    assertEquals(ja.min(), pa.min(), 0.0f);
+    assertEquals(ja.sum(), pa.sum(), TOLERANCE);
+    assertSameMatrix(ja.columnMaxs(), pa.columnMaxs());
+    assertArrayEquals(ja.columnArgmaxs(), pa.columnArgmaxs());
+    assertSameMatrix(ja.columnMins(), pa.columnMins());
+    assertSameMatrix(ja.rowMaxs(), pa.rowMaxs());
+    assertSameMatrix(ja.rowMins(), pa.rowMins());
+    assertSameMatrix(ja.columnSums(), pa.columnSums());
+    assertSameMatrix(ja.rowSums(), pa.rowSums());
+    assertSameMatrix(ja.getRow(2), pa.getRow(2));
+    assertSameMatrix(ja.getColumn(3), pa.getColumn(3));
+    assertSameMatrix(ja.get(new int[]{0, 5, 23}), pa.get(new int[]{0, 5, 23}));
+    assertEquals(ja.toString(), pa.toString());
+  }
+
+  @Test
+  public void testMap() {
+    final FloatUnaryOperator square = new FloatUnaryOperator() {
+      @Override
+      public float apply(final float value) {
+        return value * value;
+      }
+    };
+    final FloatBinaryOperator multiplyAdd = new FloatBinaryOperator() {
+      @Override
+      public float apply(final float left, final float right) {
+        return left * right + left;
+      }
+    };
+    final float[] a = factory.randn(4, 3, 60).toFloatArray();
+    final float[] b = factory.randn(4, 3, 61).toFloatArray();
+    final Matrix pa = factory.create(a.clone(), 4, 3);
+    final Matrix pb = factory.create(b.clone(), 4, 3);
+    final Matrix ja = jblasFactory.create(a.clone(), 4, 3);
+    final Matrix jb = jblasFactory.create(b.clone(), 4, 3);
+
+    assertSameMatrix(ja.mul(ja), pa.dup().mapi(square));
+    assertSameMatrix(ja.dup().mapi(square), pa.dup().mapi(square));
+    assertSameMatrix(ja.mul(jb).addi(ja), pa.dup().mapi(multiplyAdd, pb));
+    assertSameMatrix(ja.dup().mapi(multiplyAdd, jb), pa.dup().mapi(multiplyAdd, pb));
+  }
+
+  @Test
+  public void testMmul() {
+    // large enough to be split over the columns of the result by multiple threads
+    final int[][] shapes = {{3, 4, 5}, {1, 9, 1}, {130, 300, 70}, {257, 129, 40}};
+    for (final int[] shape : shapes) {
+      final float[] a = factory.randn(shape[0], shape[1], 30).toFloatArray();
+      final float[] b = factory.randn(shape[1], shape[2], 31).toFloatArray();
+      final Matrix expected = jblasFactory.create(a.clone(), shape[0], shape[1])
+          .mmul(jblasFactory.create(b.clone(), shape[1], shape[2]));
+      final Matrix actual = factory.create(a.clone(), shape[0], shape[1])
+          .mmul(factory.create(b.clone(), shape[1], shape[2]));
+      assertSameMatrix(expected, actual);
+    }
+
+    final Matrix square = factory.randn(8, 8, 40);
+    final Matrix expected = square.mmul(square);
+    assertSameMatrix(expected, square.mmuli(square.dup()));
+  }
+
+  @Test
+  public void testTransposedMmul() {
+    final int[][] shapes = {{3, 4, 5}, {1, 9, 1}, {130, 300, 70}};
+    for (final int[] shape : shapes) {
+      final float[] a = factory.randn(shape[1], shape[0], 70).toFloatArray();
+      final float[] b = factory.randn(shape[1], shape[2], 71).toFloatArray();
+      final float[] c = factory.randn(shape[0], shape[2], 72).toFloatArray();
+      final float[] d = factory.randn(shape[1], shape[2], 73).toFloatArray();
+      final Matrix ja = jblasFactory.create(a.clone(), shape[1], shape[0]);
+      final Matrix jb = jblasFactory.create(b.clone(), shape[1], shape[2]);
+      final Matrix jc = jblasFactory.create(c.clone(), shape[0], shape[2]);
+      final Matrix jd = jblasFactory.create(d.clone(), shape[1], shape[2]);
+      final Matrix pa = factory.create(a.clone(), shape[1], shape[0]);
+      final Matrix pb = factory.create(b.clone(), shape[1], shape[2]);
+      final Matrix pc = factory.create(c.clone(), shape[0], shape[2]);
+      final Matrix pd = factory.create(d.clone(), shape[1], shape[2]);
+
+      final Matrix expectedA = ja.transpose().mmul(jb);
+      assertSameMatrix(expectedA, ja.mmulTransposeA(jb));
+      assertSameMatrix(expectedA, pa.mmulTransposeA(pb));
+      assertSameMatrix(expectedA, pa.mmuliTransposeA(pb, factory.zeros(1, 1)));
+
+      final Matrix expectedB = jc.mmul(jd.transpose());
+      assertSameMatrix(expectedB, jc.mmulTransposeB(jd));
+      assertSameMatrix(expectedB, pc.mmulTransposeB(pd));
+      assertSameMatrix(expectedB, pc.mmuliTransposeB(pd, factory.zeros(1, 1)));
+
+      final Matrix expectedGemm = expectedA.mul(0.5f).addi(jc.mul(2.0f));
+      assertSameMatrix(expectedGemm, jc.dup().gemmi(0.5f, ja.transpose(), jb, 2.0f));
+      assertSameMatrix(expectedGemm, pc.dup().gemmi(0.5f, pa.transpose(), pb, 2.0f));
+      assertSameMatrix(expectedA.add(jc), pc.dup().gemmi(1.0f, pa.transpose(), pb, 1.0f));
+      assertSameMatrix(expectedA.mul(-1.0f), pc.dup().gemmi(-1.0f, pa.transpose(), pb, 0.0f));
+    }
+
+    final Matrix square = factory.randn(6, 6, 74);
+    final Matrix expected = square.transpose().mmul(square);
+    assertSameMatrix(expected, square.mmuliTransposeA(square.dup(), square));
+  }
+
+  @Test
+  public void testConcatAndCopy() {
+    final Matrix a = factory.rand(3, 2, 50);
+    final Matrix b = factory.rand(3, 4, 51);
+    final Matrix c = factory.rand(5, 2, 52);
+    final Matrix ja = jblasFactory.create(a.toFloatArray(), 3, 2);
+    final Matrix jb = jblasFactory.create(b.toFloatArray(), 3, 4);
+    final Matrix jc = jblasFactory.create(c.toFloatArray(), 5, 2);
+
+    assertSameMatrix(jblasFactory.concatHorizontally(ja, jb), factory.concatHorizontally(a, b));
+    assertSameMatrix(jblasFactory.concatVertically(ja, jc), factory.concatVertically(a, c));
+
+    final Matrix target = factory.zeros(1, 1);
+    target.copy(b);
+    assertSameMatrix(b, target);
+    assertTrue(b.equals(target));
+    assertSameMatrix(b.dup().reshape(4, 3), target.reshape(4, 3));
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.blas.purejava;
+
+import edu.snu.dolphin.dnn.blas.FloatBufferMatrix;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the buffers of {@link MatrixOffHeapImpl}.
+ * The operations are tested against the JBLAS based implementation by {@link edu.snu.dolphin.dnn.blas.MatrixImplTest}.
+ */
+public final class MatrixOffHeapImplTest {
+
+  private MatrixFactory offHeapFactory;
+
+  @Before
+  public void setup() throws InjectionException {
+    this.offHeapFactory = Tang.Factory.getTang().newInjector().getInstance(MatrixOffHeapFactory.class);
+  }
+
+  @Test
+  public void testBuffer() {
+    final FloatBufferMatrix matrix = (FloatBufferMatrix) offHeapFactory.create(2, 3);
+    final FloatBuffer buffer = matrix.getBuffer();
+    assertTrue(buffer.isDirect());
+    assertEquals(6, buffer.remaining());
+    buffer.get();
+    buffer.put(1, 7.0f);
+    assertEquals(7.0f, matrix.get(1, 0), 0.0f);
+    assertEquals(0, matrix.getBuffer().position());
+  }
+
+  @Test
+  public void testAllocation() {
+    final float[] elements = {1.0f, 2.0f, 3.0f, 4.0f, 5.0f, 6.0f};
+    final FloatBufferMatrix wrapped = (FloatBufferMatrix) offHeapFactory.create(elements, 2, 3);
+    elements[0] = 100.0f;
+    assertEquals("Matrices created from arrays should wrap them", 100.0f, wrapped.get(0), 0.0f);
+    assertFalse(wrapped.getBuffer().isDirect());
+
+    final FloatBufferMatrix parameter = (FloatBufferMatrix) offHeapFactory.randn(2, 3);
+    assertTrue(parameter.getBuffer().isDirect());
+    assertFalse("Results of operations should be kept on the heap",
+        ((FloatBufferMatrix) parameter.mul(2.0f)).getBuffer().isDirect());
+
+    parameter.copy(offHeapFactory.create(new float[12], 3, 4));
+    assertTrue("A direct matrix should stay direct when it is resized", parameter.getBuffer().isDirect());
+  }
+
+  /**
+   * Multiplications on direct buffers should give exactly the same results as those on arrays,
+   * since they are blocked and split over threads in the same way.
+   */
+  @Test
+  public void testDirectGemm() {
+    final int m = 300;
+    final int n = 90;
+    final int k = 150;
+    final Matrix a = offHeapFactory.randn(m, k, 10);
+    final Matrix b = offHeapFactory.randn(k, n, 11);
+    final Matrix c = offHeapFactory.randn(m, n, 12);
+    final Matrix heapA = offHeapFactory.create(a.toFloatArray(), m, k);
+    final Matrix heapB = offHeapFactory.create(b.toFloatArray(), k, n);
+    final Matrix heapC = offHeapFactory.create(c.toFloatArray(), m, n);
+
+    assertArrayEquals(heapA.mmul(heapB).toFloatArray(), a.mmul(b).toFloatArray(), 0.0f);
+    assertArrayEquals(heapA.mmulTransposeA(heapC).toFloatArray(), a.mmulTransposeA(c).toFloatArray(), 0.0f);
+    assertArrayEquals(heapC.mmulTransposeB(heapB).toFloatArray(), c.mmulTransposeB(b).toFloatArray(), 0.0f);
+    assertArrayEquals(heapC.gemmi(0.5f, heapA, heapB, 2.0f).toFloatArray(),
+        c.gemmi(0.5f, a, b, 2.0f).toFloatArray(), 0.0f);
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import edu.snu.dolphin.bsp.core.DataParser;
+import edu.snu.dolphin.bsp.core.ParseException;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.PrefetchSize;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Shuffle;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.BatchSize;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for {@link BatchPrefetcher}.
+ */
+public final class BatchPrefetcherTest {
+
+  private static final int BATCH_SIZE = 3;
+  private static final int FEATURE_LENGTH = 2;
+  private static final int NUM_TRAINING_EXAMPLES = 10;
+  private static final int NUM_VALIDATION_EXAMPLES = 4;
+
+  private final MatrixFactory matrixFactory;
+  private final List<Pair<Pair<Matrix, int[]>, Boolean>> dataSet;
+
+  public BatchPrefetcherTest() throws InjectionException {
+    this.matrixFactory = Tang.Factory.getTang().newInjector().getInstance(MatrixJBLASFactory.class);
+    this.dataSet = new ArrayList<>();
+    addBatches(0, NUM_TRAINING_EXAMPLES, false);
+    addBatches(NUM_TRAINING_EXAMPLES, NUM_TRAINING_EXAMPLES + NUM_VALIDATION_EXAMPLES, true);
+  }
+
+  /**
+   * Adds batches of examples whose features are {@code (i, -i)} and label is {@code i} for each example {@code i}.
+   */
+  private void addBatches(final int begin, final int end, final boolean isValidation) {
+    for (int batchBegin = begin; batchBegin < end; batchBegin += BATCH_SIZE) {
+      final int numInputs = Math.min(BATCH_SIZE, end - batchBegin);
+      final Matrix input = matrixFactory.create(FEATURE_LENGTH, numInputs);
+      final int[] labels = new int[numInputs];
+      for (int i = 0; i < numInputs; ++i) {
+        input.put(0, i, batchBegin + i);
+        input.put(1, i, -(batchBegin + i));
+        labels[i] = batchBegin + i;
+      }
+      dataSet.add(new Pair<>(new Pair<>(input, labels), isValidation));
+    }
+  }
+
+  private BatchPrefetcher newBatchPrefetcher(final boolean shuffle) throws InjectionException {
+    return newBatchPrefetcher(shuffle, dataSet);
+  }
+
+  private BatchPrefetcher newBatchPrefetcher(final boolean shuffle,
+                                             final List<Pair<Pair<Matrix, int[]>, Boolean>> batches)
+      throws InjectionException {
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(MatrixFactory.class, MatrixJBLASFactory.class)
+        .bindNamedParameter(BatchSize.class, String.valueOf(BATCH_SIZE))
+        .bindNamedParameter(Shuffle.class, String.valueOf(shuffle))
+        .bindNamedParameter(PrefetchSize.class, String.valueOf(2))
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(conf);
+    injector.bindVolatileInstance(DataParser.class, new DataParser<List<Pair<Pair<Matrix, int[]>, Boolean>>>() {
+      @Override
+      public List<Pair<Pair<Matrix, int[]>, Boolean>> get() {
+        return batches;
+      }
+
+      @Override
+      public void parse() {
+      }
+    });
+    return injector.getInstance(BatchPrefetcher.class);
+  }
+
+  @Test
+  public void testWithoutShuffle() throws InjectionException, ParseException {
+    final BatchPrefetcher batchPrefetcher = newBatchPrefetcher(false);
+    for (int iteration = 0; iteration < 3; ++iteration) {
+      int index = 0;
+      for (final Pair<Pair<Matrix, int[]>, Boolean> batch : batchPrefetcher.nextIteration()) {
+        assertSame(dataSet.get(index++), batch);
+      }
+      assertEquals(dataSet.size(), index);
+    }
+  }
+
+  @Test
+  public void testShuffle() throws InjectionException, ParseException {
+    final BatchPrefetcher batchPrefetcher = newBatchPrefetcher(true);
+    final int numExamples = NUM_TRAINING_EXAMPLES + NUM_VALIDATION_EXAMPLES;
+    final List<int[]> trainingOrders = new ArrayList<>();
+
+    for (int iteration = 0; iteration < 5; ++iteration) {
+      final int[] trainingOrder = new int[NUM_TRAINING_EXAMPLES];
+      final boolean[] seen = new boolean[numExamples];
+      int numTrainingExamples = 0;
+      int numValidationExamples = 0;
+
+      for (final Pair<Pair<Matrix, int[]>, Boolean> batch : batchPrefetcher.nextIteration()) {
+        final Matrix input = batch.getFirst().getFirst();
+        final int[] labels = batch.getFirst().getSecond();
+        assertTrue(input.getColumns() <= BATCH_SIZE);
+        assertEquals(input.getColumns(), labels.length);
+        for (int i = 0; i < labels.length; ++i) {
+          // features and labels of an example are kept together.
+          assertEquals(labels[i], input.get(0, i), 0.0f);
+          assertEquals(-labels[i], input.get(1, i), 0.0f);
+          assertFalse(seen[labels[i]]);
+          seen[labels[i]] = true;
+          if (batch.getSecond()) {
+            // validation examples come after training examples, in the original order.
+            assertEquals(NUM_TRAINING_EXAMPLES + numValidationExamples++, labels[i]);
+          } else {
+            assertEquals(0, numValidationExamples);
+            assertTrue(labels[i] < NUM_TRAINING_EXAMPLES);
+            trainingOrder[numTrainingExamples++] = labels[i];
+          }
+        }
+      }
+      assertEquals(NUM_TRAINING_EXAMPLES, numTrainingExamples);
+      assertEquals(NUM_VALIDATION_EXAMPLES, numValidationExamples);
+      trainingOrders.add(trainingOrder);
+    }
+
+    boolean shuffled = false;
+    for (final int[] trainingOrder : trainingOrders) {
+      shuffled |= !Arrays.equals(trainingOrders.get(0), trainingOrder);
+    }
+    assertTrue("Training examples should be shuffled every iteration", shuffled);
+  }
+
+  @Test
+  public void testValidationBatchesAfterShuffle() throws InjectionException, ParseException {
+    final BatchPrefetcher batchPrefetcher = newBatchPrefetcher(true);
+    final List<Pair<Pair<Matrix, int[]>, Boolean>> batches = new ArrayList<>();
+    for (final Pair<Pair<Matrix, int[]>, Boolean> batch : batchPrefetcher.nextIteration()) {
+      batches.add(batch);
+    }
+    assertEquals(dataSet.size(), batches.size());
+    assertArrayEquals(new int[]{NUM_TRAINING_EXAMPLES, NUM_TRAINING_EXAMPLES + 1, NUM_TRAINING_EXAMPLES + 2},
+        batches.get(batches.size() - 2).getFirst().getSecond());
+  }
+
+  /**
+   * An {@link Error} while preparing batches is rethrown to the consumer, instead of leaving it waiting forever.
+   */
+  @Test(timeout = 10000)
+  public void testErrorWhilePreparing() throws InjectionException, ParseException {
+    final List<Pair<Pair<Matrix, int[]>, Boolean>> failingDataSet =
+        new ArrayList<Pair<Pair<Matrix, int[]>, Boolean>>() {
+          @Override
+          public Iterator<Pair<Pair<Matrix, int[]>, Boolean>> iterator() {
+            throw new OutOfMemoryError("Test error");
+          }
+        };
+    failingDataSet.addAll(dataSet);
+
+    final Iterator<Pair<Pair<Matrix, int[]>, Boolean>> iterator =
+        newBatchPrefetcher(false, failingDataSet).nextIteration().iterator();
+    try {
+      iterator.hasNext();
+      fail("The error while preparing batches should be rethrown");
+    } catch (final RuntimeException e) {
+      assertTrue(e.getCause() instanceof OutOfMemoryError);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import edu.snu.dolphin.bsp.core.ParseException;
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Delimiter;
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.BatchSize;
+import edu.snu.dolphin.dnn.data.BinaryDataFile.FeatureType;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.reef.io.data.loading.api.DataSet;
+import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for the binary data format, its converter and its parser.
+ */
+public final class BinaryDataFileTest {
+
+  private static final String[] LINES = {
+      "# features, label, validation",
+      "1,2,3,4,0,0",
+      "5,6,7,8,1,1",
+      "",
+      "9,10,11,12,2,0",
+      "13,14,15,16,0,0",
+      "17,18,19,20,1,1",
+      "21,22,23,24,2,0"};
+  private static final int BATCH_SIZE = 2;
+  private static final float TOLERANCE = 1e-6f;
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File writeTextFile(final String name) throws IOException {
+    final File textFile = temporaryFolder.newFile(name);
+    try (final Writer writer = new FileWriter(textFile)) {
+      for (final String line : LINES) {
+        writer.write(line);
+        writer.write('\n');
+      }
+    }
+    return textFile;
+  }
+
+  @Test
+  public void testConvertAndRead() throws IOException {
+    for (final FeatureType featureType : FeatureType.values()) {
+      final File binaryFile = temporaryFolder.newFile("data-" + featureType + ".bin");
+      BinaryDataConverter.convert(writeTextFile("data-" + featureType + ".txt"), binaryFile, featureType, ",");
+
+      final BinaryDataFile file = BinaryDataFile.open(binaryFile.getPath());
+      assertEquals(featureType, file.getFeatureType());
+      assertEquals(4, file.getFeatureLength());
+      assertEquals(4, file.getNumTrainingInputs());
+      assertEquals(2, file.getNumValidationInputs());
+      assertArrayEquals(new float[]{9, 10, 11, 12, 13, 14, 15, 16}, file.readFeatures(1, 3), 0.0f);
+      assertArrayEquals(new float[]{5, 6, 7, 8, 17, 18, 19, 20}, file.readFeatures(4, 6), 0.0f);
+      assertArrayEquals(new int[]{0, 2, 0, 2, 1, 1}, file.readLabels(0, 6));
+    }
+  }
+
+  @Test
+  public void testParser() throws IOException, InjectionException, ParseException {
+    final File textFile = writeTextFile("data.txt");
+    final File binaryFile = temporaryFolder.newFile("data.bin");
+    BinaryDataConverter.convert(textFile, binaryFile, FeatureType.FLOAT32, ",");
+
+    final List<Pair<Pair<Matrix, int[]>, Boolean>> expected =
+        newInjector(LINES).getInstance(NeuralNetworkDataParser.class).get();
+    final List<Pair<Pair<Matrix, int[]>, Boolean>> actual =
+        newInjector(new String[]{binaryFile.getPath()}).getInstance(NeuralNetworkBinaryDataParser.class).get();
+
+    // the text parser interleaves training and validation batches as they are filled,
+    // while the binary parser lists training batches first.
+    assertEquals(expected.size(), actual.size());
+    for (final boolean isValidation : new boolean[]{false, true}) {
+      final List<Pair<Pair<Matrix, int[]>, Boolean>> expectedBatches = filter(expected, isValidation);
+      final List<Pair<Pair<Matrix, int[]>, Boolean>> actualBatches = filter(actual, isValidation);
+      assertEquals(expectedBatches.size(), actualBatches.size());
+      for (int i = 0; i < expectedBatches.size(); ++i) {
+        assertTrue(expectedBatches.get(i).getFirst().getFirst()
+            .compare(actualBatches.get(i).getFirst().getFirst(), TOLERANCE));
+        assertArrayEquals(expectedBatches.get(i).getFirst().getSecond(), actualBatches.get(i).getFirst().getSecond());
+      }
+    }
+  }
+
+  private static List<Pair<Pair<Matrix, int[]>, Boolean>> filter(
+      final List<Pair<Pair<Matrix, int[]>, Boolean>> batches, final boolean isValidation) {
+    final List<Pair<Pair<Matrix, int[]>, Boolean>> ret = new ArrayList<>();
+    for (final Pair<Pair<Matrix, int[]>, Boolean> batch : batches) {
+      if (batch.getSecond() == isValidation) {
+        ret.add(batch);
+      }
+    }
+    return ret;
+  }
+
+  private static Injector newInjector(final String[] lines) {
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(MatrixFactory.class, MatrixJBLASFactory.class)
+        .bindNamedParameter(BatchSize.class, String.valueOf(BATCH_SIZE))
+        .bindNamedParameter(Delimiter.class, ",")
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(conf);
+    injector.bindVolatileInstance(DataSet.class, new DataSet<LongWritable, Text>() {
+      @Override
+      public Iterator<Pair<LongWritable, Text>> iterator() {
+        final List<Pair<LongWritable, Text>> records = new ArrayList<>(lines.length);
+        for (int i = 0; i < lines.length; ++i) {
+          records.add(new Pair<>(new LongWritable(i), new Text(lines[i])));
+        }
+        return records.iterator();
+      }
+    });
+    return injector;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for the conversions of {@link FloatPrecision}.
+ */
+public final class FloatPrecisionTest {
+
+  private static float roundTripFloat16(final float value) {
+    return FloatPrecision.fromFloat16(FloatPrecision.toFloat16(value));
+  }
+
+  private static float roundTripBFloat16(final float value) {
+    return FloatPrecision.fromBFloat16(FloatPrecision.toBFloat16(value));
+  }
+
+  @Test
+  public void testFloat16() {
+    assertEquals((short) 0x3c00, FloatPrecision.toFloat16(1.0f));
+    assertEquals((short) 0xc000, FloatPrecision.toFloat16(-2.0f));
+    assertEquals((short) 0x7bff, FloatPrecision.toFloat16(65504.0f));
+    assertEquals(Float.POSITIVE_INFINITY, roundTripFloat16(65520.0f), 0.0f);
+    assertEquals(Float.NEGATIVE_INFINITY, roundTripFloat16(Float.NEGATIVE_INFINITY), 0.0f);
+    assertTrue(Float.isNaN(roundTripFloat16(Float.NaN)));
+
+    // ties are rounded to the even mantissa
+    assertEquals(1.0f, roundTripFloat16(1.0f + 0x1p-11f), 0.0f);
+    assertEquals(1.0f + 0x1p-9f, roundTripFloat16(1.0f + 0x1p-10f + 0x1p-11f), 0.0f);
+    assertEquals(1.0f + 0x1p-10f, roundTripFloat16(1.0f + 0x1p-11f + 0x1p-20f), 0.0f);
+
+    // subnormals
+    assertEquals(0x1p-24f, roundTripFloat16(0x1p-24f), 0.0f);
+    assertEquals(0x1p-24f, roundTripFloat16(0x1.8p-25f), 0.0f);
+    assertEquals(0.0f, roundTripFloat16(0x1p-25f), 0.0f);
+    assertEquals(0x3p-24f, roundTripFloat16(0x3p-24f), 0.0f);
+    assertEquals(0x1p-14f, roundTripFloat16(0x1.ffcp-15f), 0.0f);
+    assertEquals((short) 0x8000, FloatPrecision.toFloat16(-0x1p-30f));
+
+    final Random random = new Random(10);
+    for (int i = 0; i < 1000; ++i) {
+      final float value = (float) random.nextGaussian() * 100;
+      assertEquals(value, roundTripFloat16(value), Math.abs(value) * 0x1p-11f);
+    }
+  }
+
+  @Test
+  public void testBFloat16() {
+    assertEquals((short) 0x3f80, FloatPrecision.toBFloat16(1.0f));
+    assertEquals(0x1.fep127f, roundTripBFloat16(0x1.fep127f), 0.0f);
+    assertEquals(Float.POSITIVE_INFINITY, roundTripBFloat16(Float.MAX_VALUE), 0.0f);
+    assertTrue(Float.isNaN(roundTripBFloat16(Float.NaN)));
+    assertTrue(Float.isNaN(roundTripBFloat16(Float.intBitsToFloat(0x7f800001))));
+
+    // ties are rounded to the even mantissa
+    assertEquals(1.0f, roundTripBFloat16(1.0f + 0x1p-8f), 0.0f);
+    assertEquals(1.0f + 0x1p-6f, roundTripBFloat16(1.0f + 0x1p-7f + 0x1p-8f), 0.0f);
+
+    final Random random = new Random(11);
+    for (int i = 0; i < 1000; ++i) {
+      final float value = (float) random.nextGaussian() * 1e10f;
+      assertEquals(value, roundTripBFloat16(value), Math.abs(value) * 0x1p-8f);
+    }
+  }
+}
@@ -18,6 +18,8 @@ package edu.snu.dolphin.dnn.data;
 import edu.snu.dolphin.dnn.blas.Matrix;
 import edu.snu.dolphin.dnn.blas.MatrixFactory;
 import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.blas.purejava.MatrixOffHeapFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.WirePrecision;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
@@ -27,6 +29,7 @@ import org.junit.Test;
 
 import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -71,4 +74,59 @@ public final class MatrixCodecTest {
 
     assertEquals("Encode-decode result is different from expected array", inputMatrix, retMatrix);
   }
+
+  /**
+   * Checks that an off-heap matrix larger than the chunk size of the codec is encoded in the same format,
+   * so that it can be decoded by the codec of another matrix implementation, and vice versa.
+   */
+  @Test
+  public void testEncodeDecodeOffHeapMatrix() throws InjectionException {
+    final Injector offHeapInjector = Tang.Factory.getTang().newInjector(
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindImplementation(MatrixFactory.class, MatrixOffHeapFactory.class)
+            .build());
+    final MatrixCodec offHeapCodec = offHeapInjector.getInstance(MatrixCodec.class);
+    final MatrixFactory offHeapFactory = offHeapInjector.getInstance(MatrixFactory.class);
+
+    final Matrix inputMatrix = MatrixGenerator.generateRandomMatrix(offHeapFactory, random, 300, 200);
+    final byte[] encoded = offHeapCodec.encode(inputMatrix);
+    assertEquals(inputMatrix, offHeapCodec.decode(encoded));
+
+    final Matrix jblasMatrix = matrixCodec.decode(encoded);
+    assertEquals(300, jblasMatrix.getRows());
+    assertEquals(200, jblasMatrix.getColumns());
+    assertArrayEquals(inputMatrix.toFloatArray(), jblasMatrix.toFloatArray(), 0.0f);
+    assertEquals(inputMatrix, offHeapCodec.decode(matrixCodec.encode(jblasMatrix)));
+  }
+
+  /**
+   * Checks that matrices are encoded in half the size with 16-bit precisions,
+   * and that decoded elements are within the rounding error of the precision.
+   */
+  @Test
+  public void testEncodeDecodeHalfPrecision() throws InjectionException {
+    final Matrix inputMatrix = MatrixGenerator.generateRandomMatrix(matrixFactory, random, 300, 200);
+    final int float32Size = matrixCodec.encode(inputMatrix).length;
+
+    for (final String precision : new String[]{"float16", "bfloat16"}) {
+      final MatrixCodec codec = Tang.Factory.getTang().newInjector(
+          Tang.Factory.getTang().newConfigurationBuilder()
+              .bindImplementation(MatrixFactory.class, MatrixJBLASFactory.class)
+              .bindNamedParameter(WirePrecision.class, precision)
+              .build())
+          .getInstance(MatrixCodec.class);
+      final byte[] encoded = codec.encode(inputMatrix);
+      assertEquals((float32Size - 8) / 2 + 8, encoded.length);
+
+      final Matrix retMatrix = codec.decode(encoded);
+      assertEquals(inputMatrix.getRows(), retMatrix.getRows());
+      assertEquals(inputMatrix.getColumns(), retMatrix.getColumns());
+      final float relativeError = "float16".equals(precision) ? 0x1p-11f : 0x1p-8f;
+      for (int i = 0; i < inputMatrix.getLength(); ++i) {
+        // tiny values become float16 subnormals, whose spacing is 2^-24
+        final float tolerance = Math.max(Math.abs(inputMatrix.get(i)) * relativeError, 0x1p-25f);
+        assertEquals(inputMatrix.get(i), retMatrix.get(i), tolerance);
+      }
+    }
+  }
 }
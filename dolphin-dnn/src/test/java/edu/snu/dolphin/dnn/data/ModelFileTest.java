@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.data;
+
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static edu.snu.dolphin.dnn.data.MatrixGenerator.generateRandomMatrix;
+import static edu.snu.dolphin.dnn.data.MatrixGenerator.generateRandomVector;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for writing and reading model files.
+ */
+public final class ModelFileTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testWriteAndRead() throws InjectionException, IOException {
+    final Configuration configuration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(MatrixFactory.class, MatrixJBLASFactory.class)
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(configuration);
+    final MatrixFactory matrixFactory = injector.getInstance(MatrixFactory.class);
+    final ModelFile modelFile = injector.getInstance(ModelFile.class);
+    final Random random = new Random();
+
+    final LayerParameter[] layerParameters = new LayerParameter[]{
+        LayerParameter.newBuilder()
+            .setWeightParam(generateRandomMatrix(matrixFactory, random))
+            .setBiasParam(generateRandomVector(matrixFactory, random))
+            .build(),
+        null, // a layer that is not learnable
+        LayerParameter.newBuilder()
+            .setWeightParam(generateRandomMatrix(matrixFactory, random))
+            .setBiasParam(generateRandomVector(matrixFactory, random))
+            .build()};
+
+    final String path = temporaryFolder.newFile("model").getPath();
+    modelFile.write(path, layerParameters);
+    final LayerParameter[] readParameters = modelFile.read(path);
+
+    assertEquals(layerParameters.length, readParameters.length);
+    assertEquals(LayerParameter.newEmptyInstance(matrixFactory), readParameters[1]);
+    assertEquals(layerParameters[0], readParameters[0]);
+    assertEquals(layerParameters[2], readParameters[2]);
+  }
+}
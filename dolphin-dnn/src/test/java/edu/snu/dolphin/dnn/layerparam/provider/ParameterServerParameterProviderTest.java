@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.layerparam.provider;
+
+import edu.snu.dolphin.dnn.NeuralNetworkDriverParameters.Staleness;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.data.NeuralNetParamServerData;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import edu.snu.dolphin.ps.worker.api.ParameterWorker;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for {@link ParameterServerParameterProvider}.
+ */
+public final class ParameterServerParameterProviderTest {
+
+  private static final int NUM_BATCHES = 50;
+
+  private final MatrixFactory matrixFactory;
+
+  public ParameterServerParameterProviderTest() throws InjectionException {
+    this.matrixFactory = Tang.Factory.getTang().newInjector().getInstance(MatrixJBLASFactory.class);
+  }
+
+  /**
+   * Fake parameter worker that counts pushes and returns the count at the time of each pull as the parameter.
+   */
+  private final class CountingParameterWorker
+      implements ParameterWorker<String, NeuralNetParamServerData, NeuralNetParamServerData> {
+    private int numPushes;
+
+    @Override
+    public synchronized void push(final String key, final NeuralNetParamServerData preValue) {
+      numPushes++;
+    }
+
+    @Override
+    public NeuralNetParamServerData pull(final String key) {
+      final LayerParameter layerParameter = LayerParameter.newBuilder()
+          .setWeightParam(matrixFactory.create(new float[]{getNumPushes()}))
+          .setBiasParam(matrixFactory.create(0))
+          .build();
+      return new NeuralNetParamServerData(new LayerParameter[]{layerParameter});
+    }
+
+    synchronized int getNumPushes() {
+      return numPushes;
+    }
+  }
+
+  private ParameterServerParameterProvider newParameterProvider(final CountingParameterWorker worker,
+                                                                final int staleness) throws InjectionException {
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(Staleness.class, String.valueOf(staleness))
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(conf);
+    injector.bindVolatileInstance(ParameterWorker.class, worker);
+    return injector.getInstance(ParameterServerParameterProvider.class);
+  }
+
+  private LayerParameter[] newGradients() {
+    final LayerParameter layerParameter = LayerParameter.newBuilder()
+        .setWeightParam(matrixFactory.create(new float[]{1.0f}))
+        .setBiasParam(matrixFactory.create(0))
+        .build();
+    return new LayerParameter[]{layerParameter};
+  }
+
+  private static int getNumPushesSeen(final LayerParameter[] parameters) {
+    return (int) parameters[0].getWeightParam().get(0);
+  }
+
+  @Test
+  public void testSynchronous() throws InjectionException {
+    final CountingParameterWorker worker = new CountingParameterWorker();
+    final ParameterServerParameterProvider parameterProvider = newParameterProvider(worker, 0);
+    for (int i = 1; i <= NUM_BATCHES; ++i) {
+      parameterProvider.push(1, newGradients());
+      assertEquals(i, getNumPushesSeen(parameterProvider.pull()));
+    }
+  }
+
+  @Test
+  public void testBoundedStaleness() throws InjectionException {
+    for (final int staleness : new int[]{1, 3}) {
+      final CountingParameterWorker worker = new CountingParameterWorker();
+      final ParameterServerParameterProvider parameterProvider = newParameterProvider(worker, staleness);
+      int lastNumPushesSeen = 0;
+      for (int i = 1; i <= NUM_BATCHES; ++i) {
+        parameterProvider.push(1, newGradients());
+        final int numPushesSeen = getNumPushesSeen(parameterProvider.pull());
+        assertTrue("The parameters must not go back in time", numPushesSeen >= lastNumPushesSeen);
+        assertTrue("The parameters must miss at most " + staleness + " pushes, but missed " + (i - numPushesSeen),
+            i - numPushesSeen <= staleness);
+        lastNumPushesSeen = numPushesSeen;
+      }
+
+      parameterProvider.flush();
+      assertEquals(NUM_BATCHES, worker.getNumPushes());
+    }
+  }
+}
@@ -257,6 +257,25 @@ public class ConvolutionalLayerTest {
     assertTrue(compare(expectedConvolutionalLayerParams, convolutionalLayerParams, TOLERANCE));
   }
 
+  @Test
+  public void testConvolutionalGradientAfterFeedForward() {
+    // the gradient reuses the column buffer that feedForward built from the same input
+    convolutionalWithPaddingLayer.feedForward(input);
+    final LayerParameter convolutionalLayerParams =
+        convolutionalWithPaddingLayer.generateParameterGradient(input, nextErrorWithPadding);
+    assertTrue(compare(expectedConvolutionalLayerWithPaddingParams, convolutionalLayerParams, TOLERANCE));
+  }
+
+  @Test
+  public void testConvolutionalGradientAfterReleasingCache() {
+    // the column buffer is rebuilt once the one kept by feedForward is released, e.g., after inference
+    convolutionalWithPaddingLayer.feedForward(input);
+    convolutionalWithPaddingLayer.releaseCache();
+    final LayerParameter convolutionalLayerParams =
+        convolutionalWithPaddingLayer.generateParameterGradient(input, nextErrorWithPadding);
+    assertTrue(compare(expectedConvolutionalLayerWithPaddingParams, convolutionalLayerParams, TOLERANCE));
+  }
+
   @Test
   public void testConvolutionalWithPaddingGradient() {
     final LayerParameter convolutionalLayerParams =
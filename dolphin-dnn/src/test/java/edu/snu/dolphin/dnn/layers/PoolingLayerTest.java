@@ -196,6 +196,106 @@ public final class PoolingLayerTest {
       {10, 6},
       {4, 9},
       {4, 7}});
+  /**
+   * Kernel 3x3, stride 2x2 and padding 1x1, so that the kernels overlap and every kernel is clipped by padding.
+   * Average pooling divides by the kernel size including padding.
+   */
+  private final Matrix expectedLargeKernelMaxPoolingActivation = matrixFactory.create(new float[][]{
+      {9, 22},
+      {9, 22},
+      {10, 7},
+      {7, 9}});
+  private final Matrix expectedLargeKernelAveragePoolingActivation = matrixFactory.create(new float[][]{
+      {20 / 9f, 37 / 9f},
+      {21 / 9f, 43 / 9f},
+      {25 / 9f, 2},
+      {15 / 9f, 24 / 9f}});
+  private final Matrix nextErrorForLargeKernel = matrixFactory.create(new float[][]{
+      {9, 18},
+      {18, 9},
+      {27, 0},
+      {0, 27}});
+  private final Matrix expectedLargeKernelMaxPoolingError = matrixFactory.create(new float[][]{
+      {0, 0},
+      {27, 27},
+      {0, 0},
+      {0, 0},
+      {0, 0},
+      {0, 0},
+      {27, 0},
+      {0, 0},
+      {0, 27}});
+  private final Matrix expectedLargeKernelAveragePoolingError = matrixFactory.create(new float[][]{
+      {1, 2},
+      {3, 3},
+      {2, 1},
+      {4, 2},
+      {6, 6},
+      {2, 4},
+      {3, 0},
+      {3, 3},
+      {0, 3}});
+  /**
+   * Kernel 1x1 and stride 2x1, so that the middle row of the input is skipped and the output is 2x3.
+   */
+  private final Matrix expectedSkippingStridePoolingActivation = matrixFactory.create(new float[][]{
+      {0, 10},
+      {9, 22},
+      {2, 13},
+      {10, 6},
+      {4, 7},
+      {1, 9}});
+  private final Matrix nextErrorForSkippingStride = matrixFactory.create(new float[][]{
+      {1, 6},
+      {2, 5},
+      {3, 4},
+      {4, 3},
+      {5, 2},
+      {6, 1}});
+  private final Matrix expectedSkippingStridePoolingError = matrixFactory.create(new float[][]{
+      {1, 6},
+      {2, 5},
+      {3, 4},
+      {0, 0},
+      {0, 0},
+      {0, 0},
+      {4, 3},
+      {5, 2},
+      {6, 1}});
+  /**
+   * Inputs with tied maximum values within kernels, including negative values next to padding.
+   * Each output takes the first maximum value of its kernel in row-major order.
+   */
+  private final Matrix tiedInput = matrixFactory.create(new float[][]{
+      {-1, 5},
+      {-1, 5},
+      {-1, 1},
+      {-1, 5},
+      {-1, 5},
+      {-1, 5},
+      {-1, 1},
+      {-1, 5},
+      {-1, 5}});
+  private final Matrix expectedTiedMaxPoolingActivation = matrixFactory.create(new float[][]{
+      {-1, 5},
+      {-1, 5},
+      {-1, 5},
+      {-1, 5}});
+  private final Matrix nextErrorForTiedInput = matrixFactory.create(new float[][]{
+      {1, 4},
+      {2, 3},
+      {3, 2},
+      {4, 1}});
+  private final Matrix expectedTiedMaxPoolingError = matrixFactory.create(new float[][]{
+      {1, 4},
+      {2, 3},
+      {0, 0},
+      {3, 2},
+      {4, 1},
+      {0, 0},
+      {0, 0},
+      {0, 0},
+      {0, 0}});
   private final Matrix input3D = matrixFactory.create(new float[][]{
       {0, 1, 2, 3, 4, 5, 6, 7, 8,
        9, 8, 7, 6, 5, 4, 3, 2, 1,
@@ -245,6 +345,10 @@ public final class PoolingLayerTest {
   private LayerBase remainderExistingAveragePoolingLayer;
   private LayerBase maxPoolingWithPaddingLayer;
   private LayerBase averagePoolingWithPaddingLayer;
+  private LayerBase largeKernelMaxPoolingLayer;
+  private LayerBase largeKernelAveragePoolingLayer;
+  private LayerBase skippingStrideMaxPoolingLayer;
+  private LayerBase skippingStrideAveragePoolingLayer;
   private LayerBase maxPooling3DLayer;
   private LayerBase averagePooling3DLayer;
 
@@ -356,6 +460,11 @@ public final class PoolingLayerTest {
         Tang.Factory.getTang().newInjector(layerConf, averageWithPaddingBuilder.build())
         .getInstance(LayerBase.class);
 
+    this.largeKernelMaxPoolingLayer = newPoolingLayer(layerConf, "MAX", 1, 3, 3, 2, 2);
+    this.largeKernelAveragePoolingLayer = newPoolingLayer(layerConf, "AVERAGE", 1, 3, 3, 2, 2);
+    this.skippingStrideMaxPoolingLayer = newPoolingLayer(layerConf, "MAX", 0, 1, 1, 2, 1);
+    this.skippingStrideAveragePoolingLayer = newPoolingLayer(layerConf, "AVERAGE", 0, 1, 1, 2, 1);
+
     this.maxPooling3DLayer =
         Tang.Factory.getTang().newInjector(layerConf3D, max3DBuilder.build())
             .getInstance(LayerBase.class);
@@ -365,6 +474,22 @@ public final class PoolingLayerTest {
             .getInstance(LayerBase.class);
   }
 
+  private static LayerBase newPoolingLayer(final Configuration layerConf, final String poolingType,
+                                           final int padding, final int kernelHeight, final int kernelWidth,
+                                           final int strideHeight, final int strideWidth)
+      throws InjectionException {
+    final Configuration poolingConf = PoolingLayerConfigurationBuilder.newConfigurationBuilder()
+        .setPoolingType(poolingType)
+        .setPaddingHeight(padding)
+        .setPaddingWidth(padding)
+        .setKernelHeight(kernelHeight)
+        .setKernelWidth(kernelWidth)
+        .setStrideHeight(strideHeight)
+        .setStrideWidth(strideWidth)
+        .build();
+    return Tang.Factory.getTang().newInjector(layerConf, poolingConf).getInstance(LayerBase.class);
+  }
+
   @Test
   public void testMaxPoolingActivation() {
     final Matrix poolingActivation = maxPoolingLayer.feedForward(input);
@@ -444,6 +569,61 @@ public final class PoolingLayerTest {
     assertTrue(expectedAveragePoolingWithPaddingError.compare(error, TOLERANCE));
   }
 
+  @Test
+  public void testLargeKernelMaxPoolingActivation() {
+    final Matrix poolingActivation = largeKernelMaxPoolingLayer.feedForward(input);
+    assertTrue(expectedLargeKernelMaxPoolingActivation.compare(poolingActivation, TOLERANCE));
+  }
+
+  @Test
+  public void testLargeKernelMaxPoolingBackPropagate() {
+    largeKernelMaxPoolingLayer.feedForward(input);
+    final Matrix error = largeKernelMaxPoolingLayer
+        .backPropagate(input, expectedLargeKernelMaxPoolingActivation, nextErrorForLargeKernel);
+    assertTrue(expectedLargeKernelMaxPoolingError.compare(error, TOLERANCE));
+  }
+
+  @Test
+  public void testLargeKernelAveragePoolingActivation() {
+    final Matrix poolingActivation = largeKernelAveragePoolingLayer.feedForward(input);
+    assertTrue(expectedLargeKernelAveragePoolingActivation.compare(poolingActivation, TOLERANCE));
+  }
+
+  @Test
+  public void testLargeKernelAveragePoolingBackPropagate() {
+    final Matrix error = largeKernelAveragePoolingLayer
+        .backPropagate(input, expectedLargeKernelAveragePoolingActivation, nextErrorForLargeKernel);
+    assertTrue(expectedLargeKernelAveragePoolingError.compare(error, TOLERANCE));
+  }
+
+  @Test
+  public void testSkippingStrideActivation() {
+    final Matrix poolingMaxActivation = skippingStrideMaxPoolingLayer.feedForward(input);
+    final Matrix poolingAverageActivation = skippingStrideAveragePoolingLayer.feedForward(input);
+    assertTrue(expectedSkippingStridePoolingActivation.compare(poolingMaxActivation, TOLERANCE));
+    assertTrue(expectedSkippingStridePoolingActivation.compare(poolingAverageActivation, TOLERANCE));
+  }
+
+  @Test
+  public void testSkippingStrideBackPropagate() {
+    skippingStrideMaxPoolingLayer.feedForward(input);
+    final Matrix maxError = skippingStrideMaxPoolingLayer
+        .backPropagate(input, expectedSkippingStridePoolingActivation, nextErrorForSkippingStride);
+    final Matrix averageError = skippingStrideAveragePoolingLayer
+        .backPropagate(input, expectedSkippingStridePoolingActivation, nextErrorForSkippingStride);
+    assertTrue(expectedSkippingStridePoolingError.compare(maxError, TOLERANCE));
+    assertTrue(expectedSkippingStridePoolingError.compare(averageError, TOLERANCE));
+  }
+
+  @Test
+  public void testTiedMaxPoolingBackPropagate() {
+    final Matrix poolingActivation = largeKernelMaxPoolingLayer.feedForward(tiedInput);
+    assertTrue(expectedTiedMaxPoolingActivation.compare(poolingActivation, TOLERANCE));
+    final Matrix error = largeKernelMaxPoolingLayer
+        .backPropagate(tiedInput, expectedTiedMaxPoolingActivation, nextErrorForTiedInput);
+    assertTrue(expectedTiedMaxPoolingError.compare(error, TOLERANCE));
+  }
+
   @Test
   public void test3DActivation() {
     final Matrix poolingMaxActivation = maxPooling3DLayer.feedForward(input3D);
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.layers;
+
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.conf.ActivationWithLossLayerConfigurationBuilder;
+import edu.snu.dolphin.dnn.conf.LayerConfigurationParameters.*;
+import edu.snu.dolphin.dnn.conf.SoftmaxWithLossLayerConfigurationBuilder;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static edu.snu.dolphin.dnn.blas.MatrixUtils.createOutputMatrix;
+import static edu.snu.dolphin.dnn.util.NeuralNetworkUtils.shapeToString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for softmax with loss layer.
+ */
+public final class SoftmaxWithLossLayerTest {
+
+  private static MatrixFactory matrixFactory;
+  private static final float TOLERANCE = 1e-6f;
+
+  static {
+    final Configuration configuration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(MatrixFactory.class, MatrixJBLASFactory.class)
+        .build();
+    try {
+      matrixFactory = Tang.Factory.getTang().newInjector(configuration).getInstance(MatrixFactory.class);
+    } catch (final InjectionException e) {
+      throw new RuntimeException("InjectionException while injecting a matrix factory: " + e);
+    }
+  }
+
+  private final Matrix input = matrixFactory.create(new float[][]{
+      {-1.0f, -0.5f, 0.5f, 1.0f},
+      {-0.6f, -0.3f, 0.3f, 0.6f},
+      {0.2f, 40.0f, -0.1f, 0.0f}});
+  private final int[] labels = {2, 0, 1, 1};
+
+  private LayerBase softmaxWithLossLayer;
+  private LayerBase activationWithLossLayer;
+
+  @Before
+  public void setup() throws InjectionException {
+    final Configuration layerConf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(LayerIndex.class, String.valueOf(0))
+        .bindNamedParameter(LayerInputShape.class, shapeToString(new int[]{input.getRows()}))
+        .bindImplementation(MatrixFactory.class, MatrixJBLASFactory.class)
+        .build();
+
+    this.softmaxWithLossLayer = Tang.Factory.getTang()
+        .newInjector(layerConf, SoftmaxWithLossLayerConfigurationBuilder.newConfigurationBuilder().build())
+        .getInstance(LayerBase.class);
+    this.activationWithLossLayer = Tang.Factory.getTang()
+        .newInjector(layerConf, ActivationWithLossLayerConfigurationBuilder.newConfigurationBuilder()
+            .setActivationFunction("softmax")
+            .setLossFunction("crossEntropy")
+            .build())
+        .getInstance(LayerBase.class);
+  }
+
+  @Test
+  public void testFeedForward() {
+    final Matrix expected = activationWithLossLayer.feedForward(input);
+    final Matrix activation = softmaxWithLossLayer.feedForward(input);
+    assertTrue(expected.compare(activation, TOLERANCE));
+    assertTrue(activation.columnSums().compare(matrixFactory.ones(1, input.getColumns()), TOLERANCE));
+  }
+
+  @Test
+  public void testBackPropagate() {
+    final Matrix activation = softmaxWithLossLayer.feedForward(input);
+    final Matrix label = createOutputMatrix(matrixFactory, labels, input.getRows());
+    final Matrix expected = activationWithLossLayer.backPropagate(label, activation, matrixFactory.create(0));
+
+    assertTrue(softmaxWithLossLayer.acceptsLabelIndices());
+    assertTrue(expected.compare(softmaxWithLossLayer.backPropagate(labels, activation, null), TOLERANCE));
+    final Matrix error = matrixFactory.create(input.getRows(), input.getColumns());
+    assertTrue(expected.compare(softmaxWithLossLayer.backPropagate(labels, activation, error), TOLERANCE));
+    assertTrue(expected.compare(softmaxWithLossLayer.backPropagate(label, activation, matrixFactory.create(0)),
+        TOLERANCE));
+
+    float expectedLoss = 0.0f;
+    for (int i = 0; i < labels.length; ++i) {
+      expectedLoss -= Math.log(Math.max(activation.get(labels[i], i), Float.MIN_NORMAL));
+    }
+    assertEquals(expectedLoss, softmaxWithLossLayer.getLoss(), TOLERANCE);
+    assertTrue(Float.isNaN(activationWithLossLayer.getLoss()));
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.dnn.optimizer;
+
+import edu.snu.dolphin.dnn.blas.Matrix;
+import edu.snu.dolphin.dnn.blas.MatrixFactory;
+import edu.snu.dolphin.dnn.blas.jblas.MatrixJBLASFactory;
+import edu.snu.dolphin.dnn.conf.NeuralNetworkConfigurationParameters.Stepsize;
+import edu.snu.dolphin.dnn.conf.OptimizerConfigurationBuilder;
+import edu.snu.dolphin.dnn.layers.LayerParameter;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for optimizers, which checks the updates of each optimizer against a scalar reference implementation.
+ */
+public final class OptimizerTest {
+
+  private static final float TOLERANCE = 1e-5f;
+  private static final float STEPSIZE = 0.1f;
+  private static final int BATCH_SIZE = 4;
+  private static final int NUM_STEPS = 5;
+  private static final float MOMENTUM = 0.8f;
+  private static final float DECAY_RATE = 0.95f;
+  private static final float BETA1 = 0.85f;
+  private static final float BETA2 = 0.99f;
+  private static final float EPSILON = 1e-6f;
+
+  private final MatrixFactory matrixFactory;
+
+  public OptimizerTest() throws InjectionException {
+    this.matrixFactory = Tang.Factory.getTang().newInjector().getInstance(MatrixJBLASFactory.class);
+  }
+
+  /**
+   * Scalar reference of an optimizer.
+   */
+  private interface ScalarOptimizer {
+
+    /**
+     * @param parameter the parameter.
+     * @param gradient the average gradient.
+     * @param state the state of the parameter, which is zero at first and updated in place.
+     * @param t the number of updates so far, starting from 1.
+     * @return the updated parameter.
+     */
+    double update(double parameter, double gradient, double[] state, int t);
+  }
+
+  private Optimizer newOptimizer(final String type) throws InjectionException {
+    final Configuration optimizerConf = OptimizerConfigurationBuilder.newConfigurationBuilder()
+        .setType(type)
+        .setMomentum(MOMENTUM)
+        .setDecayRate(DECAY_RATE)
+        .setBeta1(BETA1)
+        .setBeta2(BETA2)
+        .setEpsilon(EPSILON)
+        .build();
+    final Configuration stepsizeConf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(Stepsize.class, String.valueOf(STEPSIZE))
+        .build();
+    return Tang.Factory.getTang().newInjector(optimizerConf, stepsizeConf).getInstance(Optimizer.class);
+  }
+
+  /**
+   * Updates the parameters of two layers, the second of which has no parameters, for several steps,
+   * and compares them with the scalar reference.
+   */
+  private void checkOptimizer(final String type, final Class<? extends Optimizer> optimizerClass,
+                              final ScalarOptimizer reference) throws InjectionException {
+    final Optimizer optimizer = newOptimizer(type);
+    assertTrue(optimizerClass.isInstance(optimizer));
+
+    final Matrix weight = matrixFactory.randn(3, 2, 10);
+    final Matrix bias = matrixFactory.randn(3, 1, 11);
+    final LayerParameter[] parameters = new LayerParameter[]{
+        LayerParameter.newBuilder().setWeightParam(weight).setBiasParam(bias).build(),
+        LayerParameter.newEmptyInstance(matrixFactory)};
+
+    final double[] expectedWeight = toDoubleArray(weight.toFloatArray());
+    final double[] expectedBias = toDoubleArray(bias.toFloatArray());
+    final double[][] weightStates = new double[expectedWeight.length][3];
+    final double[][] biasStates = new double[expectedBias.length][3];
+
+    for (int t = 1; t <= NUM_STEPS; ++t) {
+      final Matrix weightGradient = matrixFactory.randn(3, 2, 20 + t);
+      final Matrix biasGradient = matrixFactory.randn(3, 1, 40 + t);
+      final float[] weightGradientArray = weightGradient.toFloatArray();
+      final float[] biasGradientArray = biasGradient.toFloatArray();
+      final LayerParameter[] gradients = new LayerParameter[]{
+          LayerParameter.newBuilder().setWeightParam(weightGradient).setBiasParam(biasGradient).build(),
+          LayerParameter.newEmptyInstance(matrixFactory)};
+
+      optimizer.update(parameters, gradients, BATCH_SIZE);
+      update(reference, expectedWeight, weightGradientArray, weightStates, t);
+      update(reference, expectedBias, biasGradientArray, biasStates, t);
+
+      assertArrayEquals(weightGradientArray, weightGradient.toFloatArray(), 0.0f);
+      assertArrayEquals(biasGradientArray, biasGradient.toFloatArray(), 0.0f);
+      assertArrayEquals(toFloatArray(expectedWeight), weight.toFloatArray(), TOLERANCE);
+      assertArrayEquals(toFloatArray(expectedBias), bias.toFloatArray(), TOLERANCE);
+    }
+  }
+
+  private static void update(final ScalarOptimizer reference, final double[] parameters, final float[] gradients,
+                             final double[][] states, final int t) {
+    for (int i = 0; i < parameters.length; ++i) {
+      parameters[i] = reference.update(parameters[i], gradients[i] / (double) BATCH_SIZE, states[i], t);
+    }
+  }
+
+  private static double[] toDoubleArray(final float[] array) {
+    final double[] result = new double[array.length];
+    for (int i = 0; i < array.length; ++i) {
+      result[i] = array[i];
+    }
+    return result;
+  }
+
+  private static float[] toFloatArray(final double[] array) {
+    final float[] result = new float[array.length];
+    for (int i = 0; i < array.length; ++i) {
+      result[i] = (float) array[i];
+    }
+    return result;
+  }
+
+  @Test
+  public void testSGD() throws InjectionException {
+    checkOptimizer("sgd", SGD.class, new ScalarOptimizer() {
+      @Override
+      public double update(final double parameter, final double gradient, final double[] state, final int t) {
+        return parameter - STEPSIZE * gradient;
+      }
+    });
+  }
+
+  @Test
+  public void testMomentum() throws InjectionException {
+    checkOptimizer("momentum", MomentumSGD.class, new ScalarOptimizer() {
+      @Override
+      public double update(final double parameter, final double gradient, final double[] state, final int t) {
+        state[0] = MOMENTUM * state[0] - STEPSIZE * gradient;
+        return parameter + state[0];
+      }
+    });
+  }
+
+  @Test
+  public void testNesterov() throws InjectionException {
+    checkOptimizer("nesterov", NesterovSGD.class, new ScalarOptimizer() {
+      @Override
+      public double update(final double parameter, final double gradient, final double[] state, final int t) {
+        final double previousVelocity = state[0];
+        state[0] = MOMENTUM * previousVelocity - STEPSIZE * gradient;
+        return parameter - MOMENTUM * previousVelocity + (1 + MOMENTUM) * state[0];
+      }
+    });
+  }
+
+  @Test
+  public void testAdaGrad() throws InjectionException {
+    checkOptimizer("adagrad", AdaGrad.class, new ScalarOptimizer() {
+      @Override
+      public double update(final double parameter, final double gradient, final double[] state, final int t) {
+        state[0] += gradient * gradient;
+        return parameter - STEPSIZE * gradient / (Math.sqrt(state[0]) + EPSILON);
+      }
+    });
+  }
+
+  @Test
+  public void testRMSProp() throws InjectionException {
+    checkOptimizer("rmsprop", RMSProp.class, new ScalarOptimizer() {
+      @Override
+      public double update(final double parameter, final double gradient, final double[] state, final int t) {
+        state[0] = DECAY_RATE * state[0] + (1 - DECAY_RATE) * gradient * gradient;
+        return parameter - STEPSIZE * gradient / (Math.sqrt(state[0]) + EPSILON);
+      }
+    });
+  }
+
+  @Test
+  public void testAdam() throws InjectionException {
+    checkOptimizer("adam", Adam.class, new ScalarOptimizer() {
+      @Override
+      public double update(final double parameter, final double gradient, final double[] state, final int t) {
+        state[0] = BETA1 * state[0] + (1 - BETA1) * gradient;
+        state[1] = BETA2 * state[1] + (1 - BETA2) * gradient * gradient;
+        final double stepsize = STEPSIZE * Math.sqrt(1 - Math.pow(BETA2, t)) / (1 - Math.pow(BETA1, t));
+        return parameter - stepsize * state[0] / (Math.sqrt(state[1]) + EPSILON);
+      }
+    });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalType() {
+    OptimizerConfigurationBuilder.newConfigurationBuilder().setType("unknown").build();
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.common.partitioned.primitive;
+
+/**
+ * A hash map from primitive {@code long} keys to non-null values, using open addressing with linear probing.
+ * Unlike a {@code Map<Long, V>}, neither lookups nor insertions box the key or allocate an entry object.
+ *
+ * This class is NOT thread-safe. It is meant to be owned by a single partition thread.
+ * Null values are not permitted, as a null value marks an empty slot.
+ * @param <V> class type of values
+ */
+public final class LongKeyMap<V> {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  /**
+   * Keys of each slot. Only meaningful if the corresponding value is non-null.
+   */
+  private long[] keys;
+
+  /**
+   * Values of each slot, or null for an empty slot.
+   */
+  private Object[] values;
+
+  /**
+   * Number of entries in this map.
+   */
+  private int size;
+
+  /**
+   * Capacity minus one. The capacity is always a power of two.
+   */
+  private int mask;
+
+  /**
+   * The map grows when its size reaches this threshold (half of the capacity).
+   */
+  private int resizeThreshold;
+
+  public LongKeyMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param expectedSize number of entries the map should hold without resizing
+   */
+  public LongKeyMap(final int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  /**
+   * Visitor over all entries of a map. See {@link #forEach(Visitor)}.
+   * @param <V> class type of values
+   */
+  public interface Visitor<V> {
+    void visit(long key, V value);
+  }
+
+  /**
+   * @return the value associated with {@code key}, or null if there is none
+   */
+  @SuppressWarnings("unchecked")
+  public V get(final long key) {
+    int index = slot(key);
+    while (values[index] != null) {
+      if (keys[index] == key) {
+        return (V) values[index];
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Associate {@code value} with {@code key}, replacing the previous value if any.
+   * @return the previous value, or null if there was none
+   */
+  @SuppressWarnings("unchecked")
+  public V put(final long key, final V value) {
+    if (value == null) {
+      throw new NullPointerException("Null values are not permitted");
+    }
+
+    int index = slot(key);
+    while (values[index] != null) {
+      if (keys[index] == key) {
+        final V oldValue = (V) values[index];
+        values[index] = value;
+        return oldValue;
+      }
+      index = (index + 1) & mask;
+    }
+
+    keys[index] = key;
+    values[index] = value;
+    if (++size >= resizeThreshold) {
+      rehash(values.length * 2);
+    }
+    return null;
+  }
+
+  /**
+   * Remove the entry of {@code key}.
+   * @return the removed value, or null if there was none
+   */
+  @SuppressWarnings("unchecked")
+  public V remove(final long key) {
+    int index = slot(key);
+    while (values[index] != null) {
+      if (keys[index] == key) {
+        final V oldValue = (V) values[index];
+        shiftEntries(index);
+        size--;
+        return oldValue;
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * @return number of entries in this map
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Remove all entries, keeping the current capacity.
+   */
+  public void clear() {
+    for (int i = 0; i < values.length; i++) {
+      values[i] = null;
+    }
+    size = 0;
+  }
+
+  /**
+   * Call {@code visitor} on every entry of this map, in no particular order.
+   * The map must not be modified while visiting.
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(final Visitor<V> visitor) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        visitor.visit(keys[i], (V) values[i]);
+      }
+    }
+  }
+
+  private int slot(final long key) {
+    return (int) LongKeys.mix(key) & mask;
+  }
+
+  /**
+   * Fill the hole at {@code index} made by a removal, by moving back following entries
+   * whose probe sequence passes through the hole (backward shift deletion).
+   */
+  private void shiftEntries(final int index) {
+    int hole = index;
+    int current = index;
+    while (true) {
+      current = (current + 1) & mask;
+      if (values[current] == null) {
+        values[hole] = null;
+        return;
+      }
+
+      // Distance from the entry's home slot must cover the hole for the entry to be moved back.
+      final int home = slot(keys[current]);
+      if (((current - home) & mask) >= ((current - hole) & mask)) {
+        keys[hole] = keys[current];
+        values[hole] = values[current];
+        hole = current;
+      }
+    }
+  }
+
+  private void rehash(final int newCapacity) {
+    final long[] oldKeys = keys;
+    final Object[] oldValues = values;
+    allocate(newCapacity);
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) {
+        int index = slot(oldKeys[i]);
+        while (values[index] != null) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = oldKeys[i];
+        values[index] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(final int capacity) {
+    this.keys = new long[capacity];
+    this.values = new Object[capacity];
+    this.mask = capacity - 1;
+    this.resizeThreshold = capacity / 2;
+  }
+
+  private static int capacityFor(final int expectedSize) {
+    int capacity = DEFAULT_CAPACITY;
+    while (capacity / 2 <= expectedSize) {
+      capacity *= 2;
+    }
+    return capacity;
+  }
+}
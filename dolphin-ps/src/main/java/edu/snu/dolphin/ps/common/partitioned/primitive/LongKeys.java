@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.common.partitioned.primitive;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hashing and wire encoding of primitive {@code long} keys.
+ * Both the worker and the server must use {@link #hash(long)}, so that a key resolves to
+ * the same server and partition on both sides.
+ *
+ * Keys are encoded as zig-zag variable-length integers (7 bits per byte, least significant group first),
+ * so small keys (including small negative ones) take a single byte on the wire.
+ * Integer keys simply widen to {@code long}, which does not change their encoded size.
+ */
+public final class LongKeys {
+  /**
+   * Max number of bytes of an encoded 64-bit key.
+   */
+  private static final int MAX_ENCODED_SIZE = 10;
+
+  /**
+   * Should not be instantiated.
+   */
+  private LongKeys() {
+  }
+
+  /**
+   * Hash a key with the 64-bit finalizer of MurmurHash3, folded into a non-negative int.
+   * @param key the key to hash
+   * @return a non-negative hash of the key
+   */
+  public static int hash(final long key) {
+    final long mixed = mix(key);
+    return (int) (mixed ^ (mixed >>> 32)) & Integer.MAX_VALUE;
+  }
+
+  /**
+   * The 64-bit finalizer of MurmurHash3, which spreads all input bits over the output.
+   */
+  static long mix(final long key) {
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * Encode a key as a zig-zag varint.
+   * @param key the key to encode
+   * @return a newly allocated array holding exactly the encoded bytes
+   */
+  public static byte[] encode(final long key) {
+    final byte[] buffer = new byte[MAX_ENCODED_SIZE];
+    long zigZag = (key << 1) ^ (key >> 63);
+    int length = 0;
+    while ((zigZag & ~0x7FL) != 0) {
+      buffer[length++] = (byte) ((zigZag & 0x7F) | 0x80);
+      zigZag >>>= 7;
+    }
+    buffer[length++] = (byte) zigZag;
+
+    final byte[] encoded = new byte[length];
+    System.arraycopy(buffer, 0, encoded, 0, length);
+    return encoded;
+  }
+
+  /**
+   * Decode a key written by {@link #encode(long)}, starting at the buffer's position.
+   * The position of {@code buffer} is not modified.
+   * @param buffer buffer that holds the encoded key
+   * @return the decoded key
+   */
+  public static long decode(final ByteBuffer buffer) {
+    long zigZag = 0;
+    int shift = 0;
+    int index = buffer.position();
+    while (true) {
+      if (shift >= MAX_ENCODED_SIZE * 7) {
+        throw new RuntimeException("Malformed varint key: more than " + MAX_ENCODED_SIZE + " bytes");
+      }
+      final byte b = buffer.get(index++);
+      zigZag |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        break;
+      }
+      shift += 7;
+    }
+    return (zigZag >>> 1) ^ -(zigZag & 1);
+  }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * Utilities for the primitive (long) key fast path of the Partitioned Parameter Server.
+ * Keys are hashed directly as primitives, written as variable-length integers on the wire,
+ * and stored in {@link edu.snu.dolphin.ps.common.partitioned.primitive.LongKeyMap}s without boxing.
+ */
+package edu.snu.dolphin.ps.common.partitioned.primitive;
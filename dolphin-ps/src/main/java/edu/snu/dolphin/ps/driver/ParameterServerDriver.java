@@ -19,9 +19,8 @@ import edu.snu.dolphin.ps.ParameterServerParameters.SerializedCodecConfiguration
 import edu.snu.dolphin.ps.ParameterServerParameters.SerializedUpdaterConfiguration;
 import edu.snu.dolphin.ps.driver.api.ParameterServerManager;
 import edu.snu.dolphin.ps.ns.NetworkContextRegister;
-import edu.snu.dolphin.ps.ns.PSMessageHandler;
-import edu.snu.dolphin.ps.worker.WorkerSideMsgHandler;
 import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.driver.context.ActiveContext;
 import org.apache.reef.evaluator.context.parameters.ContextStartHandlers;
 import org.apache.reef.evaluator.context.parameters.ContextStopHandlers;
 import org.apache.reef.io.network.naming.NameServer;
@@ -38,6 +37,7 @@ import org.apache.reef.wake.remote.address.LocalAddressProvider;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Driver code for Parameter Server applications.
@@ -117,7 +117,6 @@ public final class ParameterServerDriver {
             updaterConfiguration,
             getNameResolverServiceConfiguration())
         .bindImplementation(IdentifierFactory.class, StringIdentifierFactory.class)
-        .bindNamedParameter(PSMessageHandler.class, WorkerSideMsgHandler.class)
         .build();
   }
 
@@ -134,4 +133,16 @@ public final class ParameterServerDriver {
         .bindImplementation(IdentifierFactory.class, StringIdentifierFactory.class)
         .build();
   }
+
+  /**
+   * Request a server to export its partitions to {@code exportPath}, one file per partition.
+   * The export is done asynchronously on the server; closing {@code serverContext} afterwards waits for it.
+   * Only supported by {@link edu.snu.dolphin.ps.driver.impl.PartitionedParameterServerManager}.
+   * @param serverContext context of the server, configured with {@link #getServerServiceConfiguration()}
+   * @param exportPath directory to export the partitions to, which can be loaded back by setting
+   *                   {@link edu.snu.dolphin.ps.server.partitioned.parameters.ServerModelLoadPath}
+   */
+  public void exportModel(final ActiveContext serverContext, final String exportPath) {
+    serverContext.sendMessage(exportPath.getBytes(StandardCharsets.UTF_8));
+  }
 }
@@ -28,6 +28,8 @@ import org.apache.reef.tang.Configuration;
 public interface ParameterServerManager {
 
   /**
+   * The configuration should also bind {@link edu.snu.dolphin.ps.ns.PSMessageHandler} to the handler
+   * that receives the server's replies, since it depends on the worker implementation.
    * @return service configuration for an Evaluator that uses a {@code ParameterWorker}
    */
   Configuration getWorkerServiceConfiguration();
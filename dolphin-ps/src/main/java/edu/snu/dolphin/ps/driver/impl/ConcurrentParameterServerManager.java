@@ -15,6 +15,10 @@
  */
 package edu.snu.dolphin.ps.driver.impl;
 
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumPartitions;
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumServers;
+import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
+import edu.snu.dolphin.ps.common.partitioned.resolver.StaticServerResolver;
 import edu.snu.dolphin.ps.driver.api.ParameterServerManager;
 import edu.snu.dolphin.ps.ns.EndpointId;
 import edu.snu.dolphin.ps.ns.PSMessageHandler;
@@ -22,6 +26,7 @@ import edu.snu.dolphin.ps.server.concurrent.api.ParameterServer;
 import edu.snu.dolphin.ps.server.concurrent.impl.ServerSideMsgHandler;
 import edu.snu.dolphin.ps.server.concurrent.impl.ConcurrentParameterServer;
 import edu.snu.dolphin.ps.worker.AsyncWorkerHandler;
+import edu.snu.dolphin.ps.worker.WorkerSideMsgHandler;
 import edu.snu.dolphin.ps.worker.api.ParameterWorker;
 import edu.snu.dolphin.ps.worker.concurrent.ConcurrentParameterWorker;
 import edu.snu.dolphin.ps.worker.concurrent.ConcurrentWorkerHandler;
@@ -29,6 +34,7 @@ import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.driver.context.ServiceConfiguration;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -37,16 +43,24 @@ import static edu.snu.dolphin.ps.common.Constants.SERVER_ID_PREFIX;
 import static edu.snu.dolphin.ps.common.Constants.WORKER_ID_PREFIX;
 
 /**
- * Manager class for a Parameter Server that uses only one node for a server.
+ * Manager class for a Parameter Server whose servers process each message on the thread that received it,
+ * using locks on each value for concurrency.
+ * Keys are sharded across {@link NumServers} servers by the hash of the encoded key, using a
+ * {@link StaticServerResolver} with one partition per server. Each server holds only the keys of its shard,
+ * so the worker-side resolver is the only place where the sharding is decided.
  * This manager does NOT handle server or worker faults.
  */
 @DriverSide
 public final class ConcurrentParameterServerManager implements ParameterServerManager {
+  private final int numServers;
   private final AtomicInteger numWorkers;
+  private final AtomicInteger serverCount;
 
   @Inject
-  private ConcurrentParameterServerManager() {
+  private ConcurrentParameterServerManager(@Parameter(NumServers.class) final int numServers) {
+    this.numServers = numServers;
     this.numWorkers = new AtomicInteger(0);
+    this.serverCount = new AtomicInteger(0);
   }
 
   /**
@@ -63,7 +77,10 @@ public final class ConcurrentParameterServerManager implements ParameterServerMa
             .build())
         .bindImplementation(ParameterWorker.class, ConcurrentParameterWorker.class)
         .bindImplementation(AsyncWorkerHandler.class, ConcurrentWorkerHandler.class)
-        .bindNamedParameter(ServerId.class, SERVER_ID_PREFIX + 0)
+        .bindNamedParameter(PSMessageHandler.class, WorkerSideMsgHandler.class)
+        .bindImplementation(ServerResolver.class, StaticServerResolver.class)
+        .bindNamedParameter(NumServers.class, Integer.toString(numServers))
+        .bindNamedParameter(NumPartitions.class, Integer.toString(numServers))
         .bindNamedParameter(EndpointId.class, WORKER_ID_PREFIX + workerIndex)
         .build();
   }
@@ -74,13 +91,15 @@ public final class ConcurrentParameterServerManager implements ParameterServerMa
    */
   @Override
   public Configuration getServerServiceConfiguration() {
+    final int serverIndex = serverCount.getAndIncrement();
+
     return Tang.Factory.getTang()
         .newConfigurationBuilder(ServiceConfiguration.CONF
             .set(ServiceConfiguration.SERVICES, ConcurrentParameterServer.class)
             .build())
         .bindNamedParameter(PSMessageHandler.class, ServerSideMsgHandler.class)
         .bindImplementation(ParameterServer.class, ConcurrentParameterServer.class)
-        .bindNamedParameter(EndpointId.class, SERVER_ID_PREFIX + 0)
+        .bindNamedParameter(EndpointId.class, SERVER_ID_PREFIX + serverIndex)
         .build();
   }
 
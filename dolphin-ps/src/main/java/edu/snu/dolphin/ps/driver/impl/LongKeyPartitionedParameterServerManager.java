@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.driver.impl;
+
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumPartitions;
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumServers;
+import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
+import edu.snu.dolphin.ps.common.partitioned.resolver.StaticServerResolver;
+import edu.snu.dolphin.ps.driver.api.ParameterServerManager;
+import edu.snu.dolphin.ps.ns.EndpointId;
+import edu.snu.dolphin.ps.ns.PSMessageHandler;
+import edu.snu.dolphin.ps.server.partitioned.LongKeyPartitionedParameterServer;
+import edu.snu.dolphin.ps.server.partitioned.LongKeyPartitionedServerSideMsgHandler;
+import edu.snu.dolphin.ps.server.partitioned.LongKeyPartitionedServerSideReplySender;
+import edu.snu.dolphin.ps.server.partitioned.LongKeyPartitionedServerSideReplySenderImpl;
+import edu.snu.dolphin.ps.server.partitioned.parameters.ServerQueueSize;
+import edu.snu.dolphin.ps.worker.api.ParameterWorker;
+import edu.snu.dolphin.ps.worker.partitioned.LongKeyContextStopHandler;
+import edu.snu.dolphin.ps.worker.partitioned.LongKeyPartitionedParameterWorker;
+import edu.snu.dolphin.ps.worker.partitioned.LongKeyWorkerSideMsgHandler;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.driver.context.ServiceConfiguration;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.snu.dolphin.ps.common.Constants.SERVER_ID_PREFIX;
+import static edu.snu.dolphin.ps.common.Constants.WORKER_ID_PREFIX;
+
+/**
+ * Manager class for a Partitioned Parameter Server specialized for primitive {@code long} (and {@code int}) keys.
+ * The processing model is the same as {@link PartitionedParameterServerManager}, but keys are hashed as primitives,
+ * sent as varints, and stored in primitive maps on both the worker and the server.
+ * The key codec is not used; the updater must be a {@code ParameterUpdater<Long, P, V>}.
+ *
+ * This manager does NOT handle server or worker faults.
+ */
+@DriverSide
+public final class LongKeyPartitionedParameterServerManager implements ParameterServerManager {
+  private final int numServers;
+  private final int numPartitions;
+  private final int queueSize;
+  private final AtomicInteger workerCount;
+  private final AtomicInteger serverCount;
+
+  @Inject
+  private LongKeyPartitionedParameterServerManager(@Parameter(NumServers.class) final int numServers,
+                                                   @Parameter(NumPartitions.class) final int numPartitions,
+                                                   @Parameter(ServerQueueSize.class) final int queueSize) {
+    this.numServers = numServers;
+    this.numPartitions = numPartitions;
+    this.queueSize = queueSize;
+    this.workerCount = new AtomicInteger(0);
+    this.serverCount = new AtomicInteger(0);
+  }
+
+  /**
+   * Returns worker-side service configuration.
+   * Sets {@link LongKeyPartitionedParameterWorker} as the {@link ParameterWorker} class.
+   */
+  @Override
+  public Configuration getWorkerServiceConfiguration() {
+    final int workerIndex = workerCount.getAndIncrement();
+
+    return Tang.Factory.getTang()
+        .newConfigurationBuilder(ServiceConfiguration.CONF
+            .set(ServiceConfiguration.SERVICES, LongKeyPartitionedParameterWorker.class)
+            .set(ServiceConfiguration.ON_CONTEXT_STOP, LongKeyContextStopHandler.class)
+            .build())
+        .bindImplementation(ParameterWorker.class, LongKeyPartitionedParameterWorker.class)
+        .bindNamedParameter(PSMessageHandler.class, LongKeyWorkerSideMsgHandler.class)
+        .bindImplementation(ServerResolver.class, StaticServerResolver.class)
+        .bindNamedParameter(NumServers.class, Integer.toString(numServers))
+        .bindNamedParameter(NumPartitions.class, Integer.toString(numPartitions))
+        .bindNamedParameter(EndpointId.class, WORKER_ID_PREFIX + workerIndex)
+        .build();
+  }
+
+  /**
+   * Returns server-side service configuration.
+   */
+  @Override
+  public Configuration getServerServiceConfiguration() {
+    final int serverIndex = serverCount.getAndIncrement();
+
+    return Tang.Factory.getTang()
+        .newConfigurationBuilder(ServiceConfiguration.CONF
+            .set(ServiceConfiguration.SERVICES, LongKeyPartitionedParameterServer.class)
+            .build())
+        .bindImplementation(LongKeyPartitionedServerSideReplySender.class,
+            LongKeyPartitionedServerSideReplySenderImpl.class)
+        .bindNamedParameter(EndpointId.class, SERVER_ID_PREFIX + serverIndex)
+        .bindNamedParameter(PSMessageHandler.class, LongKeyPartitionedServerSideMsgHandler.class)
+        .bindImplementation(ServerResolver.class, StaticServerResolver.class)
+        .bindNamedParameter(NumServers.class, Integer.toString(numServers))
+        .bindNamedParameter(NumPartitions.class, Integer.toString(numPartitions))
+        .bindNamedParameter(ServerQueueSize.class, Integer.toString(queueSize))
+        .build();
+  }
+}
@@ -18,14 +18,17 @@ package edu.snu.dolphin.ps.driver.impl;
 import edu.snu.dolphin.ps.driver.api.ParameterServerManager;
 import edu.snu.dolphin.ps.ns.EndpointId;
 import edu.snu.dolphin.ps.ns.PSMessageHandler;
+import edu.snu.dolphin.ps.server.partitioned.ModelExportMessageHandler;
 import edu.snu.dolphin.ps.server.partitioned.PartitionedParameterServer;
 import edu.snu.dolphin.ps.server.partitioned.PartitionedServerSideMsgHandler;
 import edu.snu.dolphin.ps.server.partitioned.PartitionedServerSideReplySender;
 import edu.snu.dolphin.ps.server.partitioned.PartitionedServerSideReplySenderImpl;
 import edu.snu.dolphin.ps.common.partitioned.parameters.NumServers;
 import edu.snu.dolphin.ps.common.partitioned.parameters.NumPartitions;
+import edu.snu.dolphin.ps.server.partitioned.parameters.ServerModelLoadPath;
 import edu.snu.dolphin.ps.server.partitioned.parameters.ServerQueueSize;
 import edu.snu.dolphin.ps.worker.AsyncWorkerHandler;
+import edu.snu.dolphin.ps.worker.WorkerSideMsgHandler;
 import edu.snu.dolphin.ps.worker.api.ParameterWorker;
 import edu.snu.dolphin.ps.worker.partitioned.ContextStopHandler;
 import edu.snu.dolphin.ps.worker.partitioned.PartitionedParameterWorker;
@@ -34,6 +37,7 @@ import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
 import edu.snu.dolphin.ps.common.partitioned.resolver.StaticServerResolver;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.driver.context.ServiceConfiguration;
+import org.apache.reef.evaluator.context.parameters.ContextMessageHandlers;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Parameter;
@@ -49,6 +53,8 @@ import static edu.snu.dolphin.ps.common.Constants.WORKER_ID_PREFIX;
  * in-order processing of push and pull operations, running on a single Evaluator.
  * Partitions are based on the hash of the key.
  * Each partition consists of a queue, kvStore, and thread.
+ * Servers can export their partitions on request (see {@link edu.snu.dolphin.ps.driver.ParameterServerDriver}),
+ * and load previously exported partitions at startup from {@link ServerModelLoadPath}.
  *
  * This manager does NOT handle server or worker faults.
  */
@@ -57,16 +63,19 @@ public final class PartitionedParameterServerManager implements ParameterServerM
   private final int numServers;
   private final int numPartitions;
   private final int queueSize;
+  private final String loadPath;
   private final AtomicInteger workerCount;
   private final AtomicInteger serverCount;
 
   @Inject
   private PartitionedParameterServerManager(@Parameter(NumServers.class) final int numServers,
                                             @Parameter(NumPartitions.class) final int numPartitions,
-                                            @Parameter(ServerQueueSize.class) final int queueSize) {
+                                            @Parameter(ServerQueueSize.class) final int queueSize,
+                                            @Parameter(ServerModelLoadPath.class) final String loadPath) {
     this.numServers = numServers;
     this.numPartitions = numPartitions;
     this.queueSize = queueSize;
+    this.loadPath = loadPath;
     this.workerCount = new AtomicInteger(0);
     this.serverCount = new AtomicInteger(0);
   }
@@ -86,6 +95,7 @@ public final class PartitionedParameterServerManager implements ParameterServerM
             .build())
         .bindImplementation(ParameterWorker.class, PartitionedParameterWorker.class)
         .bindImplementation(AsyncWorkerHandler.class, PartitionedWorkerHandler.class)
+        .bindNamedParameter(PSMessageHandler.class, WorkerSideMsgHandler.class)
         .bindImplementation(ServerResolver.class, StaticServerResolver.class)
         .bindNamedParameter(NumServers.class, Integer.toString(numServers))
         .bindNamedParameter(NumPartitions.class, Integer.toString(numPartitions))
@@ -111,6 +121,8 @@ public final class PartitionedParameterServerManager implements ParameterServerM
         .bindNamedParameter(NumServers.class, Integer.toString(numServers))
         .bindNamedParameter(NumPartitions.class, Integer.toString(numPartitions))
         .bindNamedParameter(ServerQueueSize.class, Integer.toString(queueSize))
+        .bindNamedParameter(ServerModelLoadPath.class, loadPath)
+        .bindSetEntry(ContextMessageHandlers.class, ModelExportMessageHandler.class)
         .build();
   }
 }
@@ -16,6 +16,7 @@
 package edu.snu.dolphin.ps.examples.add;
 
 import edu.snu.dolphin.ps.ParameterServerConfigurationBuilder;
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumServers;
 import edu.snu.dolphin.ps.driver.impl.ConcurrentParameterServerManager;
 import edu.snu.dolphin.ps.examples.add.parameters.NumKeys;
 import edu.snu.dolphin.ps.examples.add.parameters.NumUpdates;
@@ -41,7 +42,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * ParameterServer Example for the Concurrent (single-node) PS.
+ * ParameterServer Example for the Concurrent PS.
  */
 public final class ConcurrentPSExampleREEF {
   private static final Logger LOG = Logger.getLogger(ConcurrentPSExampleREEF.class.getName());
@@ -51,18 +52,21 @@ public final class ConcurrentPSExampleREEF {
   private final int numUpdates;
   private final int startKey;
   private final int numKeys;
+  private final int numServers;
 
   @Inject
   private ConcurrentPSExampleREEF(@Parameter(JobTimeout.class) final long timeout,
                                   @Parameter(NumWorkers.class) final int numWorkers,
                                   @Parameter(NumUpdates.class) final int numUpdates,
                                   @Parameter(StartKey.class) final int startKey,
-                                  @Parameter(NumKeys.class) final int numKeys) {
+                                  @Parameter(NumKeys.class) final int numKeys,
+                                  @Parameter(NumServers.class) final int numServers) {
     this.timeout = timeout;
     this.numWorkers = numWorkers;
     this.numUpdates = numUpdates;
     this.startKey = startKey;
     this.numKeys = numKeys;
+    this.numServers = numServers;
   }
 
   private Configuration getDriverConf() {
@@ -87,6 +91,7 @@ public final class ConcurrentPSExampleREEF {
         .bindNamedParameter(NumUpdates.class, Integer.toString(numUpdates))
         .bindNamedParameter(StartKey.class, Integer.toString(startKey))
         .bindNamedParameter(NumKeys.class, Integer.toString(numKeys))
+        .bindNamedParameter(NumServers.class, Integer.toString(numServers))
         .build();
 
     final Configuration psConf = new ParameterServerConfigurationBuilder()
@@ -106,7 +111,7 @@ public final class ConcurrentPSExampleREEF {
 
   private Configuration getLocalRuntimeConfiguration() {
     return LocalRuntimeConfiguration.CONF
-        .set(LocalRuntimeConfiguration.MAX_NUMBER_OF_EVALUATORS, numWorkers + 1)
+        .set(LocalRuntimeConfiguration.MAX_NUMBER_OF_EVALUATORS, numWorkers + numServers)
         .build();
   }
 
@@ -122,6 +127,7 @@ public final class ConcurrentPSExampleREEF {
     cl.registerShortNameOfClass(NumUpdates.class);
     cl.registerShortNameOfClass(StartKey.class);
     cl.registerShortNameOfClass(NumKeys.class);
+    cl.registerShortNameOfClass(NumServers.class);
 
     cl.processCommandLine(args);
 
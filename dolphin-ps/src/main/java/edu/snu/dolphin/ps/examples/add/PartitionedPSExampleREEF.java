@@ -21,6 +21,7 @@ import edu.snu.dolphin.ps.examples.add.parameters.*;
 import edu.snu.dolphin.ps.common.partitioned.parameters.NumServers;
 import edu.snu.dolphin.ps.common.partitioned.parameters.NumPartitions;
 import edu.snu.dolphin.ps.server.partitioned.parameters.ServerQueueSize;
+import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerCacheMaxWeight;
 import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerExpireTimeout;
 import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerKeyCacheSize;
 import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerNumPartitions;
@@ -60,6 +61,7 @@ public final class PartitionedPSExampleREEF {
   private final int workerNumPartitions;
   private final int workerQueueSize;
   private final long workerExpireTimeout;
+  private final long workerCacheMaxWeight;
   private final int workerKeyCacheSize;
 
   @Inject
@@ -74,6 +76,7 @@ public final class PartitionedPSExampleREEF {
                                    @Parameter(WorkerNumPartitions.class) final int workerNumPartitions,
                                    @Parameter(WorkerQueueSize.class) final int workerQueueSize,
                                    @Parameter(WorkerExpireTimeout.class) final long workerExpireTimeout,
+                                   @Parameter(WorkerCacheMaxWeight.class) final long workerCacheMaxWeight,
                                    @Parameter(WorkerKeyCacheSize.class) final int workerKeyCacheSize) {
     this.timeout = timeout;
     this.numWorkers = numWorkers;
@@ -86,6 +89,7 @@ public final class PartitionedPSExampleREEF {
     this.workerNumPartitions = workerNumPartitions;
     this.workerQueueSize = workerQueueSize;
     this.workerExpireTimeout = workerExpireTimeout;
+    this.workerCacheMaxWeight = workerCacheMaxWeight;
     this.workerKeyCacheSize = workerKeyCacheSize;
   }
 
@@ -117,6 +121,7 @@ public final class PartitionedPSExampleREEF {
         .bindNamedParameter(WorkerNumPartitions.class, Integer.toString(workerNumPartitions))
         .bindNamedParameter(WorkerQueueSize.class, Integer.toString(workerQueueSize))
         .bindNamedParameter(WorkerExpireTimeout.class, Long.toString(workerExpireTimeout))
+        .bindNamedParameter(WorkerCacheMaxWeight.class, Long.toString(workerCacheMaxWeight))
         .bindNamedParameter(WorkerKeyCacheSize.class, Integer.toString(workerKeyCacheSize))
         .build();
 
@@ -159,6 +164,7 @@ public final class PartitionedPSExampleREEF {
     cl.registerShortNameOfClass(WorkerNumPartitions.class);
     cl.registerShortNameOfClass(WorkerQueueSize.class);
     cl.registerShortNameOfClass(WorkerExpireTimeout.class);
+    cl.registerShortNameOfClass(WorkerCacheMaxWeight.class);
     cl.registerShortNameOfClass(WorkerKeyCacheSize.class);
 
     cl.processCommandLine(args);
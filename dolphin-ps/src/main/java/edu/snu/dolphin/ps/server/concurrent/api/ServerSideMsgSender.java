@@ -33,6 +33,7 @@ public interface ServerSideMsgSender<K, V> {
    * @param destId Network Connection Service identifier of the destination evaluator
    * @param key key object associated with the expected value
    * @param valueEntry {@link ValueEntry} object containing the requested value
+   * @param requestId id of the {@link edu.snu.dolphin.ps.avro.PullMsg} being replied to
    */
-  void sendReplyMsg(final String destId, final K key, final ValueEntry<V> valueEntry);
+  void sendReplyMsg(final String destId, final K key, final ValueEntry<V> valueEntry, final long requestId);
 }
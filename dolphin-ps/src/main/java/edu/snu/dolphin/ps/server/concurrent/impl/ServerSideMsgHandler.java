@@ -108,6 +108,6 @@ public final class ServerSideMsgHandler<K, P, V> implements EventHandler<Message
     final String srcId = pullMsg.getSrcId().toString();
     final K key = keyCodec.decode(pullMsg.getKey().array());
     final ValueEntry<V> value = parameterServer.pull(key);
-    sender.get().sendReplyMsg(srcId, key, value);
+    sender.get().sendReplyMsg(srcId, key, value, pullMsg.getRequestId());
   }
 }
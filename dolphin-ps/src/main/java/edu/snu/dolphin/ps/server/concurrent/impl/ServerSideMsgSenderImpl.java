@@ -82,7 +82,8 @@ public final class ServerSideMsgSenderImpl<K, V> implements ServerSideMsgSender<
   }
 
   @Override
-  public void sendReplyMsg(final String destId, final K key, final ValueEntry<V> valueEntry) {
+  public void sendReplyMsg(final String destId, final K key, final ValueEntry<V> valueEntry,
+                           final long requestId) {
     final ByteBuffer valueByteArray;
 
     // The updater may be writing a new value right now, so we acquire a read lock before proceeding
@@ -96,6 +97,7 @@ public final class ServerSideMsgSenderImpl<K, V> implements ServerSideMsgSender<
     final ReplyMsg replyMsg = ReplyMsg.newBuilder()
         .setKey(ByteBuffer.wrap(keyCodec.encode(key)))
         .setValue(valueByteArray)
+        .setRequestId(requestId)
         .build();
 
     send(destId,
@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.server.partitioned;
+
+import edu.snu.dolphin.ps.common.partitioned.primitive.LongKeyMap;
+import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
+import edu.snu.dolphin.ps.ns.EndpointId;
+import edu.snu.dolphin.ps.server.api.ParameterUpdater;
+import edu.snu.dolphin.ps.server.partitioned.parameters.ServerQueueSize;
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A Partitioned Parameter Server specialized for primitive {@code long} keys.
+ * {@code int} keys are supported by widening them to {@code long}.
+ *
+ * Operations are queued and applied per partition exactly as in {@link PartitionedParameterServer},
+ * but each partition stores its values in a {@link LongKeyMap}, so lookups on the hot path neither box
+ * the key nor hash an encoded representation of it.
+ * The boxed key is only created once per key, when the key is first seen by its partition,
+ * and is then reused for every call to the {@link ParameterUpdater}.
+ */
+@EvaluatorSide
+public final class LongKeyPartitionedParameterServer<P, V> {
+  private static final Logger LOG = Logger.getLogger(LongKeyPartitionedParameterServer.class.getName());
+
+  /**
+   * Network Connection Service endpoint of this ParameterServer.
+   */
+  private final String endpointId;
+
+  /**
+   * ServerResolver that maps hashed keys to partitions.
+   */
+  private final ServerResolver serverResolver;
+
+  /**
+   * Max size of each partition's queue.
+   */
+  private final int queueSize;
+
+  /**
+   * Thread pool, where each Partition is submitted.
+   */
+  private final ExecutorService threadPool;
+
+  /**
+   * Running partitions.
+   */
+  private final Map<Integer, Partition<V>> partitions;
+
+  /**
+   * Object for processing preValues and applying updates to existing values.
+   */
+  private final ParameterUpdater<Long, P, V> parameterUpdater;
+
+  /**
+   * Sender that sends pull responses.
+   */
+  private final LongKeyPartitionedServerSideReplySender<V> sender;
+
+  @Inject
+  private LongKeyPartitionedParameterServer(@Parameter(EndpointId.class) final String endpointId,
+                                            @Parameter(ServerQueueSize.class) final int queueSize,
+                                            final ServerResolver serverResolver,
+                                            final ParameterUpdater<Long, P, V> parameterUpdater,
+                                            final LongKeyPartitionedServerSideReplySender<V> sender) {
+    this.endpointId = endpointId;
+    this.serverResolver = serverResolver;
+    this.queueSize = queueSize;
+    this.threadPool = Executors.newFixedThreadPool(serverResolver.getPartitions(endpointId).size());
+    this.partitions = initPartitions();
+    this.parameterUpdater = parameterUpdater;
+    this.sender = sender;
+  }
+
+  /**
+   * Call after initializing numPartitions and threadPool.
+   */
+  private Map<Integer, Partition<V>> initPartitions() {
+    final Map<Integer, Partition<V>> initialized = new HashMap<>();
+    final List<Integer> localPartitions = serverResolver.getPartitions(endpointId);
+    LOG.log(Level.INFO, "Initializing {0} partitions", localPartitions.size());
+    for (final int partitionIndex : localPartitions) {
+      final Partition<V> partition = new Partition<>(queueSize);
+      initialized.put(partitionIndex, partition);
+      threadPool.submit(partition);
+    }
+    return initialized;
+  }
+
+  /**
+   * Process a {@code preValue} sent from a worker and store the resulting value.
+   * The push operation is enqueued to its partition and returned immediately.
+   *
+   * @param key key that {@code preValue} is associated with
+   * @param preValue preValue sent from the worker
+   * @param keyHash hash of the key computed by
+   *                {@link edu.snu.dolphin.ps.common.partitioned.primitive.LongKeys#hash(long)}
+   */
+  public void push(final long key, final P preValue, final int keyHash) {
+    partitions.get(serverResolver.resolvePartition(keyHash)).enqueue(new PushOp(key, preValue));
+  }
+
+  /**
+   * Reply to srcId via {@link LongKeyPartitionedServerSideReplySender}
+   * with the value corresponding to the key.
+   * The pull operation is enqueued to its partition and returned immediately.
+   *
+   * @param key key that the requested {@code value} is associated with
+   * @param srcId network Id of the requester
+   * @param keyHash hash of the key computed by
+   *                {@link edu.snu.dolphin.ps.common.partitioned.primitive.LongKeys#hash(long)}
+   */
+  public void pull(final long key, final String srcId, final int keyHash) {
+    partitions.get(serverResolver.resolvePartition(keyHash)).enqueue(new PullOp(key, srcId));
+  }
+
+  /**
+   * @return number of operations pending, on all queues
+   */
+  public int opsPending() {
+    int sum = 0;
+    for (final Partition<V> partition : partitions.values()) {
+      sum += partition.opsPending();
+    }
+    return sum;
+  }
+
+  /**
+   * A stored value, along with its boxed key that is handed to the {@link ParameterUpdater}.
+   */
+  private static final class Entry<V> {
+    private final Long boxedKey;
+    private V value;
+
+    Entry(final Long boxedKey, final V value) {
+      this.boxedKey = boxedKey;
+      this.value = value;
+    }
+  }
+
+  /**
+   * A generic operation; operations are queued at each Partition.
+   */
+  private interface Op<V> {
+    /**
+     * Method to apply when dequeued by the Partition.
+     * @param kvStore the raw kvStore map, provided by the Partition.
+     */
+    void apply(LongKeyMap<Entry<V>> kvStore);
+  }
+
+  /**
+   * @return the entry of {@code key}, initialized by the {@link ParameterUpdater} if it does not exist yet
+   */
+  private Entry<V> getOrInit(final LongKeyMap<Entry<V>> kvStore, final long key) {
+    Entry<V> entry = kvStore.get(key);
+    if (entry == null) {
+      final Long boxedKey = key;
+      entry = new Entry<>(boxedKey, parameterUpdater.initValue(boxedKey));
+      kvStore.put(key, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * A push operation.
+   */
+  private class PushOp implements Op<V> {
+    private final long key;
+    private final P preValue;
+
+    PushOp(final long key, final P preValue) {
+      this.key = key;
+      this.preValue = preValue;
+    }
+
+    /**
+     * Read from kvStore, modify (update), and write to kvStore.
+     */
+    @Override
+    public void apply(final LongKeyMap<Entry<V>> kvStore) {
+      final Entry<V> entry = getOrInit(kvStore, key);
+
+      final V deltaValue = parameterUpdater.process(entry.boxedKey, preValue);
+      if (deltaValue == null) {
+        return;
+      }
+
+      entry.value = parameterUpdater.update(entry.value, deltaValue);
+    }
+  }
+
+  /**
+   * A pull operation.
+   */
+  private class PullOp implements Op<V> {
+    private final long key;
+    private final String srcId;
+
+    PullOp(final long key, final String srcId) {
+      this.key = key;
+      this.srcId = srcId;
+    }
+
+    /**
+     * Read from kvStore and send the key-value pair to srcId.
+     * To ensure atomicity, the value should be serialized immediately in sender.
+     */
+    @Override
+    public void apply(final LongKeyMap<Entry<V>> kvStore) {
+      sender.sendReplyMsg(srcId, key, getOrInit(kvStore, key).value);
+    }
+  }
+
+  /**
+   * A partition of the parameter server. Must be started as a thread.
+   * See the partition of {@link PartitionedParameterServer} for the design and its trade-offs.
+   */
+  private static class Partition<V> implements Runnable {
+    private static final long QUEUE_TIMEOUT_MS = 3000;
+
+    private final LongKeyMap<Entry<V>> kvStore;
+    private final BlockingQueue<Op<V>> queue;
+    private final ArrayList<Op<V>> localOps; // Operations drained from the queue, and processed locally.
+    private final int drainSize; // Max number of operations to drain per iteration.
+
+    private volatile boolean shutdown = false;
+
+    Partition(final int queueSize) {
+      this.kvStore = new LongKeyMap<>();
+      this.queue = new ArrayBlockingQueue<>(queueSize);
+      this.drainSize = queueSize / 10;
+      this.localOps = new ArrayList<>(drainSize);
+    }
+
+    /**
+     * Enqueue an operation onto the queue, blocking if the queue is full.
+     * @param op the operation to enqueue
+     */
+    public void enqueue(final Op<V> op) {
+      try {
+        queue.put(op);
+      } catch (final InterruptedException e) {
+        LOG.log(Level.SEVERE, "Enqueue failed with InterruptedException", e);
+      }
+    }
+
+    /**
+     * @return number of pending operations in the queue.
+     */
+    public int opsPending() {
+      return queue.size();
+    }
+
+    /**
+     * Loop that dequeues operations and applies them.
+     * Dequeues are only performed through this thread.
+     */
+    @Override
+    public void run() {
+      while (!shutdown) {
+        // First, poll and apply. The timeout allows the run thread to shutdown cleanly within timeout ms.
+        try {
+          final Op<V> op = queue.poll(QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+          if (op == null) {
+            continue;
+          }
+          op.apply(kvStore);
+        } catch (final InterruptedException e) {
+          LOG.log(Level.SEVERE, "Poll failed with InterruptedException", e);
+          continue;
+        }
+
+        // Then, drain up to drainSize of the remaining queue and apply.
+        queue.drainTo(localOps, drainSize);
+        for (final Op<V> op : localOps) {
+          op.apply(kvStore);
+        }
+        localOps.clear();
+      }
+    }
+
+    /**
+     * Cleanly shutdown the run thread.
+     */
+    public void shutdown() {
+      shutdown = true;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.server.partitioned;
+
+import edu.snu.dolphin.ps.ParameterServerParameters.PreValueCodecName;
+import edu.snu.dolphin.ps.avro.AvroParameterServerMsg;
+import edu.snu.dolphin.ps.avro.PullMsg;
+import edu.snu.dolphin.ps.avro.PushMsg;
+import edu.snu.dolphin.ps.common.partitioned.primitive.LongKeys;
+import edu.snu.dolphin.util.SingleMessageExtractor;
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.io.network.Message;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.util.logging.Logger;
+
+/**
+ * Server-side Parameter Server message handler for primitive long keys.
+ * Decodes the varint key and hashes the primitive with {@link LongKeys#hash(long)},
+ * without going through a key codec or hashing the encoded bytes.
+ */
+@EvaluatorSide
+public final class LongKeyPartitionedServerSideMsgHandler<P, V>
+    implements EventHandler<Message<AvroParameterServerMsg>> {
+  private static final Logger LOG = Logger.getLogger(LongKeyPartitionedServerSideMsgHandler.class.getName());
+
+  /**
+   * The Partitioned Parameter Server for long keys.
+   */
+  private final LongKeyPartitionedParameterServer<P, V> parameterServer;
+
+  /**
+   * Codec for decoding PS preValues.
+   */
+  private final Codec<P> preValueCodec;
+
+  @Inject
+  private LongKeyPartitionedServerSideMsgHandler(final LongKeyPartitionedParameterServer<P, V> parameterServer,
+                                                 @Parameter(PreValueCodecName.class) final Codec<P> preValueCodec) {
+    this.parameterServer = parameterServer;
+    this.preValueCodec = preValueCodec;
+  }
+
+  /**
+   * Hand over values given from workers to {@link LongKeyPartitionedParameterServer}.
+   * Throws an exception if messages of an unexpected type arrive.
+   */
+  @Override
+  public void onNext(final Message<AvroParameterServerMsg> msg) {
+    LOG.entering(LongKeyPartitionedServerSideMsgHandler.class.getSimpleName(), "onNext");
+
+    final AvroParameterServerMsg innerMsg = SingleMessageExtractor.extract(msg);
+    switch (innerMsg.getType()) {
+    case PushMsg:
+      onPushMsg(innerMsg.getPushMsg());
+      break;
+
+    case PullMsg:
+      onPullMsg(innerMsg.getPullMsg());
+      break;
+
+    default:
+      throw new RuntimeException("Unexpected message type: " + innerMsg.getType().toString());
+    }
+
+    LOG.exiting(LongKeyPartitionedServerSideMsgHandler.class.getSimpleName(), "onNext");
+  }
+
+  private void onPushMsg(final PushMsg pushMsg) {
+    final long key = LongKeys.decode(pushMsg.getKey());
+    final P preValue = preValueCodec.decode(pushMsg.getPreValue().array());
+    parameterServer.push(key, preValue, LongKeys.hash(key));
+  }
+
+  private void onPullMsg(final PullMsg pullMsg) {
+    final String srcId = pullMsg.getSrcId().toString();
+    final long key = LongKeys.decode(pullMsg.getKey());
+    parameterServer.pull(key, srcId, LongKeys.hash(key));
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.server.partitioned;
+
+/**
+ * Sender for {@link LongKeyPartitionedParameterServer}.
+ */
+public interface LongKeyPartitionedServerSideReplySender<V> {
+  /**
+   * Implementing classes must serialize V immediately within the calling thread,
+   * to ensure atomicity of updates.
+   * @param destId the destination's network address
+   * @param key primitive key
+   * @param value value, to be serialized immediately
+   */
+  void sendReplyMsg(String destId, long key, V value);
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.server.partitioned;
+
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.evaluator.context.ContextMessageHandler;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Receives export requests sent by the driver via {@link edu.snu.dolphin.ps.driver.ParameterServerDriver#exportModel}.
+ * The message is the UTF-8 encoded path of the directory to export to.
+ * Handling blocks until the export completes, so a subsequent close of the context waits for the export.
+ */
+@EvaluatorSide
+public final class ModelExportMessageHandler implements ContextMessageHandler {
+  private final PartitionedParameterServer<?, ?, ?> parameterServer;
+
+  @Inject
+  private ModelExportMessageHandler(final PartitionedParameterServer parameterServer) {
+    this.parameterServer = parameterServer;
+  }
+
+  @Override
+  public void onNext(final byte[] message) {
+    parameterServer.exportModel(new String(message, StandardCharsets.UTF_8));
+  }
+}
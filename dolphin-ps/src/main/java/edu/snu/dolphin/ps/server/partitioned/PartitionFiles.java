@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.server.partitioned;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.reef.io.serialization.Codec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reads and writes the kvStore of a single partition of {@link PartitionedParameterServer}, on HDFS
+ * (or any file system supported by Hadoop).
+ * Each partition is written to its own file in the model directory, so partitions are exported and loaded
+ * in parallel, each by its own thread.
+ *
+ * A file consists of a header (number of partitions, partition index, number of entries), followed by
+ * the entries as length-prefixed keys and values encoded with the PS key and value codecs.
+ * Because keys are mapped to partitions by their hash, a model can only be loaded by a server
+ * that uses the same number of partitions as the server that exported it.
+ */
+final class PartitionFiles {
+  private static final String FILE_PREFIX = "partition-";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * Should not be instantiated.
+   */
+  private PartitionFiles() {
+  }
+
+  /**
+   * @return path of the file that holds partition {@code partitionIndex} in {@code directory}
+   */
+  static Path getPath(final String directory, final int partitionIndex) {
+    return new Path(directory, FILE_PREFIX + partitionIndex);
+  }
+
+  /**
+   * Write all entries of {@code kvStore} to the file of partition {@code partitionIndex}, replacing it.
+   * The entries are written to a temporary file that replaces the partition file only after it is closed,
+   * so a failed write leaves a previously exported file intact.
+   */
+  static <K, V> void write(final String directory, final int partitionIndex, final int numPartitions,
+                           final Map<K, V> kvStore, final Codec<K> keyCodec, final Codec<V> valueCodec)
+      throws IOException {
+    final Path path = getPath(directory, partitionIndex);
+    final Path tempPath = path.suffix(TEMP_SUFFIX);
+    final FileSystem fs = path.getFileSystem(new JobConf());
+    boolean written = false;
+    try {
+      try (final DataOutputStream out =
+               new DataOutputStream(new BufferedOutputStream(fs.create(tempPath, true), BUFFER_SIZE))) {
+        out.writeInt(numPartitions);
+        out.writeInt(partitionIndex);
+        out.writeLong(kvStore.size());
+        for (final Map.Entry<K, V> entry : kvStore.entrySet()) {
+          writeBytes(out, keyCodec.encode(entry.getKey()));
+          writeBytes(out, valueCodec.encode(entry.getValue()));
+        }
+      }
+      if (fs.exists(path) && !fs.delete(path, false)) {
+        throw new IOException("Failed to delete the previous file " + path);
+      }
+      if (!fs.rename(tempPath, path)) {
+        throw new IOException("Failed to rename " + tempPath + " to " + path);
+      }
+      written = true;
+    } finally {
+      if (!written) {
+        fs.delete(tempPath, false);
+      }
+    }
+  }
+
+  /**
+   * Read the file of partition {@code partitionIndex} into {@code kvStore}.
+   * A missing file is an error, because an export writes a file for every partition, even an empty one.
+   * @return number of entries read
+   * @throws IOException if the file is missing, or cannot be read as the expected partition
+   */
+  static <K, V> long read(final String directory, final int partitionIndex, final int numPartitions,
+                          final Map<K, V> kvStore, final Codec<K> keyCodec, final Codec<V> valueCodec)
+      throws IOException {
+    final Path path = getPath(directory, partitionIndex);
+    final FileSystem fs = path.getFileSystem(new JobConf());
+    if (!fs.exists(path)) {
+      throw new IOException("The file of partition " + partitionIndex + " does not exist: " + path);
+    }
+
+    try (final DataInputStream in = new DataInputStream(new BufferedInputStream(fs.open(path), BUFFER_SIZE))) {
+      final int writtenNumPartitions = in.readInt();
+      final int writtenPartitionIndex = in.readInt();
+      if (writtenNumPartitions != numPartitions || writtenPartitionIndex != partitionIndex) {
+        throw new IOException(String.format("%s holds partition %d of %d, but partition %d of %d was expected",
+            path, writtenPartitionIndex, writtenNumPartitions, partitionIndex, numPartitions));
+      }
+
+      final long numEntries = in.readLong();
+      for (long i = 0; i < numEntries; i++) {
+        final K key = keyCodec.decode(readBytes(in));
+        final V value = valueCodec.decode(readBytes(in));
+        kvStore.put(key, value);
+      }
+      return numEntries;
+    }
+  }
+
+  private static void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(final DataInputStream in) throws IOException {
+    final byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return bytes;
+  }
+}
@@ -15,22 +15,32 @@
  */
 package edu.snu.dolphin.ps.server.partitioned;
 
+import edu.snu.dolphin.ps.ParameterServerParameters.KeyCodecName;
+import edu.snu.dolphin.ps.ParameterServerParameters.ValueCodecName;
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumPartitions;
 import edu.snu.dolphin.ps.ns.EndpointId;
 import edu.snu.dolphin.ps.server.api.ParameterUpdater;
+import edu.snu.dolphin.ps.server.partitioned.parameters.ServerModelLoadPath;
 import edu.snu.dolphin.ps.server.partitioned.parameters.ServerQueueSize;
 import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
 import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -43,6 +53,11 @@ import java.util.logging.Logger;
  * For more information about the partition implementation, see {@link Partition}.
  *
  * Supports a static number of partitions (the number of partitions is fixed at construction time).
+ *
+ * The kvStore of each partition can be exported to a file per partition via {@link #exportModel(String)},
+ * and loaded back at startup from the directory given by {@link ServerModelLoadPath}.
+ * The partitions are loaded before they start processing operations, and the construction fails
+ * if any of them cannot be loaded. See {@link PartitionFiles} for the file format.
  */
 @EvaluatorSide
 public final class PartitionedParameterServer<K, P, V> {
@@ -58,11 +73,31 @@ public final class PartitionedParameterServer<K, P, V> {
    */
   private final ServerResolver serverResolver;
 
+  /**
+   * Number of partitions, globally held by all servers.
+   */
+  private final int numPartitions;
+
   /**
    * Max size of each partition's queue.
    */
   private final int queueSize;
 
+  /**
+   * Directory of an exported model to load at startup, or an empty string to start with empty partitions.
+   */
+  private final String loadPath;
+
+  /**
+   * Codec for encoding and decoding PS keys, when exporting and loading the model.
+   */
+  private final Codec<K> keyCodec;
+
+  /**
+   * Codec for encoding and decoding PS values, when exporting and loading the model.
+   */
+  private final Codec<V> valueCodec;
+
   /**
    * Thread pool, where each Partition is submitted.
    */
@@ -85,34 +120,86 @@ public final class PartitionedParameterServer<K, P, V> {
 
   @Inject
   private PartitionedParameterServer(@Parameter(EndpointId.class) final String endpointId,
+                                     @Parameter(NumPartitions.class) final int numPartitions,
                                      @Parameter(ServerQueueSize.class) final int queueSize,
+                                     @Parameter(ServerModelLoadPath.class) final String loadPath,
+                                     @Parameter(KeyCodecName.class) final Codec<K> keyCodec,
+                                     @Parameter(ValueCodecName.class) final Codec<V> valueCodec,
                                      final ServerResolver serverResolver,
                                      final ParameterUpdater<K, P, V> parameterUpdater,
                                      final PartitionedServerSideReplySender<K, V> sender) {
     this.endpointId = endpointId;
     this.serverResolver = serverResolver;
+    this.numPartitions = numPartitions;
     this.queueSize = queueSize;
-    this.threadPool = Executors.newFixedThreadPool(serverResolver.getPartitions(endpointId).size());
-    this.partitions = initPartitions();
+    this.loadPath = loadPath;
+    this.keyCodec = keyCodec;
+    this.valueCodec = valueCodec;
     this.parameterUpdater = parameterUpdater;
     this.sender = sender;
+    this.threadPool = Executors.newFixedThreadPool(serverResolver.getPartitions(endpointId).size());
+    this.partitions = initPartitions();
   }
 
   /**
-   * Call after initializing numPartitions and threadPool.
+   * Call after initializing all other fields.
+   * If a model should be loaded, all partitions are loaded in parallel before any of them is started,
+   * so that all operations are applied after the load.
+   * @throws RuntimeException if loading any of the partitions fails
    */
   private Map<Integer, Partition<K, V>> initPartitions() {
     final Map<Integer, Partition<K, V>> initialized = new HashMap<>();
     final List<Integer> localPartitions = serverResolver.getPartitions(endpointId);
     LOG.log(Level.INFO, "Initializing {0} partitions", localPartitions.size());
     for (final int partitionIndex : localPartitions) {
-      final Partition<K, V> partition = new Partition<>(queueSize);
-      initialized.put(partitionIndex, partition);
+      initialized.put(partitionIndex, new Partition<K, V>(queueSize));
+    }
+
+    if (!loadPath.isEmpty()) {
+      try {
+        loadPartitions(initialized);
+      } catch (final RuntimeException e) {
+        threadPool.shutdownNow();
+        throw e;
+      }
+    }
+
+    for (final Partition<K, V> partition : initialized.values()) {
       threadPool.submit(partition);
     }
     return initialized;
   }
 
+  /**
+   * Fill the kvStore of each partition from its file under {@link #loadPath}, in parallel on the thread pool.
+   * @throws RuntimeException if reading any of the partition files fails
+   */
+  private void loadPartitions(final Map<Integer, Partition<K, V>> toLoad) {
+    final Map<Integer, Future<Long>> futures = new HashMap<>();
+    for (final Map.Entry<Integer, Partition<K, V>> entry : toLoad.entrySet()) {
+      final int partitionIndex = entry.getKey();
+      final Map<K, V> kvStore = entry.getValue().kvStore;
+      futures.put(partitionIndex, threadPool.submit(new Callable<Long>() {
+        @Override
+        public Long call() throws IOException {
+          return PartitionFiles.read(loadPath, partitionIndex, numPartitions, kvStore, keyCodec, valueCodec);
+        }
+      }));
+    }
+
+    for (final Map.Entry<Integer, Future<Long>> entry : futures.entrySet()) {
+      final int partitionIndex = entry.getKey();
+      try {
+        final long numEntries = entry.getValue().get();
+        LOG.log(Level.INFO, "Loaded {0} entries into partition {1}", new Object[]{numEntries, partitionIndex});
+      } catch (final ExecutionException e) {
+        throw new RuntimeException("Failed to load partition " + partitionIndex + " from " + loadPath, e.getCause());
+      } catch (final InterruptedException e) {
+        throw new RuntimeException("Interrupted while loading partition " + partitionIndex, e);
+      }
+    }
+  }
+
   /**
    * Process a {@code preValue} sent from a worker and store the resulting value.
    * Uses {@link ParameterUpdater} to generate a value from {@code preValue} and to apply the generated value to
@@ -142,6 +229,38 @@ public final class PartitionedParameterServer<K, P, V> {
     partitions.get(serverResolver.resolvePartition(keyHash)).enqueue(new PullOp(key, srcId));
   }
 
+  /**
+   * Export the kvStore of every local partition to {@code exportPath}, one file per partition.
+   * The export is queued like other operations, so each file reflects all operations received before this call.
+   * Partitions are written in parallel, and this method blocks until all of them are written.
+   *
+   * @param exportPath directory to write the partition files to
+   * @throws RuntimeException if writing any of the partitions fails
+   */
+  public void exportModel(final String exportPath) {
+    LOG.log(Level.INFO, "Exporting {0} partitions to {1}", new Object[]{partitions.size(), exportPath});
+    final CountDownLatch latch = new CountDownLatch(partitions.size());
+    final List<ExportOp> exportOps = new ArrayList<>(partitions.size());
+    for (final Map.Entry<Integer, Partition<K, V>> entry : partitions.entrySet()) {
+      final ExportOp exportOp = new ExportOp(entry.getKey(), exportPath, latch);
+      exportOps.add(exportOp);
+      entry.getValue().enqueue(exportOp);
+    }
+
+    try {
+      latch.await();
+    } catch (final InterruptedException e) {
+      throw new RuntimeException("Interrupted while waiting for the export to finish", e);
+    }
+
+    for (final ExportOp exportOp : exportOps) {
+      if (exportOp.failure != null) {
+        throw new RuntimeException("Failed to export partition " + exportOp.partitionIndex, exportOp.failure);
+      }
+    }
+    LOG.log(Level.INFO, "Exported {0} partitions to {1}", new Object[]{partitions.size(), exportPath});
+  }
+
   /**
    * @return number of operations pending, on all queues
    */
@@ -221,6 +340,35 @@ public final class PartitionedParameterServer<K, P, V> {
     }
   }
 
+  /**
+   * An operation that writes the kvStore to the partition's file under the export path.
+   * Failures are recorded instead of thrown, so that {@link #exportModel(String)} can report them.
+   */
+  private class ExportOp implements Op<K, V> {
+    private final int partitionIndex;
+    private final String exportPath;
+    private final CountDownLatch latch;
+    private volatile Throwable failure;
+
+    ExportOp(final int partitionIndex, final String exportPath, final CountDownLatch latch) {
+      this.partitionIndex = partitionIndex;
+      this.exportPath = exportPath;
+      this.latch = latch;
+    }
+
+    @Override
+    public void apply(final Map<K, V> kvStore) {
+      try {
+        PartitionFiles.write(exportPath, partitionIndex, numPartitions, kvStore, keyCodec, valueCodec);
+      } catch (final IOException | RuntimeException e) {
+        LOG.log(Level.SEVERE, "Failed to export partition " + partitionIndex, e);
+        failure = e;
+      } finally {
+        latch.countDown();
+      }
+    }
+  }
+
   /**
    * A partition of the parameter server. Must be started as a thread.
    * All push and pull operations should be sent to the appropriate partition.
@@ -235,6 +383,9 @@ public final class PartitionedParameterServer<K, P, V> {
    * However, it also means that pull operations may take awhile to process.
    * Workers block for pulls, while sending pushes asynchronously.
    * We should further explore this trade-off with real ML workloads.
+   *
+   * An operation that throws is logged and skipped, so that it does not stop the processing loop
+   * and leave the following operations queued forever.
    */
   private static class Partition<K, V> implements Runnable {
     private static final long QUEUE_TIMEOUT_MS = 3000;
@@ -292,7 +443,7 @@ public final class PartitionedParameterServer<K, P, V> {
           if (op == null) {
             continue;
           }
-          op.apply(kvStore);
+          apply(op);
         } catch (final InterruptedException e) {
           LOG.log(Level.SEVERE, "Poll failed with InterruptedException", e);
           continue;
@@ -303,12 +454,20 @@ public final class PartitionedParameterServer<K, P, V> {
         // This should be faster than polling each op, because the blocking queue's lock is only acquired once.
         queue.drainTo(localOps, drainSize);
         for (final Op<K, V> op : localOps) {
-          op.apply(kvStore);
+          apply(op);
         }
         localOps.clear();
       }
     }
 
+    private void apply(final Op<K, V> op) {
+      try {
+        op.apply(kvStore);
+      } catch (final RuntimeException e) {
+        LOG.log(Level.SEVERE, "Failed to apply an operation, which is skipped", e);
+      }
+    }
+
     /**
      * Cleanly shutdown the run thread.
      */
@@ -25,6 +25,7 @@ public interface AsyncWorkerHandler<K, V> {
    * Reply to the worker with a {@code value} that was previously requested by {@code pull}.
    * @param key key object representing what was sent
    * @param value value sent from the server
+   * @param requestId id of the pull request this reply answers, or -1 if the request was not given an id
    */
-  void processReply(K key, V value);
+  void processReply(K key, V value, long requestId);
 }
@@ -84,6 +84,6 @@ public final class WorkerSideMsgHandler<K, P, V> implements EventHandler<Message
   private void onReplyMsg(final ReplyMsg replyMsg) {
     final K key = keyCodec.decode(replyMsg.getKey().array());
     final V value = valueCodec.decode(replyMsg.getValue().array());
-    asyncWorkerHandler.processReply(key, value);
+    asyncWorkerHandler.processReply(key, value, replyMsg.getRequestId());
   }
 }
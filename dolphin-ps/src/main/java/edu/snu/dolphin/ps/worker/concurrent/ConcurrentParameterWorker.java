@@ -15,32 +15,52 @@
  */
 package edu.snu.dolphin.ps.worker.concurrent;
 
-import edu.snu.dolphin.ps.driver.impl.ServerId;
+import edu.snu.dolphin.ps.ParameterServerParameters.KeyCodecName;
+import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
 import edu.snu.dolphin.ps.worker.api.ParameterWorker;
+import edu.snu.dolphin.ps.worker.concurrent.parameters.WorkerPullRetries;
+import edu.snu.dolphin.ps.worker.concurrent.parameters.WorkerPullTimeout;
+import org.apache.hadoop.util.hash.MurmurHash;
 import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.InjectionFuture;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Parameter Server worker that interacts with a server which uses only one node.
+ * Parameter Server worker that interacts with the concurrent servers.
+ * Each key is sent to the server that {@link ServerResolver} resolves from the hash of the encoded key.
  * A single instance of this class can be used by more than one thread safely, if and only if
  * the codec classes used in {@link WorkerSideMsgSender} are thread-safe.
+ *
+ * Each pull request is given a unique id, which the server returns with its reply.
+ * Outstanding requests are tracked in a completion table keyed by that id, so a reply is matched to its request
+ * even if it arrives after a retry. Concurrent pulls of the same key share a single outstanding request.
+ * A request is sent again if no reply arrives within {@link WorkerPullTimeout},
+ * up to {@link WorkerPullRetries} times.
+ * Use {@link #pull(List)} to have many pulls outstanding at once from a single thread.
  */
 @EvaluatorSide
 public final class ConcurrentParameterWorker<K, P, V> implements ParameterWorker<K, P, V> {
   private static final Logger LOG = Logger.getLogger(ConcurrentParameterWorker.class.getName());
-  private static final long TIMEOUT = 400000; // milliseconds
 
   /**
-   * Network Connection Service identifier of the server.
+   * Resolve to a server's Network Connection Service identifier based on hashed key.
+   */
+  private final ServerResolver serverResolver;
+
+  /**
+   * Codec for encoding PS keys, to compute the hash for resolving servers.
    */
-  private final String serverId;
+  private final Codec<K> keyCodec;
 
   /**
    * Send messages to the server using this field.
@@ -50,16 +70,44 @@ public final class ConcurrentParameterWorker<K, P, V> implements ParameterWorker
   private final InjectionFuture<WorkerSideMsgSender<K, P>> sender;
 
   /**
-   * Map for caching server replies so that this class can provide values to multiple requests of the same key.
+   * Duration in ms to wait for a reply, before sending the request again.
+   */
+  private final long pullTimeout;
+
+  /**
+   * Number of times to send a request again, before giving up.
    */
-  private final ConcurrentMap<K, ValueWrapper> keyToValueWrapper;
+  private final int pullRetries;
+
+  /**
+   * Source of unique request ids.
+   */
+  private final AtomicLong requestIdCounter;
+
+  /**
+   * Completion table of outstanding pull requests, keyed by request id.
+   */
+  private final ConcurrentMap<Long, PendingPull> idToPendingPull;
+
+  /**
+   * Outstanding pull requests, keyed by key, so that concurrent pulls of the same key share a single request.
+   */
+  private final ConcurrentMap<K, PendingPull> keyToPendingPull;
 
   @Inject
-  private ConcurrentParameterWorker(@Parameter(ServerId.class) final String serverId,
+  private ConcurrentParameterWorker(@Parameter(KeyCodecName.class) final Codec<K> keyCodec,
+                                    @Parameter(WorkerPullTimeout.class) final long pullTimeout,
+                                    @Parameter(WorkerPullRetries.class) final int pullRetries,
+                                    final ServerResolver serverResolver,
                                     final InjectionFuture<WorkerSideMsgSender<K, P>> sender) {
-    this.serverId = serverId;
+    this.keyCodec = keyCodec;
+    this.serverResolver = serverResolver;
+    this.pullTimeout = pullTimeout;
+    this.pullRetries = pullRetries;
     this.sender = sender;
-    this.keyToValueWrapper = new ConcurrentHashMap<>();
+    this.requestIdCounter = new AtomicLong(0);
+    this.idToPendingPull = new ConcurrentHashMap<>();
+    this.keyToPendingPull = new ConcurrentHashMap<>();
   }
 
   /**
@@ -67,105 +115,177 @@ public final class ConcurrentParameterWorker<K, P, V> implements ParameterWorker
    */
   @Override
   public void push(final K key, final P preValue) {
-    sender.get().sendPushMsg(serverId, key, preValue);
+    sender.get().sendPushMsg(resolveServer(key), key, preValue);
   }
 
   /**
-   * Try to fetch a {@code value} from the server, waiting for a certain {@code TIMEOUT} period.
+   * Hash the encoded key in the same way as the partitioned workers, so that every worker
+   * resolves a key to the same server, regardless of {@link Object#hashCode()}.
+   * @return Network Connection Service identifier of the server that holds {@code key}
+   */
+  private String resolveServer(final K key) {
+    return serverResolver.resolveServer(Math.abs(MurmurHash.getInstance().hash(keyCodec.encode(key))));
+  }
+
+  /**
+   * Try to fetch a {@code value} from the server, sending the request again for every {@link WorkerPullTimeout}
+   * without a reply, up to {@link WorkerPullRetries} times.
    * If a value associated with {@code key} doesn't exist, then the server will create an initial value
    * using {@link edu.snu.dolphin.ps.server.api.ParameterUpdater} and return that value.
    * @param key key object representing the expected value
-   * @return value specified by the {@code key}, or null if wait time exceeds {@code TIMEOUT}
+   * @return value specified by the {@code key}, or null if no reply arrived after all retries
    */
   @Override
   public V pull(final K key) {
-    while (true) {
-      final boolean isFirstToWait = keyToValueWrapper.putIfAbsent(key, new ValueWrapper()) == null;
-
-      final ValueWrapper valueWrapper = keyToValueWrapper.get(key);
-      synchronized (valueWrapper) {
-        if (!keyToValueWrapper.containsKey(key)) {
-          // the reply arrived right before I acquired the lock
-          // try again from start
-          continue;
-        }
+    return waitForPull(startPull(key));
+  }
 
-        valueWrapper.startWaiting();
+  /**
+   * Fetch values for all {@code keys} from the server, as in {@link #pull(Object)}.
+   * All requests are sent before waiting for any reply, so the requests are pipelined
+   * instead of waiting for each reply in turn.
+   * @param keys key objects representing the expected values
+   * @return values specified by the {@code keys}, in the same order, with null for values that did not arrive
+   */
+  public List<V> pull(final List<K> keys) {
+    final List<PendingPull> pendingPulls = new ArrayList<>(keys.size());
+    for (final K key : keys) {
+      pendingPulls.add(startPull(key));
+    }
 
-        if (isFirstToWait) {
-          // the first one to wait will send the fetch message
-          // others don't have to send the same message again
-          sender.get().sendPullMsg(serverId, key);
-        }
+    final List<V> values = new ArrayList<>(keys.size());
+    for (final PendingPull pendingPull : pendingPulls) {
+      values.add(waitForPull(pendingPull));
+    }
+    return values;
+  }
 
-        try {
-          valueWrapper.wait(TIMEOUT);
-        } catch (final InterruptedException ex) {
-          throw new RuntimeException("InterruptedException while waiting for reply for key " + key);
-        }
+  /**
+   * Join the outstanding request for {@code key}, or send a new request if there is none.
+   */
+  private PendingPull startPull(final K key) {
+    while (true) {
+      final PendingPull existing = keyToPendingPull.get(key);
+      if (existing != null) {
+        return existing;
+      }
 
-        final V value = valueWrapper.getValue();
-        valueWrapper.stopWaiting();
-        if (value == null && valueWrapper.getWaiting() <= 0) {
-          LOG.log(Level.WARNING, "The reply didn't arrive for any waiting threads. Any late replies will get ignored.");
-          LOG.log(Level.FINE, "I was waiting on the key: " + key.toString());
-          keyToValueWrapper.remove(key, valueWrapper);
-        }
+      final PendingPull pendingPull = new PendingPull(key, resolveServer(key), requestIdCounter.getAndIncrement());
+      if (keyToPendingPull.putIfAbsent(key, pendingPull) == null) {
+        // register at the completion table before sending, so that the reply can always find the request
+        idToPendingPull.put(pendingPull.requestId, pendingPull);
+        pendingPull.send();
+        return pendingPull;
+      }
+      // someone else sent a request for the same key right before me; try again to join it
+    }
+  }
 
-        return valueWrapper.getValue();
+  /**
+   * Wait for the reply of {@code pendingPull}, sending the request again on every timeout.
+   * @return the value, or null if no reply arrived after all retries
+   */
+  private V waitForPull(final PendingPull pendingPull) {
+    for (int retry = 0; retry <= pullRetries; retry++) {
+      final V value = pendingPull.await();
+      if (value != null) {
+        return value;
+      }
+      if (retry < pullRetries) {
+        pendingPull.resendIfDue();
       }
     }
+
+    // Give up. Later replies for this request will be ignored.
+    if (idToPendingPull.remove(pendingPull.requestId, pendingPull)) {
+      keyToPendingPull.remove(pendingPull.key, pendingPull);
+      LOG.log(Level.WARNING, "No reply after {0} retries for request {1}",
+          new Object[]{pullRetries, pendingPull.requestId});
+      LOG.log(Level.FINE, "I was waiting on the key: " + pendingPull.key.toString());
+    }
+    return pendingPull.getValue();
   }
 
   /**
    * Process a pull reply message received from the server.
    * Called by {@link ConcurrentWorkerHandler#processReply}.
    */
-  public void processReply(final K key, final V value) {
-    final ValueWrapper valueWrapper = keyToValueWrapper.remove(key);
-    if (valueWrapper != null) {
-      synchronized (valueWrapper) {
-        valueWrapper.setValue(value);
-        // wake all threads waiting for the value
-        valueWrapper.notifyAll();
-      }
+  public void processReply(final K key, final V value, final long requestId) {
+    final PendingPull pendingPull = idToPendingPull.remove(requestId);
+    if (pendingPull != null) {
+      keyToPendingPull.remove(pendingPull.key, pendingPull);
+      pendingPull.complete(value);
     } else {
-      LOG.log(Level.WARNING, "Either someone else is trying to reply with the same key, or " +
-          "pull threads got tired of waiting and returned. My value will be lost anyway.");
-      LOG.log(Level.FINE, "My key was: " + key.toString());
-      LOG.log(Level.FINE, "My value was: " + value.toString());
+      // Either a duplicate reply to a request that was sent again, or a reply after all pulls gave up.
+      LOG.log(Level.FINE, "Ignoring reply for request {0}, which is already completed or abandoned", requestId);
+      LOG.log(Level.FINEST, "My key was: " + key.toString());
     }
   }
 
   /**
-   * Wrapper class needed to distinguish null from non-null objects without causing {@code NullPointerException}s.
+   * An outstanding pull request, that any number of threads can wait on.
    */
-  private final class ValueWrapper {
-    private int waiting = 0;
+  private final class PendingPull {
+    private final K key;
+    private final String serverId;
+    private final long requestId;
     private V value;
+    private long lastSentTime;
 
-    public void setValue(final V value) {
-      this.value = value;
+    PendingPull(final K key, final String serverId, final long requestId) {
+      this.key = key;
+      this.serverId = serverId;
+      this.requestId = requestId;
+      // threads joining before the first send wait as if it was sent now, instead of sending it again
+      this.lastSentTime = System.currentTimeMillis();
     }
 
-    public V getValue() {
-      return this.value;
+    /**
+     * Send the request to the server.
+     */
+    synchronized void send() {
+      lastSentTime = System.currentTimeMillis();
+      sender.get().sendPullMsg(serverId, key, requestId);
     }
 
-    public void startWaiting() {
-      waiting++;
+    /**
+     * Send the request again, unless a reply has arrived or another waiting thread has already sent it again.
+     * The same request id is used, so a late reply to an earlier send still completes this request.
+     */
+    synchronized void resendIfDue() {
+      if (value == null && System.currentTimeMillis() - lastSentTime >= pullTimeout) {
+        LOG.log(Level.FINE, "Sending request {0} again after timeout", requestId);
+        send();
+      }
     }
 
-    public void stopWaiting() {
-      if (waiting <= 0) {
-        LOG.log(Level.WARNING, "No one should be waiting on me.");
-      } else {
-        waiting--;
+    /**
+     * Block until the value arrives, or until {@code pullTimeout} has passed since the request was last sent.
+     * @return the value, or null on timeout
+     */
+    synchronized V await() {
+      long remaining = lastSentTime + pullTimeout - System.currentTimeMillis();
+      while (value == null && remaining > 0) {
+        try {
+          wait(remaining);
+        } catch (final InterruptedException ex) {
+          throw new RuntimeException("InterruptedException while waiting for reply for key " + key);
+        }
+        remaining = lastSentTime + pullTimeout - System.currentTimeMillis();
       }
+      return value;
+    }
+
+    /**
+     * Set the value and wake all threads waiting for it.
+     */
+    synchronized void complete(final V newValue) {
+      this.value = newValue;
+      notifyAll();
     }
 
-    public int getWaiting() {
-      return this.waiting;
+    synchronized V getValue() {
+      return value;
     }
   }
 }
@@ -28,7 +28,7 @@ public final class ConcurrentWorkerHandler<K, V> implements AsyncWorkerHandler<K
   }
 
   @Override
-  public void processReply(final K key, final V value) {
-    concurrentParameterWorker.processReply(key, value);
+  public void processReply(final K key, final V value, final long requestId) {
+    concurrentParameterWorker.processReply(key, value, requestId);
   }
 }
@@ -39,6 +39,7 @@ public interface WorkerSideMsgSender<K, P> {
    * should be sent from the destination as a reply.
    * @param destId Network Connection Service identifier of the destination evaluator
    * @param key key object representing the expected value
+   * @param requestId id of the request, which is returned with the reply
    */
-  void sendPullMsg(final String destId, final K key);
+  void sendPullMsg(final String destId, final K key, final long requestId);
 }
@@ -95,10 +95,11 @@ public final class WorkerSideMsgSenderImpl<K, P> implements WorkerSideMsgSender<
   }
 
   @Override
-  public void sendPullMsg(final String destId, final K key) {
+  public void sendPullMsg(final String destId, final K key, final long requestId) {
     final PullMsg pullMsg = PullMsg.newBuilder()
         .setKey(ByteBuffer.wrap(keyCodec.encode(key)))
         .setSrcId(psNetworkSetup.getMyId().toString())
+        .setRequestId(requestId)
         .build();
 
     send(destId,
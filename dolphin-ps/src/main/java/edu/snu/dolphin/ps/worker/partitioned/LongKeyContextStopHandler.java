@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.worker.partitioned;
+
+import org.apache.reef.evaluator.context.events.ContextStop;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Closes the LongKeyPartitionedParameterWorker, waiting for the queued messages to be sent through NCS.
+ * See {@link ContextStopHandler} for the caveats.
+ */
+public final class LongKeyContextStopHandler implements EventHandler<ContextStop> {
+  private static final Logger LOG = Logger.getLogger(LongKeyContextStopHandler.class.getName());
+
+  private final LongKeyPartitionedParameterWorker parameterWorker;
+
+  @Inject
+  private LongKeyContextStopHandler(final LongKeyPartitionedParameterWorker parameterWorker) {
+    this.parameterWorker = parameterWorker;
+  }
+
+  @Override
+  public void onNext(final ContextStop contextStop) {
+    LOG.log(Level.INFO, "Calling close. Will wait for close.");
+    parameterWorker.close();
+    LOG.log(Level.INFO, "Worker closed.");
+  }
+}
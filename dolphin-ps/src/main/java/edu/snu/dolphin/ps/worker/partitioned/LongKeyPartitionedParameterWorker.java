@@ -0,0 +1,533 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.worker.partitioned;
+
+import edu.snu.dolphin.ps.common.partitioned.primitive.LongKeyMap;
+import edu.snu.dolphin.ps.common.partitioned.primitive.LongKeys;
+import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
+import edu.snu.dolphin.ps.server.api.ParameterUpdater;
+import edu.snu.dolphin.ps.worker.api.ParameterWorker;
+import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerExpireTimeout;
+import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerNumPartitions;
+import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerQueueSize;
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.tang.InjectionFuture;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A Partitioned Parameter Server worker specialized for primitive {@code long} keys,
+ * that interacts with {@link edu.snu.dolphin.ps.server.partitioned.LongKeyPartitionedParameterServer}.
+ * {@code int} keys are supported by widening them to {@code long}.
+ *
+ * Compared to {@link PartitionedParameterWorker}, keys are hashed directly with {@link LongKeys#hash(long)}
+ * instead of encoding them and hashing the bytes, so there is no need for an encoded key cache.
+ * Each partition caches values in a {@link LongKeyMap}, and since a partition blocks on at most one
+ * remote pull at a time, pending pulls are tracked per partition instead of in a shared map.
+ * A single instance of this class can be used by more than one thread safely, if and only if
+ * the Codec classes are thread-safe.
+ */
+@EvaluatorSide
+public final class LongKeyPartitionedParameterWorker<P, V> implements ParameterWorker<Long, P, V> {
+  private static final Logger LOG = Logger.getLogger(LongKeyPartitionedParameterWorker.class.getName());
+
+  /**
+   * Object for processing preValues and applying updates to existing values.
+   */
+  private final ParameterUpdater<Long, P, V> parameterUpdater;
+
+  /**
+   * Resolve to a server's Network Connection Service identifier based on hashed key.
+   */
+  private final ServerResolver serverResolver;
+
+  /**
+   * Number of partitions.
+   */
+  private final int numPartitions;
+
+  /**
+   * Max size of each partition's queue.
+   */
+  private final int queueSize;
+
+  /**
+   * Duration in ms to keep local entries cached, after which the entries are expired.
+   */
+  private final long expireTimeout;
+
+  /**
+   * Thread pool, where each Partition is submitted.
+   */
+  private final ExecutorService threadPool;
+
+  /**
+   * Running partitions.
+   */
+  private final List<Partition> partitions;
+
+  /**
+   * Send messages to the server using this field.
+   * Without {@link InjectionFuture}, this class creates an injection loop with
+   * classes related to Network Connection Service and makes the job crash (detected by Tang).
+   */
+  private final InjectionFuture<LongKeyPartitionedWorkerMsgSender<P>> sender;
+
+  @Inject
+  private LongKeyPartitionedParameterWorker(@Parameter(WorkerNumPartitions.class) final int numPartitions,
+                                            @Parameter(WorkerQueueSize.class) final int queueSize,
+                                            @Parameter(WorkerExpireTimeout.class) final long expireTimeout,
+                                            final ParameterUpdater<Long, P, V> parameterUpdater,
+                                            final ServerResolver serverResolver,
+                                            final InjectionFuture<LongKeyPartitionedWorkerMsgSender<P>> sender) {
+    this.numPartitions = numPartitions;
+    this.queueSize = queueSize;
+    this.expireTimeout = expireTimeout;
+    this.parameterUpdater = parameterUpdater;
+    this.serverResolver = serverResolver;
+    this.sender = sender;
+    this.threadPool = Executors.newFixedThreadPool(numPartitions);
+    this.partitions = initPartitions();
+  }
+
+  /**
+   * Call after initializing numPartitions and threadPool.
+   */
+  private List<Partition> initPartitions() {
+    LOG.log(Level.INFO, "Initializing {0} partitions", numPartitions);
+    final List<Partition> initialized = new ArrayList<>(numPartitions);
+    for (int i = 0; i < numPartitions; i++) {
+      final Partition partition = new Partition();
+      initialized.add(partition);
+      threadPool.submit(partition);
+    }
+    return initialized;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void push(final Long key, final P preValue) {
+    push(key.longValue(), preValue);
+  }
+
+  /**
+   * Send a {@code preValue} associated with a primitive {@code key} to the server.
+   * @param key key representing what is being sent
+   * @param preValue value to push to the server
+   */
+  public void push(final long key, final P preValue) {
+    final int keyHash = LongKeys.hash(key);
+    partitions.get(getPartitionIndex(keyHash)).enqueue(new PushOp(key, keyHash, preValue));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public V pull(final Long key) {
+    return pull(key.longValue());
+  }
+
+  /**
+   * Fetch a value associated with a primitive {@code key}, from the local cache or the server.
+   * @param key key representing the expected value
+   * @return value specified by the {@code key}
+   */
+  public V pull(final long key) {
+    final int keyHash = LongKeys.hash(key);
+    final PullOp pullOp = new PullOp(key, keyHash);
+    partitions.get(getPartitionIndex(keyHash)).enqueue(pullOp);
+    return pullOp.get();
+  }
+
+  public void invalidateAll() {
+    for (int i = 0; i < numPartitions; i++) {
+      partitions.get(i).enqueue(new InvalidateOp());
+    }
+  }
+
+  private int getPartitionIndex(final int keyHash) {
+    return keyHash % numPartitions;
+  }
+
+  /**
+   * Close the worker, after waiting for queued messages to be sent.
+   */
+  public void close() {
+    // Close all partitions
+    for (int i = 0; i < numPartitions; i++) {
+      partitions.get(i).close();
+    }
+    // Wait for shutdown to complete on all partitions
+    for (int i = 0; i < numPartitions; i++) {
+      partitions.get(i).waitForShutdown();
+    }
+  }
+
+  /**
+   * Handles incoming pull replies, by setting the value of the partition's pending pull.
+   * Called by {@link LongKeyWorkerSideMsgHandler}.
+   */
+  public void processReply(final long key, final V value) {
+    partitions.get(getPartitionIndex(LongKeys.hash(key))).processReply(key, value);
+  }
+
+  /**
+   * A simple Future for a pull sent to the server, that will wait on a get until a value is set.
+   */
+  private static final class PullFuture<V> {
+    private final long key;
+    private V value;
+
+    PullFuture(final long key) {
+      this.key = key;
+    }
+
+    /**
+     * Block until a value is set.
+     * @return the value
+     */
+    public synchronized V getValue() {
+      while (value == null) {
+        try {
+          wait();
+        } catch (final InterruptedException e) {
+          LOG.log(Level.WARNING, "InterruptedException on wait", e);
+        }
+      }
+      return value;
+    }
+
+    /**
+     * Set the value and unblock the waiting get.
+     * @param newValue the value
+     */
+    public synchronized void setValue(final V newValue) {
+      this.value = newValue;
+      notify();
+    }
+  }
+
+  /**
+   * A locally cached value.
+   * Keeps the boxed key to hand to the {@link ParameterUpdater}, and the time the value was read from the server.
+   * A local update replaces the value without changing the write time.
+   */
+  private static final class CachedValue<V> {
+    private final Long boxedKey;
+    private final long writeTime;
+    private V value;
+
+    CachedValue(final Long boxedKey, final V value, final long writeTime) {
+      this.boxedKey = boxedKey;
+      this.value = value;
+      this.writeTime = writeTime;
+    }
+  }
+
+  /**
+   * A generic operation; operations are queued at each Partition.
+   */
+  private abstract class Op {
+    /**
+     * Method to apply when dequeued by the Partition.
+     * @param partition the partition that owns the operation's key
+     */
+    abstract void apply(Partition partition);
+  }
+
+  /**
+   * A push operation.
+   */
+  private final class PushOp extends Op {
+    private final long key;
+    private final int keyHash;
+    private final P preValue;
+
+    PushOp(final long key, final int keyHash, final P preValue) {
+      this.key = key;
+      this.keyHash = keyHash;
+      this.preValue = preValue;
+    }
+
+    /**
+     * First, update the local value, only if it is already cached.
+     * Second, send the update to the remote PS.
+     */
+    @Override
+    void apply(final Partition partition) {
+      final CachedValue<V> cached = partition.getIfPresent(key);
+
+      // If it exists, update the local value, without updating the cache's write time
+      if (cached != null) {
+        final V deltaValue = parameterUpdater.process(cached.boxedKey, preValue);
+        if (deltaValue == null) {
+          return;
+        }
+        cached.value = parameterUpdater.update(cached.value, deltaValue);
+      }
+
+      // Send to remote PS
+      sender.get().sendPushMsg(serverResolver.resolveServer(keyHash), key, preValue);
+    }
+  }
+
+  /**
+   * A pull operation.
+   * Also exposes a blocking {@link #get} method to retrieve the result of the pull.
+   */
+  private final class PullOp extends Op {
+    private final long key;
+    private final int keyHash;
+    private V value;
+
+    PullOp(final long key, final int keyHash) {
+      this.key = key;
+      this.keyHash = keyHash;
+    }
+
+    /**
+     * Read the cached value, loading it from the server if absent or expired, and notify waiting gets.
+     */
+    @Override
+    void apply(final Partition partition) {
+      final V loadedValue = partition.getOrLoad(key, keyHash).value;
+      synchronized (this) {
+        this.value = loadedValue;
+        notify();
+      }
+    }
+
+    /**
+     * A blocking get.
+     * @return the value
+     */
+    public V get() {
+      synchronized (this) {
+        while (value == null) {
+          try {
+            wait();
+          } catch (final InterruptedException e) {
+            LOG.log(Level.WARNING, "InterruptedException on wait", e);
+          }
+        }
+        return value;
+      }
+    }
+  }
+
+  /**
+   * An operation that invalidates all cached values of a partition.
+   * Invalidation is queued like other operations, because the cache is only accessed by the partition thread.
+   */
+  private final class InvalidateOp extends Op {
+    @Override
+    void apply(final Partition partition) {
+      partition.invalidateAll();
+    }
+  }
+
+  /**
+   * A partition for the cache on the Worker.
+   * The design is the same as the partition of {@link PartitionedParameterWorker}:
+   * a remotely read pull remains in the local cache for a duration of expireTimeout,
+   * and pushes are applied locally while the parameter is cached.
+   *
+   * Expired entries are replaced when read, and are swept from the cache at least once per expireTimeout,
+   * so keys that are no longer accessed do not hold on to memory.
+   */
+  private final class Partition implements Runnable {
+    private static final long QUEUE_TIMEOUT_MS = 3000;
+
+    private final LongKeyMap<CachedValue<V>> kvCache;
+    private final BlockingQueue<Op> queue;
+    private final ArrayList<Op> localOps; // Operations drained from the queue, and processed locally.
+    private final int drainSize; // Max number of operations to drain per iteration.
+
+    /**
+     * The pull that this partition is blocked on, if any.
+     * Only one pull can be pending at a time, because the partition thread waits for its reply.
+     */
+    private volatile PullFuture<V> pendingPull;
+
+    private long lastSweepTime;
+    private volatile boolean close = false;
+    private volatile boolean shutdown = false;
+
+    Partition() {
+      this.kvCache = new LongKeyMap<>();
+      this.queue = new ArrayBlockingQueue<>(queueSize);
+      this.drainSize = queueSize / 10;
+      this.localOps = new ArrayList<>(drainSize);
+      this.lastSweepTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the cached value of {@code key}, or null if it is absent or expired
+     */
+    CachedValue<V> getIfPresent(final long key) {
+      final CachedValue<V> cached = kvCache.get(key);
+      if (cached == null || isExpired(cached, System.currentTimeMillis())) {
+        return null;
+      }
+      return cached;
+    }
+
+    /**
+     * @return the cached value of {@code key}, which is read from the server if it is absent or expired
+     */
+    CachedValue<V> getOrLoad(final long key, final int keyHash) {
+      final CachedValue<V> cached = getIfPresent(key);
+      if (cached != null) {
+        return cached;
+      }
+
+      final PullFuture<V> future = new PullFuture<>(key);
+      pendingPull = future;
+      sender.get().sendPullMsg(serverResolver.resolveServer(keyHash), key);
+      final V value = future.getValue();
+      pendingPull = null;
+
+      final CachedValue<V> loaded = new CachedValue<>(key, value, System.currentTimeMillis());
+      kvCache.put(key, loaded);
+      return loaded;
+    }
+
+    void processReply(final long key, final V value) {
+      final PullFuture<V> future = pendingPull;
+      if (future != null && future.key == key) {
+        future.setValue(value);
+      } else {
+        // A partition sends a pull only after the previous one is answered.
+        // Thus, a reply that does not match the pending pull should never appear.
+        throw new RuntimeException(String.format("Pending pull was not found for key %d", key));
+      }
+    }
+
+    void invalidateAll() {
+      kvCache.clear();
+    }
+
+    private boolean isExpired(final CachedValue<V> cached, final long now) {
+      return now - cached.writeTime >= expireTimeout;
+    }
+
+    /**
+     * Remove all expired entries, if at least expireTimeout has passed since the last sweep.
+     */
+    private void sweepIfNeeded() {
+      final long now = System.currentTimeMillis();
+      if (now - lastSweepTime < expireTimeout || kvCache.size() == 0) {
+        return;
+      }
+      lastSweepTime = now;
+
+      final long[] expiredKeys = new long[kvCache.size()];
+      final int[] numExpired = new int[1];
+      kvCache.forEach(new LongKeyMap.Visitor<CachedValue<V>>() {
+        @Override
+        public void visit(final long key, final CachedValue<V> cached) {
+          if (isExpired(cached, now)) {
+            expiredKeys[numExpired[0]++] = key;
+          }
+        }
+      });
+      for (int i = 0; i < numExpired[0]; i++) {
+        kvCache.remove(expiredKeys[i]);
+      }
+    }
+
+    /**
+     * Enqueue an operation onto the queue, blocking if the queue is full.
+     * @param op the operation to enqueue
+     */
+    void enqueue(final Op op) {
+      try {
+        queue.put(op);
+      } catch (final InterruptedException e) {
+        LOG.log(Level.SEVERE, "Enqueue failed with InterruptedException", e);
+      }
+    }
+
+    /**
+     * Loop that dequeues operations and applies them.
+     * Dequeues are only performed through this thread.
+     */
+    @Override
+    public void run() {
+      while (!close || !queue.isEmpty()) {
+        sweepIfNeeded();
+
+        // First, poll and apply. The timeout allows the run thread to close cleanly within timeout ms.
+        try {
+          final Op op = queue.poll(QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+          if (op == null) {
+            continue;
+          }
+          op.apply(this);
+        } catch (final InterruptedException e) {
+          LOG.log(Level.SEVERE, "Poll failed with InterruptedException", e);
+          continue;
+        }
+
+        // Then, drain up to drainSize of the remaining queue and apply.
+        queue.drainTo(localOps, drainSize);
+        for (final Op op : localOps) {
+          op.apply(this);
+        }
+        localOps.clear();
+      }
+      shutdown();
+    }
+
+    /**
+     * Cleanly close the run thread.
+     */
+    void close() {
+      close = true;
+    }
+
+    private synchronized void shutdown() {
+      shutdown = true;
+      notifyAll();
+    }
+
+    /**
+     * Wait for shutdown confirmation (clean close has finished).
+     */
+    synchronized void waitForShutdown() {
+      while (!shutdown) {
+        try {
+          wait();
+        } catch (final InterruptedException e) {
+          LOG.log(Level.WARNING, "InterruptedException while waiting for close to complete", e);
+        }
+      }
+    }
+  }
+}
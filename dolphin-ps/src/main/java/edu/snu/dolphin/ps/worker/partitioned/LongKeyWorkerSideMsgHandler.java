@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.worker.partitioned;
+
+import edu.snu.dolphin.ps.ParameterServerParameters.ValueCodecName;
+import edu.snu.dolphin.ps.avro.AvroParameterServerMsg;
+import edu.snu.dolphin.ps.avro.ReplyMsg;
+import edu.snu.dolphin.ps.common.partitioned.primitive.LongKeys;
+import edu.snu.dolphin.util.SingleMessageExtractor;
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.io.network.Message;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.util.logging.Logger;
+
+/**
+ * Worker-side Parameter Server message handler for primitive long keys.
+ * Decodes the varint key and hands the reply directly to {@link LongKeyPartitionedParameterWorker}.
+ */
+@EvaluatorSide
+public final class LongKeyWorkerSideMsgHandler<V> implements EventHandler<Message<AvroParameterServerMsg>> {
+  private static final Logger LOG = Logger.getLogger(LongKeyWorkerSideMsgHandler.class.getName());
+
+  /**
+   * This evaluator's worker that is expecting Parameter Server pull message results.
+   */
+  private final LongKeyPartitionedParameterWorker<?, V> parameterWorker;
+
+  /**
+   * Codec for decoding PS values.
+   */
+  private final Codec<V> valueCodec;
+
+  @Inject
+  private LongKeyWorkerSideMsgHandler(final LongKeyPartitionedParameterWorker<?, V> parameterWorker,
+                                      @Parameter(ValueCodecName.class) final Codec<V> valueCodec) {
+    this.parameterWorker = parameterWorker;
+    this.valueCodec = valueCodec;
+  }
+
+  /**
+   * Hand over values given from the server to {@link LongKeyPartitionedParameterWorker}.
+   * Throws an exception if messages of an unexpected type arrive.
+   */
+  @Override
+  public void onNext(final Message<AvroParameterServerMsg> msg) {
+    LOG.entering(LongKeyWorkerSideMsgHandler.class.getSimpleName(), "onNext");
+
+    final AvroParameterServerMsg innerMsg = SingleMessageExtractor.extract(msg);
+    switch (innerMsg.getType()) {
+    case ReplyMsg:
+      onReplyMsg(innerMsg.getReplyMsg());
+      break;
+
+    default:
+      throw new RuntimeException("Unexpected message type: " + innerMsg.getType().toString());
+    }
+
+    LOG.exiting(LongKeyWorkerSideMsgHandler.class.getSimpleName(), "onNext");
+  }
+
+  private void onReplyMsg(final ReplyMsg replyMsg) {
+    final long key = LongKeys.decode(replyMsg.getKey());
+    final V value = valueCodec.decode(replyMsg.getValue().array());
+    parameterWorker.processReply(key, value);
+  }
+}
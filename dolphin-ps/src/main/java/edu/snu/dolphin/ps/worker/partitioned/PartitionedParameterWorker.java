@@ -17,10 +17,13 @@ package edu.snu.dolphin.ps.worker.partitioned;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 import edu.snu.dolphin.ps.ParameterServerParameters.KeyCodecName;
 import edu.snu.dolphin.ps.server.api.ParameterUpdater;
 import edu.snu.dolphin.ps.worker.api.ParameterWorker;
+import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerCacheMaxWeight;
 import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerExpireTimeout;
 import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerKeyCacheSize;
 import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerNumPartitions;
@@ -54,6 +57,9 @@ import java.util.logging.Logger;
  * See {@link WorkerKeyCacheSize}.
  * The remaining configurations are related to the worker-side partitions.
  * See {@link Partition}.
+ *
+ * The local cache can be bounded by the total weight of its values, see {@link WorkerCacheMaxWeight}.
+ * Hit, miss and eviction statistics of the local cache are available through {@link #getCacheStats()}.
  */
 @EvaluatorSide
 public final class PartitionedParameterWorker<K, P, V> implements ParameterWorker<K, P, V> {
@@ -89,6 +95,16 @@ public final class PartitionedParameterWorker<K, P, V> implements ParameterWorke
    */
   private final long expireTimeout;
 
+  /**
+   * Max total weight of values in each partition's cache, or a non-positive value if not bounded.
+   */
+  private final long partitionMaxWeight;
+
+  /**
+   * Computes the weight of cached values, when the cache is bounded.
+   */
+  private final ValueWeigher<V> valueWeigher;
+
   /**
    * Thread pool, where each Partition is submitted.
    */
@@ -115,14 +131,19 @@ public final class PartitionedParameterWorker<K, P, V> implements ParameterWorke
   private PartitionedParameterWorker(@Parameter(WorkerNumPartitions.class) final int numPartitions,
                                      @Parameter(WorkerQueueSize.class) final int queueSize,
                                      @Parameter(WorkerExpireTimeout.class) final long expireTimeout,
+                                     @Parameter(WorkerCacheMaxWeight.class) final long cacheMaxWeight,
                                      @Parameter(WorkerKeyCacheSize.class) final int keyCacheSize,
                                      @Parameter(KeyCodecName.class) final Codec<K> keyCodec,
                                      final ParameterUpdater<K, P, V> parameterUpdater,
+                                     final ValueWeigher<V> valueWeigher,
                                      final ServerResolver serverResolver,
                                      final InjectionFuture<PartitionedWorkerMsgSender<K, P>> sender) {
     this.numPartitions = numPartitions;
     this.queueSize = queueSize;
     this.expireTimeout = expireTimeout;
+    // Round up, so that a small positive max weight does not result in an unbounded cache.
+    this.partitionMaxWeight = cacheMaxWeight <= 0 ? 0 : (cacheMaxWeight + numPartitions - 1) / numPartitions;
+    this.valueWeigher = valueWeigher;
     this.parameterUpdater = parameterUpdater;
     this.serverResolver = serverResolver;
     this.sender = sender;
@@ -140,14 +161,15 @@ public final class PartitionedParameterWorker<K, P, V> implements ParameterWorke
   }
 
   /**
-   * Call after initializing numPartitions and threadPool.
+   * Call after initializing all other fields, except encodedKeyCache.
    */
   @SuppressWarnings("unchecked")
   private Partition<K, P, V>[] initPartitions() {
     LOG.log(Level.INFO, "Initializing {0} partitions", numPartitions);
     final Partition<K, P, V>[] initialized = new Partition[numPartitions];
     for (int i = 0; i < numPartitions; i++) {
-      initialized[i] = new Partition<>(pendingPulls, serverResolver, sender, queueSize, expireTimeout);
+      initialized[i] = new Partition<>(pendingPulls, serverResolver, sender, queueSize, expireTimeout,
+          partitionMaxWeight, valueWeigher);
       threadPool.submit(initialized[i]);
     }
     return initialized;
@@ -190,6 +212,20 @@ public final class PartitionedParameterWorker<K, P, V> implements ParameterWorke
     }
   }
 
+  /**
+   * Statistics of the local cache, summed over all partitions.
+   * Evictions include both entries expired by {@link WorkerExpireTimeout}
+   * and entries evicted to respect {@link WorkerCacheMaxWeight}.
+   * @return hit, miss, load, and eviction statistics of the local cache
+   */
+  public CacheStats getCacheStats() {
+    CacheStats cacheStats = new CacheStats(0, 0, 0, 0, 0, 0);
+    for (int i = 0; i < numPartitions; i++) {
+      cacheStats = cacheStats.plus(partitions[i].getCacheStats());
+    }
+    return cacheStats;
+  }
+
   private int getPartitionIndex(final int keyHash) {
     return keyHash % numPartitions;
   }
@@ -206,6 +242,7 @@ public final class PartitionedParameterWorker<K, P, V> implements ParameterWorke
     for (int i = 0; i < numPartitions; i++) {
       partitions[i].waitForShutdown();
     }
+    LOG.log(Level.INFO, "Local cache statistics: {0}", getCacheStats());
   }
 
   /**
@@ -381,6 +418,8 @@ public final class PartitionedParameterWorker<K, P, V> implements ParameterWorke
    * the number of worker-side partitions does not have to be equal to the number of server-side partitions.
    *
    * A remotely read pull remains in the local cache for a duration of expireTimeout.
+   * If maxWeight is positive, the least recently used entries are evicted earlier
+   * when the total weight of the cached values exceeds maxWeight.
    * Pushes are applied locally while the parameter is cached.
    * The single queue-and-thread, combined with the server, provides a guarantee that
    * all previous local pushes are applied to a pull, if it is locally cached.
@@ -403,21 +442,36 @@ public final class PartitionedParameterWorker<K, P, V> implements ParameterWorke
               final ServerResolver serverResolver,
               final InjectionFuture<PartitionedWorkerMsgSender<K, P>> sender,
               final int queueSize,
-              final long expireTimeout) {
-      kvCache = CacheBuilder.newBuilder()
+              final long expireTimeout,
+              final long maxWeight,
+              final ValueWeigher<V> valueWeigher) {
+      final CacheLoader<EncodedKey<K>, Wrapped<V>> cacheLoader = new CacheLoader<EncodedKey<K>, Wrapped<V>>() {
+        @Override
+        public Wrapped<V> load(final EncodedKey<K> encodedKey) throws Exception {
+          final PullFuture<V> future = new PullFuture<>();
+          pendingPulls.put(encodedKey.getKey(), future);
+          sender.get().sendPullMsg(serverResolver.resolveServer(encodedKey.getHash()), encodedKey);
+          final V value = future.getValue();
+          pendingPulls.remove(encodedKey.getKey());
+          return new Wrapped<>(value);
+        }
+      };
+      final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
           .concurrencyLevel(1)
-          .expireAfterWrite(expireTimeout, TimeUnit.MILLISECONDS)
-          .build(new CacheLoader<EncodedKey<K>, Wrapped<V>>() {
-            @Override
-            public Wrapped<V> load(final EncodedKey<K> encodedKey) throws Exception {
-              final PullFuture<V> future = new PullFuture<>();
-              pendingPulls.put(encodedKey.getKey(), future);
-              sender.get().sendPullMsg(serverResolver.resolveServer(encodedKey.getHash()), encodedKey);
-              final V value = future.getValue();
-              pendingPulls.remove(encodedKey.getKey());
-              return new Wrapped<>(value);
-            }
-          });
+          .expireAfterWrite(expireTimeout, TimeUnit.MILLISECONDS);
+      if (maxWeight > 0) {
+        kvCache = cacheBuilder
+            .maximumWeight(maxWeight)
+            .weigher(new Weigher<EncodedKey<K>, Wrapped<V>>() {
+              @Override
+              public int weigh(final EncodedKey<K> encodedKey, final Wrapped<V> wrapped) {
+                return valueWeigher.weigh(wrapped.getValue());
+              }
+            })
+            .build(cacheLoader);
+      } else {
+        kvCache = cacheBuilder.build(cacheLoader);
+      }
       queue = new ArrayBlockingQueue<>(queueSize);
       this.drainSize = queueSize / 10;
       this.localOps = new ArrayList<>(drainSize);
@@ -446,6 +500,13 @@ public final class PartitionedParameterWorker<K, P, V> implements ParameterWorke
       kvCache.invalidateAll();
     }
 
+    /**
+     * @return statistics of the partition's cache
+     */
+    public CacheStats getCacheStats() {
+      return kvCache.stats();
+    }
+
 
     /**
      * @return number of pending operations in the queue.
@@ -28,7 +28,7 @@ public final class PartitionedWorkerHandler<K, V> implements AsyncWorkerHandler<
   }
 
   @Override
-  public void processReply(final K key, final V value) {
+  public void processReply(final K key, final V value, final long requestId) {
     partitionedParameterWorker.processReply(key, value);
   }
 }
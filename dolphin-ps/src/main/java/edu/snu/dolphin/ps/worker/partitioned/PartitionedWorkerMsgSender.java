@@ -15,86 +15,28 @@
  */
 package edu.snu.dolphin.ps.worker.partitioned;
 
-import edu.snu.dolphin.ps.ParameterServerParameters.PreValueCodecName;
-import edu.snu.dolphin.ps.avro.AvroParameterServerMsg;
-import edu.snu.dolphin.ps.avro.PullMsg;
-import edu.snu.dolphin.ps.avro.PushMsg;
-import edu.snu.dolphin.ps.avro.Type;
-import edu.snu.dolphin.ps.ns.PSNetworkSetup;
 import org.apache.reef.annotations.audience.EvaluatorSide;
-import org.apache.reef.exception.evaluator.NetworkException;
-import org.apache.reef.io.network.Connection;
-import org.apache.reef.io.serialization.Codec;
-import org.apache.reef.tang.annotations.Parameter;
-import org.apache.reef.wake.IdentifierFactory;
-
-import javax.inject.Inject;
-import java.nio.ByteBuffer;
+import org.apache.reef.tang.annotations.DefaultImplementation;
 
 /**
  * A Msg Sender for PartitionedWorker.
  */
 @EvaluatorSide
-public final class PartitionedWorkerMsgSender<K, P> {
+@DefaultImplementation(PartitionedWorkerMsgSenderImpl.class)
+public interface PartitionedWorkerMsgSender<K, P> {
 
   /**
-   * Network Connection Service related setup required for a Parameter Server application.
+   * Send a push message for the key to the server.
+   * @param destId Network Connection Service identifier of the server
+   * @param key encoded key of the pushed value
+   * @param preValue value to be processed and applied by the server
    */
-  private final PSNetworkSetup psNetworkSetup;
+  void sendPushMsg(String destId, EncodedKey<K> key, P preValue);
 
   /**
-   * Required for using Network Connection Service API.
+   * Send a pull message for the key to the server, which replies with the value of the key.
+   * @param destId Network Connection Service identifier of the server
+   * @param key encoded key of the requested value
    */
-  private final IdentifierFactory identifierFactory;
-
-  /**
-   * Codec for encoding PS preValues.
-   */
-  private final Codec<P> preValueCodec;
-
-  @Inject
-  private PartitionedWorkerMsgSender(final PSNetworkSetup psNetworkSetup,
-                                     final IdentifierFactory identifierFactory,
-                                     @Parameter(PreValueCodecName.class) final Codec<P> preValueCodec) {
-    this.psNetworkSetup = psNetworkSetup;
-    this.identifierFactory = identifierFactory;
-    this.preValueCodec = preValueCodec;
-  }
-
-  private void send(final String destId, final AvroParameterServerMsg msg) {
-    final Connection<AvroParameterServerMsg> conn = psNetworkSetup.getConnectionFactory()
-        .newConnection(identifierFactory.getNewInstance(destId));
-    try {
-      conn.open();
-      conn.write(msg);
-    } catch (final NetworkException ex) {
-      throw new RuntimeException("NetworkException during connection open/write", ex);
-    }
-  }
-
-  public void sendPushMsg(final String destId, final EncodedKey<K> key, final P preValue) {
-    final PushMsg pushMsg = PushMsg.newBuilder()
-        .setKey(ByteBuffer.wrap(key.getEncoded()))
-        .setPreValue(ByteBuffer.wrap(preValueCodec.encode(preValue)))
-        .build();
-
-    send(destId,
-        AvroParameterServerMsg.newBuilder()
-            .setType(Type.PushMsg)
-            .setPushMsg(pushMsg)
-            .build());
-  }
-
-  public void sendPullMsg(final String destId, final EncodedKey<K> key) {
-    final PullMsg pullMsg = PullMsg.newBuilder()
-        .setKey(ByteBuffer.wrap(key.getEncoded()))
-        .setSrcId(psNetworkSetup.getMyId().toString())
-        .build();
-
-    send(destId,
-        AvroParameterServerMsg.newBuilder()
-            .setType(Type.PullMsg)
-            .setPullMsg(pullMsg)
-            .build());
-  }
+  void sendPullMsg(String destId, EncodedKey<K> key);
 }
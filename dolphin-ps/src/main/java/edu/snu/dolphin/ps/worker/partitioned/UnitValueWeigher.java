@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.worker.partitioned;
+
+import org.apache.reef.annotations.audience.EvaluatorSide;
+
+import javax.inject.Inject;
+
+/**
+ * A {@link ValueWeigher} that gives the same weight, 1, to every value.
+ */
+@EvaluatorSide
+public final class UnitValueWeigher<V> implements ValueWeigher<V> {
+
+  @Inject
+  private UnitValueWeigher() {
+  }
+
+  @Override
+  public int weigh(final V value) {
+    return 1;
+  }
+}
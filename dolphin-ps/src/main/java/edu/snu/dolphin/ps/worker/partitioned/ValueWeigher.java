@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.worker.partitioned;
+
+import org.apache.reef.annotations.audience.EvaluatorSide;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+
+/**
+ * Computes the weight of a value cached by {@link PartitionedParameterWorker},
+ * used to bound the cache with {@link edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerCacheMaxWeight}.
+ * By default, every value weighs 1, which bounds the number of cached entries.
+ */
+@EvaluatorSide
+@DefaultImplementation(UnitValueWeigher.class)
+public interface ValueWeigher<V> {
+
+  /**
+   * Weights are computed when a value is pulled into the cache, and are not updated by local pushes.
+   * @param value the value to weigh
+   * @return a non-negative weight of the value, e.g., its size in bytes
+   */
+  int weigh(V value);
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.common.partitioned.primitive;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LongKeyMap} and {@link LongKeys}.
+ */
+public final class LongKeyMapTest {
+
+  /**
+   * Apply random puts and removes to both a {@link LongKeyMap} and a {@link HashMap},
+   * and check that their contents are always the same.
+   */
+  @Test
+  public void testRandomOpsAgainstHashMap() {
+    final Random random = new Random(0);
+    final LongKeyMap<Long> map = new LongKeyMap<>();
+    final Map<Long, Long> expected = new HashMap<>();
+
+    for (int i = 0; i < 100000; i++) {
+      // A small key range makes collisions, overwrites and removals of existing keys frequent.
+      final long key = random.nextInt(2000) - 1000;
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        final long value = random.nextLong();
+        assertEquals(expected.put(key, value), map.put(key, value));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+
+    for (long key = -1000; key < 1000; key++) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+
+    final int[] visited = new int[1];
+    map.forEach(new LongKeyMap.Visitor<Long>() {
+      @Override
+      public void visit(final long key, final Long value) {
+        assertEquals(expected.get(key), value);
+        visited[0]++;
+      }
+    });
+    assertEquals(expected.size(), visited[0]);
+
+    map.clear();
+    assertEquals(0, map.size());
+    assertNull(map.get(0));
+  }
+
+  /**
+   * Check that keys survive a varint round trip, and small keys are encoded into a single byte.
+   */
+  @Test
+  public void testVarintRoundTrip() {
+    final long[] keys = {0, 1, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+    for (final long key : keys) {
+      assertEquals(key, LongKeys.decode(ByteBuffer.wrap(LongKeys.encode(key))));
+      assertTrue(LongKeys.hash(key) >= 0);
+    }
+    assertEquals(1, LongKeys.encode(63).length);
+    assertEquals(1, LongKeys.encode(-64).length);
+    assertEquals(10, LongKeys.encode(Long.MIN_VALUE).length);
+  }
+}
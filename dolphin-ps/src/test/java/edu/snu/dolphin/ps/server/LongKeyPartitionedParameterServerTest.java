@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.server;
+
+import edu.snu.dolphin.ps.ParameterServerParameters;
+import edu.snu.dolphin.ps.TestUtils;
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumPartitions;
+import edu.snu.dolphin.ps.common.partitioned.primitive.LongKeys;
+import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
+import edu.snu.dolphin.ps.common.partitioned.resolver.SingleNodeServerResolver;
+import edu.snu.dolphin.ps.driver.impl.ServerId;
+import edu.snu.dolphin.ps.examples.add.IntegerCodec;
+import edu.snu.dolphin.ps.ns.EndpointId;
+import edu.snu.dolphin.ps.server.api.ParameterUpdater;
+import edu.snu.dolphin.ps.server.partitioned.LongKeyPartitionedParameterServer;
+import edu.snu.dolphin.ps.server.partitioned.LongKeyPartitionedServerSideReplySender;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static edu.snu.dolphin.ps.common.Constants.SERVER_ID_PREFIX;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LongKeyPartitionedParameterServer}.
+ */
+public final class LongKeyPartitionedParameterServerTest {
+  private static final long KEY = Integer.MAX_VALUE + 1L;
+  private static final String MSG_THREADS_NOT_FINISHED = "threads not finished (possible deadlock or infinite loop)";
+  private static final String MSG_RESULT_ASSERTION = "final result of concurrent pushes and pulls";
+  private LongKeyPartitionedParameterServer<Integer, Integer> server;
+  private MockLongKeyPartitionedServerSideReplySender mockSender;
+
+  @Before
+  public void setup() throws InjectionException {
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bind(LongKeyPartitionedServerSideReplySender.class, MockLongKeyPartitionedServerSideReplySender.class)
+        .bindImplementation(ServerResolver.class, SingleNodeServerResolver.class)
+        .bindNamedParameter(ServerId.class, SERVER_ID_PREFIX + 0)
+        .bindNamedParameter(EndpointId.class, SERVER_ID_PREFIX + 0)
+        .bindNamedParameter(ParameterServerParameters.ValueCodecName.class, IntegerCodec.class)
+        .bindNamedParameter(ParameterServerParameters.PreValueCodecName.class, IntegerCodec.class)
+        .bindNamedParameter(NumPartitions.class, "4")
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(conf);
+    injector.bindVolatileInstance(ParameterUpdater.class, new ParameterUpdater<Long, Integer, Integer>() {
+      @Override
+      public Integer process(final Long key, final Integer preValue) {
+        return preValue;
+      }
+
+      @Override
+      public Integer update(final Integer oldValue, final Integer deltaValue) {
+        return oldValue + deltaValue;
+      }
+
+      @Override
+      public Integer initValue(final Long key) {
+        return 0;
+      }
+    });
+    mockSender = injector.getInstance(MockLongKeyPartitionedServerSideReplySender.class);
+    server = injector.getInstance(LongKeyPartitionedParameterServer.class);
+  }
+
+  /**
+   * Test {@link LongKeyPartitionedParameterServer} by running threads that push values to
+   * and pull values from the server concurrently, using keys that do not fit in an int.
+   */
+  @Test
+  public void testMultiThreadPushPull() throws InterruptedException {
+    final int numPushThreads = 8;
+    final int numPushes = 100000;
+    final int numPullThreads = 8;
+    final int numPulls = 100000;
+    final CountDownLatch countDownLatch = new CountDownLatch(numPushThreads + numPullThreads);
+    final Runnable[] threads = new Runnable[numPushThreads + numPullThreads];
+
+    for (int threadIndex = 0; threadIndex < numPushThreads; threadIndex++) {
+      final long key = KEY + threadIndex;
+      threads[threadIndex] = new Runnable() {
+        @Override
+        public void run() {
+          for (int index = 0; index < numPushes; index++) {
+            // each thread increments the server's value by 1 per push
+            server.push(key, 1, LongKeys.hash(key));
+          }
+          countDownLatch.countDown();
+        }
+      };
+    }
+
+    for (int threadIndex = 0; threadIndex < numPullThreads; threadIndex++) {
+      final long key = KEY + threadIndex;
+      threads[threadIndex + numPushThreads] = new Runnable() {
+        @Override
+        public void run() {
+          for (int index = 0; index < numPulls; index++) {
+            server.pull(key, "", LongKeys.hash(key));
+          }
+          countDownLatch.countDown();
+        }
+      };
+    }
+
+    TestUtils.runConcurrently(threads);
+    final boolean allThreadsFinished = countDownLatch.await(100, TimeUnit.SECONDS);
+    waitForOps();
+
+    assertTrue(MSG_THREADS_NOT_FINISHED, allThreadsFinished);
+    for (int threadIndex = 0; threadIndex < numPushThreads; threadIndex++) {
+      final long key = KEY + threadIndex;
+      server.pull(key, "", LongKeys.hash(key));
+      waitForOps();
+      assertEquals(MSG_RESULT_ASSERTION, key, mockSender.getLatestKey());
+      assertEquals(MSG_RESULT_ASSERTION, numPushes, mockSender.getLatest());
+    }
+  }
+
+  private void waitForOps() throws InterruptedException {
+    while (server.opsPending() > 0) {
+      Thread.sleep(5);
+    }
+  }
+
+  private static class MockLongKeyPartitionedServerSideReplySender
+      implements LongKeyPartitionedServerSideReplySender<Integer> {
+    private volatile long latestKey = -1;
+    private volatile int latest = -1;
+
+    @Inject
+    MockLongKeyPartitionedServerSideReplySender() {
+    }
+
+    @Override
+    public void sendReplyMsg(final String destId, final long key, final Integer value) {
+      latestKey = key;
+      latest = value;
+    }
+
+    public long getLatestKey() {
+      return latestKey;
+    }
+
+    public int getLatest() {
+      return latest;
+    }
+  }
+}
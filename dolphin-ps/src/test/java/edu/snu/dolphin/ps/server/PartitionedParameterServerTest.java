@@ -25,20 +25,30 @@ import edu.snu.dolphin.ps.ns.EndpointId;
 import edu.snu.dolphin.ps.server.api.ParameterUpdater;
 import edu.snu.dolphin.ps.server.partitioned.PartitionedParameterServer;
 import edu.snu.dolphin.ps.server.partitioned.PartitionedServerSideReplySender;
+import edu.snu.dolphin.ps.server.partitioned.parameters.ServerModelLoadPath;
 import edu.snu.dolphin.ps.common.partitioned.parameters.NumPartitions;
+import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import javax.inject.Inject;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static edu.snu.dolphin.ps.common.Constants.SERVER_ID_PREFIX;
 
 
@@ -52,15 +62,29 @@ public final class PartitionedParameterServerTest {
   private PartitionedParameterServer<Integer, Integer, Integer> server;
   private MockPartitionedServerSideReplySender mockSender;
 
+  @Rule
+  public final TemporaryFolder tempFolder = new TemporaryFolder();
+
   @Before
   public void setup() throws InjectionException {
-    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+    final Injector injector = getInjector(Tang.Factory.getTang().newConfigurationBuilder().build());
+    mockSender = injector.getInstance(MockPartitionedServerSideReplySender.class);
+    server = injector.getInstance(PartitionedParameterServer.class);
+  }
+
+  private Injector getInjector(final Configuration extraConf) throws InjectionException {
+    return getInjector(extraConf, IntegerCodec.class);
+  }
+
+  private Injector getInjector(final Configuration extraConf,
+                               final Class<? extends Codec<Integer>> valueCodecClass) throws InjectionException {
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder(extraConf)
         .bind(PartitionedServerSideReplySender.class, MockPartitionedServerSideReplySender.class)
         .bindImplementation(ServerResolver.class, SingleNodeServerResolver.class)
         .bindNamedParameter(ServerId.class, SERVER_ID_PREFIX + 0)
         .bindNamedParameter(EndpointId.class, SERVER_ID_PREFIX + 0)
         .bindNamedParameter(ParameterServerParameters.KeyCodecName.class, IntegerCodec.class)
-        .bindNamedParameter(ParameterServerParameters.ValueCodecName.class, IntegerCodec.class)
+        .bindNamedParameter(ParameterServerParameters.ValueCodecName.class, valueCodecClass)
         .bindNamedParameter(ParameterServerParameters.PreValueCodecName.class, IntegerCodec.class)
         .bindNamedParameter(NumPartitions.class, "4")
         .build();
@@ -82,8 +106,7 @@ public final class PartitionedParameterServerTest {
         return 0;
       }
     });
-    mockSender = injector.getInstance(MockPartitionedServerSideReplySender.class);
-    server = injector.getInstance(PartitionedParameterServer.class);
+    return injector;
   }
 
   /**
@@ -144,12 +167,137 @@ public final class PartitionedParameterServerTest {
     }
   }
 
+  /**
+   * Test that a model exported by {@link PartitionedParameterServer#exportModel(String)}
+   * is loaded into a new server that is configured with {@link ServerModelLoadPath}.
+   */
+  @Test
+  public void testExportAndLoad() throws InterruptedException, InjectionException, IOException {
+    final int numKeys = 100;
+    for (int key = 0; key < numKeys; key++) {
+      server.push(key, key * 2, key); // Just use key as hash for this test.
+    }
+    final String exportPath = tempFolder.newFolder().getAbsolutePath();
+    server.exportModel(exportPath);
+
+    final Injector injector = getInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(ServerModelLoadPath.class, exportPath)
+        .build());
+    final MockPartitionedServerSideReplySender loadedSender =
+        injector.getInstance(MockPartitionedServerSideReplySender.class);
+    final PartitionedParameterServer<Integer, Integer, Integer> loadedServer =
+        injector.getInstance(PartitionedParameterServer.class);
+    for (int key = 0; key < numKeys; key++) {
+      loadedServer.pull(key, "", key);
+      waitForOps(loadedServer);
+      assertEquals("value loaded from the exported model", key * 2, loadedSender.getLatest());
+    }
+  }
+
+  /**
+   * Test that constructing a server fails if a partition file of the model to load is corrupt,
+   * instead of failing on a partition thread and leaving the operations of the partition queued forever.
+   */
+  @Test(expected = InjectionException.class)
+  public void testLoadCorruptModel() throws InjectionException, IOException {
+    final File exportDir = tempFolder.newFolder();
+    server.exportModel(exportDir.getAbsolutePath());
+    try (final FileOutputStream out = new FileOutputStream(new File(exportDir, "partition-0"))) {
+      out.write(new byte[]{1, 2, 3});
+    }
+
+    final Injector injector = getInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(ServerModelLoadPath.class, exportDir.getAbsolutePath())
+        .build());
+    injector.getInstance(PartitionedParameterServer.class);
+  }
+
+  /**
+   * Test that constructing a server fails if a partition file of the model to load is missing,
+   * e.g., because the load path is mistyped, instead of starting the partition empty.
+   */
+  @Test(expected = InjectionException.class)
+  public void testLoadMissingPartition() throws InjectionException, IOException {
+    final File exportDir = tempFolder.newFolder();
+    server.exportModel(exportDir.getAbsolutePath());
+    assertTrue(new File(exportDir, "partition-0").delete());
+
+    final Injector injector = getInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(ServerModelLoadPath.class, exportDir.getAbsolutePath())
+        .build());
+    injector.getInstance(PartitionedParameterServer.class);
+  }
+
+  /**
+   * Test that an export fails if encoding a value fails, and that the failed export leaves the files
+   * of the previous export intact.
+   */
+  @Test
+  public void testFailedExportKeepsPreviousModel() throws InterruptedException, InjectionException, IOException {
+    final Injector injector = getInjector(Tang.Factory.getTang().newConfigurationBuilder().build(),
+        NonNegativeIntegerCodec.class);
+    final PartitionedParameterServer<Integer, Integer, Integer> failingServer =
+        injector.getInstance(PartitionedParameterServer.class);
+    final File exportDir = tempFolder.newFolder();
+    failingServer.push(KEY, 1, KEY);
+    failingServer.exportModel(exportDir.getAbsolutePath());
+
+    failingServer.push(KEY, -2, KEY);
+    try {
+      failingServer.exportModel(exportDir.getAbsolutePath());
+      fail("Exporting a value that cannot be encoded should fail");
+    } catch (final RuntimeException e) {
+      assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+    for (final String fileName : exportDir.list()) {
+      assertFalse("no temporary file is left behind: " + fileName, fileName.contains(".tmp"));
+    }
+
+    final Injector loadInjector = getInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(ServerModelLoadPath.class, exportDir.getAbsolutePath())
+        .build());
+    final MockPartitionedServerSideReplySender loadedSender =
+        loadInjector.getInstance(MockPartitionedServerSideReplySender.class);
+    final PartitionedParameterServer<Integer, Integer, Integer> loadedServer =
+        loadInjector.getInstance(PartitionedParameterServer.class);
+    loadedServer.pull(KEY, "", KEY);
+    waitForOps(loadedServer);
+    assertEquals("value of the previous export", 1, loadedSender.getLatest());
+  }
+
   private void waitForOps() throws InterruptedException {
-    int opsPending = server.opsPending();
+    waitForOps(server);
+  }
+
+  private static void waitForOps(final PartitionedParameterServer<?, ?, ?> targetServer)
+      throws InterruptedException {
+    int opsPending = targetServer.opsPending();
     while (opsPending > 0) {
       System.out.println("Ops Pending: " + opsPending);
       Thread.sleep(5);
-      opsPending = server.opsPending();
+      opsPending = targetServer.opsPending();
+    }
+  }
+
+  /**
+   * Integer codec that fails to encode negative values.
+   */
+  private static final class NonNegativeIntegerCodec implements Codec<Integer> {
+    @Inject
+    NonNegativeIntegerCodec() {
+    }
+
+    @Override
+    public Integer decode(final byte[] bytes) {
+      return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    @Override
+    public byte[] encode(final Integer value) {
+      if (value < 0) {
+        throw new IllegalArgumentException("Negative value: " + value);
+      }
+      return ByteBuffer.allocate(Integer.SIZE / Byte.SIZE).putInt(value).array();
     }
   }
 
@@ -15,11 +15,20 @@
  */
 package edu.snu.dolphin.ps.worker;
 
+import edu.snu.dolphin.ps.ParameterServerParameters.KeyCodecName;
 import edu.snu.dolphin.ps.TestUtils;
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumPartitions;
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumServers;
+import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
+import edu.snu.dolphin.ps.common.partitioned.resolver.SingleNodeServerResolver;
+import edu.snu.dolphin.ps.common.partitioned.resolver.StaticServerResolver;
 import edu.snu.dolphin.ps.driver.impl.ServerId;
+import edu.snu.dolphin.ps.examples.add.IntegerCodec;
 import edu.snu.dolphin.ps.worker.concurrent.ConcurrentWorkerHandler;
 import edu.snu.dolphin.ps.worker.concurrent.WorkerSideMsgSender;
 import edu.snu.dolphin.ps.worker.concurrent.ConcurrentParameterWorker;
+import edu.snu.dolphin.ps.worker.concurrent.parameters.WorkerPullRetries;
+import edu.snu.dolphin.ps.worker.concurrent.parameters.WorkerPullTimeout;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
@@ -29,10 +38,17 @@ import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
@@ -46,24 +62,29 @@ public final class ConcurrentParameterWorkerTest {
   private static final String MSG_RESULT_ASSERTION = "threads received null";
   private ConcurrentParameterWorker<Integer, Integer, Integer> worker;
   private ConcurrentWorkerHandler<Integer, Integer> handler;
+  private volatile ConcurrentWorkerHandler<Integer, Integer> retryHandler;
+  private volatile ConcurrentWorkerHandler<Integer, Integer> shardedHandler;
 
   @Before
   public void setup() throws InjectionException {
     final Configuration configuration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(ServerResolver.class, SingleNodeServerResolver.class)
         .bindNamedParameter(ServerId.class, "ServerId")
+        .bindNamedParameter(KeyCodecName.class, IntegerCodec.class)
         .build();
     final Injector injector = Tang.Factory.getTang().newInjector(configuration);
     final WorkerSideMsgSender<Integer, Integer> mockSender = mock(WorkerSideMsgSender.class);
     doAnswer(new Answer() {
       @Override
       public Object answer(final InvocationOnMock invocationOnMock) throws Throwable {
+        final long requestId = (Long) invocationOnMock.getArguments()[2];
         final Thread sendThread = new Thread(new Runnable() {
           @Override
           public void run() {
             try {
               // simulate slow network by purposely sleeping for 5 seconds
               Thread.sleep(5000);
-              handler.processReply(KEY, 1);
+              handler.processReply(KEY, 1, requestId);
             } catch (final InterruptedException e) {
               throw new RuntimeException(e);
             }
@@ -73,7 +94,7 @@ public final class ConcurrentParameterWorkerTest {
         sendThread.start();
         return null;
       }
-    }).when(mockSender).sendPullMsg(anyString(), anyInt());
+    }).when(mockSender).sendPullMsg(anyString(), anyInt(), anyLong());
 
     injector.bindVolatileInstance(WorkerSideMsgSender.class, mockSender);
     worker = injector.getInstance(ConcurrentParameterWorker.class);
@@ -109,4 +130,115 @@ public final class ConcurrentParameterWorkerTest {
     assertTrue(MSG_THREADS_NOT_FINISHED, allThreadsFinished);
     assertFalse(MSG_RESULT_ASSERTION, threadReceivedNull.get());
   }
+
+  /**
+   * Test that a pull request is sent again after {@link WorkerPullTimeout},
+   * and that the reply to the request sent again completes the pull.
+   */
+  @Test
+  public void testPullRetry() throws InjectionException {
+    final Configuration configuration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(ServerResolver.class, SingleNodeServerResolver.class)
+        .bindNamedParameter(ServerId.class, "ServerId")
+        .bindNamedParameter(KeyCodecName.class, IntegerCodec.class)
+        .bindNamedParameter(WorkerPullTimeout.class, "100")
+        .bindNamedParameter(WorkerPullRetries.class, "3")
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(configuration);
+    final AtomicInteger numSends = new AtomicInteger(0);
+    final WorkerSideMsgSender<Integer, Integer> mockSender = mock(WorkerSideMsgSender.class);
+    doAnswer(new Answer() {
+      @Override
+      public Object answer(final InvocationOnMock invocationOnMock) throws Throwable {
+        // drop the first request, and reply to the second one
+        if (numSends.incrementAndGet() == 2) {
+          retryHandler.processReply((Integer) invocationOnMock.getArguments()[1], 1,
+              (Long) invocationOnMock.getArguments()[2]);
+        }
+        return null;
+      }
+    }).when(mockSender).sendPullMsg(anyString(), anyInt(), anyLong());
+
+    injector.bindVolatileInstance(WorkerSideMsgSender.class, mockSender);
+    final ConcurrentParameterWorker<Integer, Integer, Integer> retryWorker =
+        injector.getInstance(ConcurrentParameterWorker.class);
+    retryHandler = injector.getInstance(ConcurrentWorkerHandler.class);
+
+    assertEquals("value after retry", Integer.valueOf(1), retryWorker.pull(KEY));
+    assertEquals("number of requests sent", 2, numSends.get());
+  }
+
+  /**
+   * Test that {@link ConcurrentParameterWorker#pull(List)} sends all requests before waiting for replies.
+   */
+  @Test
+  public void testPipelinedPull() {
+    final int numKeys = 8;
+    final List<Integer> keys = new ArrayList<>(numKeys);
+    for (int key = 0; key < numKeys; key++) {
+      keys.add(key);
+    }
+
+    // each reply takes 5 seconds, so pulling the keys one by one would take 40 seconds
+    final long startTime = System.currentTimeMillis();
+    final List<Integer> values = worker.pull(keys);
+    final long elapsedTime = System.currentTimeMillis() - startTime;
+
+    assertEquals(numKeys, values.size());
+    for (final Integer value : values) {
+      assertEquals(MSG_RESULT_ASSERTION, Integer.valueOf(1), value);
+    }
+    assertTrue("pulls were not pipelined", elapsedTime < 20000);
+  }
+
+  /**
+   * Test that keys are sharded across servers by {@link ServerResolver},
+   * and that pushes and pulls of a key are always sent to the same server.
+   */
+  @Test
+  public void testShardedServers() throws InjectionException {
+    final int numServers = 3;
+    final Configuration configuration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(ServerResolver.class, StaticServerResolver.class)
+        .bindNamedParameter(NumServers.class, Integer.toString(numServers))
+        .bindNamedParameter(NumPartitions.class, Integer.toString(numServers))
+        .bindNamedParameter(KeyCodecName.class, IntegerCodec.class)
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(configuration);
+    final Map<Integer, String> keyToServer = new HashMap<>();
+    final WorkerSideMsgSender<Integer, Integer> mockSender = mock(WorkerSideMsgSender.class);
+    doAnswer(new Answer() {
+      @Override
+      public Object answer(final InvocationOnMock invocationOnMock) throws Throwable {
+        final String destId = (String) invocationOnMock.getArguments()[0];
+        final Integer key = (Integer) invocationOnMock.getArguments()[1];
+        final String previous = keyToServer.put(key, destId);
+        assertTrue("key sent to different servers", previous == null || previous.equals(destId));
+        shardedHandler.processReply(key, 1, (Long) invocationOnMock.getArguments()[2]);
+        return null;
+      }
+    }).when(mockSender).sendPullMsg(anyString(), anyInt(), anyLong());
+    doAnswer(new Answer() {
+      @Override
+      public Object answer(final InvocationOnMock invocationOnMock) throws Throwable {
+        final String destId = (String) invocationOnMock.getArguments()[0];
+        final Integer key = (Integer) invocationOnMock.getArguments()[1];
+        final String previous = keyToServer.put(key, destId);
+        assertTrue("key sent to different servers", previous == null || previous.equals(destId));
+        return null;
+      }
+    }).when(mockSender).sendPushMsg(anyString(), anyInt(), anyInt());
+
+    injector.bindVolatileInstance(WorkerSideMsgSender.class, mockSender);
+    final ConcurrentParameterWorker<Integer, Integer, Integer> shardedWorker =
+        injector.getInstance(ConcurrentParameterWorker.class);
+    shardedHandler = injector.getInstance(ConcurrentWorkerHandler.class);
+
+    final int numKeys = 100;
+    for (int key = 0; key < numKeys; key++) {
+      shardedWorker.push(key, 1);
+      assertEquals(MSG_RESULT_ASSERTION, Integer.valueOf(1), shardedWorker.pull(key));
+    }
+    assertEquals("servers used", numServers, new HashSet<>(keyToServer.values()).size());
+  }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2016 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.dolphin.ps.worker.partitioned;
+
+import com.google.common.cache.CacheStats;
+import edu.snu.dolphin.ps.ParameterServerParameters.KeyCodecName;
+import edu.snu.dolphin.ps.common.partitioned.parameters.NumPartitions;
+import edu.snu.dolphin.ps.common.partitioned.resolver.ServerResolver;
+import edu.snu.dolphin.ps.common.partitioned.resolver.SingleNodeServerResolver;
+import edu.snu.dolphin.ps.driver.impl.ServerId;
+import edu.snu.dolphin.ps.examples.add.IntegerCodec;
+import edu.snu.dolphin.ps.server.api.ParameterUpdater;
+import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerCacheMaxWeight;
+import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerExpireTimeout;
+import edu.snu.dolphin.ps.worker.partitioned.parameters.WorkerNumPartitions;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import javax.inject.Inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the local cache of {@link PartitionedParameterWorker}.
+ */
+public final class PartitionedParameterWorkerTest {
+  /**
+   * The value that the mock server replies with for every key, which is also its weight.
+   */
+  private static final int VALUE = 2;
+
+  /**
+   * Max total weight of the cache, which holds {@code CACHE_MAX_WEIGHT / VALUE} values.
+   */
+  private static final int CACHE_MAX_WEIGHT = 6;
+
+  private PartitionedParameterWorker<Integer, Integer, Integer> worker;
+  private PartitionedWorkerMsgSender<Integer, Integer> mockSender;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setup() throws InjectionException {
+    final Configuration configuration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindImplementation(ServerResolver.class, SingleNodeServerResolver.class)
+        .bindImplementation(ValueWeigher.class, IdentityValueWeigher.class)
+        .bindNamedParameter(ServerId.class, "ServerId")
+        .bindNamedParameter(NumPartitions.class, "1")
+        .bindNamedParameter(KeyCodecName.class, IntegerCodec.class)
+        // A single partition, so that the whole cache is bounded by CACHE_MAX_WEIGHT and evicts in LRU order.
+        .bindNamedParameter(WorkerNumPartitions.class, "1")
+        .bindNamedParameter(WorkerCacheMaxWeight.class, String.valueOf(CACHE_MAX_WEIGHT))
+        .bindNamedParameter(WorkerExpireTimeout.class, "60000")
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(configuration);
+    injector.bindVolatileInstance(ParameterUpdater.class, new ParameterUpdater<Integer, Integer, Integer>() {
+      @Override
+      public Integer process(final Integer key, final Integer preValue) {
+        return preValue;
+      }
+
+      @Override
+      public Integer update(final Integer oldValue, final Integer deltaValue) {
+        return oldValue + deltaValue;
+      }
+
+      @Override
+      public Integer initValue(final Integer key) {
+        return 0;
+      }
+    });
+
+    mockSender = mock(PartitionedWorkerMsgSender.class);
+    doAnswer(new Answer() {
+      @Override
+      public Object answer(final InvocationOnMock invocationOnMock) throws Throwable {
+        final EncodedKey<Integer> encodedKey = (EncodedKey<Integer>) invocationOnMock.getArguments()[1];
+        worker.processReply(encodedKey.getKey(), VALUE);
+        return null;
+      }
+    }).when(mockSender).sendPullMsg(anyString(), any(EncodedKey.class));
+    injector.bindVolatileInstance(PartitionedWorkerMsgSender.class, mockSender);
+
+    worker = injector.getInstance(PartitionedParameterWorker.class);
+  }
+
+  @After
+  public void tearDown() {
+    worker.close();
+  }
+
+  /**
+   * Test that pulling more keys than fit in the cache evicts the least recently used ones,
+   * and that {@link PartitionedParameterWorker#getCacheStats()} counts the hits, misses, and evictions.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCacheEviction() {
+    final int numKeys = 5;
+    for (int key = 0; key < numKeys; key++) {
+      assertEquals(VALUE, (int) worker.pull(key));
+    }
+    // Only the last three keys fit, so keys 0 and 1 are evicted.
+    assertEquals(VALUE, (int) worker.pull(numKeys - 1));
+    assertEquals(VALUE, (int) worker.pull(0));
+
+    verify(mockSender, times(numKeys + 1)).sendPullMsg(anyString(), any(EncodedKey.class));
+    final CacheStats cacheStats = worker.getCacheStats();
+    assertEquals(1, cacheStats.hitCount());
+    assertEquals(numKeys + 1, cacheStats.missCount());
+    assertEquals(3, cacheStats.evictionCount());
+  }
+
+  /**
+   * Weighs an integer value by itself.
+   */
+  private static final class IdentityValueWeigher implements ValueWeigher<Integer> {
+    @Inject
+    IdentityValueWeigher() {
+    }
+
+    @Override
+    public int weigh(final Integer value) {
+      return value;
+    }
+  }
+}